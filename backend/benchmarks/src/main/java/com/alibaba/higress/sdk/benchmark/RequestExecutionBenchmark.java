@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2022-2024 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.higress.sdk.benchmark;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.alibaba.higress.sdk.model.CommonPageQuery;
+import com.alibaba.higress.sdk.model.PaginatedResult;
+import com.alibaba.higress.sdk.service.kubernetes.KubernetesModelConverter;
+import com.alibaba.higress.sdk.util.VirtualThreadUtil;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import io.kubernetes.client.openapi.models.V1Ingress;
+
+/**
+ * Request handling throughput on a bounded pool of platform threads, sized like the default Tomcat worker pool, versus
+ * a virtual thread per request. Each request waits for a simulated API server call and then converts and paginates
+ * the Ingresses like the route list API does. Bursts of {@code concurrency} requests are submitted at once, and the
+ * {@code requests} counter reports requests per second.
+ * <p>
+ * Only the {@code platform} mode runs by default, since the project targets Java 17. Pass {@code -p mode=virtual} on a
+ * Java 21+ runtime to measure virtual threads.
+ *
+ * @author CH3CHO
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RequestExecutionBenchmark {
+
+    private static final String PLATFORM_THREADS = "platform";
+    private static final String VIRTUAL_THREADS = "virtual";
+    /**
+     * The default maximum number of Tomcat worker threads.
+     */
+    private static final int PLATFORM_POOL_SIZE = 200;
+
+    /**
+     * {@value #PLATFORM_THREADS} or {@value #VIRTUAL_THREADS}
+     */
+    @Param({PLATFORM_THREADS})
+    private String mode;
+
+    @Param({"1000"})
+    private int concurrency;
+
+    @Param({"20"})
+    private int apiServerLatencyMillis;
+
+    @Param({"100"})
+    private int routeCount;
+
+    private ExecutorService executor;
+    private KubernetesModelConverter converter;
+    private List<V1Ingress> ingresses;
+    private CommonPageQuery query;
+    private volatile int sink;
+
+    @Setup
+    public void setUp() {
+        if (VIRTUAL_THREADS.equals(mode)) {
+            executor = VirtualThreadUtil.newThreadPerTaskExecutor("RequestExecutionBenchmark-");
+        } else {
+            executor = new ThreadPoolExecutor(PLATFORM_POOL_SIZE, PLATFORM_POOL_SIZE, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("RequestExecutionBenchmark-%d").build());
+        }
+        converter = SyntheticData.newConverter();
+        ingresses = SyntheticData.ingresses(converter, routeCount);
+        query = new CommonPageQuery(1, PaginatedResult.DEFAULT_PAGE_SIZE);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public void burst(RequestCounters counters) throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(concurrency);
+        for (int i = 0; i < concurrency; ++i) {
+            executor.execute(() -> {
+                try {
+                    handleRequest();
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        latch.await();
+        counters.requests += concurrency;
+    }
+
+    private void handleRequest() {
+        try {
+            Thread.sleep(apiServerLatencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        sink = PaginatedResult.createFromFullList(ingresses, query, converter::ingress2Route).getData().size();
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class RequestCounters {
+
+        public long requests;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            requests = 0;
+        }
+    }
+}
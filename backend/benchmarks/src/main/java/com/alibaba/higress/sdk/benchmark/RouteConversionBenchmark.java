@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2022-2024 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.higress.sdk.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.alibaba.higress.sdk.model.Route;
+import com.alibaba.higress.sdk.service.kubernetes.KubernetesModelConverter;
+
+import io.kubernetes.client.openapi.models.V1Ingress;
+
+/**
+ * Conversions between Ingresses and routes, which happen once per route on every route listing.
+ *
+ * @author CH3CHO
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RouteConversionBenchmark {
+
+    @Param({"1000"})
+    private int routeCount;
+
+    private KubernetesModelConverter converter;
+    private List<V1Ingress> ingresses;
+    private Route[] routes;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        converter = SyntheticData.newConverter();
+        ingresses = SyntheticData.ingresses(converter, routeCount);
+        routes = new Route[routeCount];
+        for (int i = 0; i < routeCount; ++i) {
+            routes[i] = SyntheticData.route(i);
+        }
+    }
+
+    @Benchmark
+    public Route ingress2Route() {
+        return converter.ingress2Route(ingresses.get(next()));
+    }
+
+    @Benchmark
+    public V1Ingress route2Ingress() {
+        return converter.route2Ingress(routes[next()]);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Route> ingress2RouteFullList() {
+        return ingresses.stream().map(converter::ingress2Route).toList();
+    }
+
+    private int next() {
+        int index = cursor;
+        cursor = index + 1 == routeCount ? 0 : index + 1;
+        return index;
+    }
+}
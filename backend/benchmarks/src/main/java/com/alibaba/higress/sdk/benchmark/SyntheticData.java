@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2022-2024 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.higress.sdk.benchmark;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.SecureRandom;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.security.auth.x500.X500Principal;
+
+import org.bouncycastle.asn1.x509.GeneralName;
+import org.bouncycastle.asn1.x509.GeneralNames;
+import org.bouncycastle.asn1.x509.X509Extensions;
+import org.bouncycastle.x509.X509V3CertificateGenerator;
+
+import com.alibaba.higress.sdk.constant.KubernetesConstants;
+import com.alibaba.higress.sdk.model.Route;
+import com.alibaba.higress.sdk.model.route.CorsConfig;
+import com.alibaba.higress.sdk.model.route.KeyedRoutePredicate;
+import com.alibaba.higress.sdk.model.route.RewriteConfig;
+import com.alibaba.higress.sdk.model.route.RoutePredicate;
+import com.alibaba.higress.sdk.model.route.RoutePredicateTypeEnum;
+import com.alibaba.higress.sdk.model.route.UpstreamService;
+import com.alibaba.higress.sdk.service.kubernetes.KubernetesClientService;
+import com.alibaba.higress.sdk.service.kubernetes.KubernetesModelConverter;
+import com.alibaba.higress.sdk.service.kubernetes.crd.wasm.MatchRule;
+import com.alibaba.higress.sdk.service.kubernetes.crd.wasm.V1alpha1WasmPlugin;
+import com.alibaba.higress.sdk.service.kubernetes.crd.wasm.V1alpha1WasmPluginSpec;
+
+import io.kubernetes.client.openapi.ApiException;
+import io.kubernetes.client.openapi.models.V1Ingress;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import io.kubernetes.client.openapi.models.V1Secret;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Generators of synthetic but realistically sized objects used by the benchmarks.
+ *
+ * @author CH3CHO
+ */
+public final class SyntheticData {
+
+    private static final String PLUGIN_NAME = "key-auth";
+    private static final String PLUGIN_VERSION = "1.0.0";
+
+    private SyntheticData() {}
+
+    /**
+     * Creates a mocked client, so no cluster is needed. WasmPlugin CRs are listed as empty, and all the other reads
+     * return {@code null}.
+     */
+    public static KubernetesClientService newKubernetesClientService() {
+        KubernetesClientService kubernetesClientService = mock(KubernetesClientService.class);
+        try {
+            when(kubernetesClientService.listWasmPlugin()).thenReturn(Collections.emptyList());
+        } catch (ApiException e) {
+            // Never happens on a mock.
+            throw new IllegalStateException(e);
+        }
+        return kubernetesClientService;
+    }
+
+    /**
+     * Creates a converter backed by {@link #newKubernetesClientService()}.
+     */
+    public static KubernetesModelConverter newConverter() {
+        return new KubernetesModelConverter(newKubernetesClientService());
+    }
+
+    public static String routeName(int i) {
+        return "route-" + i;
+    }
+
+    public static String domainName(int i) {
+        return "www" + i + ".example.com";
+    }
+
+    public static Route route(int i) {
+        Route route = new Route();
+        route.setName(routeName(i));
+        route.setDomains(List.of(domainName(i % 50)));
+        route.setPath(new RoutePredicate(RoutePredicateTypeEnum.PRE.toString(), "/api/v1/service-" + i, true));
+        route.setMethods(List.of("GET", "POST"));
+        route.setHeaders(List.of(keyedPredicate("x-tenant", RoutePredicateTypeEnum.EQUAL, "tenant-" + (i % 10))));
+        route.setUrlParams(List.of(keyedPredicate("version", RoutePredicateTypeEnum.PRE, "v")));
+        route.setServices(List.of(new UpstreamService("service-" + i + ".default.svc.cluster.local", 8080, null, 80),
+            new UpstreamService("service-" + i + "-canary.default.svc.cluster.local", 8080, null, 20)));
+        RewriteConfig rewrite = new RewriteConfig();
+        rewrite.setEnabled(true);
+        rewrite.setPath("/");
+        route.setRewrite(rewrite);
+        CorsConfig cors = new CorsConfig();
+        cors.setEnabled(true);
+        cors.setAllowOrigins(List.of("*"));
+        cors.setAllowMethods(List.of("GET", "POST", "PUT"));
+        route.setCors(cors);
+        Map<String, String> customConfigs = new HashMap<>();
+        customConfigs.put("higress.io/connection-policy-tcp-max-connection", "100");
+        route.setCustomConfigs(customConfigs);
+        return route;
+    }
+
+    private static KeyedRoutePredicate keyedPredicate(String key, RoutePredicateTypeEnum type, String value) {
+        KeyedRoutePredicate predicate = new KeyedRoutePredicate(key);
+        predicate.setMatchType(type.toString());
+        predicate.setMatchValue(value);
+        predicate.setCaseSensitive(true);
+        return predicate;
+    }
+
+    public static V1Ingress ingress(KubernetesModelConverter converter, int i) {
+        V1Ingress ingress = converter.route2Ingress(route(i));
+        ingress.getMetadata().setResourceVersion(String.valueOf(i));
+        return ingress;
+    }
+
+    public static List<V1Ingress> ingresses(KubernetesModelConverter converter, int count) {
+        List<V1Ingress> ingresses = new ArrayList<>(count);
+        for (int i = 0; i < count; ++i) {
+            ingresses.add(ingress(converter, i));
+        }
+        return ingresses;
+    }
+
+    /**
+     * Builds a WasmPlugin CR with a global config, {@code routeRuleCount} route rules and {@code domainRuleCount}
+     * domain rules, mirroring the layout written by the console.
+     */
+    public static V1alpha1WasmPlugin wasmPlugin(int routeRuleCount, int domainRuleCount) {
+        V1alpha1WasmPlugin cr = new V1alpha1WasmPlugin();
+        V1ObjectMeta metadata = new V1ObjectMeta();
+        metadata.setName(PLUGIN_NAME + "-" + PLUGIN_VERSION);
+        metadata.setResourceVersion("1");
+        Map<String, String> labels = new HashMap<>();
+        labels.put(KubernetesConstants.Label.WASM_PLUGIN_NAME_KEY, PLUGIN_NAME);
+        labels.put(KubernetesConstants.Label.WASM_PLUGIN_VERSION_KEY, PLUGIN_VERSION);
+        metadata.setLabels(labels);
+        cr.setMetadata(metadata);
+
+        V1alpha1WasmPluginSpec spec = new V1alpha1WasmPluginSpec();
+        spec.setDefaultConfigDisable(false);
+        spec.setDefaultConfig(keyAuthConfig(-1));
+        List<MatchRule> matchRules = new ArrayList<>(routeRuleCount + domainRuleCount);
+        for (int i = 0; i < routeRuleCount; ++i) {
+            matchRules.add(new MatchRule(false, keyAuthConfig(i), null, new ArrayList<>(List.of(routeName(i)))));
+        }
+        for (int i = 0; i < domainRuleCount; ++i) {
+            matchRules.add(new MatchRule(false, keyAuthConfig(i), new ArrayList<>(List.of(domainName(i))), null));
+        }
+        spec.setMatchRules(matchRules);
+        cr.setSpec(spec);
+        return cr;
+    }
+
+    private static Map<String, Object> keyAuthConfig(int i) {
+        Map<String, Object> config = new HashMap<>();
+        config.put("keys", List.of("x-api-key"));
+        config.put("in_header", true);
+        config.put("allow", List.of("consumer-" + i));
+        List<Map<String, Object>> consumers = new ArrayList<>();
+        for (int j = 0; j < 5; ++j) {
+            Map<String, Object> consumer = new HashMap<>();
+            consumer.put("name", "consumer-" + j);
+            consumer.put("credential", "credential-" + i + "-" + j);
+            consumers.add(consumer);
+        }
+        config.put("consumers", consumers);
+        return config;
+    }
+
+    /**
+     * Builds a TLS secret holding a freshly generated self-signed certificate bound to {@code domainCount} domains.
+     */
+    @SuppressWarnings("deprecation")
+    public static V1Secret tlsSecret(String name, int domainCount) {
+        try {
+            KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+            keyPairGenerator.initialize(2048, new SecureRandom());
+            KeyPair keyPair = keyPairGenerator.generateKeyPair();
+
+            X509V3CertificateGenerator generator = new X509V3CertificateGenerator();
+            X500Principal principal = new X500Principal("CN=" + domainName(0) + ", O=Higress, C=CN");
+            long now = System.currentTimeMillis();
+            generator.setSerialNumber(BigInteger.valueOf(now));
+            generator.setIssuerDN(principal);
+            generator.setSubjectDN(principal);
+            generator.setNotBefore(new Date(now - TimeUnit.DAYS.toMillis(1)));
+            generator.setNotAfter(new Date(now + TimeUnit.DAYS.toMillis(365)));
+            generator.setPublicKey(keyPair.getPublic());
+            generator.setSignatureAlgorithm("SHA256WithRSA");
+            GeneralName[] names = new GeneralName[domainCount];
+            for (int i = 0; i < domainCount; ++i) {
+                names[i] = new GeneralName(GeneralName.dNSName, domainName(i));
+            }
+            generator.addExtension(X509Extensions.SubjectAlternativeName, false, new GeneralNames(names));
+            X509Certificate certificate = generator.generate(keyPair.getPrivate());
+
+            V1Secret secret = new V1Secret();
+            V1ObjectMeta metadata = new V1ObjectMeta();
+            metadata.setName(name);
+            metadata.setResourceVersion("1");
+            secret.setMetadata(metadata);
+            secret.setType(KubernetesConstants.SECRET_TYPE_TLS);
+            Map<String, byte[]> data = new HashMap<>();
+            data.put(KubernetesConstants.SECRET_TLS_CRT_FIELD, toPem("CERTIFICATE", certificate.getEncoded()));
+            data.put(KubernetesConstants.SECRET_TLS_KEY_FIELD, toPem("PRIVATE KEY", keyPair.getPrivate().getEncoded()));
+            secret.setData(data);
+            return secret;
+        } catch (Exception e) {
+            throw new IllegalStateException("Error occurs when generating a self-signed certificate.", e);
+        }
+    }
+
+    private static byte[] toPem(String type, byte[] der) {
+        String body = Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.US_ASCII)).encodeToString(der);
+        String pem = "-----BEGIN " + type + "-----\n" + body + "\n-----END " + type + "-----\n";
+        return pem.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2022-2024 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.higress.sdk.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.alibaba.higress.sdk.model.TlsCertificate;
+import com.alibaba.higress.sdk.service.kubernetes.KubernetesModelConverter;
+
+import io.kubernetes.client.openapi.models.V1Secret;
+
+/**
+ * Parsing TLS secrets into certificates, which happens once per certificate on every certificate listing.
+ *
+ * @author CH3CHO
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TlsCertificateBenchmark {
+
+    @Param({"1", "50"})
+    private int domainCount;
+
+    private KubernetesModelConverter converter;
+    private V1Secret secret;
+
+    @Setup
+    public void setUp() {
+        converter = SyntheticData.newConverter();
+        secret = SyntheticData.tlsSecret("benchmark-cert", domainCount);
+    }
+
+    @Benchmark
+    public TlsCertificate secret2TlsCertificate() {
+        return converter.secret2TlsCertificate(secret);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2022-2024 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.higress.sdk.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.alibaba.higress.sdk.model.WasmPluginInstance;
+import com.alibaba.higress.sdk.model.WasmPluginInstanceScope;
+import com.alibaba.higress.sdk.service.kubernetes.KubernetesModelConverter;
+import com.alibaba.higress.sdk.service.kubernetes.crd.wasm.V1alpha1WasmPlugin;
+
+/**
+ * Reading and editing plugin instances on WasmPlugin CRs with many match rules.
+ *
+ * @author CH3CHO
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WasmPluginInstanceBenchmark {
+
+    private static final String NEW_ROUTE_NAME = "route-new";
+
+    @Param({"100", "1000", "5000"})
+    private int routeRuleCount;
+
+    @Param({"50"})
+    private int domainRuleCount;
+
+    private KubernetesModelConverter converter;
+    private V1alpha1WasmPlugin cr;
+    private String lastRouteName;
+    private String lastDomainName;
+    private WasmPluginInstance newRouteInstance;
+
+    @Setup
+    public void setUp() {
+        converter = SyntheticData.newConverter();
+        cr = SyntheticData.wasmPlugin(routeRuleCount, domainRuleCount);
+        lastRouteName = SyntheticData.routeName(routeRuleCount - 1);
+        lastDomainName = SyntheticData.domainName(domainRuleCount - 1);
+        newRouteInstance = WasmPluginInstance.builder().scope(WasmPluginInstanceScope.ROUTE).target(NEW_ROUTE_NAME)
+            .enabled(true).configurations(Map.of("allow", NEW_ROUTE_NAME)).build();
+    }
+
+    @Benchmark
+    public WasmPluginInstance getGlobalInstance() {
+        return converter.getWasmPluginInstanceFromCr(cr, WasmPluginInstanceScope.GLOBAL, null);
+    }
+
+    @Benchmark
+    public WasmPluginInstance getRouteInstance() {
+        return converter.getWasmPluginInstanceFromCr(cr, WasmPluginInstanceScope.ROUTE, lastRouteName);
+    }
+
+    @Benchmark
+    public WasmPluginInstance getDomainInstance() {
+        return converter.getWasmPluginInstanceFromCr(cr, WasmPluginInstanceScope.DOMAIN, lastDomainName);
+    }
+
+    @Benchmark
+    public WasmPluginInstance getMissingRouteInstance() {
+        return converter.getWasmPluginInstanceFromCr(cr, WasmPluginInstanceScope.ROUTE, NEW_ROUTE_NAME);
+    }
+
+    @Benchmark
+    public boolean addThenRemoveRouteInstance() {
+        converter.setWasmPluginInstanceToCr(cr, newRouteInstance);
+        return converter.removeWasmPluginInstanceFromCr(cr, WasmPluginInstanceScope.ROUTE, NEW_ROUTE_NAME);
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2022-2024 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.higress.sdk.service;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.alibaba.higress.sdk.benchmark.SyntheticData;
+import com.alibaba.higress.sdk.model.PaginatedResult;
+import com.alibaba.higress.sdk.model.WasmPlugin;
+import com.alibaba.higress.sdk.model.WasmPluginConfig;
+import com.alibaba.higress.sdk.model.WasmPluginPageQuery;
+import com.alibaba.higress.sdk.service.kubernetes.KubernetesClientService;
+import com.alibaba.higress.sdk.service.kubernetes.KubernetesModelConverter;
+
+/**
+ * Built-in plugin catalog operations. It lives in the service package because the service implementation is
+ * package-private. The public entry, {@link HigressServiceProvider}, needs a reachable cluster to be created, and a
+ * round trip to the API server on each call would bury the catalog cost being measured here.
+ *
+ * @author CH3CHO
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WasmPluginCatalogBenchmark {
+
+    @Param({"key-auth", "ai-proxy"})
+    private String pluginName;
+
+    @Param({"en-US", "zh-CN"})
+    private String language;
+
+    private WasmPluginServiceImpl service;
+    private WasmPluginPageQuery listQuery;
+
+    @Setup
+    public void setUp() throws Exception {
+        KubernetesClientService kubernetesClientService = SyntheticData.newKubernetesClientService();
+        KubernetesModelConverter kubernetesModelConverter = new KubernetesModelConverter(kubernetesClientService);
+        service = new WasmPluginServiceImpl(kubernetesClientService, kubernetesModelConverter);
+        service.initialize();
+        listQuery = new WasmPluginPageQuery(language);
+    }
+
+    @Benchmark
+    public PaginatedResult<WasmPlugin> buildWasmPlugins() {
+        return service.list(listQuery);
+    }
+
+    @Benchmark
+    public WasmPluginConfig buildWasmPluginConfig() {
+        return service.queryConfig(pluginName, language);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public WasmPluginServiceImpl initialize() {
+        WasmPluginServiceImpl newService = new WasmPluginServiceImpl(null, null);
+        newService.initialize();
+        return newService;
+    }
+}
@@ -12,17 +12,34 @@
  */
 package com.alibaba.higress.console;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import javax.servlet.http.HttpServletRequest;
 
+import org.springframework.cache.concurrent.ConcurrentMapCache;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.AbstractResource;
 import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.lang.NonNull;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.AbstractResourceResolver;
+import org.springframework.web.servlet.resource.CachingResourceResolver;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.HttpResource;
 import org.springframework.web.servlet.resource.PathResourceResolver;
 import org.springframework.web.servlet.resource.ResourceResolverChain;
 
@@ -30,24 +47,177 @@ import org.springframework.web.servlet.resource.ResourceResolverChain;
 @EnableWebMvc
 public class WebMvcInitializer implements WebMvcConfigurer {
 
-    private static final List<String> API_PATH_PREFIXES = Arrays.asList("/v1/");
+    private static final String STATIC_RESOURCE_LOCATION = "classpath:/static/";
 
-    private static final String HOMEPAGE_PATH = "/index.html";
+    private static final String RESOURCE_CACHE_NAME = "static-resources";
+
+    private static final List<String> API_PATH_PREFIXES = Arrays.asList("v1/");
+
+    private static final String HOMEPAGE_PATH = "index.html";
+
+    /**
+     * Matches file names fingerprinted by the frontend build, e.g. "main.3f2a9c1b.js".
+     */
+    private static final Pattern FINGERPRINTED_PATH_PATTERN = Pattern.compile("\\.[0-9a-f]{8,}\\.\\w+$");
+
+    private static final String FINGERPRINTED_CACHE_CONTROL =
+        CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().getHeaderValue() + ", immutable";
+
+    private static final String DEFAULT_CACHE_CONTROL = CacheControl.noCache().getHeaderValue();
 
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        registry.addResourceHandler("/*").addResourceLocations("classpath:/static/").setUseLastModified(true)
-            .resourceChain(true).addResolver(new PathResourceResolver() {
-                @Override
-                protected Resource resolveResourceInternal(HttpServletRequest request, @NonNull String requestPath,
-                    @NonNull List<? extends Resource> locations, @NonNull ResourceResolverChain chain) {
-                    Resource resource = super.resolveResourceInternal(request, requestPath, locations, chain);
-                    if (resource == null && API_PATH_PREFIXES.stream().noneMatch(requestPath::startsWith)) {
-                        // Resource not found. Fallback to the homepage.
-                        resource = super.resolveResourceInternal(request, HOMEPAGE_PATH, locations, chain);
-                    }
-                    return resource;
-                }
-            });
+        // The fallback resolver goes before the caching one, so only the bundled files themselves get cached instead
+        // of one homepage entry per frontend route.
+        registry.addResourceHandler("/*").addResourceLocations(STATIC_RESOURCE_LOCATION).setUseLastModified(true)
+            .resourceChain(false).addResolver(new HomepageFallbackResolver(listStaticResources()))
+            .addResolver(new CachingResourceResolver(new ConcurrentMapCache(RESOURCE_CACHE_NAME)))
+            .addResolver(new EncodedResourceResolver()).addResolver(new CacheControlledPathResourceResolver());
+    }
+
+    private static Set<String> listStaticResources() {
+        try {
+            Resource[] resources =
+                new PathMatchingResourcePatternResolver().getResources(STATIC_RESOURCE_LOCATION + "*");
+            return Arrays.stream(resources).filter(Resource::isReadable).map(Resource::getFilename)
+                .filter(Objects::nonNull).collect(Collectors.toSet());
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to list static resources.", e);
+        }
+    }
+
+    private static String normalizePath(String path) {
+        return path.startsWith("/") ? path.substring(1) : path;
+    }
+
+    private static boolean isFingerprinted(String path) {
+        return FINGERPRINTED_PATH_PATTERN.matcher(path).find();
+    }
+
+    /**
+     * Falls back to the homepage for paths outside the static bundle, i.e. routes of the frontend, without looking
+     * them up on the classpath. The bundle is fixed in the package, so it is listed only once.
+     */
+    private static class HomepageFallbackResolver extends AbstractResourceResolver {
+
+        private final Set<String> staticResources;
+
+        private HomepageFallbackResolver(Set<String> staticResources) {
+            this.staticResources = staticResources;
+        }
+
+        @Override
+        protected Resource resolveResourceInternal(HttpServletRequest request, @NonNull String requestPath,
+            @NonNull List<? extends Resource> locations, @NonNull ResourceResolverChain chain) {
+            String path = normalizePath(requestPath);
+            if (staticResources.contains(path)) {
+                return chain.resolveResource(request, path, locations);
+            }
+            if (isFingerprinted(path) || API_PATH_PREFIXES.stream().anyMatch(path::startsWith)) {
+                // A stale asset reference or an API call. The homepage isn't a sensible answer to either.
+                return null;
+            }
+            return chain.resolveResource(request, HOMEPAGE_PATH, locations);
+        }
+
+        @Override
+        protected String resolveUrlPathInternal(@NonNull String resourceUrlPath,
+            @NonNull List<? extends Resource> locations, @NonNull ResourceResolverChain chain) {
+            return chain.resolveUrlPath(resourceUrlPath, locations);
+        }
+    }
+
+    /**
+     * Lets fingerprinted files be cached for good, and makes browsers revalidate everything else, the homepage in
+     * particular, so a new version gets picked up right away.
+     */
+    private static class CacheControlledPathResourceResolver extends PathResourceResolver {
+
+        @Override
+        protected Resource getResource(@NonNull String resourcePath, @NonNull Resource location) throws IOException {
+            Resource resource = super.getResource(resourcePath, location);
+            if (resource == null) {
+                return null;
+            }
+            String cacheControl = isFingerprinted(resourcePath) ? FINGERPRINTED_CACHE_CONTROL : DEFAULT_CACHE_CONTROL;
+            return new CacheControlledResource(resource, cacheControl);
+        }
+    }
+
+    /**
+     * Encoded variants are looked up with {@link #createRelative(String)} and inherit the headers of this resource.
+     */
+    private static class CacheControlledResource extends AbstractResource implements HttpResource {
+
+        private final Resource resource;
+        private final String cacheControl;
+
+        private CacheControlledResource(Resource resource, String cacheControl) {
+            this.resource = resource;
+            this.cacheControl = cacheControl;
+        }
+
+        @Override
+        public boolean exists() {
+            return resource.exists();
+        }
+
+        @Override
+        public boolean isReadable() {
+            return resource.isReadable();
+        }
+
+        @Override
+        public boolean isFile() {
+            return resource.isFile();
+        }
+
+        @NonNull
+        @Override
+        public File getFile() throws IOException {
+            return resource.getFile();
+        }
+
+        @Override
+        public long contentLength() throws IOException {
+            return resource.contentLength();
+        }
+
+        @Override
+        public long lastModified() throws IOException {
+            return resource.lastModified();
+        }
+
+        @NonNull
+        @Override
+        public Resource createRelative(@NonNull String relativePath) throws IOException {
+            return resource.createRelative(relativePath);
+        }
+
+        @Override
+        public String getFilename() {
+            return resource.getFilename();
+        }
+
+        @NonNull
+        @Override
+        public String getDescription() {
+            return resource.getDescription();
+        }
+
+        @NonNull
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return resource.getInputStream();
+        }
+
+        @NonNull
+        @Override
+        public HttpHeaders getResponseHeaders() {
+            // A new instance every time since the caller may add its own headers.
+            HttpHeaders headers = new HttpHeaders();
+            headers.setCacheControl(cacheControl);
+            return headers;
+        }
     }
-}
\ No newline at end of file
+}
@@ -12,12 +12,23 @@
  */
 package com.alibaba.higress.console.aop;
 
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import javax.annotation.Resource;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.Signature;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -25,6 +36,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
+import com.alibaba.higress.console.config.BulkheadConfig;
 import com.alibaba.higress.console.context.HttpContext;
 import com.alibaba.higress.console.controller.HealthzController;
 import com.alibaba.higress.console.controller.SessionController;
@@ -32,6 +44,8 @@ import com.alibaba.higress.console.controller.SystemController;
 import com.alibaba.higress.console.controller.dto.Response;
 import com.alibaba.higress.console.controller.dto.User;
 import com.alibaba.higress.console.controller.exception.AuthException;
+import com.alibaba.higress.console.controller.exception.BulkheadFullException;
+import com.alibaba.higress.console.service.Bulkhead;
 import com.alibaba.higress.console.service.SessionService;
 import com.alibaba.higress.console.service.SessionUserHelper;
 import com.alibaba.higress.sdk.exception.BusinessException;
@@ -39,6 +53,9 @@ import com.alibaba.higress.sdk.exception.NotFoundException;
 import com.alibaba.higress.sdk.exception.ResourceConflictException;
 import com.alibaba.higress.sdk.exception.ValidationException;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -49,21 +66,49 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class ApiStandardizationAspect {
 
+    private static final String REQUEST_METRIC_NAME = "higress.console.api.requests";
+    private static final String ERROR_METRIC_NAME = "higress.console.api.errors";
+    private static final Duration MIN_EXPECTED_LATENCY = Duration.ofMillis(1);
+    private static final Duration MAX_EXPECTED_LATENCY = Duration.ofSeconds(30);
+    private static final String MANAGEMENT_API_PATH_PREFIX = "/v1/";
+
     private SessionService sessionService;
+    private MeterRegistry meterRegistry;
+    private Bulkhead managementApiBulkhead;
+
+    /**
+     * Timers of each controller method, indexed by {@link Outcome#ordinal()}.
+     */
+    private final Map<Method, Timer[]> requestTimers = new ConcurrentHashMap<>();
 
     @Resource
     public void setSessionService(SessionService sessionService) {
         this.sessionService = sessionService;
     }
 
+    @Resource
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Resource(name = BulkheadConfig.MANAGEMENT_API_BULKHEAD)
+    public void setManagementApiBulkhead(Bulkhead managementApiBulkhead) {
+        this.managementApiBulkhead = managementApiBulkhead;
+    }
+
     @Around("execution(* com.alibaba.higress.console.controller.*Controller.*(..))")
     public Object intercept(ProceedingJoinPoint point) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        int status = HttpStatus.OK.value();
+
         ServletRequestAttributes requestAttributes =
             (ServletRequestAttributes)RequestContextHolder.getRequestAttributes();
         if (requestAttributes != null) {
             HttpContext.init(requestAttributes.getRequest(), requestAttributes.getResponse());
         }
 
+        Bulkhead bulkhead = null;
+        boolean timedAsync = false;
         try {
             if (isLoginRequired(point)) {
                 if (requestAttributes == null) {
@@ -75,11 +120,26 @@ public class ApiStandardizationAspect {
                 }
                 SessionUserHelper.setCurrentUser(user);
             }
+            if (isManagementApi(requestAttributes)) {
+                managementApiBulkhead.acquire();
+                bulkhead = managementApiBulkhead;
+            }
             Object result = point.proceed();
             if (requestAttributes != null && requestAttributes.getResponse() != null
                 && HttpMethod.DELETE.name().equals(requestAttributes.getRequest().getMethod())) {
                 requestAttributes.getResponse().setStatus(HttpStatus.NO_CONTENT.value());
             }
+            if (requestAttributes != null && requestAttributes.getRequest().isAsyncStarted()) {
+                // The response is still being written. Only the end of it tells how long it took and how it went.
+                timedAsync = timeAsyncRequest(requestAttributes.getRequest(), sample,
+                    (MethodSignature)point.getSignature());
+            }
+            if (result instanceof ResponseEntity<?>) {
+                status = ((ResponseEntity<?>)result).getStatusCodeValue();
+            } else if (requestAttributes != null && requestAttributes.getResponse() != null) {
+                // E.g. proxied requests writing the response by themselves.
+                status = requestAttributes.getResponse().getStatus();
+            }
             return result;
         } catch (Throwable t) {
             Signature signature = point.getSignature();
@@ -89,17 +149,65 @@ public class ApiStandardizationAspect {
             if (t instanceof AuthException || t instanceof ValidationException || t instanceof NotFoundException
                 || t instanceof ResourceConflictException) {
                 log.warn(msg, t);
+            } else if (t instanceof BulkheadFullException) {
+                // Expected under bursts. Stack traces would only flood the log.
+                log.warn("{}: {}", msg, t.getMessage());
             } else {
                 log.error(msg, t);
             }
+            status = getHttpStatus(t);
+            Counter.builder(ERROR_METRIC_NAME).description("Exceptions thrown by console API calls.")
+                .tag("controller", getControllerName(signature)).tag("method", methodName)
+                .tag("exception", t.getClass().getSimpleName()).register(meterRegistry).increment();
             Response<Object> response = Response.failure(t);
-            return ResponseEntity.status(getHttpStatus(t)).body(response);
+            return ResponseEntity.status(status).body(response);
         } finally {
+            if (bulkhead != null) {
+                bulkhead.release();
+            }
             SessionUserHelper.clearCurrentUser();
             HttpContext.release();
+            if (!timedAsync) {
+                sample.stop(getRequestTimer((MethodSignature)point.getSignature(), Outcome.of(status)));
+            }
+        }
+    }
+
+    /**
+     * @return whether the sample will be stopped when the async request ends
+     */
+    private boolean timeAsyncRequest(HttpServletRequest request, Timer.Sample sample, MethodSignature signature) {
+        try {
+            request.getAsyncContext().addListener(new AsyncRequestTimer(sample, signature));
+            return true;
+        } catch (IllegalStateException e) {
+            // Already completed.
+            return false;
         }
     }
 
+    private Timer getRequestTimer(MethodSignature signature, Outcome outcome) {
+        // Signature objects are created per call, so they can't be used as keys.
+        Timer[] timers =
+            requestTimers.computeIfAbsent(signature.getMethod(), m -> new Timer[Outcome.values().length]);
+        Timer timer = timers[outcome.ordinal()];
+        if (timer == null) {
+            // Timers are only registered for outcomes actually seen to keep the number of histogram series down.
+            // A race here is harmless since the registry returns the same timer for the same ID.
+            timer = Timer.builder(REQUEST_METRIC_NAME).description("Latency of console API calls.")
+                .tag("controller", getControllerName(signature)).tag("method", signature.getName())
+                .tag("outcome", outcome.getTag()).publishPercentileHistogram()
+                .minimumExpectedValue(MIN_EXPECTED_LATENCY).maximumExpectedValue(MAX_EXPECTED_LATENCY)
+                .register(meterRegistry);
+            timers[outcome.ordinal()] = timer;
+        }
+        return timer;
+    }
+
+    private static String getControllerName(Signature signature) {
+        return signature.getDeclaringType().getSimpleName();
+    }
+
     private static boolean isLoginRequired(ProceedingJoinPoint point) {
         if (point.getTarget() instanceof HealthzController) {
             return false;
@@ -113,6 +221,14 @@ public class ApiStandardizationAspect {
         return true;
     }
 
+    private static boolean isManagementApi(ServletRequestAttributes requestAttributes) {
+        if (requestAttributes == null) {
+            return false;
+        }
+        // The servlet path is decoded and normalized, unlike the request URI.
+        return requestAttributes.getRequest().getServletPath().startsWith(MANAGEMENT_API_PATH_PREFIX);
+    }
+
     private static int getHttpStatus(Throwable t) {
         if (t instanceof ValidationException) {
             return HttpStatus.BAD_REQUEST.value();
@@ -126,6 +242,106 @@ public class ApiStandardizationAspect {
         if (t instanceof ResourceConflictException) {
             return HttpStatus.CONFLICT.value();
         }
+        if (t instanceof BulkheadFullException) {
+            return HttpStatus.SERVICE_UNAVAILABLE.value();
+        }
         return HttpStatus.INTERNAL_SERVER_ERROR.value();
     }
+
+    private class AsyncRequestTimer implements AsyncListener {
+
+        private final Timer.Sample sample;
+        private final MethodSignature signature;
+        private final AtomicBoolean stopped = new AtomicBoolean();
+
+        private AsyncRequestTimer(Timer.Sample sample, MethodSignature signature) {
+            this.sample = sample;
+            this.signature = signature;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            int status = HttpStatus.OK.value();
+            if (event.getSuppliedResponse() instanceof HttpServletResponse) {
+                status = ((HttpServletResponse)event.getSuppliedResponse()).getStatus();
+            }
+            stop(status);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            stop(HttpStatus.SERVICE_UNAVAILABLE.value());
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            stop(HttpStatus.INTERNAL_SERVER_ERROR.value());
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Async processing is restarted, e.g. by a dispatch. Keep listening.
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void stop(int status) {
+            if (stopped.compareAndSet(false, true)) {
+                sample.stop(getRequestTimer(signature, Outcome.of(status)));
+            }
+        }
+    }
+
+    private enum Outcome {
+
+        /**
+         * 2xx and 3xx
+         */
+        SUCCESS("success"),
+        /**
+         * 401 and 403
+         */
+        AUTH_FAILURE("auth_failure"),
+        /**
+         * 400
+         */
+        VALIDATION_ERROR("validation_error"),
+        /**
+         * 409
+         */
+        CONFLICT("conflict"),
+        /**
+         * Other 4xx
+         */
+        CLIENT_ERROR("client_error"),
+        /**
+         * 5xx
+         */
+        SERVER_ERROR("server_error");
+
+        private final String tag;
+
+        Outcome(String tag) {
+            this.tag = tag;
+        }
+
+        public String getTag() {
+            return tag;
+        }
+
+        public static Outcome of(int status) {
+            if (status == HttpStatus.UNAUTHORIZED.value() || status == HttpStatus.FORBIDDEN.value()) {
+                return AUTH_FAILURE;
+            }
+            if (status == HttpStatus.BAD_REQUEST.value()) {
+                return VALIDATION_ERROR;
+            }
+            if (status == HttpStatus.CONFLICT.value()) {
+                return CONFLICT;
+            }
+            if (status >= HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+                return SERVER_ERROR;
+            }
+            return status >= HttpStatus.BAD_REQUEST.value() ? CLIENT_ERROR : SUCCESS;
+        }
+    }
 }
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2022-2024 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.higress.console.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import com.alibaba.higress.console.constant.SystemConfigKey;
+import com.alibaba.higress.console.service.Bulkhead;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Bulkheads isolating the proxies from the management API and from each other. Each of them is configured with
+ * {@code higress-console.bulkhead.<name>.max-concurrency}, {@code .max-queue-size} and {@code .max-wait} in
+ * milliseconds.
+ * <p>
+ * Waiting calls hold request threads, and so do running ones except for the asynchronous AI proxy. By default, they
+ * add up to fewer than the 200 worker threads of Tomcat, so none of the bulkheads can starve the others of threads.
+ *
+ * @author CH3CHO
+ */
+@Configuration
+public class BulkheadConfig {
+
+    public static final String MANAGEMENT_API_BULKHEAD = "managementApiBulkhead";
+    public static final String AI_PROXY_BULKHEAD = "aiProxyBulkhead";
+    public static final String DASHBOARD_PROXY_BULKHEAD = "dashboardProxyBulkhead";
+
+    private static final String MAX_CONCURRENCY_KEY = ".max-concurrency";
+    private static final String MAX_QUEUE_SIZE_KEY = ".max-queue-size";
+    private static final String MAX_WAIT_KEY = ".max-wait";
+
+    @Bean(MANAGEMENT_API_BULKHEAD)
+    public Bulkhead managementApiBulkhead(Environment environment, MeterRegistry meterRegistry) {
+        return createBulkhead("management-api", 64, 64, 5000, environment, meterRegistry);
+    }
+
+    @Bean(AI_PROXY_BULKHEAD)
+    public Bulkhead aiProxyBulkhead(Environment environment, MeterRegistry meterRegistry) {
+        // Completions are streamed for a long time, so queueing for one is rarely worth it.
+        return createBulkhead("ai-proxy", 32, 8, 1000, environment, meterRegistry);
+    }
+
+    @Bean(DASHBOARD_PROXY_BULKHEAD)
+    public Bulkhead dashboardProxyBulkhead(Environment environment, MeterRegistry meterRegistry) {
+        // A dashboard fires a query per panel at once.
+        return createBulkhead("dashboard-proxy", 24, 32, 5000, environment, meterRegistry);
+    }
+
+    private static Bulkhead createBulkhead(String name, int defaultMaxConcurrency, int defaultMaxQueueSize,
+        long defaultMaxWaitMillis, Environment environment, MeterRegistry meterRegistry) {
+        String keyPrefix = SystemConfigKey.BULKHEAD_KEY_PREFIX + name;
+        return new Bulkhead(name,
+            environment.getProperty(keyPrefix + MAX_CONCURRENCY_KEY, Integer.class, defaultMaxConcurrency),
+            environment.getProperty(keyPrefix + MAX_QUEUE_SIZE_KEY, Integer.class, defaultMaxQueueSize),
+            environment.getProperty(keyPrefix + MAX_WAIT_KEY, Long.class, defaultMaxWaitMillis), meterRegistry);
+    }
+}
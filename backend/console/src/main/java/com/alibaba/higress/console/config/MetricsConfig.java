@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2022-2024 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.higress.console.config;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.alibaba.higress.sdk.model.TlsCertificateExpiry;
+import com.alibaba.higress.sdk.model.TlsCertificateExpiryPageQuery;
+import com.alibaba.higress.sdk.service.TlsCertificateService;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Configuration
+public class MetricsConfig {
+
+    private static final int[] CERTIFICATE_EXPIRY_THRESHOLD_DAYS = {0, 7, 30};
+
+    @Bean
+    public MeterBinder tlsCertificateExpiryMetrics(TlsCertificateService tlsCertificateService) {
+        return registry -> {
+            for (int days : CERTIFICATE_EXPIRY_THRESHOLD_DAYS) {
+                Gauge.builder("higress.console.tls.certificates.expiring", tlsCertificateService,
+                    s -> countExpiringCertificates(s, days)).tag("days", String.valueOf(days))
+                    .description("Number of TLS certificates expiring within the given days. 0 means expired ones.")
+                    .register(registry);
+            }
+            TimeGauge.builder("higress.console.tls.certificates.soonest.expiry", tlsCertificateService,
+                TimeUnit.SECONDS, MetricsConfig::getSecondsToSoonestExpiry)
+                .description("Time left before the soonest expiring TLS certificate expires.").register(registry);
+        };
+    }
+
+    private static double countExpiringCertificates(TlsCertificateService tlsCertificateService, int days) {
+        TlsCertificateExpiryPageQuery query = new TlsCertificateExpiryPageQuery();
+        query.setExpiringInDays(days);
+        try {
+            return tlsCertificateService.listExpiries(query).getTotal();
+        } catch (Exception e) {
+            log.warn("Error occurs when counting expiring TLS certificates: {}", e.getMessage());
+            return Double.NaN;
+        }
+    }
+
+    private static double getSecondsToSoonestExpiry(TlsCertificateService tlsCertificateService) {
+        TlsCertificateExpiryPageQuery query = new TlsCertificateExpiryPageQuery();
+        query.setPageNum(1);
+        query.setPageSize(1);
+        try {
+            List<TlsCertificateExpiry> soonest = tlsCertificateService.listExpiries(query).getData();
+            if (soonest.isEmpty()) {
+                return Double.NaN;
+            }
+            return Duration.between(LocalDateTime.now(), soonest.get(0).getValidityEnd()).getSeconds();
+        } catch (Exception e) {
+            log.warn("Error occurs when getting the soonest expiring TLS certificate: {}", e.getMessage());
+            return Double.NaN;
+        }
+    }
+}
@@ -15,6 +15,7 @@ package com.alibaba.higress.console.config;
 import java.io.IOException;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -77,6 +78,13 @@ public class SdkConfig {
         serviceProvider = HigressServiceProvider.create(config);
     }
 
+    @PreDestroy
+    public void destroy() {
+        if (serviceProvider != null) {
+            serviceProvider.close();
+        }
+    }
+
     @Bean
     public KubernetesClientService kubernetesClientService() {
         return serviceProvider.kubernetesClientService();
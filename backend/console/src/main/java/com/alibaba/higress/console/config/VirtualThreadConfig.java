@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2022-2024 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.higress.console.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.alibaba.higress.console.constant.SystemConfigKey;
+import com.alibaba.higress.sdk.util.VirtualThreadUtil;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Lets Tomcat handle each request on a new virtual thread instead of its bounded worker pool, when enabled and running
+ * on Java 21 or later. Blocking calls to the API server and proxied services then no longer hold platform threads.
+ *
+ * @author CH3CHO
+ */
+@Slf4j
+@Configuration
+public class VirtualThreadConfig {
+
+    private static final String REQUEST_THREAD_NAME_PREFIX = "http-virtual-";
+
+    @Value("${" + SystemConfigKey.VIRTUAL_THREADS_ENABLED_KEY + ":" + SystemConfigKey.VIRTUAL_THREADS_ENABLED_DEFAULT
+        + "}")
+    private boolean enabled = SystemConfigKey.VIRTUAL_THREADS_ENABLED_DEFAULT;
+
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> virtualThreadCustomizer() {
+        return factory -> {
+            if (!enabled) {
+                return;
+            }
+            if (!VirtualThreadUtil.isSupported()) {
+                log.warn("Virtual threads are enabled but not supported by Java {}. Platform threads are used instead.",
+                    Runtime.version());
+                return;
+            }
+            factory.addProtocolHandlerCustomizers(protocolHandler -> protocolHandler
+                .setExecutor(VirtualThreadUtil.newThreadPerTaskExecutor(REQUEST_THREAD_NAME_PREFIX)));
+            log.info("Requests are handled on virtual threads.");
+        };
+    }
+}
@@ -54,10 +54,24 @@ public class SystemConfigKey {
 
     public static final int ADMIN_COOKIE_MAX_AGE_DEFAULT = 30 * 24 * 60 * 60;
 
+    public static final String VIRTUAL_THREADS_ENABLED_KEY = CONFIG_KEY_PREFIX + "virtual-threads.enabled";
+
+    public static final boolean VIRTUAL_THREADS_ENABLED_DEFAULT = false;
+
+    public static final String BULKHEAD_KEY_PREFIX = CONFIG_KEY_PREFIX + "bulkhead.";
+
     public static final String ADMIN_CONFIG_TTL_KEY = CONFIG_KEY_PREFIX + "admin.config-ttl";
 
     public static final long ADMIN_CONFIG_TTL_DEFAULT = 10 * 1000;
 
+    /**
+     * Whether session tokens encoded with AES-CBC, i.e. those issued before AES-GCM was adopted, are still accepted.
+     * They expire with the cookie, so this switch and the legacy decoding are to be removed after 2026-12-31.
+     */
+    public static final String ADMIN_LEGACY_TOKEN_ENABLED_KEY = CONFIG_KEY_PREFIX + "admin.legacy-token.enabled";
+
+    public static final boolean ADMIN_LEGACY_TOKEN_ENABLED_DEFAULT = true;
+
     public static final String DASHBOARD_OVERWRITE_WHEN_STARTUP_KEY =
         CONFIG_KEY_PREFIX + "dashboard.overwrite-when-startup";
     public static final boolean DASHBOARD_OVERWRITE_WHEN_STARTUP_DEFAULT = true;
@@ -93,6 +107,23 @@ public class SystemConfigKey {
 
     public static final int DASHBOARD_PROXY_SOCKET_TIMEOUT_DEFAULT = 2 * 60 * 1000;
 
+    public static final String DASHBOARD_PROXY_MAX_CONNECTIONS_KEY =
+        CONFIG_KEY_PREFIX + "dashboard.proxy.max-connections";
+
+    public static final int DASHBOARD_PROXY_MAX_CONNECTIONS_DEFAULT = 200;
+
+    public static final String DASHBOARD_PROXY_KEEP_ALIVE_KEY = CONFIG_KEY_PREFIX + "dashboard.proxy.keep-alive";
+
+    public static final int DASHBOARD_PROXY_KEEP_ALIVE_DEFAULT = 30 * 1000;
+
+    public static final String DASHBOARD_PROXY_ASYNC_KEY = CONFIG_KEY_PREFIX + "dashboard.proxy.async";
+
+    public static final boolean DASHBOARD_PROXY_ASYNC_DEFAULT = false;
+
+    public static final String DASHBOARD_METADATA_CACHE_TTL_KEY = CONFIG_KEY_PREFIX + "dashboard.metadata-cache.ttl";
+
+    public static final long DASHBOARD_METADATA_CACHE_TTL_DEFAULT = 10 * 1000;
+
     public static final String AI_PROXY_SERVICE_URL_KEY = CONFIG_KEY_PREFIX + "ai-proxy.service.url";
 
     public static final String AI_PROXY_SERVICE_TOKEN_KEY = CONFIG_KEY_PREFIX + "ai-proxy.service.token";
@@ -13,33 +13,53 @@
 package com.alibaba.higress.console.controller;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.util.Enumeration;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.apache.commons.collections4.MapUtils;
-import org.apache.http.Header;
-import org.apache.http.HttpEntity;
-import org.apache.http.client.config.RequestConfig;
-import org.apache.http.client.methods.CloseableHttpResponse;
-import org.apache.http.client.methods.RequestBuilder;
-import org.apache.http.entity.BufferedHttpEntity;
 import org.apache.http.entity.ContentType;
-import org.apache.http.entity.InputStreamEntity;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
-import org.apache.http.message.BasicHeader;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
@@ -47,9 +67,12 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.alibaba.fastjson.JSON;
+import com.alibaba.higress.console.config.BulkheadConfig;
 import com.alibaba.higress.console.constant.SystemConfigKey;
 import com.alibaba.higress.console.controller.dto.Response;
+import com.alibaba.higress.console.service.Bulkhead;
 import com.alibaba.higress.sdk.service.kubernetes.KubernetesClientService;
+import com.alibaba.higress.sdk.util.VirtualThreadUtil;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
@@ -60,6 +83,15 @@ import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 
 /**
+ * Proxies requests to the AI service without blocking any thread while waiting for either side: request bodies are
+ * read with a {@link ReadListener} and published to a non-blocking HTTP client, and response bodies, e.g. SSE streams,
+ * are written with a {@link WriteListener}, requesting the next chunk from upstream only after the previous one is
+ * written out.
+ * <p>
+ * The socket timeout limits the wait for response headers, and then the time the response may go without any data
+ * received from upstream or written to the client. An exchange stalled on either side is failed after it, so it can't
+ * hold the connection and its bulkhead permit forever.
+ *
  * @author CH3CHO
  */
 @Slf4j
@@ -72,9 +104,13 @@ public class AiProxyController {
     private static final String SERVICE_URL_KEY = "aiProxyServiceUrl";
     private static final String SERVICE_TOKEN_KEY = "aiProxyServiceToken";
     private static final long SECRET_RELOAD_INTERVAL = 60 * 1000;
+    private static final int REQUEST_BODY_BUFFER_SIZE = 8192;
 
-    private static final Set<String> INVALID_REQUEST_HEADERS =
-        ImmutableSet.of("connection", "content-length", "accept-encoding", "host", "cookie");
+    /**
+     * Hop-by-hop headers, headers managed by the HTTP client, and the ones not to be leaked to the AI service.
+     */
+    private static final Set<String> INVALID_REQUEST_HEADERS = ImmutableSet.of("connection", "content-length",
+        "accept-encoding", "host", "cookie", "expect", "upgrade", "keep-alive", "te", "trailer", "transfer-encoding");
 
     private static final Set<String> INVALID_RESPONSE_HEADERS =
         ImmutableSet.of("connection", "content-length", "content-encoding", "server", "transfer-encoding");
@@ -96,21 +132,47 @@ public class AiProxyController {
         + "}")
     private int socketTimeout = SystemConfigKey.AI_PROXY_SOCKET_TIMEOUT_DEFAULT;
 
+    @Value("${" + SystemConfigKey.VIRTUAL_THREADS_ENABLED_KEY + ":" + SystemConfigKey.VIRTUAL_THREADS_ENABLED_DEFAULT
+        + "}")
+    private boolean virtualThreadsEnabled = SystemConfigKey.VIRTUAL_THREADS_ENABLED_DEFAULT;
+
     private final AtomicReference<ServiceInfo> serviceInfoHolder = new AtomicReference<>();
 
-    private CloseableHttpClient client;
+    private ExecutorService clientExecutor;
+    private HttpClient client;
+    private ScheduledExecutorService idleChecker;
+    private ScheduledExecutorService secretLoader;
     private KubernetesClientService kubernetesClientService;
+    private Bulkhead bulkhead;
 
     @Autowired
     public void setKubernetesClientService(KubernetesClientService kubernetesClientService) {
         this.kubernetesClientService = kubernetesClientService;
     }
 
+    @Resource(name = BulkheadConfig.AI_PROXY_BULKHEAD)
+    public void setBulkhead(Bulkhead bulkhead) {
+        this.bulkhead = bulkhead;
+    }
+
     @PostConstruct
     public void initialize() {
-        RequestConfig requestConfig =
-            RequestConfig.custom().setConnectTimeout(connectionTimeout).setSocketTimeout(socketTimeout).build();
-        client = HttpClients.custom().setDefaultRequestConfig(requestConfig).build();
+        if (virtualThreadsEnabled && VirtualThreadUtil.isSupported()) {
+            clientExecutor = VirtualThreadUtil.newThreadPerTaskExecutor("AiProxyController-Client-");
+        } else {
+            // Threads of the client only run short callbacks. None of them waits for I/O.
+            clientExecutor = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 1, TimeUnit.MINUTES,
+                new SynchronousQueue<>(),
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("AiProxyController-Client-%d").build());
+        }
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofMillis(connectionTimeout)).followRedirects(HttpClient.Redirect.NEVER)
+            .executor(clientExecutor).build();
+        ScheduledThreadPoolExecutor idleCheckExecutor = new ScheduledThreadPoolExecutor(1,
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("AiProxyController-IdleChecker-%d").build());
+        // Checks are cancelled when exchanges finish. Don't keep them around until they are due.
+        idleCheckExecutor.setRemoveOnCancelPolicy(true);
+        idleChecker = idleCheckExecutor;
 
         if (!Strings.isNullOrEmpty(serviceUrl)) {
             serviceInfoHolder.set(new ServiceInfo(serviceUrl, serviceToken));
@@ -118,8 +180,37 @@ public class AiProxyController {
             reloadServiceInfoFromK8s();
             ThreadFactory tf =
                 new ThreadFactoryBuilder().setDaemon(true).setNameFormat("AiProxyController-SecretLoader-%d").build();
-            new ScheduledThreadPoolExecutor(1, tf).scheduleWithFixedDelay(this::reloadServiceInfoFromK8s,
-                    SECRET_RELOAD_INTERVAL, SECRET_RELOAD_INTERVAL, TimeUnit.MILLISECONDS);
+            secretLoader = new ScheduledThreadPoolExecutor(1, tf);
+            secretLoader.scheduleWithFixedDelay(this::reloadServiceInfoFromK8s, SECRET_RELOAD_INTERVAL,
+                SECRET_RELOAD_INTERVAL, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (secretLoader != null) {
+            secretLoader.shutdownNow();
+        }
+        if (idleChecker != null) {
+            idleChecker.shutdownNow();
+        }
+        if (client != null) {
+            shutdownClient(client);
+        }
+        if (clientExecutor != null) {
+            clientExecutor.shutdownNow();
+        }
+    }
+
+    private static void shutdownClient(HttpClient client) {
+        // Only available on Java 21+. Before that, the selector thread of the client exits once the controller, and
+        // so the client, is unreachable.
+        try {
+            HttpClient.class.getMethod("shutdownNow").invoke(client);
+        } catch (NoSuchMethodException e) {
+            // Nothing to do.
+        } catch (ReflectiveOperationException e) {
+            log.warn("Error occurs when shutting down AI proxy client.", e);
         }
     }
 
@@ -150,40 +241,71 @@ public class AiProxyController {
             throw new IllegalStateException("No valid service info is available for proxying.");
         }
 
+        HttpRequest request;
         try {
-            RequestBuilder requestBuilder =
-                RequestBuilder.create(req.getMethod()).setUri(buildTargetUrl(serviceInfo, req));
-
-            final String method = req.getMethod().toUpperCase(Locale.ROOT);
-            if ("POST".equals(method) || "PUT".equals(method)) {
-                HttpEntity entity =
-                    new BufferedHttpEntity(new InputStreamEntity(req.getInputStream(), req.getContentLength()));
-                requestBuilder.setEntity(entity);
-            }
+            request = buildRequest(serviceInfo, req);
+        } catch (Exception ex) {
+            writeError(resp, ex);
+            return null;
+        }
 
-            for (Enumeration<String> headerNames = req.getHeaderNames(); headerNames.hasMoreElements();) {
-                String name = headerNames.nextElement().toLowerCase();
-                String value = req.getHeader(name);
-                if (!INVALID_REQUEST_HEADERS.contains(name)) {
-                    requestBuilder.setHeader(new BasicHeader(name, value));
+        bulkhead.acquire();
+        ProxyExchange exchange;
+        try {
+            AsyncContext asyncContext = req.startAsync(req, resp);
+            // Leave the timeout to the HTTP client.
+            asyncContext.setTimeout(0);
+            exchange = new ProxyExchange(asyncContext, resp, bulkhead);
+            asyncContext.addListener(exchange);
+        } catch (RuntimeException ex) {
+            bulkhead.release();
+            throw ex;
+        }
+        // From now on, the permit is released when the exchange finishes.
+        try {
+            exchange.upstream = client.sendAsync(request, info -> {
+                forwardResponseHeaders(resp, info);
+                return HttpResponse.BodySubscribers
+                    .fromSubscriber(new ResponseBodyWriter(exchange, idleChecker, socketTimeout));
+            }).whenComplete((response, ex) -> {
+                if (ex != null) {
+                    exchange.fail(ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
                 }
-            }
+            });
+        } catch (RuntimeException ex) {
+            exchange.fail(ex);
+        }
+        return null;
+    }
 
-            String serviceToken = serviceInfo.getServiceToken();
-            if (!Strings.isNullOrEmpty(serviceToken)) {
-                requestBuilder.setHeader(HttpHeaders.AUTHORIZATION, "Bearer " + serviceToken);
-            }
+    private HttpRequest buildRequest(ServiceInfo serviceInfo, HttpServletRequest req) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(buildTargetUrl(serviceInfo, req)))
+            .timeout(Duration.ofMillis(socketTimeout));
+
+        HttpRequest.BodyPublisher bodyPublisher = HttpRequest.BodyPublishers.noBody();
+        long contentLength = req.getContentLengthLong();
+        if (contentLength > 0 || req.getHeader(HttpHeaders.TRANSFER_ENCODING) != null) {
+            RequestBodyPublisher publisher = new RequestBodyPublisher(req.getInputStream());
+            bodyPublisher = contentLength > 0 ? HttpRequest.BodyPublishers.fromPublisher(publisher, contentLength)
+                : HttpRequest.BodyPublishers.fromPublisher(publisher);
+        }
+        builder.method(req.getMethod().toUpperCase(Locale.ROOT), bodyPublisher);
 
-            try (CloseableHttpResponse response = client.execute(requestBuilder.build())) {
-                forwardResponse(resp, response);
+        for (String name : Collections.list(req.getHeaderNames())) {
+            String lowerCaseName = name.toLowerCase(Locale.ROOT);
+            if (INVALID_REQUEST_HEADERS.contains(lowerCaseName)) {
+                continue;
+            }
+            for (String value : Collections.list(req.getHeaders(name))) {
+                builder.header(lowerCaseName, value);
             }
-        } catch (Exception ex) {
-            resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
-            resp.setContentType(ContentType.APPLICATION_JSON.getMimeType());
-            Response<Object> response = Response.failure(ex);
-            resp.getWriter().write(JSON.toJSONString(response));
         }
-        return null;
+
+        String serviceToken = serviceInfo.getServiceToken();
+        if (!Strings.isNullOrEmpty(serviceToken)) {
+            builder.setHeader(HttpHeaders.AUTHORIZATION, "Bearer " + serviceToken);
+        }
+        return builder.build();
     }
 
     private String buildTargetUrl(ServiceInfo serviceInfo, HttpServletRequest req) {
@@ -211,24 +333,382 @@ public class AiProxyController {
         return url;
     }
 
-    private void forwardResponse(HttpServletResponse resp, CloseableHttpResponse response) throws IOException {
-        resp.setStatus(response.getStatusLine().getStatusCode());
+    private static void forwardResponseHeaders(HttpServletResponse resp, HttpResponse.ResponseInfo info) {
+        resp.setStatus(info.statusCode());
+        info.headers().map().forEach((name, values) -> {
+            String lowerCaseName = name.toLowerCase(Locale.ROOT);
+            if (lowerCaseName.startsWith(":") || INVALID_RESPONSE_HEADERS.contains(lowerCaseName)) {
+                return;
+            }
+            for (String value : values) {
+                resp.addHeader(lowerCaseName, value);
+            }
+        });
+    }
+
+    private static void writeError(HttpServletResponse resp, Throwable ex) throws IOException {
+        resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        resp.setContentType(ContentType.APPLICATION_JSON.getMimeType());
+        Response<Object> response = Response.failure(ex);
+        resp.getOutputStream().write(JSON.toJSONString(response).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Runs {@code drain} in one thread at a time. Calls made while it's running, including reentrant ones, make it run
+     * once more instead of running concurrently.
+     */
+    private static void serialize(AtomicInteger wip, Runnable drain) {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            drain.run();
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    /**
+     * State of a single proxied request, shared by the request and the response sides.
+     */
+    private static class ProxyExchange implements AsyncListener {
+
+        private final AsyncContext asyncContext;
+        private final HttpServletResponse response;
+        private final Bulkhead bulkhead;
+        private final AtomicBoolean completed = new AtomicBoolean();
+        private volatile CompletableFuture<?> upstream;
+        private volatile ScheduledFuture<?> idleCheck;
+
+        private ProxyExchange(AsyncContext asyncContext, HttpServletResponse response, Bulkhead bulkhead) {
+            this.asyncContext = asyncContext;
+            this.response = response;
+            this.bulkhead = bulkhead;
+        }
+
+        private void complete() {
+            if (finish()) {
+                asyncContext.complete();
+            }
+        }
+
+        /**
+         * @return whether the exchange is finished by this call
+         */
+        private boolean finish() {
+            if (!completed.compareAndSet(false, true)) {
+                return false;
+            }
+            bulkhead.release();
+            cancelIdleCheck();
+            return true;
+        }
 
-        for (Header header : response.getAllHeaders()) {
-            String name = header.getName().toLowerCase(Locale.ROOT);
-            String value = header.getValue();
-            if (!INVALID_RESPONSE_HEADERS.contains(name)) {
-                resp.setHeader(name, value);
+        private void fail(Throwable ex) {
+            if (completed.get()) {
+                return;
+            }
+            if (!response.isCommitted()) {
+                try {
+                    response.reset();
+                    writeError(response, ex);
+                } catch (Exception e) {
+                    log.debug("Error occurs when writing AI proxy error response.", e);
+                }
+            } else {
+                log.warn("AI proxy response is broken.", ex);
+            }
+            complete();
+        }
+
+        private void cancelIdleCheck() {
+            ScheduledFuture<?> idleCheck = this.idleCheck;
+            if (idleCheck != null) {
+                idleCheck.cancel(false);
+            }
+        }
+
+        private void abort() {
+            CompletableFuture<?> upstream = this.upstream;
+            if (upstream != null) {
+                upstream.cancel(true);
+            }
+            complete();
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            // The container may complete the request by itself, e.g. after an error.
+            finish();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            abort();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            // Most likely the client is gone.
+            abort();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {}
+    }
+
+    /**
+     * Publishes the servlet request body to the HTTP client, reading only as much as it asks for.
+     */
+    private static class RequestBodyPublisher implements Flow.Publisher<ByteBuffer>, Flow.Subscription, ReadListener {
+
+        private final ServletInputStream input;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile Flow.Subscriber<? super ByteBuffer> subscriber;
+        private volatile boolean done;
+
+        private RequestBodyPublisher(ServletInputStream input) {
+            this.input = input;
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+            if (this.subscriber != null) {
+                subscriber.onSubscribe(this);
+                subscriber.onError(new IllegalStateException("The request body can only be read once."));
+                return;
+            }
+            this.subscriber = subscriber;
+            subscriber.onSubscribe(this);
+            input.setReadListener(this);
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                fail(new IllegalArgumentException("Non-positive request: " + n));
+                return;
+            }
+            demand.getAndAccumulate(n, (a, b) -> a + b < 0 ? Long.MAX_VALUE : a + b);
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            done = true;
+        }
+
+        @Override
+        public void onDataAvailable() {
+            drain();
+        }
+
+        @Override
+        public void onAllDataRead() {
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            fail(t);
+        }
+
+        private void drain() {
+            serialize(wip, this::drainOnce);
+        }
+
+        private void drainOnce() {
+            try {
+                while (!done && demand.get() > 0) {
+                    if (input.isFinished()) {
+                        done = true;
+                        subscriber.onComplete();
+                        return;
+                    }
+                    if (!input.isReady()) {
+                        // onDataAvailable() will be called once there is more.
+                        return;
+                    }
+                    byte[] buffer = new byte[REQUEST_BODY_BUFFER_SIZE];
+                    int n = input.read(buffer);
+                    if (n == -1) {
+                        done = true;
+                        subscriber.onComplete();
+                        return;
+                    }
+                    if (n > 0) {
+                        demand.decrementAndGet();
+                        subscriber.onNext(ByteBuffer.wrap(buffer, 0, n));
+                    }
+                }
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+
+        private void fail(Throwable t) {
+            if (!done) {
+                done = true;
+                subscriber.onError(t);
+            }
+        }
+    }
+
+    /**
+     * Writes the upstream response body to the servlet response. A chunk is requested from upstream only after the
+     * previous ones are written and flushed, so a slow client slows down reading from upstream instead of piling up
+     * data in memory.
+     */
+    private static class ResponseBodyWriter implements Flow.Subscriber<List<ByteBuffer>> {
+
+        private final ProxyExchange exchange;
+        private final ScheduledExecutorService idleChecker;
+        private final long idleTimeoutMillis;
+        private final Queue<ByteBuffer> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile ServletOutputStream output;
+        private volatile Flow.Subscription subscription;
+        private volatile boolean demanded;
+        private volatile boolean upstreamCompleted;
+        private volatile long lastActiveTime;
+        private boolean flushNeeded;
+
+        private ResponseBodyWriter(ProxyExchange exchange, ScheduledExecutorService idleChecker,
+            long idleTimeoutMillis) {
+            this.exchange = exchange;
+            this.idleChecker = idleChecker;
+            this.idleTimeoutMillis = idleTimeoutMillis;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            lastActiveTime = System.nanoTime();
+            scheduleIdleCheck(idleTimeoutMillis);
+            try {
+                output = exchange.response.getOutputStream();
+            } catch (IOException e) {
+                subscription.cancel();
+                exchange.fail(e);
+                return;
+            }
+            // onWritePossible() will be called to start writing.
+            output.setWriteListener(new WriteListener() {
+
+                @Override
+                public void onWritePossible() {
+                    drain();
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    subscription.cancel();
+                    exchange.abort();
+                }
+            });
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> items) {
+            lastActiveTime = System.nanoTime();
+            pending.addAll(items);
+            demanded = false;
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            // The failure is reported via the response future.
+            upstreamCompleted = true;
+        }
+
+        @Override
+        public void onComplete() {
+            upstreamCompleted = true;
+            drain();
+        }
+
+        private void drain() {
+            if (output == null) {
+                return;
+            }
+            serialize(wip, this::drainOnce);
+        }
+
+        private void drainOnce() {
+            if (exchange.completed.get()) {
+                return;
+            }
+            try {
+                while (output.isReady()) {
+                    ByteBuffer buffer = pending.poll();
+                    if (buffer != null) {
+                        write(buffer);
+                        flushNeeded = true;
+                        continue;
+                    }
+                    if (flushNeeded) {
+                        // Let the client have each chunk as soon as it arrives, e.g. SSE events.
+                        flushNeeded = false;
+                        output.flush();
+                        lastActiveTime = System.nanoTime();
+                        continue;
+                    }
+                    if (upstreamCompleted) {
+                        exchange.complete();
+                        return;
+                    }
+                    if (!demanded) {
+                        demanded = true;
+                        subscription.request(1);
+                    }
+                    return;
+                }
+                // onWritePossible() will be called once the output is writable again.
+            } catch (IOException | IllegalStateException e) {
+                // The client is gone, or the exchange is completed by someone else.
+                subscription.cancel();
+                exchange.abort();
+            }
+        }
+
+        private void scheduleIdleCheck(long delayMillis) {
+            if (idleTimeoutMillis <= 0) {
+                return;
+            }
+            try {
+                exchange.idleCheck = idleChecker.schedule(this::checkIdle, delayMillis, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // Shutting down.
+                return;
+            }
+            if (exchange.completed.get()) {
+                // Finished before the check is visible to it.
+                exchange.cancelIdleCheck();
+            }
+        }
+
+        private void checkIdle() {
+            if (exchange.completed.get()) {
+                return;
+            }
+            long idleMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastActiveTime);
+            if (idleMillis < idleTimeoutMillis) {
+                scheduleIdleCheck(idleTimeoutMillis - idleMillis);
+                return;
             }
+            subscription.cancel();
+            exchange.fail(new HttpTimeoutException("AI proxy response is idle for " + idleMillis + "ms."));
         }
 
-        try (InputStream input = response.getEntity().getContent()) {
-            OutputStream output = resp.getOutputStream();
-            byte[] buffer = new byte[8192];
-            int bytesRead;
-            while ((bytesRead = input.read(buffer)) != -1) {
-                output.write(buffer, 0, bytesRead);
-                output.flush();
+        private void write(ByteBuffer buffer) throws IOException {
+            if (buffer.hasArray()) {
+                output.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+            } else {
+                byte[] bytes = new byte[buffer.remaining()];
+                buffer.get(bytes);
+                output.write(bytes);
             }
         }
     }
@@ -12,8 +12,11 @@
  */
 package com.alibaba.higress.console.controller;
 
+import java.util.List;
+
 import javax.annotation.Resource;
 import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
 
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.http.ResponseEntity;
@@ -25,6 +28,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.alibaba.higress.console.controller.dto.PaginatedResponse;
@@ -74,4 +78,10 @@ public class RoutesController {
         routeService.delete(name);
         return ResponseEntity.noContent().build();
     }
+
+    @DeleteMapping
+    public ResponseEntity<Response<Route>> batchDelete(@RequestParam("names") @NotEmpty List<String> names) {
+        routeService.batchDelete(names);
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -13,17 +13,24 @@
 package com.alibaba.higress.console.controller;
 
 import javax.annotation.Resource;
+import javax.validation.constraints.NotBlank;
 
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.alibaba.higress.sdk.model.CommonPageQuery;
 import com.alibaba.higress.console.controller.dto.PaginatedResponse;
+import com.alibaba.higress.sdk.model.CommonPageQuery;
+import com.alibaba.higress.sdk.model.Route;
+import com.alibaba.higress.sdk.model.RoutePageQuery;
 import com.alibaba.higress.sdk.model.Service;
+import com.alibaba.higress.sdk.model.ServicePageQuery;
 import com.alibaba.higress.console.controller.util.ControllerUtil;
+import com.alibaba.higress.sdk.service.RouteService;
 import com.alibaba.higress.sdk.service.ServiceService;
 
 @RestController("ServicesController")
@@ -34,8 +41,24 @@ public class ServicesController {
     @Resource
     private ServiceService serviceService;
 
+    @Resource
+    private RouteService routeService;
+
     @GetMapping
-    public ResponseEntity<PaginatedResponse<Service>> list(CommonPageQuery query) {
+    public ResponseEntity<PaginatedResponse<Service>> list(ServicePageQuery query) {
         return ControllerUtil.buildResponseEntity(serviceService.list(query));
     }
+
+    @GetMapping(value = "/{name}/endpoints")
+    public ResponseEntity<PaginatedResponse<String>> queryEndpoints(@PathVariable("name") @NotBlank String name,
+        @RequestParam("namespace") @NotBlank String namespace, CommonPageQuery query) {
+        return ControllerUtil.buildResponseEntity(serviceService.listEndpoints(namespace, name, query));
+    }
+
+    @GetMapping(value = "/{name}/routes")
+    public ResponseEntity<PaginatedResponse<Route>> queryRoutes(@PathVariable("name") @NotBlank String name,
+        RoutePageQuery routePageQuery) {
+        routePageQuery.setServiceName(name);
+        return ControllerUtil.buildResponseEntity(routeService.list(routePageQuery));
+    }
 }
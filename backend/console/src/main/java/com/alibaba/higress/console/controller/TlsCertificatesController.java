@@ -33,6 +33,8 @@ import com.alibaba.higress.console.controller.dto.PaginatedResponse;
 import com.alibaba.higress.sdk.model.PaginatedResult;
 import com.alibaba.higress.console.controller.dto.Response;
 import com.alibaba.higress.sdk.model.TlsCertificate;
+import com.alibaba.higress.sdk.model.TlsCertificateExpiry;
+import com.alibaba.higress.sdk.model.TlsCertificateExpiryPageQuery;
 import com.alibaba.higress.sdk.exception.ValidationException;
 import com.alibaba.higress.console.controller.util.ControllerUtil;
 import com.alibaba.higress.sdk.service.TlsCertificateService;
@@ -58,6 +60,11 @@ public class TlsCertificatesController {
         return ControllerUtil.buildResponseEntity(certificates);
     }
 
+    @GetMapping("/expiries")
+    public ResponseEntity<PaginatedResponse<TlsCertificateExpiry>> listExpiries(TlsCertificateExpiryPageQuery query) {
+        return ControllerUtil.buildResponseEntity(tlsCertificateService.listExpiries(query));
+    }
+
     @PostMapping
     public ResponseEntity<Response<TlsCertificate>> add(@RequestBody TlsCertificate certificate) {
         TlsCertificate newCertificate = tlsCertificateService.add(certificate);
@@ -26,6 +26,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.alibaba.higress.console.controller.dto.PaginatedResponse;
@@ -152,6 +153,17 @@ public class WasmPluginInstancesController {
         deleteInstance(WasmPluginInstanceScope.ROUTE, routeName, pluginName);
     }
 
+    @GetMapping(value = "/wasm-plugins/{name}/instances")
+    public ResponseEntity<PaginatedResponse<WasmPluginInstance>> listPluginInstances(
+        @PathVariable("name") @NotBlank String pluginName,
+        @RequestParam(value = "scope", required = false) WasmPluginInstanceScope scope) {
+        List<WasmPluginInstance> instances = wasmPluginInstanceService.listByPlugin(pluginName);
+        if (scope != null) {
+            instances = instances.stream().filter(i -> i.getScope() == scope).toList();
+        }
+        return ControllerUtil.buildResponseEntity(PaginatedResult.createFromFullList(instances, null));
+    }
+
     private ResponseEntity<PaginatedResponse<WasmPluginInstance>> listInstances(WasmPluginInstanceScope scope,
         String target) {
         List<WasmPluginInstance> instances = wasmPluginInstanceService.list(scope, target);
@@ -12,10 +12,16 @@
  */
 package com.alibaba.higress.console.controller;
 
+import java.util.concurrent.TimeUnit;
+
 import javax.annotation.Resource;
 import javax.validation.constraints.NotBlank;
 
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -27,6 +33,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.alibaba.higress.console.controller.dto.PaginatedResponse;
 import com.alibaba.higress.sdk.model.PaginatedResult;
@@ -34,6 +41,7 @@ import com.alibaba.higress.console.controller.dto.Response;
 import com.alibaba.higress.sdk.model.WasmPlugin;
 import com.alibaba.higress.sdk.model.WasmPluginConfig;
 import com.alibaba.higress.sdk.model.WasmPluginPageQuery;
+import com.alibaba.higress.sdk.model.wasmplugin.PluginAsset;
 import com.alibaba.higress.sdk.exception.ValidationException;
 import com.alibaba.higress.console.controller.util.ControllerUtil;
 import com.alibaba.higress.sdk.service.WasmPluginService;
@@ -46,6 +54,10 @@ import com.alibaba.higress.sdk.service.WasmPluginService;
 @Validated
 public class WasmPluginsController {
 
+    private static final String ICON_URL_FORMAT = "/v1/wasm-plugins/%s/versions/%s/icon?hash=%s";
+    private static final String IMMUTABLE_CACHE_CONTROL =
+        CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().getHeaderValue() + ", immutable";
+
     private WasmPluginService wasmPluginService;
 
     @Resource
@@ -56,6 +68,7 @@ public class WasmPluginsController {
     @GetMapping
     public ResponseEntity<PaginatedResponse<WasmPlugin>> list(WasmPluginPageQuery query) {
         PaginatedResult<WasmPlugin> plugins = wasmPluginService.list(query);
+        plugins.getData().forEach(this::fillIconUrl);
         return ControllerUtil.buildResponseEntity(plugins);
     }
 
@@ -63,6 +76,7 @@ public class WasmPluginsController {
     public ResponseEntity<Response<WasmPlugin>> query(@PathVariable("name") @NotBlank String name,
         @RequestParam(required = false) String lang) {
         WasmPlugin plugin = wasmPluginService.query(name, lang);
+        fillIconUrl(plugin);
         return ControllerUtil.buildResponseEntity(plugin);
     }
 
@@ -107,4 +121,46 @@ public class WasmPluginsController {
         String readme = wasmPluginService.queryReadme(name, lang);
         return ControllerUtil.buildResponseEntity(readme);
     }
+
+    @GetMapping(value = "/{name}/versions/{version}/icon")
+    public ResponseEntity<byte[]> queryIcon(@PathVariable("name") @NotBlank String name,
+        @PathVariable("version") @NotBlank String version, WebRequest request) {
+        return buildAssetResponseEntity(wasmPluginService.queryIcon(name, version), request);
+    }
+
+    @GetMapping(value = "/{name}/versions/{version}/readme")
+    public ResponseEntity<byte[]> queryReadmeAsset(@PathVariable("name") @NotBlank String name,
+        @PathVariable("version") @NotBlank String version, @RequestParam(required = false) String lang,
+        WebRequest request) {
+        return buildAssetResponseEntity(wasmPluginService.queryReadmeAsset(name, version, lang), request);
+    }
+
+    /**
+     * The SDK inlines icons of built-in plugins as data URIs. Replace them with URLs of {@link #queryIcon}, so each
+     * icon is downloaded once and then cached by the browser instead of being sent along with every plugin list.
+     */
+    private void fillIconUrl(WasmPlugin plugin) {
+        if (plugin == null || !Boolean.TRUE.equals(plugin.getBuiltIn())
+            || StringUtils.isEmpty(plugin.getPluginVersion())) {
+            return;
+        }
+        PluginAsset icon = wasmPluginService.queryIcon(plugin.getName(), plugin.getPluginVersion());
+        if (icon != null) {
+            plugin.setIcon(String.format(ICON_URL_FORMAT, plugin.getName(), plugin.getPluginVersion(),
+                icon.getDigest().substring(0, 8)));
+        }
+    }
+
+    private static ResponseEntity<byte[]> buildAssetResponseEntity(PluginAsset asset, WebRequest request) {
+        if (asset == null) {
+            return ResponseEntity.notFound().build();
+        }
+        String etag = "\"" + asset.getDigest() + "\"";
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag)
+                .header(HttpHeaders.CACHE_CONTROL, IMMUTABLE_CACHE_CONTROL).build();
+        }
+        return ResponseEntity.ok().eTag(etag).header(HttpHeaders.CACHE_CONTROL, IMMUTABLE_CACHE_CONTROL)
+            .contentType(MediaType.parseMediaType(asset.getContentType())).body(asset.getContent());
+    }
 }
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2022-2024 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.higress.console.service;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.alibaba.higress.console.controller.exception.BulkheadFullException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Limits the number of concurrent calls of one kind, so a burst of them can't take up the threads and connections
+ * shared with the others. Calls beyond the limit wait for a permit in a bounded FIFO queue, and are rejected with
+ * {@link BulkheadFullException} if the queue is full or no permit is available in time.
+ * <p>
+ * Saturation is reported with meters tagged with the bulkhead name:
+ * <ul>
+ * <li>{@value #METRIC_PREFIX}active, {@value #METRIC_PREFIX}queued and {@value #METRIC_PREFIX}max.concurrency</li>
+ * <li>{@value #METRIC_PREFIX}utilization: active calls divided by the concurrency limit</li>
+ * <li>{@value #METRIC_PREFIX}wait: time spent waiting for a permit</li>
+ * <li>{@value #METRIC_PREFIX}rejected: rejected calls, tagged with reason {@code queue_full} or {@code timeout}</li>
+ * </ul>
+ *
+ * @author CH3CHO
+ */
+public class Bulkhead {
+
+    private static final String METRIC_PREFIX = "higress.console.bulkhead.";
+
+    private final String name;
+    private final int maxConcurrency;
+    private final int maxQueueSize;
+    private final long maxWaitMillis;
+    private final Semaphore permits;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Timer waitTimer;
+    private final Counter queueFullCounter;
+    private final Counter timeoutCounter;
+
+    public Bulkhead(String name, int maxConcurrency, int maxQueueSize, long maxWaitMillis,
+        MeterRegistry meterRegistry) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency of bulkhead " + name + " must be positive.");
+        }
+        if (maxQueueSize < 0 || maxWaitMillis < 0) {
+            throw new IllegalArgumentException("maxQueueSize and maxWaitMillis of bulkhead " + name
+                + " must not be negative.");
+        }
+        this.name = name;
+        this.maxConcurrency = maxConcurrency;
+        this.maxQueueSize = maxQueueSize;
+        this.maxWaitMillis = maxWaitMillis;
+        this.permits = new Semaphore(maxConcurrency, true);
+
+        Gauge.builder(METRIC_PREFIX + "active", this, Bulkhead::getActiveCount).tag("name", name)
+            .description("Number of calls running in the bulkhead.").register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + "queued", queued, AtomicInteger::get).tag("name", name)
+            .description("Number of calls waiting for the bulkhead.").register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + "max.concurrency", this, b -> b.maxConcurrency).tag("name", name)
+            .description("Maximum number of calls running in the bulkhead.").register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + "utilization", this, b -> (double)b.getActiveCount() / b.maxConcurrency)
+            .tag("name", name).description("Running calls divided by the concurrency limit of the bulkhead.")
+            .register(meterRegistry);
+        waitTimer = Timer.builder(METRIC_PREFIX + "wait").tag("name", name)
+            .description("Time spent waiting for the bulkhead.").register(meterRegistry);
+        queueFullCounter = Counter.builder(METRIC_PREFIX + "rejected").tag("name", name).tag("reason", "queue_full")
+            .description("Calls rejected by the bulkhead.").register(meterRegistry);
+        timeoutCounter = Counter.builder(METRIC_PREFIX + "rejected").tag("name", name).tag("reason", "timeout")
+            .description("Calls rejected by the bulkhead.").register(meterRegistry);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getActiveCount() {
+        return maxConcurrency - permits.availablePermits();
+    }
+
+    public int getQueuedCount() {
+        return queued.get();
+    }
+
+    /**
+     * Acquires a permit, waiting for one if needed. Each successful call must be paired with a {@link #release()}.
+     *
+     * @throws BulkheadFullException if no permit is available in time
+     */
+    public void acquire() {
+        long startTime = System.nanoTime();
+        try {
+            // Unlike tryAcquire(), this doesn't jump ahead of the waiting calls.
+            if (permits.tryAcquire(0, TimeUnit.MILLISECONDS)) {
+                waitTimer.record(0, TimeUnit.NANOSECONDS);
+                return;
+            }
+            if (queued.incrementAndGet() > maxQueueSize) {
+                queued.decrementAndGet();
+                queueFullCounter.increment();
+                throw new BulkheadFullException("Too many concurrent calls in bulkhead " + name + ".");
+            }
+            boolean acquired;
+            try {
+                acquired = permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS);
+            } finally {
+                queued.decrementAndGet();
+                waitTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+            }
+            if (!acquired) {
+                timeoutCounter.increment();
+                throw new BulkheadFullException(
+                    "Timed out after " + maxWaitMillis + "ms when waiting for bulkhead " + name + ".");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BulkheadFullException("Interrupted when waiting for bulkhead " + name + ".");
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2022-2024 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.higress.console.service;
+
+import java.util.Set;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * @author CH3CHO
+ */
+@Data
+@AllArgsConstructor
+public class ConfigChangeEvent {
+
+    private ConfigSnapshot previous;
+
+    private ConfigSnapshot current;
+
+    /**
+     * Keys added, removed or updated.
+     */
+    private Set<String> changedKeys;
+
+    public boolean isChanged(String key) {
+        return changedKeys.contains(key);
+    }
+}
@@ -0,0 +1,26 @@
+/*
+ * Copyright (c) 2022-2024 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.higress.console.service;
+
+/**
+ * Receives changes of console configurations pushed by {@link ConfigService}.
+ * <p>
+ * Listeners are called one at a time in the order the changes are observed, so they are supposed to return quickly.
+ *
+ * @author CH3CHO
+ */
+@FunctionalInterface
+public interface ConfigChangeListener {
+
+    void onConfigChanged(ConfigChangeEvent event);
+}
@@ -48,4 +48,14 @@ public interface ConfigService {
     void removeConfig(String key);
 
     List<String> getConfigKeys();
+
+    /**
+     * @return the current configurations, which are served from memory and kept up to date by watching the
+     *         underlying ConfigMap
+     */
+    ConfigSnapshot getSnapshot();
+
+    void addChangeListener(ConfigChangeListener listener);
+
+    void removeChangeListener(ConfigChangeListener listener);
 }
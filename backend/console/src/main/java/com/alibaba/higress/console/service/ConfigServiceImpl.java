@@ -16,7 +16,14 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.annotation.Resource;
 
 import org.apache.commons.collections4.MapUtils;
@@ -26,95 +33,132 @@ import org.springframework.stereotype.Service;
 
 import com.alibaba.higress.console.constant.SystemConfigKey;
 import com.alibaba.higress.sdk.exception.BusinessException;
+import com.alibaba.higress.sdk.exception.ResourceConflictException;
+import com.alibaba.higress.sdk.http.HttpStatus;
 import com.alibaba.higress.sdk.service.kubernetes.KubernetesClientService;
-import com.google.common.collect.ImmutableList;
+import com.alibaba.higress.sdk.service.kubernetes.KubernetesResourceWatcher;
 
 import io.kubernetes.client.openapi.ApiException;
 import io.kubernetes.client.openapi.models.V1ConfigMap;
 import io.kubernetes.client.openapi.models.V1ObjectMeta;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Configurations are served from an in-memory snapshot of the ConfigMap, which is kept up to date by watching it.
+ * Writes are applied to the snapshot as soon as they are accepted by the API server, so a read following a write in
+ * the same process always sees it.
+ *
+ * @author CH3CHO
+ */
 @Slf4j
 @Service
 public class ConfigServiceImpl implements ConfigService {
 
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+
     @Value("${" + SystemConfigKey.CONFIG_MAP_NAME_KEY + ":" + SystemConfigKey.CONFIG_MAP_NAME_KEY_DEFAULT + "}")
     private String configMapName = SystemConfigKey.CONFIG_MAP_NAME_KEY_DEFAULT;
 
     private KubernetesClientService kubernetesClientService;
 
+    private final List<ConfigChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private final Object stateLock = new Object();
+    /**
+     * Serializes writes. Not a monitor since it is held while talking to the API server.
+     */
+    private final Lock writeLock = new ReentrantLock();
+    /**
+     * {@code null} until the ConfigMap is loaded for the first time.
+     */
+    private volatile State state;
+
+    private KubernetesResourceWatcher<V1ConfigMap> watcher;
+
     @Resource
     public void setKubernetesClientService(KubernetesClientService kubernetesClientService) {
         this.kubernetesClientService = kubernetesClientService;
     }
 
-    @Override
-    public String getString(String key) {
-        if (StringUtils.isEmpty(key)) {
-            return null;
+    @PostConstruct
+    public void start() {
+        watcher = KubernetesResourceWatcher.ofConfigMap(kubernetesClientService, configMapName, new ConfigMapHandler());
+        String resourceVersion = null;
+        try {
+            State state = reload();
+            resourceVersion = state.configMap != null && state.configMap.getMetadata() != null
+                ? state.configMap.getMetadata().getResourceVersion() : null;
+        } catch (Exception e) {
+            log.warn("Failed to load ConfigMap {}. Will retry in background.", configMapName, e);
         }
-        V1ConfigMap configMap = getConfigMap();
-        if (configMap == null || MapUtils.isEmpty(configMap.getData())) {
-            return null;
+        // The watcher loads the ConfigMap by itself if we don't have a version to start from.
+        watcher.start(resourceVersion);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (watcher != null) {
+            watcher.close();
         }
-        String value = configMap.getData().get(key);
-        return value != null ? value.trim() : null;
+    }
+
+    @Override
+    public ConfigSnapshot getSnapshot() {
+        State state = this.state;
+        if (state == null) {
+            // The initial load failed. Try again so the caller gets either the data or the error.
+            state = reload();
+        }
+        return state.snapshot;
+    }
+
+    @Override
+    public void addChangeListener(ConfigChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeChangeListener(ConfigChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public String getString(String key) {
+        return getSnapshot().getString(key);
     }
 
     @Override
     public String getString(String key, String defaultValue) {
-        String value = getString(key);
-        return StringUtils.isNotEmpty(value) ? value : defaultValue;
+        return getSnapshot().getString(key, defaultValue);
     }
 
     @Override
     public Boolean getBoolean(String key) {
-        String value = getString(key);
-        return StringUtils.isNotEmpty(value) ? Boolean.parseBoolean(value) : null;
+        return getSnapshot().getBoolean(key);
     }
 
     @Override
     public boolean getBoolean(String key, boolean defaultValue) {
-        Boolean value = getBoolean(key);
-        return value != null ? value : defaultValue;
+        return getSnapshot().getBoolean(key, defaultValue);
     }
 
     @Override
     public Integer getInteger(String key) {
-        String value = getString(key);
-        if (StringUtils.isEmpty(value)) {
-            return null;
-        }
-        try {
-            return Integer.parseInt(value);
-        } catch (NumberFormatException ex) {
-            return null;
-        }
+        return getSnapshot().getInteger(key);
     }
 
     @Override
     public int getInteger(String key, int defaultValue) {
-        Integer value = getInteger(key);
-        return value != null ? value : defaultValue;
+        return getSnapshot().getInteger(key, defaultValue);
     }
 
     @Override
     public Long getLong(String key) {
-        String value = getString(key);
-        if (StringUtils.isEmpty(value)) {
-            return null;
-        }
-        try {
-            return Long.parseLong(value);
-        } catch (NumberFormatException ex) {
-            return null;
-        }
+        return getSnapshot().getLong(key);
     }
 
     @Override
     public long getLong(String key, long defaultValue) {
-        Long value = getLong(key);
-        return value != null ? value : defaultValue;
+        return getSnapshot().getLong(key, defaultValue);
     }
 
     @Override
@@ -151,28 +195,15 @@ public class ConfigServiceImpl implements ConfigService {
         if (MapUtils.isEmpty(configs)) {
             return;
         }
-
-        V1ConfigMap configMap = getConfigMap();
-        if (configMap == null) {
-            configMap = initConfigMap();
-        }
-        Map<String, String> data = configMap.getData();
-        if (data == null) {
-            data = new HashMap<>();
-            configMap.setData(data);
-        }
-        for (Map.Entry<String, Object> config : configs.entrySet()) {
-            if (config.getValue() == null) {
-                data.remove(config.getKey());
-            } else {
-                data.put(config.getKey(), config.getValue().toString());
+        updateConfigMap(data -> {
+            for (Map.Entry<String, Object> config : configs.entrySet()) {
+                if (config.getValue() == null) {
+                    data.remove(config.getKey());
+                } else {
+                    data.put(config.getKey(), config.getValue().toString());
+                }
             }
-        }
-        try {
-            kubernetesClientService.replaceConfigMap(configMap);
-        } catch (ApiException e) {
-            throw new BusinessException("Error occurs when updating ConfigMap.", e);
-        }
+        });
     }
 
     @Override
@@ -180,28 +211,58 @@ public class ConfigServiceImpl implements ConfigService {
         if (StringUtils.isEmpty(key)) {
             return;
         }
-        V1ConfigMap configMap = getConfigMap();
-        if (configMap == null || MapUtils.isEmpty(configMap.getData())) {
-            return;
-        }
-        configMap.getData().remove(key);
-        try {
-            kubernetesClientService.replaceConfigMap(configMap);
-        } catch (ApiException e) {
-            throw new BusinessException("Error occurs when updating ConfigMap.", e);
-        }
+        updateConfigMap(data -> data.remove(key));
     }
 
     @Override
     public List<String> getConfigKeys() {
-        V1ConfigMap configMap = getConfigMap();
-        if (configMap == null || MapUtils.isEmpty(configMap.getData())) {
-            return Collections.emptyList();
+        return getSnapshot().getKeys();
+    }
+
+    private void updateConfigMap(Consumer<Map<String, String>> updater) {
+        writeLock.lock();
+        try {
+            doUpdateConfigMap(updater);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void doUpdateConfigMap(Consumer<Map<String, String>> updater) {
+        V1ConfigMap current = state != null ? state.configMap : readConfigMap();
+        for (int attempt = 1;; ++attempt) {
+            Map<String, String> oldData =
+                current != null && current.getData() != null ? current.getData() : Collections.emptyMap();
+            Map<String, String> newData = new HashMap<>(oldData);
+            updater.accept(newData);
+            if (newData.equals(oldData)) {
+                return;
+            }
+            try {
+                V1ConfigMap updated;
+                if (current == null) {
+                    V1ConfigMap configMap = new V1ConfigMap();
+                    configMap.setMetadata(new V1ObjectMeta().name(configMapName));
+                    configMap.setData(newData);
+                    updated = kubernetesClientService.createConfigMap(configMap);
+                } else {
+                    updated = kubernetesClientService.replaceConfigMap(copyForWrite(current, newData));
+                }
+                apply(updated, false);
+                return;
+            } catch (ApiException e) {
+                if (e.getCode() != HttpStatus.CONFLICT) {
+                    throw new BusinessException("Error occurs when updating ConfigMap.", e);
+                }
+                if (attempt >= MAX_WRITE_ATTEMPTS) {
+                    throw new ResourceConflictException("ConfigMap " + configMapName + " keeps being modified.");
+                }
+            }
+            current = readConfigMap();
         }
-        return ImmutableList.copyOf(configMap.getData().keySet());
     }
 
-    private V1ConfigMap getConfigMap() {
+    private V1ConfigMap readConfigMap() {
         try {
             return kubernetesClientService.readConfigMap(configMapName);
         } catch (ApiException e) {
@@ -209,16 +270,109 @@ public class ConfigServiceImpl implements ConfigService {
         }
     }
 
-    private V1ConfigMap initConfigMap() {
-        V1ConfigMap configMap = new V1ConfigMap();
-        V1ObjectMeta metadata = new V1ObjectMeta();
-        configMap.metadata(metadata);
-        metadata.setName(configMapName);
-        configMap.setData(Collections.emptyMap());
+    private State reload() {
         try {
-            return kubernetesClientService.createConfigMap(configMap);
+            watcher.reload();
         } catch (ApiException e) {
             throw new BusinessException("Error occurs when reading ConfigMap " + configMapName, e);
         }
+        return state;
+    }
+
+    private State apply(V1ConfigMap configMap, boolean force) {
+        synchronized (stateLock) {
+            State previous = this.state;
+            if (!force && previous != null && previous.configMap != null && configMap != null
+                && isOlder(configMap, previous.configMap)) {
+                return previous;
+            }
+            State current = new State(configMap, ConfigSnapshot.of(configMap != null ? configMap.getData() : null));
+            this.state = current;
+            ConfigSnapshot previousSnapshot = previous != null ? previous.snapshot : ConfigSnapshot.EMPTY;
+            Set<String> changedKeys = current.snapshot.diff(previousSnapshot);
+            if (!changedKeys.isEmpty()) {
+                notifyListeners(new ConfigChangeEvent(previousSnapshot, current.snapshot, changedKeys));
+            }
+            return current;
+        }
+    }
+
+    private void notifyListeners(ConfigChangeEvent event) {
+        for (ConfigChangeListener listener : listeners) {
+            try {
+                listener.onConfigChanged(event);
+            } catch (Exception e) {
+                log.error("Error occurs when notifying config change listener {}.", listener, e);
+            }
+        }
+    }
+
+    private static boolean isOlder(V1ConfigMap configMap, V1ConfigMap reference) {
+        String version = configMap.getMetadata() != null ? configMap.getMetadata().getResourceVersion() : null;
+        String referenceVersion =
+            reference.getMetadata() != null ? reference.getMetadata().getResourceVersion() : null;
+        if (version == null || referenceVersion == null) {
+            return false;
+        }
+        try {
+            return Long.parseLong(version) < Long.parseLong(referenceVersion);
+        } catch (NumberFormatException e) {
+            // Resource versions are supposed to be opaque. Only compare them when they look like numbers.
+            return false;
+        }
+    }
+
+    private static V1ConfigMap copyForWrite(V1ConfigMap configMap, Map<String, String> data) {
+        // The cached object is shared with readers, so it must not be modified in place.
+        V1ObjectMeta metadata = configMap.getMetadata();
+        V1ObjectMeta newMetadata = new V1ObjectMeta();
+        if (metadata != null) {
+            newMetadata.name(metadata.getName()).namespace(metadata.getNamespace()).uid(metadata.getUid())
+                .resourceVersion(metadata.getResourceVersion()).ownerReferences(metadata.getOwnerReferences())
+                .finalizers(metadata.getFinalizers())
+                .labels(metadata.getLabels() != null ? new HashMap<>(metadata.getLabels()) : null)
+                .annotations(metadata.getAnnotations() != null ? new HashMap<>(metadata.getAnnotations()) : null);
+        }
+        V1ConfigMap copy = new V1ConfigMap();
+        copy.setApiVersion(configMap.getApiVersion());
+        copy.setKind(configMap.getKind());
+        copy.setMetadata(newMetadata);
+        copy.setData(data);
+        copy.setBinaryData(configMap.getBinaryData());
+        copy.setImmutable(configMap.getImmutable());
+        return copy;
+    }
+
+    private final class ConfigMapHandler implements KubernetesResourceWatcher.Handler<V1ConfigMap> {
+
+        @Override
+        public void onReload(List<V1ConfigMap> resources) {
+            // A reload replaces whatever we have, since the ConfigMap may have been deleted and recreated.
+            apply(resources.isEmpty() ? null : resources.get(0), true);
+        }
+
+        @Override
+        public void onChanged(V1ConfigMap resource) {
+            apply(resource, false);
+        }
+
+        @Override
+        public void onDeleted(V1ConfigMap resource) {
+            apply(null, true);
+        }
+    }
+
+    private static final class State {
+
+        /**
+         * {@code null} if the ConfigMap doesn't exist.
+         */
+        private final V1ConfigMap configMap;
+        private final ConfigSnapshot snapshot;
+
+        private State(V1ConfigMap configMap, ConfigSnapshot snapshot) {
+            this.configMap = configMap;
+            this.snapshot = snapshot;
+        }
     }
 }
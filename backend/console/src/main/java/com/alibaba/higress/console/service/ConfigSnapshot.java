@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2022-2024 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.higress.console.service;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * An immutable view of the console configurations at a certain point.
+ *
+ * @author CH3CHO
+ */
+public final class ConfigSnapshot {
+
+    public static final ConfigSnapshot EMPTY = new ConfigSnapshot(Collections.emptyMap());
+
+    private final Map<String, String> data;
+
+    private ConfigSnapshot(Map<String, String> data) {
+        this.data = data;
+    }
+
+    public static ConfigSnapshot of(Map<String, String> data) {
+        if (data == null || data.isEmpty()) {
+            return EMPTY;
+        }
+        ImmutableMap.Builder<String, String> builder = ImmutableMap.builderWithExpectedSize(data.size());
+        data.forEach((k, v) -> {
+            if (k != null && v != null) {
+                builder.put(k, v);
+            }
+        });
+        return new ConfigSnapshot(builder.build());
+    }
+
+    public String getString(String key) {
+        if (StringUtils.isEmpty(key)) {
+            return null;
+        }
+        String value = data.get(key);
+        return value != null ? value.trim() : null;
+    }
+
+    public String getString(String key, String defaultValue) {
+        String value = getString(key);
+        return StringUtils.isNotEmpty(value) ? value : defaultValue;
+    }
+
+    public Boolean getBoolean(String key) {
+        String value = getString(key);
+        return StringUtils.isNotEmpty(value) ? Boolean.parseBoolean(value) : null;
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        Boolean value = getBoolean(key);
+        return value != null ? value : defaultValue;
+    }
+
+    public Integer getInteger(String key) {
+        String value = getString(key);
+        if (StringUtils.isEmpty(value)) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    public int getInteger(String key, int defaultValue) {
+        Integer value = getInteger(key);
+        return value != null ? value : defaultValue;
+    }
+
+    public Long getLong(String key) {
+        String value = getString(key);
+        if (StringUtils.isEmpty(value)) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    public long getLong(String key, long defaultValue) {
+        Long value = getLong(key);
+        return value != null ? value : defaultValue;
+    }
+
+    public List<String> getKeys() {
+        return ImmutableList.copyOf(data.keySet());
+    }
+
+    /**
+     * @return keys added, removed or updated in this snapshot comparing to the given one
+     */
+    public Set<String> diff(ConfigSnapshot previous) {
+        Set<String> changedKeys = new HashSet<>();
+        for (Map.Entry<String, String> entry : data.entrySet()) {
+            if (!Objects.equals(entry.getValue(), previous.data.get(entry.getKey()))) {
+                changedKeys.add(entry.getKey());
+            }
+        }
+        for (String key : previous.data.keySet()) {
+            if (!data.containsKey(key)) {
+                changedKeys.add(key);
+            }
+        }
+        return changedKeys;
+    }
+}
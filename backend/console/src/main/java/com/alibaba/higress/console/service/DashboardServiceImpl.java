@@ -13,39 +13,45 @@
 package com.alibaba.higress.console.service;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.annotation.Resource;
+import javax.servlet.AsyncContext;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.http.Header;
 import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.client.methods.RequestBuilder;
-import org.apache.http.entity.BufferedHttpEntity;
 import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
 import org.apache.http.impl.client.HttpClients;
-import org.apache.http.message.BasicHeader;
-import org.apache.tomcat.util.http.fileupload.util.Streams;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -55,13 +61,17 @@ import com.alibaba.higress.console.client.grafana.models.DatasourceCreationResul
 import com.alibaba.higress.console.client.grafana.models.GrafanaDashboard;
 import com.alibaba.higress.console.client.grafana.models.GrafanaSearchResult;
 import com.alibaba.higress.console.client.grafana.models.SearchType;
+import com.alibaba.higress.console.config.BulkheadConfig;
 import com.alibaba.higress.console.constant.SystemConfigKey;
 import com.alibaba.higress.console.constant.UserConfigKey;
 import com.alibaba.higress.console.controller.dto.DashboardInfo;
+import com.alibaba.higress.console.controller.exception.BulkheadFullException;
 import com.alibaba.higress.sdk.exception.BusinessException;
+import com.alibaba.higress.sdk.util.VirtualThreadUtil;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -71,10 +81,18 @@ import lombok.extern.slf4j.Slf4j;
 @Service
 public class DashboardServiceImpl implements DashboardService {
 
-    private static final Set<String> IGNORE_REQUEST_HEADERS =
-        ImmutableSet.of("connection", "accept-encoding", "content-length");
-    private static final Set<String> IGNORE_RESPONSE_HEADERS =
-        ImmutableSet.of("connection", "content-length", "content-encoding", "server", "transfer-encoding");
+    /**
+     * Hop-by-hop headers, plus the ones set by the HTTP client itself.
+     */
+    private static final Set<String> IGNORE_REQUEST_HEADERS = ImmutableSet.of("connection", "keep-alive",
+        "proxy-authorization", "te", "trailer", "transfer-encoding", "upgrade", "content-length");
+    private static final Set<String> IGNORE_RESPONSE_HEADERS = ImmutableSet.of("connection", "keep-alive",
+        "proxy-authenticate", "trailer", "transfer-encoding", "upgrade", "server");
+    private static final int PROXY_BUFFER_SIZE = 8192;
+    /**
+     * How many TTLs a cached dashboard list can still be served while being refreshed.
+     */
+    private static final int METADATA_CACHE_MAX_STALENESS_FACTOR = 6;
 
     private static final String DATASOURCE_UID_PLACEHOLDER = "${datasource.id}";
     private static final String MAIN_DASHBOARD_DATA_PATH = "/dashboard/main.json";
@@ -124,21 +142,58 @@ public class DashboardServiceImpl implements DashboardService {
         + SystemConfigKey.DASHBOARD_PROXY_SOCKET_TIMEOUT_DEFAULT + "}")
     private int proxySocketTimeout = SystemConfigKey.DASHBOARD_PROXY_SOCKET_TIMEOUT_DEFAULT;
 
+    @Value("${" + SystemConfigKey.DASHBOARD_PROXY_MAX_CONNECTIONS_KEY + ":"
+        + SystemConfigKey.DASHBOARD_PROXY_MAX_CONNECTIONS_DEFAULT + "}")
+    private int proxyMaxConnections = SystemConfigKey.DASHBOARD_PROXY_MAX_CONNECTIONS_DEFAULT;
+
+    @Value("${" + SystemConfigKey.DASHBOARD_PROXY_KEEP_ALIVE_KEY + ":"
+        + SystemConfigKey.DASHBOARD_PROXY_KEEP_ALIVE_DEFAULT + "}")
+    private int proxyKeepAlive = SystemConfigKey.DASHBOARD_PROXY_KEEP_ALIVE_DEFAULT;
+
+    @Value("${" + SystemConfigKey.DASHBOARD_PROXY_ASYNC_KEY + ":" + SystemConfigKey.DASHBOARD_PROXY_ASYNC_DEFAULT + "}")
+    private boolean proxyAsync = SystemConfigKey.DASHBOARD_PROXY_ASYNC_DEFAULT;
+
+    @Value("${" + SystemConfigKey.VIRTUAL_THREADS_ENABLED_KEY + ":" + SystemConfigKey.VIRTUAL_THREADS_ENABLED_DEFAULT
+        + "}")
+    private boolean virtualThreadsEnabled = SystemConfigKey.VIRTUAL_THREADS_ENABLED_DEFAULT;
+
+    @Value("${" + SystemConfigKey.DASHBOARD_METADATA_CACHE_TTL_KEY + ":"
+        + SystemConfigKey.DASHBOARD_METADATA_CACHE_TTL_DEFAULT + "}")
+    private long metadataCacheTtl = SystemConfigKey.DASHBOARD_METADATA_CACHE_TTL_DEFAULT;
+
     private ConfigService configService;
+    private MeterRegistry meterRegistry;
     private GrafanaClient grafanaClient;
+    private GrafanaDashboardCache dashboardCache;
     private CloseableHttpClient realServerClient;
+    /**
+     * Runs proxied requests when async proxying is enabled, so Tomcat threads are not held while waiting for Grafana.
+     */
+    private ExecutorService proxyExecutor;
+    private Bulkhead proxyBulkhead;
     private String realServerBaseUrl;
 
     private String mainDashboardConfiguration;
     private GrafanaDashboard configuredMainDashboard;
     private String logDashboardConfiguration;
     private GrafanaDashboard configuredLogDashboard;
+    private volatile String configuredDashboardUrl;
 
     @Resource
     public void setConfigService(ConfigService configService) {
         this.configService = configService;
     }
 
+    @Resource
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Resource(name = BulkheadConfig.DASHBOARD_PROXY_BULKHEAD)
+    public void setProxyBulkhead(Bulkhead proxyBulkhead) {
+        this.proxyBulkhead = proxyBulkhead;
+    }
+
     @PostConstruct
     public void initialize() {
         try {
@@ -157,14 +212,50 @@ public class DashboardServiceImpl implements DashboardService {
                 throw new IllegalArgumentException("Invalid dashboard base url: " + apiBaseUrl, e);
             }
 
-            RequestConfig requestConfig = RequestConfig.custom().setConnectTimeout(proxyConnectionTimeout)
-                .setSocketTimeout(proxySocketTimeout).build();
-            realServerClient =
-                HttpClients.custom().setDefaultRequestConfig(requestConfig).disableRedirectHandling().build();
+            realServerClient = buildRealServerClient();
+            if (proxyAsync && virtualThreadsEnabled && VirtualThreadUtil.isSupported()) {
+                // The number of concurrent requests is still bounded by the connection pool.
+                proxyExecutor = VirtualThreadUtil.newThreadPerTaskExecutor("DashboardService-Proxy-");
+            } else if (proxyAsync) {
+                proxyExecutor = new ThreadPoolExecutor(0, proxyMaxConnections, 1, TimeUnit.MINUTES,
+                    new SynchronousQueue<>(),
+                    new ThreadFactoryBuilder().setDaemon(true).setNameFormat("DashboardService-Proxy-%d").build());
+            }
             realServerBaseUrl = apiBaseUrl.substring(0, apiBaseUrl.length() - apiBaseUrlObject.getPath().length());
 
             grafanaClient = new GrafanaClient(apiBaseUrl, username, password);
+            dashboardCache = new GrafanaDashboardCache(() -> grafanaClient.search(null, SearchType.DB, null, null),
+                metadataCacheTtl, metadataCacheTtl * METADATA_CACHE_MAX_STALENESS_FACTOR, meterRegistry);
             EXECUTOR.submit(new DashboardInitializer(overwriteWhenStartUp));
+        } else {
+            configService.addChangeListener(event -> {
+                if (event.isChanged(UserConfigKey.DASHBOARD_URL)) {
+                    configuredDashboardUrl = event.getCurrent().getString(UserConfigKey.DASHBOARD_URL);
+                }
+            });
+            try {
+                configuredDashboardUrl = configService.getString(UserConfigKey.DASHBOARD_URL);
+            } catch (Exception e) {
+                // The listener above will pick it up once configs are loaded.
+                log.warn("Failed to load the configured dashboard URL.", e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (dashboardCache != null) {
+            dashboardCache.close();
+        }
+        if (proxyExecutor != null) {
+            proxyExecutor.shutdown();
+        }
+        if (realServerClient != null) {
+            try {
+                realServerClient.close();
+            } catch (IOException e) {
+                log.warn("Error occurs when closing dashboard proxy client.", e);
+            }
         }
     }
 
@@ -188,16 +279,21 @@ public class DashboardServiceImpl implements DashboardService {
         String promDatasourceUid = configurePrometheusDatasource(datasources);
         String lokiDatasourceUid = configureLokiDatasource(datasources);
 
+        // Dashboards are about to be modified, so they are always loaded from Grafana here.
         List<GrafanaSearchResult> results;
         try {
             results = grafanaClient.search(null, SearchType.DB, null, null);
         } catch (IOException e) {
             throw new BusinessException("Error occurs when loading dashboard info from Grafana.", e);
         }
-        configureDashboard(results, configuredMainDashboard.getTitle(), mainDashboardConfiguration, promDatasourceUid,
-            overwrite);
-        configureDashboard(results, configuredLogDashboard.getTitle(), logDashboardConfiguration, lokiDatasourceUid,
-            overwrite);
+        try {
+            configureDashboard(results, configuredMainDashboard.getTitle(), mainDashboardConfiguration,
+                promDatasourceUid, overwrite);
+            configureDashboard(results, configuredLogDashboard.getTitle(), logDashboardConfiguration,
+                lokiDatasourceUid, overwrite);
+        } finally {
+            dashboardCache.invalidate();
+        }
     }
 
     @Override
@@ -224,11 +320,87 @@ public class DashboardServiceImpl implements DashboardService {
         }
 
         HttpUriRequest proxyRequest = buildRealServerRequest(request);
+        try {
+            proxyBulkhead.acquire();
+        } catch (BulkheadFullException e) {
+            log.warn("Rejecting dashboard request {}: {}", proxyRequest.getURI(), e.getMessage());
+            sendErrorIfPossible(response, HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return;
+        }
+        if (proxyExecutor == null) {
+            try {
+                forward(proxyRequest, response);
+            } finally {
+                proxyBulkhead.release();
+            }
+            return;
+        }
+
+        AsyncContext asyncContext;
+        try {
+            asyncContext = request.startAsync(request, response);
+        } catch (RuntimeException e) {
+            proxyBulkhead.release();
+            throw e;
+        }
+        // Leave the timeout to the HTTP client.
+        asyncContext.setTimeout(0);
+        try {
+            proxyExecutor.execute(() -> {
+                try {
+                    forward(proxyRequest, response);
+                } catch (Exception e) {
+                    log.warn("Error occurs when forwarding dashboard request {}.", proxyRequest.getURI(), e);
+                    sendErrorIfPossible(response, HttpServletResponse.SC_BAD_GATEWAY);
+                } finally {
+                    proxyBulkhead.release();
+                    asyncContext.complete();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            proxyBulkhead.release();
+            log.warn("Too many concurrent dashboard requests. Rejecting {}.", proxyRequest.getURI());
+            sendErrorIfPossible(response, HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            asyncContext.complete();
+        }
+    }
+
+    private CloseableHttpClient buildRealServerClient() {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(proxyMaxConnections);
+        // All the requests go to the same Grafana server.
+        connectionManager.setDefaultMaxPerRoute(proxyMaxConnections);
+        connectionManager.setValidateAfterInactivity(proxyKeepAlive / 2);
+        RequestConfig requestConfig = RequestConfig.custom().setConnectTimeout(proxyConnectionTimeout)
+            .setConnectionRequestTimeout(proxyConnectionTimeout).setSocketTimeout(proxySocketTimeout).build();
+        ConnectionKeepAliveStrategy keepAliveStrategy = (response, context) -> {
+            long keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return keepAlive > 0 ? Math.min(keepAlive, proxyKeepAlive) : proxyKeepAlive;
+        };
+        // Compressed responses are passed through as they are instead of being decompressed here.
+        return HttpClients.custom().setConnectionManager(connectionManager).setDefaultRequestConfig(requestConfig)
+            .setKeepAliveStrategy(keepAliveStrategy).evictExpiredConnections()
+            .evictIdleConnections(proxyKeepAlive, TimeUnit.MILLISECONDS).disableContentCompression()
+            .disableRedirectHandling().disableCookieManagement().build();
+    }
+
+    private void forward(HttpUriRequest proxyRequest, HttpServletResponse response) throws IOException {
         try (CloseableHttpResponse proxyResponse = realServerClient.execute(proxyRequest)) {
             forwardResponse(response, proxyResponse);
         }
     }
 
+    private static void sendErrorIfPossible(HttpServletResponse response, int status) {
+        if (response.isCommitted()) {
+            return;
+        }
+        try {
+            response.sendError(status);
+        } catch (IOException e) {
+            log.debug("Error occurs when sending error response.", e);
+        }
+    }
+
     private String configurePrometheusDatasource(List<Datasource> existedDatasources) {
         String datasourceUid = null;
         if (CollectionUtils.isNotEmpty(existedDatasources)) {
@@ -324,12 +496,7 @@ public class DashboardServiceImpl implements DashboardService {
     }
 
     private DashboardInfo getBuiltInDashboardInfo() {
-        List<GrafanaSearchResult> results;
-        try {
-            results = grafanaClient.search(null, SearchType.DB, null, null);
-        } catch (IOException e) {
-            throw new BusinessException("Error occurs when loading dashboard info from Grafana.", e);
-        }
+        List<GrafanaSearchResult> results = dashboardCache.get();
         if (CollectionUtils.isEmpty(results)) {
             return new DashboardInfo(true, null, null);
         }
@@ -343,8 +510,7 @@ public class DashboardServiceImpl implements DashboardService {
     }
 
     private DashboardInfo getConfiguredDashboardInfo() {
-        String url = configService.getString(UserConfigKey.DASHBOARD_URL);
-        return new DashboardInfo(false, null, url);
+        return new DashboardInfo(false, null, configuredDashboardUrl);
     }
 
     private boolean isBuiltIn() {
@@ -366,24 +532,50 @@ public class DashboardServiceImpl implements DashboardService {
             url = url + "?" + originalRequest.getQueryString();
         }
 
-        HttpEntity entity = new BufferedHttpEntity(
-            new InputStreamEntity(originalRequest.getInputStream(), originalRequest.getContentLength()));
-        HttpUriRequest request =
-            RequestBuilder.create(originalRequest.getMethod()).setEntity(entity).setUri(url).build();
-
-        Collections.list(originalRequest.getHeaderNames()).stream()
-            .filter(name -> !IGNORE_REQUEST_HEADERS.contains(name.toLowerCase()))
-            .forEach(name -> request.setHeader(new BasicHeader(name, originalRequest.getHeader(name))));
+        RequestBuilder builder = RequestBuilder.create(originalRequest.getMethod()).setUri(url);
+        if (hasBody(originalRequest)) {
+            // Streamed as it is read from the client.
+            builder.setEntity(
+                new InputStreamEntity(originalRequest.getInputStream(), originalRequest.getContentLengthLong()));
+        }
+        for (String name : Collections.list(originalRequest.getHeaderNames())) {
+            if (IGNORE_REQUEST_HEADERS.contains(name.toLowerCase())) {
+                continue;
+            }
+            for (String value : Collections.list(originalRequest.getHeaders(name))) {
+                builder.addHeader(name, value);
+            }
+        }
+        return builder.build();
+    }
 
-        return request;
+    private static boolean hasBody(HttpServletRequest request) {
+        return request.getContentLengthLong() > 0 || request.getHeader(HttpHeaders.TRANSFER_ENCODING) != null;
     }
 
     private void forwardResponse(HttpServletResponse response, HttpResponse forwardResponse) throws IOException {
-        Arrays.stream(forwardResponse.getAllHeaders())
-            .filter(header -> !IGNORE_RESPONSE_HEADERS.contains(header.getName().toLowerCase()))
-            .forEach(header -> response.setHeader(header.getName(), header.getValue()));
         response.setStatus(forwardResponse.getStatusLine().getStatusCode());
-        Streams.copy(forwardResponse.getEntity().getContent(), response.getOutputStream(), false);
+        for (Header header : forwardResponse.getAllHeaders()) {
+            if (!IGNORE_RESPONSE_HEADERS.contains(header.getName().toLowerCase())) {
+                response.addHeader(header.getName(), header.getValue());
+            }
+        }
+        HttpEntity entity = forwardResponse.getEntity();
+        if (entity == null) {
+            return;
+        }
+        try (InputStream input = entity.getContent()) {
+            OutputStream output = response.getOutputStream();
+            byte[] buffer = new byte[PROXY_BUFFER_SIZE];
+            int n;
+            while ((n = input.read(buffer)) != -1) {
+                output.write(buffer, 0, n);
+                if (input.available() == 0) {
+                    // Nothing more to send right now. Let the client have what we've got, e.g. streamed query results.
+                    output.flush();
+                }
+            }
+        }
     }
 
     private class DashboardInitializer implements Runnable {
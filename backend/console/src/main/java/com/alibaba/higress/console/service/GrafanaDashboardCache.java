@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2022-2024 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.higress.console.service;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.alibaba.higress.console.client.grafana.models.GrafanaSearchResult;
+import com.alibaba.higress.sdk.exception.BusinessException;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Caches the dashboards found in Grafana. A cached result older than the TTL is still served, while a refresh is
+ * started in background. Only results older than the max staleness are loaded in the calling thread.
+ *
+ * @author CH3CHO
+ */
+@Slf4j
+final class GrafanaDashboardCache {
+
+    private static final String METRIC_NAME = "higress.console.grafana.dashboard.cache";
+
+    private final Loader loader;
+    private final long ttl;
+    private final long maxStaleness;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final ThreadPoolExecutor refreshExecutor;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    private final Object lock = new Object();
+    /**
+     * Increased on each invalidation, so results loaded before that are discarded.
+     */
+    private long generation;
+    private volatile Entry entry;
+
+    GrafanaDashboardCache(Loader loader, long ttl, long maxStaleness, MeterRegistry meterRegistry) {
+        this.loader = loader;
+        this.ttl = ttl;
+        this.maxStaleness = maxStaleness;
+        this.hitCounter = Counter.builder(METRIC_NAME).tag("result", "hit")
+            .description("Lookups of Grafana dashboards served from cache.").register(meterRegistry);
+        this.missCounter = Counter.builder(METRIC_NAME).tag("result", "miss")
+            .description("Lookups of Grafana dashboards loaded from Grafana.").register(meterRegistry);
+        this.refreshExecutor = new ThreadPoolExecutor(1, 1, 1, TimeUnit.MINUTES, new LinkedBlockingQueue<>(),
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("GrafanaDashboardCache-Refresher-%d").build());
+        this.refreshExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    List<GrafanaSearchResult> get() {
+        Entry entry = this.entry;
+        if (entry != null) {
+            long age = System.currentTimeMillis() - entry.loadTimestamp;
+            if (age < maxStaleness) {
+                hitCounter.increment();
+                if (age >= ttl) {
+                    refreshInBackground();
+                }
+                return entry.results;
+            }
+        }
+        missCounter.increment();
+        try {
+            return load();
+        } catch (IOException e) {
+            throw new BusinessException("Error occurs when loading dashboard info from Grafana.", e);
+        }
+    }
+
+    void invalidate() {
+        synchronized (lock) {
+            ++generation;
+            entry = null;
+        }
+    }
+
+    void close() {
+        refreshExecutor.shutdownNow();
+    }
+
+    private void refreshInBackground() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    load();
+                } catch (Exception e) {
+                    log.warn("Error occurs when refreshing dashboard info from Grafana.", e);
+                } finally {
+                    refreshing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.set(false);
+        }
+    }
+
+    private List<GrafanaSearchResult> load() throws IOException {
+        long loadGeneration;
+        synchronized (lock) {
+            loadGeneration = generation;
+        }
+        List<GrafanaSearchResult> results = loader.load();
+        results = results != null ? ImmutableList.copyOf(results) : ImmutableList.of();
+        synchronized (lock) {
+            if (loadGeneration == generation) {
+                entry = new Entry(results, System.currentTimeMillis());
+            }
+        }
+        return results;
+    }
+
+    @FunctionalInterface
+    interface Loader {
+
+        List<GrafanaSearchResult> load() throws IOException;
+    }
+
+    private static final class Entry {
+
+        private final List<GrafanaSearchResult> results;
+        private final long loadTimestamp;
+
+        private Entry(List<GrafanaSearchResult> results, long loadTimestamp) {
+            this.results = results;
+            this.loadTimestamp = loadTimestamp;
+        }
+    }
+}
@@ -12,12 +12,18 @@
  */
 package com.alibaba.higress.console.service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.GeneralSecurityException;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.annotation.Resource;
 import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServletRequest;
@@ -32,17 +38,25 @@ import org.springframework.stereotype.Service;
 import com.alibaba.higress.console.constant.SystemConfigKey;
 import com.alibaba.higress.console.constant.UserConfigKey;
 import com.alibaba.higress.console.controller.dto.User;
-import com.alibaba.higress.console.util.AesUtil;
+import com.alibaba.higress.console.util.TokenCodec;
 import com.alibaba.higress.sdk.exception.BusinessException;
 import com.alibaba.higress.sdk.exception.ValidationException;
 import com.alibaba.higress.sdk.service.kubernetes.KubernetesClientService;
+import com.alibaba.higress.sdk.service.kubernetes.KubernetesResourceWatcher;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
 
 import io.kubernetes.client.openapi.ApiException;
 import io.kubernetes.client.openapi.models.V1ObjectMeta;
 import io.kubernetes.client.openapi.models.V1Secret;
 import io.kubernetes.client.util.Strings;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -60,6 +74,7 @@ public class SessionServiceImpl implements SessionService {
     private static final String ENCRYPT_IV_KEY = "iv";
     private static final int ENCRYPT_IV_LENGTH = 16;
     private static final String TOKEN_PART_SEPARATOR= "\1";
+    private static final int VALIDATED_TOKEN_CACHE_SIZE = 1024;
 
     @Value("${" + SystemConfigKey.ADMIN_COOKIE_NAME_KEY + ":" + SystemConfigKey.ADMIN_COOKIE_NAME_DEFAULT + "}")
     private String cookieName = SystemConfigKey.ADMIN_COOKIE_NAME_DEFAULT;
@@ -73,10 +88,30 @@ public class SessionServiceImpl implements SessionService {
     @Value("${" + SystemConfigKey.ADMIN_CONFIG_TTL_KEY + ":" + SystemConfigKey.ADMIN_CONFIG_TTL_DEFAULT + "}")
     private long configTtl = SystemConfigKey.ADMIN_CONFIG_TTL_DEFAULT;
 
+    @Value("${" + SystemConfigKey.ADMIN_LEGACY_TOKEN_ENABLED_KEY + ":"
+        + SystemConfigKey.ADMIN_LEGACY_TOKEN_ENABLED_DEFAULT + "}")
+    private boolean legacyTokenEnabled = SystemConfigKey.ADMIN_LEGACY_TOKEN_ENABLED_DEFAULT;
+
     private ConfigService configService;
     private KubernetesClientService kubernetesClientService;
 
-    private final AtomicReference<AdminConfig> adminConfigCache = new AtomicReference<>();
+    private final AtomicReference<CachedAdminConfig> adminConfigCache = new AtomicReference<>();
+    /**
+     * Not a monitor, since the secret is read while holding it, which would pin the carrier of a virtual thread.
+     */
+    private final Lock adminConfigLock = new ReentrantLock();
+    /**
+     * SHA-256 digests of tokens which are already validated, mapped to the admin config they are validated against, so
+     * they don't have to be decrypted again.
+     */
+    private final Cache<HashCode, AdminConfig> validatedTokens =
+        CacheBuilder.newBuilder().maximumSize(VALIDATED_TOKEN_CACHE_SIZE).build();
+
+    /**
+     * Keeps the cached admin config up to date. The TTL above is only a fallback for when the watch is broken.
+     */
+    private KubernetesResourceWatcher<V1Secret> adminSecretWatcher;
+    private volatile boolean passwordChangeDisabled;
 
     @Resource
     public void setConfigService(ConfigService configService) {
@@ -88,6 +123,34 @@ public class SessionServiceImpl implements SessionService {
         this.kubernetesClientService = kubernetesClientService;
     }
 
+    @PostConstruct
+    public void initialize() {
+        configService.addChangeListener(event -> {
+            if (event.isChanged(UserConfigKey.ADMIN_PASSWORD_CHANGE_DISABLED)) {
+                passwordChangeDisabled =
+                    event.getCurrent().getBoolean(UserConfigKey.ADMIN_PASSWORD_CHANGE_DISABLED, false);
+            }
+        });
+        try {
+            passwordChangeDisabled = configService.getBoolean(UserConfigKey.ADMIN_PASSWORD_CHANGE_DISABLED, false);
+        } catch (Exception e) {
+            // The listener above will pick it up once configs are loaded.
+            log.warn("Failed to load the password change switch.", e);
+        }
+
+        adminSecretWatcher =
+            KubernetesResourceWatcher.ofSecret(kubernetesClientService, secretName, new AdminSecretHandler());
+        CachedAdminConfig cached = adminConfigCache.get();
+        adminSecretWatcher.start(cached != null ? cached.getResourceVersion() : null);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (adminSecretWatcher != null) {
+            adminSecretWatcher.close();
+        }
+    }
+
     @Override
     public boolean isAdminInitialized() {
         return tryGetAdminConfig() != null;
@@ -138,7 +201,7 @@ public class SessionServiceImpl implements SessionService {
             }
         }
 
-        adminConfigCache.set(null);
+        invalidateAdminConfig();
     }
 
     @Override
@@ -184,11 +247,17 @@ public class SessionServiceImpl implements SessionService {
             return null;
         }
 
+        HashCode digest = Hashing.sha256().hashString(token, StandardCharsets.UTF_8);
+        if (validatedTokens.getIfPresent(digest) == config) {
+            return config.toUser();
+        }
+
         String rawToken;
         try {
-            rawToken = AesUtil.decrypt(config.getEncryptKey(), config.getEncryptIv(), token);
+            rawToken = config.getTokenCodec().decode(token);
         } catch (GeneralSecurityException e) {
-            log.warn("Error occurs when decrypting token: " + token, e);
+            // The token is a credential, so it is not logged.
+            log.warn("Invalid session token received: {}", e.toString());
             return null;
         }
 
@@ -199,13 +268,13 @@ public class SessionServiceImpl implements SessionService {
         if (!config.getUsername().equals(segments[0]) || !config.getPassword().equals(segments[1])) {
             return null;
         }
+        validatedTokens.put(digest, config);
         return config.toUser();
     }
 
     @Override
     public void changePassword(String username, String oldPassword, String newPassword) {
-        boolean disabled = configService.getBoolean(UserConfigKey.ADMIN_PASSWORD_CHANGE_DISABLED, false);
-        if (disabled) {
+        if (passwordChangeDisabled) {
             throw new IllegalStateException("Password change is disabled.");
         }
 
@@ -237,7 +306,7 @@ public class SessionServiceImpl implements SessionService {
             throw new BusinessException("Error occurs when trying to update admin secret.", e);
         }
 
-        adminConfigCache.set(null);
+        invalidateAdminConfig();
     }
 
     private Cookie buildEmptyCookie() {
@@ -255,7 +324,7 @@ public class SessionServiceImpl implements SessionService {
         String rawToken = String.join(TOKEN_PART_SEPARATOR, config.getUsername(), config.getPassword(),
             String.valueOf(System.currentTimeMillis()));
         try {
-            return AesUtil.encrypt(config.getEncryptKey(), config.getEncryptIv(), rawToken);
+            return config.getTokenCodec().encode(rawToken);
         } catch (GeneralSecurityException e) {
             throw new BusinessException("Error occurs when generating token for user " + user.getName(), e);
         }
@@ -270,24 +339,60 @@ public class SessionServiceImpl implements SessionService {
     }
 
     private AdminConfig tryGetAdminConfig() {
-        AdminConfig localAdminConfig = adminConfigCache.get();
-        if (localAdminConfig == null || !localAdminConfig.isExpired(configTtl)) {
-            localAdminConfig = loadAdminConfig();
-            if (localAdminConfig != null && localAdminConfig.isValid()) {
-                localAdminConfig.setLastUpdateTimestamp(System.currentTimeMillis());
-                adminConfigCache.set(localAdminConfig);
+        CachedAdminConfig cached = adminConfigCache.get();
+        if (cached != null && !cached.isExpired(configTtl)) {
+            return cached.getConfig();
+        }
+        adminConfigLock.lock();
+        try {
+            cached = adminConfigCache.get();
+            if (cached != null && !cached.isExpired(configTtl)) {
+                return cached.getConfig();
             }
+            V1Secret secret;
+            try {
+                secret = kubernetesClientService.readSecret(secretName);
+            } catch (ApiException e) {
+                // Keep serving the last known config for a while rather than logging everyone out.
+                log.warn("Failed to load admin secret from K8s.", e);
+                return cached != null ? cached.getConfig() : null;
+            }
+            return cacheAdminConfig(secret);
+        } finally {
+            adminConfigLock.unlock();
         }
-        return localAdminConfig;
     }
 
-    private AdminConfig loadAdminConfig() {
-        V1Secret secret;
+    private AdminConfig cacheAdminConfig(V1Secret secret) {
+        AdminConfig config = parseAdminConfig(secret);
+        CachedAdminConfig previous = adminConfigCache.get();
+        if (previous != null && config != null && config.equals(previous.getConfig())) {
+            // Keep the same instance, so tokens validated against it are still valid.
+            config = previous.getConfig();
+        } else {
+            validatedTokens.invalidateAll();
+        }
+        String resourceVersion =
+            secret != null && secret.getMetadata() != null ? secret.getMetadata().getResourceVersion() : null;
+        adminConfigCache.set(new CachedAdminConfig(config, resourceVersion, System.currentTimeMillis()));
+        return config;
+    }
+
+    private void applyAdminSecret(V1Secret secret) {
+        adminConfigLock.lock();
         try {
-            secret = kubernetesClientService.readSecret(secretName);
-        } catch (ApiException e) {
-            return null;
+            cacheAdminConfig(secret);
+        } finally {
+            adminConfigLock.unlock();
         }
+    }
+
+    private void invalidateAdminConfig() {
+        adminConfigCache.set(null);
+        validatedTokens.invalidateAll();
+    }
+
+    private AdminConfig parseAdminConfig(V1Secret secret) {
         if (secret == null) {
             return null;
         }
@@ -298,9 +403,12 @@ public class SessionServiceImpl implements SessionService {
         AdminConfig adminConfig = AdminConfig.builder().username(getString(data, USERNAME_KEY))
             .displayName(getString(data, DISPLAY_NAME_KEY)).password(getString(data, PASSWORD_KEY))
             .encryptKey(getString(data, ENCRYPT_KEY_KEY)).encryptIv(getString(data, ENCRYPT_IV_KEY)).build();
-        // AdminConfig adminConfig = AdminConfig.builder().name("admin").displayName("Admin").password("123456")
-        // .encryptKey("").encryptIv("").build();
-        return adminConfig.isValid() ? adminConfig : null;
+        if (!adminConfig.isValid()) {
+            return null;
+        }
+        adminConfig.setTokenCodec(
+            new TokenCodec(adminConfig.getEncryptKey(), adminConfig.getEncryptIv(), legacyTokenEnabled));
+        return adminConfig;
     }
 
     private static String getString(Map<String, byte[]> map, String key) {
@@ -308,6 +416,24 @@ public class SessionServiceImpl implements SessionService {
         return value != null ? new String(value) : null;
     }
 
+    private final class AdminSecretHandler implements KubernetesResourceWatcher.Handler<V1Secret> {
+
+        @Override
+        public void onReload(List<V1Secret> resources) {
+            applyAdminSecret(resources.isEmpty() ? null : resources.get(0));
+        }
+
+        @Override
+        public void onChanged(V1Secret resource) {
+            applyAdminSecret(resource);
+        }
+
+        @Override
+        public void onDeleted(V1Secret resource) {
+            applyAdminSecret(null);
+        }
+    }
+
     @Data
     @Builder
     private static class AdminConfig {
@@ -322,18 +448,34 @@ public class SessionServiceImpl implements SessionService {
 
         private String encryptIv;
 
-        private long lastUpdateTimestamp;
+        @EqualsAndHashCode.Exclude
+        @ToString.Exclude
+        private TokenCodec tokenCodec;
 
         public boolean isValid() {
             return StringUtils.isNoneBlank(username, password, encryptKey, encryptIv);
         }
 
-        public boolean isExpired(long ttl) {
-            return System.currentTimeMillis() - lastUpdateTimestamp >= ttl;
-        }
-
         public User toUser() {
             return User.builder().name(username).displayName(displayName).build();
         }
     }
+
+    @Data
+    @AllArgsConstructor
+    private static class CachedAdminConfig {
+
+        /**
+         * {@code null} if the admin is not initialized yet.
+         */
+        private AdminConfig config;
+
+        private String resourceVersion;
+
+        private long loadTimestamp;
+
+        public boolean isExpired(long ttl) {
+            return System.currentTimeMillis() - loadTimestamp >= ttl;
+        }
+    }
 }
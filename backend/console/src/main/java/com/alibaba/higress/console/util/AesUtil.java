@@ -1,51 +0,0 @@
-/*
- * Copyright (c) 2022-2023 Alibaba Group Holding Ltd.
- *
- * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
- * the License. You may obtain a copy of the License at
- *
- * http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
- * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
- * specific language governing permissions and limitations under the License.
- */
-package com.alibaba.higress.console.util;
-
-import java.nio.charset.StandardCharsets;
-import java.security.GeneralSecurityException;
-import java.util.Base64;
-
-import javax.crypto.Cipher;
-import javax.crypto.SecretKey;
-import javax.crypto.spec.IvParameterSpec;
-
-/**
- * @author CH3CHO
- */
-public class AesUtil {
-
-    private static final String CIPHER_ALGORITHM = "AES/CBC/PKCS5Padding";
-
-    private static final String AES = "AES";
-
-    static {
-        java.security.Security.setProperty("crypto.policy", "unlimited");
-    }
-
-    public static String encrypt(String key, String iv, String content) throws GeneralSecurityException {
-        SecretKey secretKey = new javax.crypto.spec.SecretKeySpec(key.getBytes(), AES);
-        Cipher cipher = Cipher.getInstance(CIPHER_ALGORITHM);
-        cipher.init(Cipher.ENCRYPT_MODE, secretKey, new IvParameterSpec(iv.getBytes()));
-        byte[] aesBytes = cipher.doFinal(content.getBytes(StandardCharsets.UTF_8));
-        return Base64.getEncoder().encodeToString(aesBytes);
-    }
-
-    public static String decrypt(String key, String iv, String content) throws GeneralSecurityException {
-        javax.crypto.SecretKey secretKey = new javax.crypto.spec.SecretKeySpec(key.getBytes(), AES);
-        javax.crypto.Cipher cipher = javax.crypto.Cipher.getInstance(CIPHER_ALGORITHM);
-        cipher.init(javax.crypto.Cipher.DECRYPT_MODE, secretKey, new IvParameterSpec(iv.getBytes()));
-        byte[] byteDecode = cipher.doFinal(Base64.getDecoder().decode(content));
-        return new String(byteDecode, StandardCharsets.UTF_8);
-    }
-}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2022-2024 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.higress.console.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Encrypts and decrypts session tokens with a fixed key. Key material is prepared once per codec, and cipher instances
+ * are reused through a small pool shared by all the threads, so a request handled on a fresh virtual thread doesn't
+ * allocate a cipher of its own.
+ * <p>
+ * Tokens are encoded as {@code v2.<base64url(nonce | ciphertext | tag)>} with AES-GCM and a random nonce. Tokens
+ * without the version prefix are legacy ones encrypted with AES-CBC using the fixed IV, which are only accepted by
+ * {@link #decode(String)} if the codec is created to do so. Legacy decoding is to be removed after 2026-12-31, by when
+ * all the legacy tokens are expired.
+ *
+ * @author CH3CHO
+ */
+public final class TokenCodec {
+
+    private static final String AES = "AES";
+    private static final String GCM_ALGORITHM = "AES/GCM/NoPadding";
+    private static final String LEGACY_CBC_ALGORITHM = "AES/CBC/PKCS5Padding";
+    private static final String VERSION_PREFIX = "v2.";
+    private static final byte[] VERSION_AAD = VERSION_PREFIX.getBytes(StandardCharsets.US_ASCII);
+    private static final int GCM_NONCE_LENGTH = 12;
+    private static final int GCM_TAG_BITS = 128;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int CIPHER_POOL_SIZE = Runtime.getRuntime().availableProcessors();
+    private static final CipherPool GCM_CIPHERS = new CipherPool(GCM_ALGORITHM);
+    private static final CipherPool LEGACY_CBC_CIPHERS = new CipherPool(LEGACY_CBC_ALGORITHM);
+
+    static {
+        java.security.Security.setProperty("crypto.policy", "unlimited");
+    }
+
+    private final SecretKey secretKey;
+    private final IvParameterSpec legacyIv;
+    private final boolean legacyTokenAccepted;
+
+    public TokenCodec(String key, String iv, boolean legacyTokenAccepted) {
+        this.secretKey = new SecretKeySpec(key.getBytes(), AES);
+        this.legacyIv = new IvParameterSpec(iv.getBytes());
+        this.legacyTokenAccepted = legacyTokenAccepted;
+    }
+
+    public String encode(String content) throws GeneralSecurityException {
+        byte[] nonce = new byte[GCM_NONCE_LENGTH];
+        RANDOM.nextBytes(nonce);
+        byte[] plaintext = content.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer output;
+        Cipher cipher = GCM_CIPHERS.borrow();
+        try {
+            cipher.init(Cipher.ENCRYPT_MODE, secretKey, new GCMParameterSpec(GCM_TAG_BITS, nonce));
+            cipher.updateAAD(VERSION_AAD);
+            output = ByteBuffer.allocate(GCM_NONCE_LENGTH + cipher.getOutputSize(plaintext.length));
+            output.put(nonce);
+            cipher.doFinal(ByteBuffer.wrap(plaintext), output);
+        } finally {
+            GCM_CIPHERS.giveBack(cipher);
+        }
+        return VERSION_PREFIX + Base64.getUrlEncoder().withoutPadding().encodeToString(output.array());
+    }
+
+    /**
+     * @throws GeneralSecurityException if the token is malformed or not issued with this key
+     */
+    public String decode(String token) throws GeneralSecurityException {
+        try {
+            return token.startsWith(VERSION_PREFIX) ? decodeGcm(token) : decodeLegacyCbc(token);
+        } catch (IllegalArgumentException e) {
+            // Not a valid Base64 string.
+            throw new GeneralSecurityException("Malformed token.", e);
+        }
+    }
+
+    private String decodeGcm(String token) throws GeneralSecurityException {
+        byte[] data = Base64.getUrlDecoder().decode(token.substring(VERSION_PREFIX.length()));
+        if (data.length <= GCM_NONCE_LENGTH) {
+            throw new GeneralSecurityException("Malformed token.");
+        }
+        byte[] plaintext;
+        Cipher cipher = GCM_CIPHERS.borrow();
+        try {
+            cipher.init(Cipher.DECRYPT_MODE, secretKey,
+                new GCMParameterSpec(GCM_TAG_BITS, data, 0, GCM_NONCE_LENGTH));
+            cipher.updateAAD(VERSION_AAD);
+            plaintext = cipher.doFinal(data, GCM_NONCE_LENGTH, data.length - GCM_NONCE_LENGTH);
+        } finally {
+            GCM_CIPHERS.giveBack(cipher);
+        }
+        return new String(plaintext, StandardCharsets.UTF_8);
+    }
+
+    private String decodeLegacyCbc(String token) throws GeneralSecurityException {
+        if (!legacyTokenAccepted) {
+            throw new GeneralSecurityException("Legacy token is not accepted.");
+        }
+        byte[] data = Base64.getDecoder().decode(token);
+        if (data.length == 0) {
+            // CBC decrypts nothing into nothing without complaining.
+            throw new GeneralSecurityException("Malformed token.");
+        }
+        byte[] plaintext;
+        Cipher cipher = LEGACY_CBC_CIPHERS.borrow();
+        try {
+            cipher.init(Cipher.DECRYPT_MODE, secretKey, legacyIv);
+            plaintext = cipher.doFinal(data);
+        } finally {
+            LEGACY_CBC_CIPHERS.giveBack(cipher);
+        }
+        return new String(plaintext, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Keeps at most {@link #CIPHER_POOL_SIZE} idle ciphers. A new one is created when none is idle, and one given back
+     * to a full pool is dropped.
+     */
+    private static final class CipherPool {
+
+        private final String algorithm;
+        private final BlockingQueue<Cipher> idleCiphers = new ArrayBlockingQueue<>(CIPHER_POOL_SIZE);
+
+        private CipherPool(String algorithm) {
+            this.algorithm = algorithm;
+        }
+
+        private Cipher borrow() {
+            Cipher cipher = idleCiphers.poll();
+            return cipher != null ? cipher : newCipher(algorithm);
+        }
+
+        private void giveBack(Cipher cipher) {
+            idleCiphers.offer(cipher);
+        }
+    }
+
+    private static Cipher newCipher(String algorithm) {
+        try {
+            return Cipher.getInstance(algorithm);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cipher " + algorithm + " is not available.", e);
+        }
+    }
+}
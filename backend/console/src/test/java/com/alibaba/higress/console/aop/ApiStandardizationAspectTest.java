@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2022-2024 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.higress.console.aop;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.alibaba.higress.console.controller.AiProxyController;
+import com.alibaba.higress.console.controller.dto.User;
+import com.alibaba.higress.console.service.Bulkhead;
+import com.alibaba.higress.console.service.SessionService;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class ApiStandardizationAspectTest {
+
+    private static final String REQUEST_METRIC_NAME = "higress.console.api.requests";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/ai/v1/chat/completions");
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+    private final ApiStandardizationAspect aspect = new ApiStandardizationAspect();
+    private final Bulkhead managementApiBulkhead = new Bulkhead("test", 1, 0, 0, meterRegistry);
+    private ProceedingJoinPoint point;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        SessionService sessionService = mock(SessionService.class);
+        when(sessionService.validateSession(any())).thenReturn(User.builder().name("admin").build());
+        aspect.setSessionService(sessionService);
+        aspect.setMeterRegistry(meterRegistry);
+        aspect.setManagementApiBulkhead(managementApiBulkhead);
+
+        MethodSignature signature = mock(MethodSignature.class);
+        Method method =
+            AiProxyController.class.getMethod("proxy", HttpServletRequest.class, HttpServletResponse.class);
+        when(signature.getMethod()).thenReturn(method);
+        when(signature.getDeclaringType()).thenReturn(AiProxyController.class);
+        when(signature.getDeclaringTypeName()).thenReturn(AiProxyController.class.getName());
+        when(signature.getName()).thenReturn("proxy");
+        point = mock(ProceedingJoinPoint.class);
+        when(point.getSignature()).thenReturn(signature);
+        when(point.getTarget()).thenReturn(mock(AiProxyController.class));
+
+        request.setAsyncSupported(true);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void interceptTestSyncRequestTimedOnReturn() throws Throwable {
+        when(point.proceed()).thenReturn(null);
+
+        aspect.intercept(point);
+
+        Assertions.assertEquals(1, timer("success").count());
+    }
+
+    @Test
+    public void interceptTestAsyncRequestTimedOnCompletion() throws Throwable {
+        when(point.proceed()).thenAnswer(invocation -> {
+            request.startAsync(request, response);
+            return null;
+        });
+
+        aspect.intercept(point);
+        Assertions.assertNull(meterRegistry.find(REQUEST_METRIC_NAME).timer());
+
+        Thread.sleep(20);
+        response.setStatus(HttpStatus.BAD_GATEWAY.value());
+        request.getAsyncContext().complete();
+        Timer timer = timer("server_error");
+        Assertions.assertEquals(1, timer.count());
+        Assertions.assertTrue(timer.totalTime(TimeUnit.MILLISECONDS) >= 20);
+        Assertions.assertNull(meterRegistry.find(REQUEST_METRIC_NAME).tag("outcome", "success").timer());
+    }
+
+    @Test
+    public void interceptTestManagementApiMatchedByServletPath() throws Throwable {
+        request.setContextPath("/console");
+        request.setRequestURI("/console/v1/routes");
+        request.setServletPath("/v1/routes");
+        when(point.proceed()).thenAnswer(invocation -> {
+            Assertions.assertEquals(1, managementApiBulkhead.getActiveCount());
+            return null;
+        });
+
+        aspect.intercept(point);
+
+        Assertions.assertEquals(0, managementApiBulkhead.getActiveCount());
+        Assertions.assertEquals(1, timer("success").count());
+    }
+
+    @Test
+    public void interceptTestManagementApiRejectedWhenBulkheadFull() throws Throwable {
+        // Not normalized in the request URI, but it is in the servlet path.
+        request.setRequestURI("/ai/../v1/routes");
+        request.setServletPath("/v1/routes");
+        managementApiBulkhead.acquire();
+
+        Object result = aspect.intercept(point);
+
+        Assertions.assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ((ResponseEntity<?>)result).getStatusCode());
+        // Only the permit held by the test is left.
+        Assertions.assertEquals(1, managementApiBulkhead.getActiveCount());
+    }
+
+    @Test
+    public void interceptTestOtherApiNotLimited() throws Throwable {
+        request.setServletPath("/ai/v1/chat/completions");
+        managementApiBulkhead.acquire();
+        when(point.proceed()).thenReturn(null);
+
+        aspect.intercept(point);
+
+        Assertions.assertEquals(1, timer("success").count());
+    }
+
+    private Timer timer(String outcome) {
+        Timer timer = meterRegistry.find(REQUEST_METRIC_NAME).tag("outcome", outcome).timer();
+        Assertions.assertNotNull(timer);
+        return timer;
+    }
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright (c) 2022-2024 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.higress.console.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.catalina.Context;
+import org.apache.catalina.Wrapper;
+import org.apache.catalina.startup.Tomcat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.alibaba.higress.console.service.Bulkhead;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class AiProxyControllerTest {
+
+    private static final String TOKEN = "test-token";
+    private static final int IDLE_TIMEOUT_MILLIS = 500;
+
+    private final CountDownLatch stallReleased = new CountDownLatch(1);
+    private final CountDownLatch endlessCancelled = new CountDownLatch(1);
+    private final Bulkhead bulkhead = new Bulkhead("ai-proxy", 2, 0, 0, new SimpleMeterRegistry());
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private AiProxyController controller;
+    private HttpServer upstream;
+    private Tomcat tomcat;
+    private String baseUrl;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        upstream = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        upstream.createContext("/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            if (path.endsWith("/stream")) {
+                stream(exchange);
+            } else if (path.endsWith("/stall")) {
+                stall(exchange);
+            } else if (path.endsWith("/endless")) {
+                endless(exchange);
+            } else {
+                echo(exchange);
+            }
+        });
+        upstream.setExecutor(Executors.newCachedThreadPool());
+        upstream.start();
+
+        controller = new AiProxyController();
+        ReflectionTestUtils.setField(controller, "serviceUrl",
+            "http://127.0.0.1:" + upstream.getAddress().getPort() + "/v1");
+        ReflectionTestUtils.setField(controller, "serviceToken", TOKEN);
+        ReflectionTestUtils.setField(controller, "socketTimeout", IDLE_TIMEOUT_MILLIS);
+        controller.setBulkhead(bulkhead);
+        controller.initialize();
+
+        tomcat = new Tomcat();
+        tomcat.setBaseDir(Files.createTempDirectory("tomcat").toString());
+        tomcat.setPort(0);
+        Context context = tomcat.addContext("", null);
+        Wrapper wrapper = Tomcat.addServlet(context, "proxy", new HttpServlet() {
+
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                controller.proxy(req, resp);
+            }
+        });
+        wrapper.setAsyncSupported(true);
+        context.addServletMappingDecoded("/*", "proxy");
+        tomcat.getConnector();
+        tomcat.start();
+        baseUrl = "http://127.0.0.1:" + tomcat.getConnector().getLocalPort() + AiProxyController.BASE_PATH;
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        stallReleased.countDown();
+        controller.destroy();
+        tomcat.stop();
+        tomcat.destroy();
+        upstream.stop(0);
+    }
+
+    @Test
+    public void proxyTestRequestAndResponseForwarded() throws Exception {
+        HttpResponse<String> response = client.send(
+            HttpRequest.newBuilder(URI.create(baseUrl + "/echo?q=1")).header("X-Test", "a")
+                .POST(HttpRequest.BodyPublishers.ofString("hello")).build(),
+            HttpResponse.BodyHandlers.ofString());
+
+        Assertions.assertEquals(201, response.statusCode(), response.body());
+        Assertions.assertEquals("POST q=1 Bearer test-token a hello", response.body());
+        Assertions.assertEquals("yes", response.headers().firstValue("x-upstream").orElse(null));
+        awaitPermitsReleased();
+    }
+
+    @Test
+    public void proxyTestChunksStreamed() throws Exception {
+        HttpResponse<InputStream> response = client.send(
+            HttpRequest.newBuilder(URI.create(baseUrl + "/stream")).build(), HttpResponse.BodyHandlers.ofInputStream());
+
+        Assertions.assertEquals(200, response.statusCode());
+        try (InputStream body = response.body()) {
+            // Each chunk arrives before the upstream has produced the next one.
+            Assertions.assertEquals("data: 0\n\n", new String(body.readNBytes(9), StandardCharsets.UTF_8));
+            Assertions.assertEquals("data: 1\n\n", new String(body.readNBytes(9), StandardCharsets.UTF_8));
+            Assertions.assertEquals(-1, body.read());
+        }
+        awaitPermitsReleased();
+    }
+
+    @Test
+    public void proxyTestStalledUpstreamTimedOut() throws Exception {
+        long startTime = System.nanoTime();
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/stall"))
+            .timeout(Duration.ofSeconds(10)).build(), HttpResponse.BodyHandlers.ofString());
+
+        // The response was already committed, so it is cut short instead.
+        Assertions.assertEquals(200, response.statusCode());
+        Assertions.assertEquals("data: 0\n\n", response.body());
+        Assertions.assertTrue(System.nanoTime() - startTime < TimeUnit.SECONDS.toNanos(5));
+        awaitPermitsReleased();
+    }
+
+    @Test
+    public void proxyTestUnreachableUpstreamReported() throws Exception {
+        upstream.stop(0);
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/echo")).build(),
+            HttpResponse.BodyHandlers.ofString());
+
+        Assertions.assertEquals(500, response.statusCode());
+        Assertions.assertTrue(response.body().contains("\"success\":false"), response.body());
+        awaitPermitsReleased();
+    }
+
+    @Test
+    public void proxyTestClientAbortHandled() throws Exception {
+        try (Socket socket = new Socket("127.0.0.1", tomcat.getConnector().getLocalPort())) {
+            socket.getOutputStream().write(("GET " + AiProxyController.BASE_PATH + "/endless HTTP/1.1\r\n"
+                + "Host: localhost\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+            InputStream input = socket.getInputStream();
+            StringBuilder received = new StringBuilder();
+            while (received.indexOf("data: 0") < 0) {
+                int b = input.read();
+                Assertions.assertNotEquals(-1, b);
+                received.append((char)b);
+            }
+            // Reset the connection while the upstream keeps streaming.
+            socket.setSoLinger(true, 0);
+        }
+        awaitPermitsReleased();
+        Assertions.assertTrue(endlessCancelled.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void proxyTestPermitReleasedWhenAsyncUnsupported() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", AiProxyController.BASE_PATH + "/echo");
+
+        Assertions.assertThrows(IllegalStateException.class,
+            () -> controller.proxy(request, new MockHttpServletResponse()));
+        Assertions.assertEquals(0, bulkhead.getActiveCount());
+    }
+
+    private void awaitPermitsReleased() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (bulkhead.getActiveCount() != 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertEquals(0, bulkhead.getActiveCount());
+    }
+
+    private void echo(HttpExchange exchange) throws IOException {
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        String result = String.join(" ", exchange.getRequestMethod(), exchange.getRequestURI().getQuery(),
+            exchange.getRequestHeaders().getFirst("Authorization"), exchange.getRequestHeaders().getFirst("X-Test"),
+            body);
+        exchange.getResponseHeaders().add("X-Upstream", "yes");
+        byte[] bytes = result.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(201, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+
+    private void stream(HttpExchange exchange) throws IOException {
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream output = exchange.getResponseBody()) {
+            for (int i = 0; i < 2; ++i) {
+                output.write(("data: " + i + "\n\n").getBytes(StandardCharsets.UTF_8));
+                output.flush();
+                sleepQuietly(IDLE_TIMEOUT_MILLIS / 5);
+            }
+        }
+    }
+
+    private void stall(HttpExchange exchange) throws IOException {
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream output = exchange.getResponseBody();
+        output.write("data: 0\n\n".getBytes(StandardCharsets.UTF_8));
+        output.flush();
+        try {
+            stallReleased.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        exchange.close();
+    }
+
+    private void endless(HttpExchange exchange) throws IOException {
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream output = exchange.getResponseBody()) {
+            for (int i = 0; stallReleased.getCount() > 0; ++i) {
+                output.write(("data: " + i + "\n\n").getBytes(StandardCharsets.UTF_8));
+                output.flush();
+                sleepQuietly(10);
+            }
+        } catch (IOException e) {
+            // Cancelled by the proxy.
+            endlessCancelled.countDown();
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
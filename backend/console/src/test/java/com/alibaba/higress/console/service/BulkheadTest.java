@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2022-2024 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.higress.console.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.alibaba.higress.console.controller.exception.BulkheadFullException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class BulkheadTest {
+
+    private static final String NAME = "test";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    public void acquireTestPermitGrantedAtOnce() {
+        Bulkhead bulkhead = new Bulkhead(NAME, 2, 0, 0, meterRegistry);
+
+        bulkhead.acquire();
+        bulkhead.acquire();
+        Assertions.assertEquals(2, bulkhead.getActiveCount());
+        Assertions.assertEquals(0, bulkhead.getQueuedCount());
+        Assertions.assertEquals(1.0, meterRegistry.get("higress.console.bulkhead.utilization").gauge().value());
+
+        bulkhead.release();
+        bulkhead.release();
+        Assertions.assertEquals(0, bulkhead.getActiveCount());
+        Assertions.assertEquals(0, rejected("queue_full").count() + rejected("timeout").count());
+    }
+
+    @Test
+    public void acquireTestRejectedWhenQueueFull() throws Exception {
+        Bulkhead bulkhead = new Bulkhead(NAME, 1, 1, TimeUnit.SECONDS.toMillis(10), meterRegistry);
+        bulkhead.acquire();
+        CompletableFuture<Void> waiting = CompletableFuture.runAsync(bulkhead::acquire);
+        awaitQueued(bulkhead, 1);
+
+        Assertions.assertThrows(BulkheadFullException.class, bulkhead::acquire);
+        Assertions.assertEquals(1, rejected("queue_full").count());
+        Assertions.assertEquals(1, bulkhead.getQueuedCount());
+
+        // The queued call goes on once the permit is released.
+        bulkhead.release();
+        waiting.get(5, TimeUnit.SECONDS);
+        Assertions.assertEquals(1, bulkhead.getActiveCount());
+        Assertions.assertEquals(0, bulkhead.getQueuedCount());
+        bulkhead.release();
+        Assertions.assertEquals(0, bulkhead.getActiveCount());
+    }
+
+    @Test
+    public void acquireTestRejectedWhenTimedOut() {
+        Bulkhead bulkhead = new Bulkhead(NAME, 1, 1, 100, meterRegistry);
+        bulkhead.acquire();
+
+        long startTime = System.nanoTime();
+        Assertions.assertThrows(BulkheadFullException.class, bulkhead::acquire);
+        Assertions.assertTrue(System.nanoTime() - startTime >= TimeUnit.MILLISECONDS.toNanos(100));
+        Assertions.assertEquals(1, rejected("timeout").count());
+        Assertions.assertEquals(0, rejected("queue_full").count());
+        // The timed out call leaves the queue, so it doesn't count against the calls after it.
+        Assertions.assertEquals(0, bulkhead.getQueuedCount());
+        Assertions.assertEquals(1, bulkhead.getActiveCount());
+
+        bulkhead.release();
+        bulkhead.acquire();
+        Assertions.assertEquals(1, bulkhead.getActiveCount());
+    }
+
+    private Counter rejected(String reason) {
+        return meterRegistry.get("higress.console.bulkhead.rejected").tag("name", NAME).tag("reason", reason)
+            .counter();
+    }
+
+    private static void awaitQueued(Bulkhead bulkhead, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (bulkhead.getQueuedCount() != count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertEquals(count, bulkhead.getQueuedCount());
+    }
+}
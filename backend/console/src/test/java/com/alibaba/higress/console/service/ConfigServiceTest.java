@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2022-2024 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.higress.console.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.alibaba.higress.console.constant.SystemConfigKey;
+import com.alibaba.higress.sdk.exception.BusinessException;
+import com.alibaba.higress.sdk.http.HttpStatus;
+import com.alibaba.higress.sdk.service.kubernetes.KubernetesClientService;
+
+import io.kubernetes.client.openapi.ApiException;
+import io.kubernetes.client.openapi.models.V1ConfigMap;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import io.kubernetes.client.openapi.models.V1Status;
+import io.kubernetes.client.util.Watch;
+
+public class ConfigServiceTest {
+
+    private static final String NAME = SystemConfigKey.CONFIG_MAP_NAME_KEY_DEFAULT;
+
+    private final BlockingQueue<String> watchVersions = new LinkedBlockingQueue<>();
+    private final BlockingQueue<Watch<V1ConfigMap>> watches = new LinkedBlockingQueue<>();
+    private final BlockingQueue<ConfigChangeEvent> events = new LinkedBlockingQueue<>();
+
+    private KubernetesClientService kubernetesClientService;
+    private ConfigServiceImpl service;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        kubernetesClientService = mock(KubernetesClientService.class);
+        when(kubernetesClientService.watchConfigMap(eq(NAME), any(), anyInt())).thenAnswer(invocation -> {
+            watchVersions.add(String.valueOf((Object) invocation.getArgument(1)));
+            try {
+                return watches.take();
+            } catch (InterruptedException e) {
+                // Closed by the test.
+                Thread.currentThread().interrupt();
+                return watch();
+            }
+        });
+        service = new ConfigServiceImpl();
+        service.setKubernetesClientService(kubernetesClientService);
+        service.addChangeListener(events::add);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        service.stop();
+    }
+
+    @Test
+    public void startTestLoadedThenWatched() throws Exception {
+        when(kubernetesClientService.readConfigMap(NAME)).thenReturn(configMap("1", Map.of("a", "1")));
+        watches.add(watch(new Watch.Response<>("MODIFIED", configMap("2", Map.of("a", "2", "b", "2")))));
+        service.start();
+
+        Assertions.assertEquals(Set.of("a"), poll(events).getChangedKeys());
+        Assertions.assertEquals("1", poll(watchVersions));
+        ConfigChangeEvent event = poll(events);
+        Assertions.assertEquals(Set.of("a", "b"), event.getChangedKeys());
+        Assertions.assertEquals("1", event.getPrevious().getString("a"));
+        Assertions.assertEquals("2", service.getString("a"));
+        // The watch ended normally. The next one goes on from the last version without reading again.
+        Assertions.assertEquals("2", poll(watchVersions));
+        verify(kubernetesClientService, times(1)).readConfigMap(NAME);
+    }
+
+    @Test
+    public void watchTestStaleVersionIgnored() throws Exception {
+        when(kubernetesClientService.readConfigMap(NAME)).thenReturn(configMap("5", Map.of("a", "5")));
+        watches.add(watch(new Watch.Response<>("MODIFIED", configMap("4", Map.of("a", "4"))),
+            new Watch.Response<>("MODIFIED", configMap("6", Map.of("a", "6")))));
+        service.start();
+
+        Assertions.assertEquals("5", poll(events).getCurrent().getString("a"));
+        Assertions.assertEquals("6", poll(events).getCurrent().getString("a"));
+        Assertions.assertEquals("6", service.getString("a"));
+    }
+
+    @Test
+    public void watchTestDeletedConfigMapCleared() throws Exception {
+        when(kubernetesClientService.readConfigMap(NAME)).thenReturn(configMap("1", Map.of("a", "1")));
+        watches.add(watch(new Watch.Response<>("DELETED", configMap("2", Map.of("a", "1")))));
+        service.start();
+
+        poll(events);
+        ConfigChangeEvent event = poll(events);
+        Assertions.assertEquals(Set.of("a"), event.getChangedKeys());
+        Assertions.assertNull(service.getString("a"));
+        Assertions.assertTrue(service.getConfigKeys().isEmpty());
+    }
+
+    @Test
+    public void watchTestGoneVersionReloaded() throws Exception {
+        when(kubernetesClientService.readConfigMap(NAME)).thenReturn(configMap("1", Map.of("a", "1")))
+            .thenReturn(configMap("7", Map.of("a", "7")));
+        watches.add(watch(new Watch.Response<>("ERROR", new V1Status().code(HttpStatus.GONE))));
+        service.start();
+
+        poll(events);
+        Assertions.assertEquals("1", poll(watchVersions));
+        Assertions.assertEquals("7", poll(events).getCurrent().getString("a"));
+        Assertions.assertEquals("7", poll(watchVersions));
+        verify(kubernetesClientService, times(2)).readConfigMap(NAME);
+    }
+
+    @Test
+    public void getSnapshotTestFailedInitialLoadRetried() throws Exception {
+        AtomicReference<V1ConfigMap> stored = new AtomicReference<>();
+        when(kubernetesClientService.readConfigMap(NAME)).thenAnswer(invocation -> {
+            V1ConfigMap configMap = stored.get();
+            if (configMap == null) {
+                throw new ApiException(HttpStatus.INTERNAL_SERVER_ERROR, "boom");
+            }
+            return configMap;
+        });
+        service.start();
+
+        // Nothing is served until the ConfigMap is loaded, either by the watcher or by a read.
+        Assertions.assertThrows(BusinessException.class, () -> service.getString("a"));
+        stored.set(configMap("3", Map.of("a", "3")));
+        Assertions.assertEquals("3", service.getString("a"));
+    }
+
+    @Test
+    public void setConfigTestWrittenConfigVisibleAtOnce() throws Exception {
+        when(kubernetesClientService.readConfigMap(NAME)).thenReturn(configMap("1", Map.of("a", "1")));
+        when(kubernetesClientService.replaceConfigMap(any())).thenAnswer(invocation -> {
+            V1ConfigMap written = invocation.getArgument(0);
+            Assertions.assertEquals("1", written.getMetadata().getResourceVersion());
+            return configMap("2", written.getData());
+        });
+        service.start();
+
+        service.setConfig("b", 2);
+        Assertions.assertEquals("1", service.getString("a"));
+        Assertions.assertEquals(2, service.getInteger("b"));
+    }
+
+    private static <T> T poll(BlockingQueue<T> queue) throws InterruptedException {
+        T item = queue.poll(5, TimeUnit.SECONDS);
+        Assertions.assertNotNull(item);
+        return item;
+    }
+
+    private static V1ConfigMap configMap(String resourceVersion, Map<String, String> data) {
+        return new V1ConfigMap().metadata(new V1ObjectMeta().name(NAME).resourceVersion(resourceVersion)).data(data);
+    }
+
+    @SafeVarargs
+    @SuppressWarnings("unchecked")
+    private static Watch<V1ConfigMap> watch(Watch.Response<V1ConfigMap>... events) {
+        Watch<V1ConfigMap> watch = mock(Watch.class);
+        when(watch.iterator()).thenReturn(List.of(events).iterator());
+        return watch;
+    }
+}
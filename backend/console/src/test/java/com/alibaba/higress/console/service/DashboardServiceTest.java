@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2022-2024 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.higress.console.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.concurrent.ExecutorService;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.http.Header;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.message.BasicStatusLine;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.google.common.util.concurrent.MoreExecutors;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class DashboardServiceTest {
+
+    private static final String API_BASE_URL = "http://localhost:3000/grafana";
+    private static final String PATH = "/grafana/api/ds/query";
+
+    private final Bulkhead bulkhead = new Bulkhead("dashboard-proxy", 1, 0, 0, new SimpleMeterRegistry());
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", PATH);
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+    private CloseableHttpClient realServerClient;
+    private DashboardServiceImpl service;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        realServerClient = mock(CloseableHttpClient.class);
+        service = new DashboardServiceImpl();
+        ReflectionTestUtils.setField(service, "apiBaseUrl", API_BASE_URL);
+        ReflectionTestUtils.setField(service, "apiBaseUrlObject", new URL(API_BASE_URL));
+        ReflectionTestUtils.setField(service, "promDatasourceUrl", "http://prometheus:9090");
+        ReflectionTestUtils.setField(service, "lokiDatasourceUrl", "http://loki:3100");
+        ReflectionTestUtils.setField(service, "realServerBaseUrl", "http://grafana:3000");
+        ReflectionTestUtils.setField(service, "realServerClient", realServerClient);
+        service.setProxyBulkhead(bulkhead);
+        request.setServletPath(PATH);
+    }
+
+    @Test
+    public void forwardDashboardRequestTestSyncResponseForwarded() throws Exception {
+        CloseableHttpResponse proxyResponse = proxyResponse(200, "ok");
+        when(realServerClient.execute(any(HttpUriRequest.class))).thenReturn(proxyResponse);
+
+        service.forwardDashboardRequest(request, response);
+
+        Assertions.assertEquals(200, response.getStatus());
+        Assertions.assertEquals("ok", response.getContentAsString());
+        Assertions.assertEquals(0, bulkhead.getActiveCount());
+    }
+
+    @Test
+    public void forwardDashboardRequestTestSyncPermitReleasedOnError() throws Exception {
+        when(realServerClient.execute(any(HttpUriRequest.class))).thenThrow(new IOException("boom"));
+
+        Assertions.assertThrows(IOException.class, () -> service.forwardDashboardRequest(request, response));
+        Assertions.assertEquals(0, bulkhead.getActiveCount());
+    }
+
+    @Test
+    public void forwardDashboardRequestTestRejectedWhenBulkheadFull() throws Exception {
+        bulkhead.acquire();
+
+        service.forwardDashboardRequest(request, response);
+
+        Assertions.assertEquals(HttpServletResponse.SC_SERVICE_UNAVAILABLE, response.getStatus());
+        // Only the permit held by the test is left.
+        Assertions.assertEquals(1, bulkhead.getActiveCount());
+    }
+
+    @Test
+    public void forwardDashboardRequestTestAsyncResponseForwarded() throws Exception {
+        ReflectionTestUtils.setField(service, "proxyExecutor", MoreExecutors.newDirectExecutorService());
+        request.setAsyncSupported(true);
+        CloseableHttpResponse proxyResponse = proxyResponse(200, "ok");
+        when(realServerClient.execute(any(HttpUriRequest.class))).thenReturn(proxyResponse);
+
+        service.forwardDashboardRequest(request, response);
+
+        Assertions.assertEquals(200, response.getStatus());
+        Assertions.assertEquals("ok", response.getContentAsString());
+        Assertions.assertFalse(request.isAsyncStarted());
+        Assertions.assertEquals(0, bulkhead.getActiveCount());
+    }
+
+    @Test
+    public void forwardDashboardRequestTestAsyncPermitReleasedOnError() throws Exception {
+        ReflectionTestUtils.setField(service, "proxyExecutor", MoreExecutors.newDirectExecutorService());
+        request.setAsyncSupported(true);
+        when(realServerClient.execute(any(HttpUriRequest.class))).thenThrow(new IOException("boom"));
+
+        service.forwardDashboardRequest(request, response);
+
+        Assertions.assertEquals(HttpServletResponse.SC_BAD_GATEWAY, response.getStatus());
+        Assertions.assertFalse(request.isAsyncStarted());
+        Assertions.assertEquals(0, bulkhead.getActiveCount());
+    }
+
+    @Test
+    public void forwardDashboardRequestTestAsyncPermitReleasedWhenExecutorRejects() throws Exception {
+        ExecutorService proxyExecutor = MoreExecutors.newDirectExecutorService();
+        proxyExecutor.shutdown();
+        ReflectionTestUtils.setField(service, "proxyExecutor", proxyExecutor);
+        request.setAsyncSupported(true);
+
+        service.forwardDashboardRequest(request, response);
+
+        Assertions.assertEquals(HttpServletResponse.SC_SERVICE_UNAVAILABLE, response.getStatus());
+        Assertions.assertFalse(request.isAsyncStarted());
+        Assertions.assertEquals(0, bulkhead.getActiveCount());
+    }
+
+    @Test
+    public void forwardDashboardRequestTestAsyncPermitReleasedWhenAsyncUnsupported() {
+        ReflectionTestUtils.setField(service, "proxyExecutor", MoreExecutors.newDirectExecutorService());
+
+        Assertions.assertThrows(IllegalStateException.class, () -> service.forwardDashboardRequest(request, response));
+        Assertions.assertEquals(0, bulkhead.getActiveCount());
+    }
+
+    private static CloseableHttpResponse proxyResponse(int status, String body) {
+        CloseableHttpResponse proxyResponse = mock(CloseableHttpResponse.class);
+        when(proxyResponse.getStatusLine()).thenReturn(new BasicStatusLine(HttpVersion.HTTP_1_1, status, null));
+        when(proxyResponse.getAllHeaders()).thenReturn(new Header[0]);
+        when(proxyResponse.getEntity()).thenReturn(new StringEntity(body, "UTF-8"));
+        return proxyResponse;
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2022-2024 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.higress.console.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.http.Cookie;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.alibaba.higress.console.constant.SystemConfigKey;
+import com.alibaba.higress.console.controller.dto.User;
+import com.alibaba.higress.sdk.http.HttpStatus;
+import com.alibaba.higress.sdk.service.kubernetes.KubernetesClientService;
+
+import io.kubernetes.client.openapi.ApiException;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import io.kubernetes.client.openapi.models.V1Secret;
+import io.kubernetes.client.util.Watch;
+
+public class SessionServiceTest {
+
+    private static final String NAME = SystemConfigKey.SECRET_NAME_DEFAULT;
+    private static final String KEY = "0123456789abcdef0123456789abcdef";
+    private static final String IV = "0123456789abcdef";
+
+    private final BlockingQueue<String> watchVersions = new LinkedBlockingQueue<>();
+    private final BlockingQueue<Watch<V1Secret>> watches = new LinkedBlockingQueue<>();
+
+    private KubernetesClientService kubernetesClientService;
+    private SessionServiceImpl service;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        kubernetesClientService = mock(KubernetesClientService.class);
+        when(kubernetesClientService.watchSecret(eq(NAME), any(), anyInt())).thenAnswer(invocation -> {
+            watchVersions.add(String.valueOf((Object) invocation.getArgument(1)));
+            try {
+                return watches.take();
+            } catch (InterruptedException e) {
+                // Closed by the test.
+                Thread.currentThread().interrupt();
+                return watch();
+            }
+        });
+        ConfigService configService = mock(ConfigService.class);
+        when(configService.getBoolean(anyString(), anyBoolean())).thenReturn(false);
+        service = new SessionServiceImpl();
+        service.setConfigService(configService);
+        service.setKubernetesClientService(kubernetesClientService);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        service.destroy();
+    }
+
+    @Test
+    public void validateSessionTestTokenKeptValidWhenSecretUnchanged() throws Exception {
+        when(kubernetesClientService.readSecret(NAME)).thenReturn(secret("1", "pw", KEY));
+        watches.add(watch(new Watch.Response<>("MODIFIED", secret("2", "pw", KEY))));
+        service.initialize();
+        Assertions.assertEquals("1", poll(watchVersions));
+        String token = login("pw");
+        Assertions.assertNotNull(validate(token));
+
+        watches.add(watch());
+        // The next watch only starts once the event is handled.
+        Assertions.assertEquals("2", poll(watchVersions));
+        User user = validate(token);
+        Assertions.assertNotNull(user);
+        Assertions.assertEquals("admin", user.getName());
+    }
+
+    @Test
+    public void validateSessionTestValidatedTokenRejectedAfterPasswordChange() throws Exception {
+        when(kubernetesClientService.readSecret(NAME)).thenReturn(secret("1", "pw", KEY));
+        service.initialize();
+        Assertions.assertEquals("1", poll(watchVersions));
+        String token = login("pw");
+        Assertions.assertNotNull(validate(token));
+
+        // The token has been validated before, but it is not trusted against the new admin config.
+        watches.add(watch(new Watch.Response<>("MODIFIED", secret("2", "new-pw", KEY))));
+        Assertions.assertEquals("2", poll(watchVersions));
+        Assertions.assertNull(validate(token));
+        Assertions.assertNotNull(validate(login("new-pw")));
+    }
+
+    @Test
+    public void validateSessionTestValidatedTokenRejectedAfterKeyChange() throws Exception {
+        when(kubernetesClientService.readSecret(NAME)).thenReturn(secret("1", "pw", KEY));
+        service.initialize();
+        Assertions.assertEquals("1", poll(watchVersions));
+        String token = login("pw");
+        Assertions.assertNotNull(validate(token));
+
+        watches.add(watch(new Watch.Response<>("MODIFIED", secret("2", "pw", new StringBuilder(KEY).reverse()
+            .toString()))));
+        Assertions.assertEquals("2", poll(watchVersions));
+        Assertions.assertNull(validate(token));
+    }
+
+    @Test
+    public void validateSessionTestRejectedAfterSecretDeleted() throws Exception {
+        when(kubernetesClientService.readSecret(NAME)).thenReturn(secret("1", "pw", KEY));
+        service.initialize();
+        Assertions.assertEquals("1", poll(watchVersions));
+        String token = login("pw");
+
+        watches.add(watch(new Watch.Response<>("DELETED", secret("2", "pw", KEY))));
+        Assertions.assertEquals("2", poll(watchVersions));
+        Assertions.assertNull(validate(token));
+        Assertions.assertFalse(service.isAdminInitialized());
+    }
+
+    @Test
+    public void isAdminInitializedTestLastConfigServedOnReadError() throws Exception {
+        // Without the watcher, the secret is read again every time the cached config expires.
+        ReflectionTestUtils.setField(service, "configTtl", 0L);
+        when(kubernetesClientService.readSecret(NAME)).thenReturn(secret("1", "pw", KEY))
+            .thenThrow(new ApiException(HttpStatus.INTERNAL_SERVER_ERROR, "boom"));
+        String token = login("pw");
+
+        Assertions.assertTrue(service.isAdminInitialized());
+        Assertions.assertNotNull(service.login("admin", "pw"));
+        Assertions.assertNotNull(validate(token));
+    }
+
+    @Test
+    public void isAdminInitializedTestNothingServedWithoutConfig() throws Exception {
+        when(kubernetesClientService.readSecret(NAME))
+            .thenThrow(new ApiException(HttpStatus.INTERNAL_SERVER_ERROR, "boom"));
+
+        Assertions.assertFalse(service.isAdminInitialized());
+        Assertions.assertNull(validate("v2.AAAA"));
+    }
+
+    private String login(String password) {
+        User user = service.login("admin", password);
+        Assertions.assertNotNull(user);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        service.saveSession(response, user, false);
+        Cookie cookie = response.getCookie(SystemConfigKey.ADMIN_COOKIE_NAME_DEFAULT);
+        Assertions.assertNotNull(cookie);
+        return cookie.getValue();
+    }
+
+    private User validate(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(new Cookie(SystemConfigKey.ADMIN_COOKIE_NAME_DEFAULT, token));
+        return service.validateSession(request);
+    }
+
+    private static String poll(BlockingQueue<String> queue) throws InterruptedException {
+        String item = queue.poll(5, TimeUnit.SECONDS);
+        Assertions.assertNotNull(item);
+        return item;
+    }
+
+    private static V1Secret secret(String resourceVersion, String password, String key) {
+        Map<String, byte[]> data = new HashMap<>();
+        data.put("adminUsername", "admin".getBytes(StandardCharsets.UTF_8));
+        data.put("adminDisplayName", "Admin".getBytes(StandardCharsets.UTF_8));
+        data.put("adminPassword", password.getBytes(StandardCharsets.UTF_8));
+        data.put("key", key.getBytes(StandardCharsets.UTF_8));
+        data.put("iv", IV.getBytes(StandardCharsets.UTF_8));
+        return new V1Secret().metadata(new V1ObjectMeta().name(NAME).resourceVersion(resourceVersion)).data(data);
+    }
+
+    @SafeVarargs
+    @SuppressWarnings("unchecked")
+    private static Watch<V1Secret> watch(Watch.Response<V1Secret>... events) {
+        Watch<V1Secret> watch = mock(Watch.class);
+        when(watch.iterator()).thenReturn(List.of(events).iterator());
+        return watch;
+    }
+}
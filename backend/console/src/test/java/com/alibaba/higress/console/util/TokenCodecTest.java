@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2022-2024 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.higress.console.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class TokenCodecTest {
+
+    private static final String KEY = "0123456789abcdef0123456789abcdef";
+    private static final String OTHER_KEY = "fedcba9876543210fedcba9876543210";
+    private static final String IV = "0123456789abcdef";
+    private static final String PREFIX = "v2.";
+    private static final String CONTENT = "admin\1password中文\1" + 1700000000000L;
+
+    private final TokenCodec codec = new TokenCodec(KEY, IV, true);
+
+    @Test
+    public void decodeTestRoundTrip() throws Exception {
+        String token = codec.encode(CONTENT);
+
+        Assertions.assertTrue(token.startsWith(PREFIX));
+        Assertions.assertEquals(CONTENT, codec.decode(token));
+        Assertions.assertEquals(CONTENT, new TokenCodec(KEY, IV, false).decode(token));
+        // A random nonce is used for each token.
+        Assertions.assertNotEquals(token, codec.encode(CONTENT));
+    }
+
+    @Test
+    public void decodeTestConcurrentRoundTrips() throws Exception {
+        byte[] data = decodeBody(codec.encode(CONTENT));
+        data[data.length - 1] ^= 0x01;
+        String badToken = encodeBody(data);
+        // Ciphers are shared among threads through the pool, and one that failed a decryption goes back to it too.
+        List<Callable<Void>> tasks = IntStream.range(0, 16).mapToObj(i -> (Callable<Void>)() -> {
+            for (int j = 0; j < 200; ++j) {
+                String content = CONTENT + i + "-" + j;
+                Assertions.assertEquals(content, codec.decode(codec.encode(content)));
+                Assertions.assertThrows(AEADBadTagException.class, () -> codec.decode(badToken));
+            }
+            return null;
+        }).collect(Collectors.toList());
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void decodeTestTamperedTokenRejected() throws Exception {
+        byte[] data = decodeBody(codec.encode(CONTENT));
+        // Nonce, ciphertext and tag are all covered.
+        for (int i = 0; i < data.length; ++i) {
+            byte[] tampered = data.clone();
+            tampered[i] ^= 0x01;
+            String token = encodeBody(tampered);
+            Assertions.assertThrows(AEADBadTagException.class, () -> codec.decode(token), "Byte " + i);
+        }
+    }
+
+    @Test
+    public void decodeTestTruncatedTokenRejected() throws Exception {
+        byte[] data = decodeBody(codec.encode(CONTENT));
+
+        String withoutLastByte = encodeBody(Arrays.copyOf(data, data.length - 1));
+        Assertions.assertThrows(AEADBadTagException.class, () -> codec.decode(withoutLastByte));
+        String nonceOnly = encodeBody(Arrays.copyOf(data, 12));
+        Assertions.assertThrows(GeneralSecurityException.class, () -> codec.decode(nonceOnly));
+        Assertions.assertThrows(GeneralSecurityException.class, () -> codec.decode(PREFIX));
+    }
+
+    @Test
+    public void decodeTestWrongKeyRejected() throws Exception {
+        String token = new TokenCodec(OTHER_KEY, IV, true).encode(CONTENT);
+
+        Assertions.assertThrows(AEADBadTagException.class, () -> codec.decode(token));
+    }
+
+    @Test
+    public void decodeTestMalformedTokenRejected() {
+        for (String token : new String[] {"", "v2.!!!!", "v2.a", "v3." + PREFIX, "V2.AAAAAAAAAAAAAAAAAAAAAAAA",
+            "not a token"}) {
+            Assertions.assertThrows(GeneralSecurityException.class, () -> codec.decode(token), token);
+        }
+    }
+
+    @Test
+    public void decodeTestLegacyTokenAccepted() throws Exception {
+        String legacyToken = legacyEncrypt(KEY, IV, CONTENT);
+
+        Assertions.assertEquals(CONTENT, codec.decode(legacyToken));
+        Assertions.assertThrows(GeneralSecurityException.class,
+            () -> new TokenCodec(KEY, IV, false).decode(legacyToken));
+    }
+
+    private static byte[] decodeBody(String token) {
+        return Base64.getUrlDecoder().decode(token.substring(PREFIX.length()));
+    }
+
+    private static String encodeBody(byte[] data) {
+        return PREFIX + Base64.getUrlEncoder().withoutPadding().encodeToString(data);
+    }
+
+    /**
+     * How tokens were encrypted before {@link TokenCodec}.
+     */
+    private static String legacyEncrypt(String key, String iv, String content) throws GeneralSecurityException {
+        Cipher cipher = Cipher.getInstance("AES/CBC/PKCS5Padding");
+        cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(key.getBytes(), "AES"), new IvParameterSpec(iv.getBytes()));
+        return Base64.getEncoder().encodeToString(cipher.doFinal(content.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -60,22 +60,12 @@ public class PaginatedResult<T> implements Serializable {
 
     public static <T, V> PaginatedResult<V> createFromFullList(List<T> list, CommonPageQuery query,
         Function<T, V> converter) {
-        if (list == null) {
-            list = Collections.emptyList();
-        }
+        PaginatedResult<T> page = createFromFullList(list, query);
         PaginatedResult<V> result = new PaginatedResult<>();
-        result.total = list.size();
-        List<T> data = list;
-        if (query != null && query.paginationEnabled()) {
-            int pageNum = query.getPageNum() != null ? Math.max(1, query.getPageNum()) : 0;
-            int pageSize =
-                query.getPageNum() != null && query.getPageNum() > 0 ? query.getPageNum() : DEFAULT_PAGE_SIZE;
-            int startIndex = pageNum * pageSize;
-            data = data.subList(startIndex, startIndex + pageSize);
-            result.pageNum = pageNum;
-            result.pageSize = pageSize;
-        }
-        result.data = data.stream().map(converter).toList();
+        result.pageNum = page.pageNum;
+        result.pageSize = page.pageSize;
+        result.total = page.total;
+        result.data = page.data.stream().map(converter).toList();
         return result;
     }
 }
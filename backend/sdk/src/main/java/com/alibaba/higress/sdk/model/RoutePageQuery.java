@@ -12,16 +12,68 @@
  */
 package com.alibaba.higress.sdk.model;
 
-import lombok.AllArgsConstructor;
+import com.alibaba.higress.sdk.model.route.RouteSortKey;
+
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 @EqualsAndHashCode(callSuper = true)
 public class RoutePageQuery extends CommonPageQuery {
 
     private String domainName;
+
+    /**
+     * Only routes whose path match value starts with it are returned.
+     */
+    private String pathPrefix;
+
+    /**
+     * A regular expression searched for in the path match value.
+     */
+    private String pathPattern;
+
+    /**
+     * Only routes forwarding traffic to this upstream service are returned.
+     */
+    private String serviceName;
+
+    /**
+     * Narrows down the {@link #serviceName} filter. Routes not specifying the service port are included.
+     */
+    private Integer servicePort;
+
+    /**
+     * Narrows down the {@link #serviceName} filter. Routes not specifying the service version are included.
+     */
+    private String serviceVersion;
+
+    /**
+     * Only routes accepting this HTTP method are returned. Routes without any method restriction are included.
+     */
+    private String method;
+
+    /**
+     * Only routes with a header predicate on this key are returned. Case-insensitive.
+     */
+    private String headerKey;
+
+    /**
+     * A case-insensitive substring of the route name.
+     */
+    private String nameContains;
+
+    private RouteSortKey sortBy;
+
+    private SortOrder sortOrder;
+
+    /**
+     * The constructor generated by {@code @AllArgsConstructor} when the domain name was the only field. Kept for
+     * compatibility, since a generated one would take all the filters added since then.
+     */
+    public RoutePageQuery(String domainName) {
+        this.domainName = domainName;
+    }
 }
@@ -33,5 +33,18 @@ public class Service {
 
     private Integer version;
 
+    /**
+     * The first few endpoints of this service. Use {@link #endpointCount} to tell whether there are more.
+     */
     private List<String> endpoints;
+
+    /**
+     * Total number of distinct endpoints of this service.
+     */
+    private Integer endpointCount;
+
+    /**
+     * Number of routes forwarding traffic to this service.
+     */
+    private Integer routeCount;
 }
@@ -16,23 +16,56 @@ import java.util.Map;
 
 import io.swagger.v3.oas.models.media.Schema;
 
+import com.alibaba.higress.sdk.model.wasmplugin.PluginConfigValidator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import io.swagger.annotations.ApiModel;
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 
 @Data
-@Builder
 @NoArgsConstructor
-@AllArgsConstructor
 @ApiModel("Wasm Plugin Config")
 public class WasmPluginConfig {
 
     private Schema schema;
 
+    /**
+     * Compiled from the schema on first use.
+     */
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private transient volatile PluginConfigValidator validator;
+
+    @Builder
+    public WasmPluginConfig(Schema schema) {
+        this.schema = schema;
+    }
+
+    public void setSchema(Schema schema) {
+        this.schema = schema;
+        this.validator = null;
+    }
+
+    /**
+     * @return a cleaned-up copy of the configurations
+     * @throws com.alibaba.higress.sdk.exception.ValidationException if the configurations don't match the schema
+     */
     public Map<String, Object> validateAndCleanUp(Map<String, Object> configurations) {
-        // TODO: Implement validation and clean-up logic.
-        return configurations;
+        PluginConfigValidator validator = this.validator;
+        if (validator == null) {
+            validator = PluginConfigValidator.compile(schema);
+            this.validator = validator;
+        }
+        return validator.validateAndCleanUp(configurations);
     }
 }
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2022-2024 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.higress.sdk.model.service;
+
+import java.util.List;
+
+import com.alibaba.higress.sdk.model.Service;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Changes between two consecutive snapshots of the service catalog. Services are identified by namespace, name and
+ * port.
+ *
+ * @author CH3CHO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ServiceChangeEvent {
+
+    private List<Service> added;
+
+    private List<Service> updated;
+
+    private List<Service> removed;
+
+    /**
+     * When the new snapshot was taken, in milliseconds since the epoch.
+     */
+    private long timestamp;
+
+    public boolean isEmpty() {
+        return added.isEmpty() && updated.isEmpty() && removed.isEmpty();
+    }
+}
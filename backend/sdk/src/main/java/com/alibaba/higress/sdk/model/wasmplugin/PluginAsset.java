@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2022-2024 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.higress.sdk.model.wasmplugin;
+
+import java.nio.ByteBuffer;
+
+import com.google.common.hash.Hashing;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Value;
+
+/**
+ * A static file bundled with a built-in plugin, e.g. its icon or README. The content never changes once loaded, so
+ * its digest can be used as a strong ETag. Assets are shared by all callers, so the content is never handed out
+ * directly.
+ *
+ * @author CH3CHO
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class PluginAsset {
+
+    @Getter(AccessLevel.NONE)
+    byte[] content;
+
+    String contentType;
+
+    String digest;
+
+    public static PluginAsset of(byte[] content, String contentType) {
+        byte[] copy = content.clone();
+        return new PluginAsset(copy, contentType, Hashing.sha256().hashBytes(copy).toString());
+    }
+
+    /**
+     * @return a copy of the content
+     */
+    public byte[] getContent() {
+        return content.clone();
+    }
+
+    /**
+     * @return a read-only view of the content, without copying it
+     */
+    public ByteBuffer asByteBuffer() {
+        return ByteBuffer.wrap(content).asReadOnlyBuffer();
+    }
+}
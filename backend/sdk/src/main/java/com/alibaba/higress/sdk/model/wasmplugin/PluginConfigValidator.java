@@ -0,0 +1,366 @@
+/*
+ * Copyright (c) 2022-2024 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.higress.sdk.model.wasmplugin;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.collections4.MapUtils;
+
+import com.alibaba.higress.sdk.exception.ValidationException;
+
+import io.swagger.v3.oas.models.media.Schema;
+
+/**
+ * Validates plugin configurations against the OpenAPI v3 schema of the plugin. The schema is compiled once into a
+ * tree of type-specific nodes, so validating a configuration is a single walk over the configuration itself.
+ * <p>
+ * Only the constraints that hold regardless of the instance scope are checked: declared types, enums, numeric and
+ * length bounds, and patterns. {@code required} is not enforced because a property may be configured at a different
+ * scope, e.g. credentials in the global config and the allow list in a route config. Null values are removed, and
+ * so are undeclared properties of objects with {@code additionalProperties: false}.
+ *
+ * @author CH3CHO
+ */
+public final class PluginConfigValidator {
+
+    private static final String TYPE_OBJECT = "object";
+    private static final String TYPE_ARRAY = "array";
+    private static final String TYPE_STRING = "string";
+    private static final String TYPE_INTEGER = "integer";
+    private static final String TYPE_NUMBER = "number";
+    private static final String TYPE_BOOLEAN = "boolean";
+
+    private static final PluginConfigValidator EMPTY = new PluginConfigValidator(AnyNode.INSTANCE);
+
+    private final Node root;
+
+    private PluginConfigValidator(Node root) {
+        this.root = root;
+    }
+
+    public static PluginConfigValidator compile(Schema<?> schema) {
+        return schema != null ? new PluginConfigValidator(compileNode(schema)) : EMPTY;
+    }
+
+    /**
+     * @return a cleaned-up copy of the configurations
+     * @throws ValidationException if the configurations don't match the schema
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> validateAndCleanUp(Map<String, Object> configurations) {
+        if (configurations == null) {
+            return null;
+        }
+        return (Map<String, Object>)root.validate(configurations, "");
+    }
+
+    private static Node compileNode(Schema<?> schema) {
+        String type = schema.getType();
+        if (type == null) {
+            if (MapUtils.isNotEmpty(schema.getProperties()) || schema.getAdditionalProperties() != null) {
+                type = TYPE_OBJECT;
+            } else if (schema.getItems() != null) {
+                type = TYPE_ARRAY;
+            } else {
+                return AnyNode.INSTANCE;
+            }
+        }
+        switch (type) {
+            case TYPE_OBJECT:
+                return compileObjectNode(schema);
+            case TYPE_ARRAY:
+                return new ArrayNode(schema.getItems() != null ? compileNode(schema.getItems()) : AnyNode.INSTANCE,
+                    schema.getMinItems(), schema.getMaxItems());
+            case TYPE_STRING:
+                return new StringNode(compileEnum(schema), schema.getMinLength(), schema.getMaxLength(),
+                    compilePattern(schema.getPattern()));
+            case TYPE_INTEGER:
+            case TYPE_NUMBER:
+                return new NumberNode(TYPE_INTEGER.equals(type), compileEnum(schema), schema.getMinimum(),
+                    Boolean.TRUE.equals(schema.getExclusiveMinimum()), schema.getMaximum(),
+                    Boolean.TRUE.equals(schema.getExclusiveMaximum()));
+            case TYPE_BOOLEAN:
+                return BooleanNode.INSTANCE;
+            default:
+                return AnyNode.INSTANCE;
+        }
+    }
+
+    private static Node compileObjectNode(Schema<?> schema) {
+        Map<String, Node> properties = Collections.emptyMap();
+        if (MapUtils.isNotEmpty(schema.getProperties())) {
+            properties = new HashMap<>(schema.getProperties().size() * 4 / 3 + 1);
+            for (Map.Entry<String, Schema> entry : schema.getProperties().entrySet()) {
+                properties.put(entry.getKey(), compileNode(entry.getValue()));
+            }
+        }
+        Object additionalProperties = schema.getAdditionalProperties();
+        Node additionalNode = AnyNode.INSTANCE;
+        if (Boolean.FALSE.equals(additionalProperties)) {
+            additionalNode = null;
+        } else if (additionalProperties instanceof Schema<?>) {
+            additionalNode = compileNode((Schema<?>)additionalProperties);
+        }
+        return new ObjectNode(properties, additionalNode);
+    }
+
+    private static Set<String> compileEnum(Schema<?> schema) {
+        List<?> values = schema.getEnum();
+        if (CollectionUtils.isEmpty(values)) {
+            return null;
+        }
+        Set<String> result = new HashSet<>(values.size() * 4 / 3 + 1);
+        for (Object value : values) {
+            result.add(String.valueOf(value));
+        }
+        return result;
+    }
+
+    private static Pattern compilePattern(String pattern) {
+        if (pattern == null) {
+            return null;
+        }
+        try {
+            return Pattern.compile(pattern);
+        } catch (PatternSyntaxException ex) {
+            // A broken pattern in the spec shouldn't block configuring the plugin.
+            return null;
+        }
+    }
+
+    private static String childPath(String path, String key) {
+        return path.isEmpty() ? key : path + "." + key;
+    }
+
+    private static ValidationException error(String path, String message) {
+        return new ValidationException("Invalid plugin configuration at \"" + (path.isEmpty() ? "/" : path) + "\": "
+            + message);
+    }
+
+    private interface Node {
+
+        /**
+         * @return the cleaned-up value
+         */
+        Object validate(Object value, String path);
+    }
+
+    private static final class AnyNode implements Node {
+
+        private static final AnyNode INSTANCE = new AnyNode();
+
+        @Override
+        public Object validate(Object value, String path) {
+            return value;
+        }
+    }
+
+    private static final class ObjectNode implements Node {
+
+        private final Map<String, Node> properties;
+        /**
+         * {@code null} if undeclared properties are not allowed.
+         */
+        private final Node additionalNode;
+
+        private ObjectNode(Map<String, Node> properties, Node additionalNode) {
+            this.properties = properties;
+            this.additionalNode = additionalNode;
+        }
+
+        @Override
+        public Object validate(Object value, String path) {
+            if (!(value instanceof Map<?, ?>)) {
+                throw error(path, "an object is expected.");
+            }
+            Map<?, ?> map = (Map<?, ?>)value;
+            Map<String, Object> result = new LinkedHashMap<>(map.size() * 4 / 3 + 1);
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (entry.getValue() == null) {
+                    continue;
+                }
+                String key = String.valueOf(entry.getKey());
+                Node node = properties.get(key);
+                if (node == null) {
+                    node = additionalNode;
+                }
+                if (node != null) {
+                    result.put(key, node.validate(entry.getValue(), childPath(path, key)));
+                }
+            }
+            return result;
+        }
+    }
+
+    private static final class ArrayNode implements Node {
+
+        private final Node itemNode;
+        private final Integer minItems;
+        private final Integer maxItems;
+
+        private ArrayNode(Node itemNode, Integer minItems, Integer maxItems) {
+            this.itemNode = itemNode;
+            this.minItems = minItems;
+            this.maxItems = maxItems;
+        }
+
+        @Override
+        public Object validate(Object value, String path) {
+            if (!(value instanceof List<?>)) {
+                throw error(path, "an array is expected.");
+            }
+            List<?> list = (List<?>)value;
+            if (minItems != null && list.size() < minItems) {
+                throw error(path, "at least " + minItems + " items are expected.");
+            }
+            if (maxItems != null && list.size() > maxItems) {
+                throw error(path, "at most " + maxItems + " items are expected.");
+            }
+            List<Object> result = new ArrayList<>(list.size());
+            for (int i = 0, size = list.size(); i < size; ++i) {
+                Object item = list.get(i);
+                if (item == null) {
+                    throw error(path + "[" + i + "]", "null is not allowed.");
+                }
+                result.add(itemNode.validate(item, path + "[" + i + "]"));
+            }
+            return result;
+        }
+    }
+
+    private static final class StringNode implements Node {
+
+        private final Set<String> enumValues;
+        private final Integer minLength;
+        private final Integer maxLength;
+        private final Pattern pattern;
+
+        private StringNode(Set<String> enumValues, Integer minLength, Integer maxLength, Pattern pattern) {
+            this.enumValues = enumValues;
+            this.minLength = minLength;
+            this.maxLength = maxLength;
+            this.pattern = pattern;
+        }
+
+        @Override
+        public Object validate(Object value, String path) {
+            // Plugins read strings leniently, so scalars of other types are accepted as well.
+            if (value instanceof Map<?, ?> || value instanceof List<?>) {
+                throw error(path, "a string is expected.");
+            }
+            String str = String.valueOf(value);
+            if (enumValues != null && !enumValues.contains(str)) {
+                throw error(path, "the value must be one of " + enumValues + ".");
+            }
+            if (minLength != null && str.length() < minLength) {
+                throw error(path, "the length must be at least " + minLength + ".");
+            }
+            if (maxLength != null && str.length() > maxLength) {
+                throw error(path, "the length must be at most " + maxLength + ".");
+            }
+            if (pattern != null && !pattern.matcher(str).find()) {
+                throw error(path, "the value must match pattern " + pattern.pattern() + ".");
+            }
+            return value;
+        }
+    }
+
+    private static final class NumberNode implements Node {
+
+        private final boolean integer;
+        private final Set<String> enumValues;
+        private final BigDecimal minimum;
+        private final boolean exclusiveMinimum;
+        private final BigDecimal maximum;
+        private final boolean exclusiveMaximum;
+
+        private NumberNode(boolean integer, Set<String> enumValues, BigDecimal minimum, boolean exclusiveMinimum,
+            BigDecimal maximum, boolean exclusiveMaximum) {
+            this.integer = integer;
+            this.enumValues = enumValues;
+            this.minimum = minimum;
+            this.exclusiveMinimum = exclusiveMinimum;
+            this.maximum = maximum;
+            this.exclusiveMaximum = exclusiveMaximum;
+        }
+
+        @Override
+        public Object validate(Object value, String path) {
+            if (!(value instanceof Number)) {
+                throw error(path, integer ? "an integer is expected." : "a number is expected.");
+            }
+            if (integer && !isIntegral((Number)value)) {
+                throw error(path, "an integer is expected.");
+            }
+            if (enumValues != null && !enumValues.contains(String.valueOf(value))) {
+                throw error(path, "the value must be one of " + enumValues + ".");
+            }
+            if (minimum == null && maximum == null) {
+                return value;
+            }
+            BigDecimal number = new BigDecimal(value.toString());
+            if (minimum != null) {
+                int cmp = number.compareTo(minimum);
+                if (cmp < 0 || exclusiveMinimum && cmp == 0) {
+                    throw error(path, "the value must be " + (exclusiveMinimum ? "greater than " : "at least ")
+                        + minimum.toPlainString() + ".");
+                }
+            }
+            if (maximum != null) {
+                int cmp = number.compareTo(maximum);
+                if (cmp > 0 || exclusiveMaximum && cmp == 0) {
+                    throw error(path, "the value must be " + (exclusiveMaximum ? "less than " : "at most ")
+                        + maximum.toPlainString() + ".");
+                }
+            }
+            return value;
+        }
+
+        private static boolean isIntegral(Number value) {
+            if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte
+                || value instanceof BigInteger) {
+                return true;
+            }
+            if (value instanceof BigDecimal) {
+                return ((BigDecimal)value).stripTrailingZeros().scale() <= 0;
+            }
+            double d = value.doubleValue();
+            return !Double.isInfinite(d) && d == Math.rint(d);
+        }
+    }
+
+    private static final class BooleanNode implements Node {
+
+        private static final BooleanNode INSTANCE = new BooleanNode();
+
+        @Override
+        public Object validate(Object value, String path) {
+            if (!(value instanceof Boolean)) {
+                throw error(path, "a boolean is expected.");
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,333 @@
+/*
+ * Copyright (c) 2022-2024 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.higress.sdk.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import com.alibaba.higress.sdk.model.wasmplugin.Language;
+import com.alibaba.higress.sdk.model.wasmplugin.Plugin;
+
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.core.util.Yaml;
+import io.swagger.v3.oas.models.media.Schema;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The catalog of built-in plugins.
+ * <p>
+ * Parsing the spec YAML files and extracting config examples from them is done at build time by {@link #main}, which
+ * writes all the plugins into a single artifact {@link #CATALOG_FILE}. At runtime {@link #load} only needs to read
+ * that file. If it is absent, e.g. when running from an IDE without the Maven build, the catalog is compiled from the
+ * source resources instead.
+ * <p>
+ * The artifact is a plain length-prefixed container: a header, then for each plugin its name, image URL, spec, READMEs
+ * and icon. The spec is still stored as JSON and bound by Jackson at runtime. What is saved is the YAML parsing, the
+ * line-by-line example extraction and the per-plugin resource lookups, not the object binding. READMEs and icons are
+ * stored as raw bytes. The READMEs make up most of the file size.
+ *
+ * @author CH3CHO
+ */
+@Slf4j
+public final class BuiltInPluginCatalog {
+
+    static final String README_DEFAULT_KEY = "_default_";
+
+    private static final String PLUGINS_RESOURCE_FOLDER = "plugins/";
+    private static final String PLUGINS_PROPERTIES_FILE = PLUGINS_RESOURCE_FOLDER + "plugins.properties";
+    private static final String CATALOG_FILE = PLUGINS_RESOURCE_FOLDER + "catalog.bin";
+    private static final String SPEC_FILE = "spec.yaml";
+    private static final String README_FILE = "README.md";
+    private static final String README_CN_FILE = "README_CN.md";
+    private static final String README_EN_FILE = "README_EN.md";
+    private static final String ICON_FILE = "icon.png";
+    private static final Charset CHARSET = StandardCharsets.UTF_8;
+
+    private static final int CATALOG_MAGIC = 0x48504C43;
+    private static final int CATALOG_FORMAT_VERSION = 1;
+
+    private static final String EXAMPLE_RAW_PROPERTY_NAME = "x-example-raw";
+
+    private static final Pattern YAML_CONTENT_PATTERN = Pattern.compile("^(\\s*)(\\S.*)\\s*$");
+    private static final String YAML_V3_SCHEMA_PROPERTY_KEY = "openAPIV3Schema:";
+    private static final String YAML_EXAMPLE_PROPERTY_KEY = "example:";
+
+    private BuiltInPluginCatalog() {}
+
+    /**
+     * Compiles the catalog from the plugin resources on the classpath and writes it into the given output directory.
+     *
+     * @param args the first argument is the class output directory, e.g. target/classes
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            throw new IllegalArgumentException("Usage: BuiltInPluginCatalog <outputDirectory>");
+        }
+        List<Entry> entries = compile(BuiltInPluginCatalog.class.getClassLoader());
+        File file = new File(args[0], CATALOG_FILE);
+        Files.createDirectories(file.getParentFile().toPath());
+        try (OutputStream stream = new BufferedOutputStream(Files.newOutputStream(file.toPath()))) {
+            write(entries, stream);
+        }
+        log.info("Built-in plugin catalog with {} plugins is written to {}.", entries.size(), file);
+    }
+
+    /**
+     * Loads the precompiled catalog, or compiles it from the source resources if no precompiled one is available.
+     */
+    static List<Entry> load(ClassLoader classLoader) {
+        try (InputStream stream = classLoader.getResourceAsStream(CATALOG_FILE)) {
+            if (stream != null) {
+                return read(new BufferedInputStream(stream));
+            }
+        } catch (IOException ex) {
+            log.warn("Error occurs when reading the precompiled built-in plugin catalog. Compile it instead.", ex);
+        }
+        return compile(classLoader);
+    }
+
+    static List<Entry> compile(ClassLoader classLoader) {
+        Properties properties = new Properties();
+        try (InputStream stream = classLoader.getResourceAsStream(PLUGINS_PROPERTIES_FILE)) {
+            properties.load(stream);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Error occurs when loading built-in plugin list.", ex);
+        }
+
+        List<Entry> entries = new ArrayList<>(properties.size());
+        for (Object key : properties.keySet()) {
+            String pluginName = (String)key;
+            String imageRepository = properties.getProperty(pluginName);
+            if (StringUtils.isEmpty(imageRepository)) {
+                continue;
+            }
+
+            final String pluginFolder = PLUGINS_RESOURCE_FOLDER + pluginName + "/";
+            Plugin plugin;
+            try (InputStream stream = classLoader.getResourceAsStream(pluginFolder + SPEC_FILE)) {
+                if (stream == null) {
+                    // No spec. Ignore it.
+                    continue;
+                }
+                String content = IOUtils.toString(stream, CHARSET);
+                plugin = Yaml.mapper().readValue(content, Plugin.class);
+                fillPluginConfigExample(plugin, content);
+            } catch (IOException ex) {
+                throw new IllegalStateException("Error occurs when loading spec file of plugin " + pluginName + ".",
+                    ex);
+            }
+
+            Entry entry = new Entry(pluginName, imageRepository, plugin);
+            putReadme(entry, README_DEFAULT_KEY, loadResource(classLoader, pluginFolder + README_FILE));
+            putReadme(entry, Language.ZH_CN.getCode(), loadResource(classLoader, pluginFolder + README_CN_FILE));
+            putReadme(entry, Language.EN_US.getCode(), loadResource(classLoader, pluginFolder + README_EN_FILE));
+            entry.setIcon(loadResource(classLoader, pluginFolder + ICON_FILE));
+            entries.add(entry);
+        }
+        entries.sort(Comparator.comparing(Entry::getName));
+        return entries;
+    }
+
+    static void write(List<Entry> entries, OutputStream stream) throws IOException {
+        DataOutputStream output = new DataOutputStream(stream);
+        output.writeInt(CATALOG_MAGIC);
+        output.writeInt(CATALOG_FORMAT_VERSION);
+        output.writeInt(entries.size());
+        for (Entry entry : entries) {
+            output.writeUTF(entry.getName());
+            output.writeUTF(entry.getImageUrl());
+            writeBytes(output, Json.mapper().writeValueAsBytes(entry.getPlugin()));
+            output.writeInt(entry.getReadmes().size());
+            for (Map.Entry<String, byte[]> readme : entry.getReadmes().entrySet()) {
+                output.writeUTF(readme.getKey());
+                writeBytes(output, readme.getValue());
+            }
+            writeBytes(output, entry.getIcon());
+        }
+        output.flush();
+    }
+
+    static List<Entry> read(InputStream stream) throws IOException {
+        DataInputStream input = new DataInputStream(stream);
+        if (input.readInt() != CATALOG_MAGIC) {
+            throw new IOException("Not a built-in plugin catalog.");
+        }
+        int formatVersion = input.readInt();
+        if (formatVersion != CATALOG_FORMAT_VERSION) {
+            throw new IOException("Unsupported built-in plugin catalog format version: " + formatVersion);
+        }
+        int count = input.readInt();
+        List<Entry> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; ++i) {
+            String name = input.readUTF();
+            String imageUrl = input.readUTF();
+            Plugin plugin = Json.mapper().readValue(readBytes(input), Plugin.class);
+            Entry entry = new Entry(name, imageUrl, plugin);
+            int readmeCount = input.readInt();
+            for (int j = 0; j < readmeCount; ++j) {
+                String key = input.readUTF();
+                entry.getReadmes().put(key, readBytes(input));
+            }
+            entry.setIcon(readBytes(input));
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    private static void writeBytes(DataOutputStream output, byte[] data) throws IOException {
+        if (data == null) {
+            output.writeInt(-1);
+            return;
+        }
+        output.writeInt(data.length);
+        output.write(data);
+    }
+
+    private static byte[] readBytes(DataInputStream input) throws IOException {
+        int length = input.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] data = new byte[length];
+        input.readFully(data);
+        return data;
+    }
+
+    private static void putReadme(Entry entry, String key, byte[] content) {
+        if (content != null && content.length != 0) {
+            entry.getReadmes().put(key, content);
+        }
+    }
+
+    private static byte[] loadResource(ClassLoader classLoader, String resource) {
+        try (InputStream stream = classLoader.getResourceAsStream(resource)) {
+            return stream != null ? IOUtils.toByteArray(stream) : null;
+        } catch (IOException ex) {
+            throw new IllegalStateException("Error occurs when loading plugin data from resource " + resource, ex);
+        }
+    }
+
+    private static void fillPluginConfigExample(Plugin plugin, String content) {
+        String example;
+        try {
+            example = extractConfigExample(content);
+        } catch (IOException e) {
+            log.warn("Error occurs when extracting config example for plugin " + plugin.getInfo().getName(), e);
+            return;
+        }
+        if (StringUtils.isEmpty(example)) {
+            return;
+        }
+        if (plugin.getSpec() == null || plugin.getSpec().getConfigSchema() == null
+            || plugin.getSpec().getConfigSchema().getOpenApiV3Schema() == null) {
+            return;
+        }
+        Schema<?> schema = plugin.getSpec().getConfigSchema().getOpenApiV3Schema();
+        schema.addExtension(EXAMPLE_RAW_PROPERTY_NAME, example);
+    }
+
+    private static String extractConfigExample(String content) throws IOException {
+        StringBuilder builder = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(new StringReader(content))) {
+            boolean foundSchema = false, foundExample = false;
+            String schemaOuterIndentation = null, exampleOuterIndentation = null, exampleInnerIndentation = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Matcher yamlContentMatcher = YAML_CONTENT_PATTERN.matcher(line);
+
+                if (!yamlContentMatcher.find()) {
+                    // A blank line, obviously.
+                    continue;
+                }
+
+                String indentation = yamlContentMatcher.group(1);
+                String unindentedContent = yamlContentMatcher.group(2);
+
+                if (!foundSchema) {
+                    // We only care about finding the openAPIV3Schema property now.
+                    if (unindentedContent.startsWith(YAML_V3_SCHEMA_PROPERTY_KEY)) {
+                        foundSchema = true;
+                        schemaOuterIndentation = indentation;
+                    }
+                    continue;
+                }
+
+                if (!foundExample) {
+                    if (indentation.length() <= schemaOuterIndentation.length()) {
+                        // This line is not a child of the previously found openAPIV3Schema property,
+                        // which means no example property exists as a child of openAPIV3Schema.
+                        break;
+                    }
+                    // We've found the first and direct child of openAPIV3Schema property.
+                    // The example property we are looking for must share the same indentation.
+                    if (exampleOuterIndentation == null) {
+                        exampleOuterIndentation = indentation;
+                    }
+                    if (indentation.equals(exampleOuterIndentation)
+                        && unindentedContent.startsWith(YAML_EXAMPLE_PROPERTY_KEY)) {
+                        foundExample = true;
+                    }
+                    continue;
+                }
+
+                if (indentation.length() <= exampleOuterIndentation.length()) {
+                    // Found a sibling of the example property or its parent.
+                    // So much for the example content.
+                    break;
+                }
+
+                if (exampleInnerIndentation == null) {
+                    exampleInnerIndentation = indentation;
+                }
+                if (!builder.isEmpty()) {
+                    builder.append("\n");
+                }
+                builder.append(line.substring(exampleInnerIndentation.length()));
+            }
+        }
+        return builder.toString();
+    }
+
+    @Data
+    static class Entry {
+
+        private final String name;
+        private final String imageUrl;
+        private final Plugin plugin;
+        private final Map<String, byte[]> readmes = new LinkedHashMap<>(4);
+        private byte[] icon;
+    }
+}
@@ -0,0 +1,276 @@
+/*
+ * Copyright (c) 2022-2024 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.higress.sdk.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+import com.alibaba.higress.sdk.exception.BusinessException;
+import com.alibaba.higress.sdk.exception.ResourceConflictException;
+import com.alibaba.higress.sdk.http.HttpStatus;
+import com.google.common.util.concurrent.Striped;
+
+import io.kubernetes.client.common.KubernetesObject;
+import io.kubernetes.client.openapi.ApiException;
+
+/**
+ * Serializes writes to custom resources shared by many entities, e.g. the WasmPlugin CR holding all the instances of
+ * a plugin or the McpBridge CR holding all the service sources.
+ * <p>
+ * Mutations submitted for the same CR while a previous write of it is in progress are coalesced into a single
+ * read-modify-write cycle: the latest CR is read once, all the mutations are applied to it in order and it is written
+ * once. An uncontended mutation is written right away. Only when others have already joined it is there a short
+ * batching window for more to come. A cycle failing with a conflict is retried from a fresh read. A mutation throwing
+ * an exception fails only its own caller, and the rest of the batch is applied again from a fresh read.
+ * <p>
+ * Since a mutation may be applied more than once, its side effects must be idempotent.
+ *
+ * @author CH3CHO
+ */
+class CustomResourceWriteQueue<T extends KubernetesObject> {
+
+    private static final long DEFAULT_BATCH_WINDOW_MILLIS = 20;
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+
+    private final String kind;
+    private final Reader<T> reader;
+    private final Writer<T> creator;
+    private final Writer<T> replacer;
+    private final long batchWindowMillis;
+    private final Map<String, Batch<T>> pendingBatches = new HashMap<>();
+    private final Striped<Lock> writeLocks = Striped.lazyWeakLock(64);
+
+    CustomResourceWriteQueue(String kind, Reader<T> reader, Writer<T> creator, Writer<T> replacer) {
+        this(kind, reader, creator, replacer, DEFAULT_BATCH_WINDOW_MILLIS);
+    }
+
+    CustomResourceWriteQueue(String kind, Reader<T> reader, Writer<T> creator, Writer<T> replacer,
+        long batchWindowMillis) {
+        this.kind = kind;
+        this.reader = reader;
+        this.creator = creator;
+        this.replacer = replacer;
+        this.batchWindowMillis = batchWindowMillis;
+    }
+
+    /**
+     * Applies the mutation to the latest version of the named CR and writes it, possibly together with mutations
+     * submitted by other callers.
+     *
+     * @return the result of the mutation
+     */
+    <R> R submit(String name, Mutation<T, R> mutation) {
+        Task<T, R> task = new Task<>(mutation);
+        Batch<T> batch;
+        boolean leader = false;
+        synchronized (pendingBatches) {
+            batch = pendingBatches.get(name);
+            if (batch == null) {
+                batch = new Batch<>();
+                pendingBatches.put(name, batch);
+                leader = true;
+            }
+            batch.tasks.add(task);
+        }
+        if (leader) {
+            runBatch(name, batch);
+        }
+        try {
+            return task.future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException)e.getCause();
+            }
+            throw new BusinessException("Error occurs when writing " + kind + " with name " + name, e.getCause());
+        }
+    }
+
+    private void runBatch(String name, Batch<T> batch) {
+        Lock lock = writeLocks.get(name);
+        if (!lock.tryLock()) {
+            // Tasks keep joining the batch until the previous one for the same CR is done.
+            lock.lock();
+        } else if (countTasks(batch) > 1) {
+            sleepQuietly(batchWindowMillis);
+        }
+        List<Task<T, ?>> tasks = Collections.emptyList();
+        RuntimeException failure = null;
+        try {
+            synchronized (pendingBatches) {
+                pendingBatches.remove(name, batch);
+                tasks = new ArrayList<>(batch.tasks);
+            }
+            execute(name, tasks);
+        } catch (RuntimeException e) {
+            failure = e;
+        } finally {
+            lock.unlock();
+            // Done in finally so followers are never left waiting, even if an Error is thrown.
+            for (Task<T, ?> task : tasks) {
+                if (!task.future.isDone()) {
+                    task.future.completeExceptionally(failure != null ? failure
+                        : new BusinessException("Error occurs when writing " + kind + " with name " + name));
+                }
+            }
+        }
+    }
+
+    private int countTasks(Batch<T> batch) {
+        synchronized (pendingBatches) {
+            return batch.tasks.size();
+        }
+    }
+
+    private void execute(String name, List<Task<T, ?>> tasks) {
+        int attempt = 1;
+        while (!tasks.isEmpty()) {
+            T latest;
+            try {
+                latest = reader.read(name);
+            } catch (ApiException e) {
+                throw new BusinessException("Error occurs when reading " + kind + " with name " + name, e);
+            }
+            T current = latest;
+            boolean dirty = false;
+            boolean failed = false;
+            for (Iterator<Task<T, ?>> it = tasks.iterator(); it.hasNext();) {
+                Task<T, ?> task = it.next();
+                T mutated;
+                try {
+                    mutated = task.mutation.apply(current);
+                } catch (RuntimeException e) {
+                    task.future.completeExceptionally(e);
+                    it.remove();
+                    failed = true;
+                    break;
+                }
+                if (mutated != null) {
+                    current = mutated;
+                    dirty = true;
+                }
+            }
+            if (failed) {
+                // The CR may have been partially changed by the failed mutation. Start over with the others.
+                continue;
+            }
+            T written = current;
+            if (dirty) {
+                try {
+                    written = latest == null ? creator.write(current) : replacer.write(current);
+                } catch (ApiException e) {
+                    if (e.getCode() != HttpStatus.CONFLICT) {
+                        throw new BusinessException("Error occurs when writing " + kind + " with name " + name, e);
+                    }
+                    if (attempt++ >= MAX_WRITE_ATTEMPTS) {
+                        throw new ResourceConflictException();
+                    }
+                    continue;
+                }
+            }
+            for (Task<T, ?> task : tasks) {
+                task.complete(written);
+            }
+            return;
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @FunctionalInterface
+    interface Reader<T> {
+
+        /**
+         * @return the CR, or {@code null} if it doesn't exist
+         */
+        T read(String name) throws ApiException;
+    }
+
+    @FunctionalInterface
+    interface Writer<T> {
+
+        T write(T cr) throws ApiException;
+    }
+
+    interface Mutation<T, R> {
+
+        /**
+         * Applies the change to the latest version of the CR. The CR may be changed in place.
+         *
+         * @param cr the latest CR, or {@code null} if it doesn't exist
+         * @return the CR to write, or {@code null} if nothing has been changed
+         */
+        T apply(T cr);
+
+        /**
+         * @param cr the CR written, or the latest one if nothing has been written
+         * @return the result returned to the caller
+         */
+        R toResult(T cr);
+
+        static <T, R> Mutation<T, R> of(UnaryOperator<T> apply, Function<T, R> toResult) {
+            return new Mutation<>() {
+                @Override
+                public T apply(T cr) {
+                    return apply.apply(cr);
+                }
+
+                @Override
+                public R toResult(T cr) {
+                    return toResult.apply(cr);
+                }
+            };
+        }
+    }
+
+    private static final class Batch<T> {
+
+        private final List<Task<T, ?>> tasks = new ArrayList<>();
+    }
+
+    private static final class Task<T, R> {
+
+        private final Mutation<T, R> mutation;
+        private final CompletableFuture<R> future = new CompletableFuture<>();
+
+        private Task(Mutation<T, R> mutation) {
+            this.mutation = mutation;
+        }
+
+        private void complete(T cr) {
+            try {
+                future.complete(mutation.toResult(cr));
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2022-2024 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.higress.sdk.service;
+
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.RandomAccess;
+import java.util.TreeSet;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.google.common.net.InetAddresses;
+import com.google.common.primitives.Ints;
+import com.google.common.primitives.UnsignedBytes;
+
+/**
+ * An immutable, deduplicated and sorted set of endpoint addresses stored in a packed form: IPv4 addresses as ints,
+ * IPv6 addresses as 16-byte runs of a single array, and anything else, e.g. host names, as interned strings. Addresses
+ * are formatted only when read.
+ * <p>
+ * Order: IPv4 addresses numerically, then IPv6 addresses, then the others lexicographically.
+ *
+ * @author CH3CHO
+ */
+final class EndpointSet extends AbstractList<String> implements RandomAccess {
+
+    private static final int IPV6_LENGTH = 16;
+    private static final Interner<String> OTHER_ADDRESS_INTERNER = Interners.newWeakInterner();
+
+    private final int[] ipv4Addresses;
+    private final byte[] ipv6Addresses;
+    private final String[] otherAddresses;
+    private int hashCode;
+
+    private EndpointSet(int[] ipv4Addresses, byte[] ipv6Addresses, String[] otherAddresses) {
+        this.ipv4Addresses = ipv4Addresses;
+        this.ipv6Addresses = ipv6Addresses;
+        this.otherAddresses = otherAddresses;
+    }
+
+    static EndpointSet of(Collection<String> addresses) {
+        TreeSet<Integer> ipv4 = new TreeSet<>(Integer::compareUnsigned);
+        TreeSet<byte[]> ipv6 = new TreeSet<>(UnsignedBytes.lexicographicalComparator());
+        TreeSet<String> others = new TreeSet<>();
+        for (String address : addresses) {
+            if (address == null || address.isEmpty()) {
+                continue;
+            }
+            InetAddress inetAddress = InetAddresses.isInetAddress(address) ? InetAddresses.forString(address) : null;
+            if (inetAddress instanceof Inet4Address) {
+                ipv4.add(InetAddresses.coerceToInteger(inetAddress));
+            } else if (inetAddress != null) {
+                ipv6.add(inetAddress.getAddress());
+            } else {
+                others.add(address);
+            }
+        }
+        byte[] packedIpv6 = new byte[ipv6.size() * IPV6_LENGTH];
+        int offset = 0;
+        for (byte[] address : ipv6) {
+            System.arraycopy(address, 0, packedIpv6, offset, IPV6_LENGTH);
+            offset += IPV6_LENGTH;
+        }
+        return new EndpointSet(Ints.toArray(ipv4), packedIpv6,
+            others.stream().map(OTHER_ADDRESS_INTERNER::intern).toArray(String[]::new));
+    }
+
+    @Override
+    public int size() {
+        return ipv4Addresses.length + ipv6Addresses.length / IPV6_LENGTH + otherAddresses.length;
+    }
+
+    @Override
+    public String get(int index) {
+        if (index < 0) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        if (index < ipv4Addresses.length) {
+            return InetAddresses.fromInteger(ipv4Addresses[index]).getHostAddress();
+        }
+        index -= ipv4Addresses.length;
+        int ipv6Count = ipv6Addresses.length / IPV6_LENGTH;
+        if (index < ipv6Count) {
+            byte[] address = Arrays.copyOfRange(ipv6Addresses, index * IPV6_LENGTH, (index + 1) * IPV6_LENGTH);
+            try {
+                return InetAddresses.toAddrString(InetAddress.getByAddress(address));
+            } catch (UnknownHostException e) {
+                // Never happens since the length is always right.
+                throw new IllegalStateException(e);
+            }
+        }
+        index -= ipv6Count;
+        if (index < otherAddresses.length) {
+            return otherAddresses[index];
+        }
+        throw new IndexOutOfBoundsException(index);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o instanceof EndpointSet) {
+            EndpointSet that = (EndpointSet)o;
+            return Arrays.equals(ipv4Addresses, that.ipv4Addresses) && Arrays.equals(ipv6Addresses, that.ipv6Addresses)
+                && Arrays.equals(otherAddresses, that.otherAddresses);
+        }
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        int h = hashCode;
+        if (h == 0) {
+            h = super.hashCode();
+            hashCode = h;
+        }
+        return h;
+    }
+}
@@ -12,6 +12,7 @@
  */
 package com.alibaba.higress.sdk.service;
 
+import java.io.Closeable;
 import java.io.IOException;
 
 import com.alibaba.higress.sdk.config.HigressServiceConfig;
@@ -21,7 +22,7 @@ import com.alibaba.higress.sdk.service.kubernetes.KubernetesModelConverter;
 /**
  * @author CH3CHO
  */
-public interface HigressServiceProvider {
+public interface HigressServiceProvider extends Closeable {
 
     static HigressServiceProvider create(HigressServiceConfig config) throws IOException {
         return new HigressServiceProviderImpl(config);
@@ -44,4 +45,10 @@ public interface HigressServiceProvider {
     WasmPluginService wasmPluginService();
 
     WasmPluginInstanceService wasmPluginInstanceService();
+
+    /**
+     * Stops the background watches and executors owned by the services. The services shall not be used afterwards.
+     */
+    @Override
+    void close();
 }
@@ -27,23 +27,28 @@ class HigressServiceProviderImpl implements HigressServiceProvider {
     private final KubernetesModelConverter kubernetesModelConverter;
     private final DomainService domainService;
     private final RouteService routeService;
-    private final ServiceService serviceService;
+    private final ServiceServiceImpl serviceService;
     private final ServiceSourceService serviceSourceService;
     private final TlsCertificateService tlsCertificateService;
     private final WasmPluginService wasmPluginService;
-    private final WasmPluginInstanceService wasmPluginInstanceService;
+    private final WasmPluginInstanceServiceImpl wasmPluginInstanceService;
+    private final RouteIndex routeIndex;
+    private final TlsCertificateExpiryIndex tlsCertificateExpiryIndex;
 
     HigressServiceProviderImpl(HigressServiceConfig config) throws IOException {
         kubernetesClientService = new KubernetesClientService(config);
         kubernetesModelConverter = new KubernetesModelConverter(kubernetesClientService);
-        serviceService = new ServiceServiceImpl(kubernetesClientService);
+        routeIndex = new RouteIndex(kubernetesClientService, kubernetesModelConverter);
+        serviceService = new ServiceServiceImpl(new ServiceCatalog(kubernetesClientService), routeIndex);
         serviceSourceService = new ServiceSourceServiceImpl(kubernetesClientService, kubernetesModelConverter);
-        tlsCertificateService = new TlsCertificateServiceImpl(kubernetesClientService, kubernetesModelConverter);
+        tlsCertificateExpiryIndex = new TlsCertificateExpiryIndex(kubernetesClientService, kubernetesModelConverter);
+        tlsCertificateService = new TlsCertificateServiceImpl(kubernetesClientService, kubernetesModelConverter,
+            tlsCertificateExpiryIndex);
         wasmPluginService = new WasmPluginServiceImpl(kubernetesClientService, kubernetesModelConverter);
         wasmPluginInstanceService =
             new WasmPluginInstanceServiceImpl(wasmPluginService, kubernetesClientService, kubernetesModelConverter);
-        routeService =
-            new RouteServiceImpl(kubernetesClientService, kubernetesModelConverter, wasmPluginInstanceService);
+        routeService = new RouteServiceImpl(kubernetesClientService, kubernetesModelConverter,
+            wasmPluginInstanceService, routeIndex);
         domainService = new DomainServiceImpl(kubernetesClientService, kubernetesModelConverter, routeService,
             wasmPluginInstanceService);
     }
@@ -92,4 +97,12 @@ class HigressServiceProviderImpl implements HigressServiceProvider {
     public WasmPluginInstanceService wasmPluginInstanceService() {
         return wasmPluginInstanceService;
     }
+
+    @Override
+    public void close() {
+        routeIndex.close();
+        serviceService.close();
+        tlsCertificateExpiryIndex.close();
+        wasmPluginInstanceService.close();
+    }
 }
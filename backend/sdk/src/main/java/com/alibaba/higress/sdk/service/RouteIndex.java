@@ -0,0 +1,514 @@
+/*
+ * Copyright (c) 2022-2024 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.higress.sdk.service;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import com.alibaba.higress.sdk.exception.ValidationException;
+import com.alibaba.higress.sdk.model.Route;
+import com.alibaba.higress.sdk.model.RoutePageQuery;
+import com.alibaba.higress.sdk.model.SortOrder;
+import com.alibaba.higress.sdk.model.route.KeyedRoutePredicate;
+import com.alibaba.higress.sdk.model.route.RouteSortKey;
+import com.alibaba.higress.sdk.model.route.UpstreamService;
+import com.alibaba.higress.sdk.service.kubernetes.KubernetesClientService;
+import com.alibaba.higress.sdk.service.kubernetes.KubernetesModelConverter;
+import com.alibaba.higress.sdk.service.kubernetes.KubernetesResourceWatcher;
+import com.alibaba.higress.sdk.service.kubernetes.KubernetesResourceWatcher.Listing;
+import com.alibaba.higress.sdk.service.kubernetes.KubernetesUtil;
+
+import io.kubernetes.client.openapi.ApiException;
+import io.kubernetes.client.openapi.models.V1Ingress;
+import io.kubernetes.client.openapi.models.V1IngressList;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory indexes over the supported Ingresses, used to filter and sort routes without listing or converting every
+ * Ingress on each query. All the Ingresses are listed on first access, and the index is kept up to date by watching
+ * them afterwards. Each Ingress is converted once per resource version.
+ * <p>
+ * It also serves as the reverse index from upstream services to the routes referencing them.
+ *
+ * @author CH3CHO
+ */
+@Slf4j
+class RouteIndex implements KubernetesResourceWatcher.Handler<V1Ingress>, Closeable {
+
+    private static final String ANY_METHOD = "*";
+
+    private final KubernetesModelConverter kubernetesModelConverter;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Entry> entries = new TreeMap<>();
+    private final NavigableMap<String, Set<String>> pathIndex = new TreeMap<>();
+    private final Map<String, Set<String>> domainIndex = new HashMap<>();
+    private final Map<String, Set<String>> serviceIndex = new HashMap<>();
+    private final Map<String, Set<String>> methodIndex = new HashMap<>();
+    private final Map<String, Set<String>> headerKeyIndex = new HashMap<>();
+    private final KubernetesResourceWatcher<V1Ingress> watcher;
+    /**
+     * Held while listing Ingresses from the API server, so it is not a monitor, which would pin virtual threads.
+     */
+    private final Lock loadLock = new ReentrantLock();
+    private volatile boolean loaded;
+
+    RouteIndex(KubernetesClientService kubernetesClientService, KubernetesModelConverter kubernetesModelConverter) {
+        this.kubernetesModelConverter = kubernetesModelConverter;
+        this.watcher = new KubernetesResourceWatcher<>("RouteIndex", () -> {
+            V1IngressList list = kubernetesClientService.listIngressForWatch();
+            return Listing.of(list.getItems(), list.getMetadata() != null ? list.getMetadata().getResourceVersion()
+                : null);
+        }, kubernetesClientService::watchIngress, this);
+    }
+
+    /**
+     * Lists all the Ingresses on the first call, and starts watching them for the following ones.
+     *
+     * @return {@code false} if Ingresses can't be listed, in which case the index stays empty
+     */
+    boolean ensureLoaded() {
+        if (loaded) {
+            return true;
+        }
+        loadLock.lock();
+        try {
+            if (!loaded) {
+                watcher.start(watcher.reload());
+                loaded = true;
+            }
+            return true;
+        } catch (ApiException e) {
+            log.error("Error occurs when listing Ingresses. Status code: {} Reason: {}", e.getCode(),
+                e.getResponseBody(), e);
+            return false;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        watcher.close();
+    }
+
+    @Override
+    public void onReload(List<V1Ingress> ingresses) {
+        sync(ingresses.stream().filter(kubernetesModelConverter::isIngressSupported).toList(),
+            kubernetesModelConverter::ingress2Route);
+    }
+
+    @Override
+    public void onChanged(V1Ingress ingress) {
+        String name = KubernetesUtil.getObjectName(ingress);
+        if (name == null) {
+            return;
+        }
+        if (!kubernetesModelConverter.isIngressSupported(ingress)) {
+            remove(name);
+            return;
+        }
+        lock.readLock().lock();
+        try {
+            Entry entry = entries.get(name);
+            if (entry != null && !isNewer(getResourceVersion(ingress), entry.resourceVersion)) {
+                // Already applied, e.g. by the write which caused this event.
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        // Converted outside the lock. A concurrent change of the same Ingress is settled by the version check in put.
+        put(ingress, kubernetesModelConverter.ingress2Route(ingress));
+    }
+
+    @Override
+    public void onDeleted(V1Ingress ingress) {
+        String name = KubernetesUtil.getObjectName(ingress);
+        if (name != null) {
+            remove(name);
+        }
+    }
+
+    /**
+     * Brings the index in line with the given full list of Ingresses. Unchanged ones are skipped by resource version.
+     */
+    void sync(List<V1Ingress> ingresses, Function<V1Ingress, Route> converter) {
+        lock.writeLock().lock();
+        try {
+            Set<String> names = new HashSet<>(ingresses.size() * 4 / 3 + 1);
+            for (V1Ingress ingress : ingresses) {
+                String name = KubernetesUtil.getObjectName(ingress);
+                if (name == null) {
+                    continue;
+                }
+                names.add(name);
+                Entry entry = entries.get(name);
+                if (entry == null || !StringUtils.equals(entry.resourceVersion, getResourceVersion(ingress))) {
+                    doPut(name, ingress, converter.apply(ingress));
+                }
+            }
+            entries.keySet().removeIf(name -> {
+                if (names.contains(name)) {
+                    return false;
+                }
+                unindex(entries.get(name));
+                return true;
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds or replaces the route of the given Ingress, unless a newer version of it is indexed already.
+     */
+    void put(V1Ingress ingress, Route route) {
+        String name = KubernetesUtil.getObjectName(ingress);
+        if (name == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Entry entry = entries.get(name);
+            if (entry == null || isNewer(getResourceVersion(ingress), entry.resourceVersion)) {
+                doPut(name, ingress, route);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(String name) {
+        lock.writeLock().lock();
+        try {
+            Entry entry = entries.remove(name);
+            if (entry != null) {
+                unindex(entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns names of the routes forwarding traffic to the given upstream service. A {@code null} port or version
+     * matches any value, and so does a route service without port or version.
+     */
+    Set<String> getRouteNamesByService(String serviceName, Integer port, String version) {
+        lock.readLock().lock();
+        try {
+            return doGetRouteNamesByService(serviceName, port, version);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int countRoutesByService(String serviceName, Integer port, String version) {
+        return getRouteNamesByService(serviceName, port, version).size();
+    }
+
+    /**
+     * Returns the routes matching all the filters in the query, ordered as requested. Pagination is not applied.
+     * <p>
+     * The routes are shared by all the queries. Use {@link #copy(Route)} on those handed out to callers.
+     */
+    List<Route> query(RoutePageQuery query) {
+        Pattern pathPattern = compilePathPattern(query != null ? query.getPathPattern() : null);
+        Set<String> matchedPaths = pathPattern != null ? matchPaths(pathPattern) : null;
+        lock.readLock().lock();
+        try {
+            Collection<String> names = query != null ? filter(query, matchedPaths) : null;
+            List<Entry> matched;
+            if (names == null) {
+                matched = new ArrayList<>(entries.values());
+            } else {
+                matched = new ArrayList<>(names.size());
+                for (String name : names) {
+                    matched.add(entries.get(name));
+                }
+            }
+            sort(matched, query);
+            List<Route> result = new ArrayList<>(matched.size());
+            for (Entry entry : matched) {
+                result.add(entry.route);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Matches the user given pattern against a snapshot of the indexed paths. It is done outside the lock, so a costly
+     * pattern doesn't hold up the updates of the index.
+     */
+    private Set<String> matchPaths(Pattern pathPattern) {
+        List<String> paths;
+        lock.readLock().lock();
+        try {
+            paths = new ArrayList<>(pathIndex.keySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+        Set<String> result = new HashSet<>();
+        for (String path : paths) {
+            if (pathPattern.matcher(path).find()) {
+                result.add(path);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param matchedPaths paths matching the path pattern of the query, or {@code null} if no pattern is set
+     * @return names of the filtered routes in name order, or {@code null} if no filter is set
+     */
+    private Collection<String> filter(RoutePageQuery query, Set<String> matchedPaths) {
+        List<Set<String>> candidates = new ArrayList<>();
+        if (StringUtils.isNotEmpty(query.getDomainName())) {
+            candidates.add(domainIndex.getOrDefault(query.getDomainName(), Collections.emptySet()));
+        }
+        if (StringUtils.isNotEmpty(query.getServiceName())) {
+            candidates.add(doGetRouteNamesByService(query.getServiceName(), query.getServicePort(),
+                query.getServiceVersion()));
+        }
+        if (StringUtils.isNotEmpty(query.getHeaderKey())) {
+            candidates.add(headerKeyIndex.getOrDefault(normalizeHeaderKey(query.getHeaderKey()),
+                Collections.emptySet()));
+        }
+        if (StringUtils.isNotEmpty(query.getMethod())) {
+            Set<String> methodMatched = new HashSet<>(
+                methodIndex.getOrDefault(query.getMethod().toUpperCase(Locale.ROOT), Collections.emptySet()));
+            methodMatched.addAll(methodIndex.getOrDefault(ANY_METHOD, Collections.emptySet()));
+            candidates.add(methodMatched);
+        }
+        if (StringUtils.isNotEmpty(query.getPathPrefix())) {
+            candidates.add(collectPaths(pathIndex.tailMap(query.getPathPrefix(), true), query.getPathPrefix()));
+        }
+        if (matchedPaths != null) {
+            Set<String> patternMatched = new HashSet<>();
+            for (String path : matchedPaths) {
+                // Paths removed since they were matched are gone from the index.
+                patternMatched.addAll(pathIndex.getOrDefault(path, Collections.emptySet()));
+            }
+            candidates.add(patternMatched);
+        }
+        String nameContains = query.getNameContains();
+        if (candidates.isEmpty() && StringUtils.isEmpty(nameContains)) {
+            return null;
+        }
+
+        Set<String> result = new TreeSet<>();
+        if (candidates.isEmpty()) {
+            result.addAll(entries.keySet());
+        } else {
+            candidates.sort(Comparator.comparingInt(Set::size));
+            result.addAll(candidates.get(0));
+            for (int i = 1; i < candidates.size() && !result.isEmpty(); ++i) {
+                result.retainAll(candidates.get(i));
+            }
+        }
+        if (StringUtils.isNotEmpty(nameContains)) {
+            result.removeIf(name -> !StringUtils.containsIgnoreCase(name, nameContains));
+        }
+        return result;
+    }
+
+    private Set<String> doGetRouteNamesByService(String serviceName, Integer port, String version) {
+        Set<String> names = serviceIndex.get(serviceName);
+        if (names == null) {
+            return Collections.emptySet();
+        }
+        if (port == null && StringUtils.isEmpty(version)) {
+            return new HashSet<>(names);
+        }
+        Set<String> result = new HashSet<>();
+        for (String name : names) {
+            for (UpstreamService service : entries.get(name).services) {
+                if (serviceName.equals(service.getName()) && (port == null || service.getPort() == null
+                    || port.equals(service.getPort()))
+                    && (StringUtils.isEmpty(version) || StringUtils.isEmpty(service.getVersion())
+                        || version.equals(service.getVersion()))) {
+                    result.add(name);
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static Set<String> collectPaths(NavigableMap<String, Set<String>> paths, String prefix) {
+        Set<String> result = new HashSet<>();
+        for (Map.Entry<String, Set<String>> entry : paths.entrySet()) {
+            if (!entry.getKey().startsWith(prefix)) {
+                // Paths are sorted, so no more path can start with the prefix.
+                break;
+            }
+            result.addAll(entry.getValue());
+        }
+        return result;
+    }
+
+    private static void sort(List<Entry> matched, RoutePageQuery query) {
+        RouteSortKey sortBy = query != null && query.getSortBy() != null ? query.getSortBy() : RouteSortKey.NAME;
+        boolean descending = query != null && query.getSortOrder() == SortOrder.DESC;
+        Comparator<Entry> comparator = Comparator.comparing(e -> e.name);
+        if (sortBy == RouteSortKey.PATH) {
+            comparator = Comparator.<Entry, String>comparing(e -> e.path).thenComparing(comparator);
+        } else if (!descending) {
+            // Entries come in name order already.
+            return;
+        }
+        matched.sort(descending ? comparator.reversed() : comparator);
+    }
+
+    private static Pattern compilePathPattern(String pathPattern) {
+        if (StringUtils.isEmpty(pathPattern)) {
+            return null;
+        }
+        try {
+            return Pattern.compile(pathPattern);
+        } catch (PatternSyntaxException e) {
+            throw new ValidationException("Invalid path pattern: " + pathPattern, e);
+        }
+    }
+
+    /**
+     * Makes a copy of an indexed route which can be modified without affecting the index. Nested objects are shared
+     * with the index, and shall be replaced rather than modified in place.
+     */
+    static Route copy(Route route) {
+        return route.toBuilder().build();
+    }
+
+    private void doPut(String name, V1Ingress ingress, Route route) {
+        Entry oldEntry = entries.get(name);
+        if (oldEntry != null) {
+            unindex(oldEntry);
+        }
+        Entry entry = new Entry(name, getResourceVersion(ingress), route);
+        entries.put(entry.name, entry);
+        addToIndex(pathIndex, entry.path, entry.name);
+        entry.domains.forEach(domain -> addToIndex(domainIndex, domain, entry.name));
+        entry.services.forEach(service -> addToIndex(serviceIndex, service.getName(), entry.name));
+        entry.methods.forEach(method -> addToIndex(methodIndex, method, entry.name));
+        entry.headerKeys.forEach(key -> addToIndex(headerKeyIndex, key, entry.name));
+    }
+
+    private void unindex(Entry entry) {
+        removeFromIndex(pathIndex, entry.path, entry.name);
+        entry.domains.forEach(domain -> removeFromIndex(domainIndex, domain, entry.name));
+        entry.services.forEach(service -> removeFromIndex(serviceIndex, service.getName(), entry.name));
+        entry.methods.forEach(method -> removeFromIndex(methodIndex, method, entry.name));
+        entry.headerKeys.forEach(key -> removeFromIndex(headerKeyIndex, key, entry.name));
+    }
+
+    private static void addToIndex(Map<String, Set<String>> index, String key, String name) {
+        index.computeIfAbsent(key, k -> new HashSet<>()).add(name);
+    }
+
+    private static void removeFromIndex(Map<String, Set<String>> index, String key, String name) {
+        Set<String> names = index.get(key);
+        if (names != null && names.remove(name) && names.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    private static String getResourceVersion(V1Ingress ingress) {
+        return ingress.getMetadata() != null ? ingress.getMetadata().getResourceVersion() : null;
+    }
+
+    /**
+     * Resource versions are supposed to be opaque. They are only compared when both look like numbers, and taken as
+     * newer whenever they differ otherwise.
+     */
+    private static boolean isNewer(String version, String reference) {
+        if (StringUtils.equals(version, reference)) {
+            return false;
+        }
+        if (version == null || reference == null) {
+            return true;
+        }
+        try {
+            return Long.parseLong(version) > Long.parseLong(reference);
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    private static String normalizeHeaderKey(String key) {
+        return key.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Entry {
+
+        private final String name;
+        private final String resourceVersion;
+        private final Route route;
+        private final String path;
+        private final List<String> domains;
+        private final List<UpstreamService> services = new ArrayList<>();
+        private final Set<String> methods = new HashSet<>();
+        private final Set<String> headerKeys = new HashSet<>();
+
+        private Entry(String name, String resourceVersion, Route route) {
+            this.name = name;
+            this.resourceVersion = resourceVersion;
+            this.route = route;
+            this.path = route.getPath() != null ? StringUtils.defaultString(route.getPath().getMatchValue()) : "";
+            this.domains = route.getDomains() != null ? route.getDomains() : Collections.emptyList();
+            if (route.getServices() != null) {
+                for (UpstreamService service : route.getServices()) {
+                    if (service != null && StringUtils.isNotEmpty(service.getName())) {
+                        services.add(service);
+                    }
+                }
+            }
+            if (CollectionUtils.isEmpty(route.getMethods())) {
+                methods.add(ANY_METHOD);
+            } else {
+                route.getMethods().stream().filter(StringUtils::isNotEmpty)
+                    .forEach(m -> methods.add(m.toUpperCase(Locale.ROOT)));
+            }
+            if (route.getHeaders() != null) {
+                for (KeyedRoutePredicate header : route.getHeaders()) {
+                    if (StringUtils.isNotEmpty(header.getKey())) {
+                        headerKeys.add(normalizeHeaderKey(header.getKey()));
+                    }
+                }
+            }
+        }
+    }
+}
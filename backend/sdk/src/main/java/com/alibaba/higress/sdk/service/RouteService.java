@@ -12,6 +12,8 @@
  */
 package com.alibaba.higress.sdk.service;
 
+import java.util.Collection;
+
 import com.alibaba.higress.sdk.model.PaginatedResult;
 import com.alibaba.higress.sdk.model.Route;
 import com.alibaba.higress.sdk.model.RoutePageQuery;
@@ -27,4 +29,9 @@ public interface RouteService {
     Route update(Route route);
 
     void delete(String name);
+
+    /**
+     * Deletes the given routes and cleans up their plugin instances in one batch.
+     */
+    void batchDelete(Collection<String> names);
 }
@@ -12,12 +12,11 @@
  */
 package com.alibaba.higress.sdk.service;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 
-import org.apache.commons.collections4.CollectionUtils;
-import org.apache.commons.lang3.StringUtils;
-
 import com.alibaba.higress.sdk.exception.BusinessException;
 import com.alibaba.higress.sdk.exception.ResourceConflictException;
 import com.alibaba.higress.sdk.http.HttpStatus;
@@ -38,28 +37,24 @@ class RouteServiceImpl implements RouteService {
     private final KubernetesClientService kubernetesClientService;
     private final KubernetesModelConverter kubernetesModelConverter;
     private final WasmPluginInstanceService wasmPluginInstanceService;
+    private final RouteIndex routeIndex;
 
     public RouteServiceImpl(KubernetesClientService kubernetesClientService,
-        KubernetesModelConverter kubernetesModelConverter, WasmPluginInstanceService wasmPluginInstanceService) {
+        KubernetesModelConverter kubernetesModelConverter, WasmPluginInstanceService wasmPluginInstanceService,
+        RouteIndex routeIndex) {
         this.kubernetesClientService = kubernetesClientService;
         this.kubernetesModelConverter = kubernetesModelConverter;
         this.wasmPluginInstanceService = wasmPluginInstanceService;
+        this.routeIndex = routeIndex;
     }
 
     @Override
     public PaginatedResult<Route> list(RoutePageQuery query) {
-        List<V1Ingress> ingresses;
-        if (query != null && StringUtils.isNotEmpty(query.getDomainName())) {
-            ingresses = kubernetesClientService.listIngressByDomain(query.getDomainName());
-        } else {
-            ingresses = kubernetesClientService.listIngress();
-        }
-        if (CollectionUtils.isEmpty(ingresses)) {
+        if (!routeIndex.ensureLoaded()) {
             return PaginatedResult.createFromFullList(Collections.emptyList(), query);
         }
-        List<V1Ingress> supportedIngresses =
-            ingresses.stream().filter(kubernetesModelConverter::isIngressSupported).toList();
-        return PaginatedResult.createFromFullList(supportedIngresses, query, kubernetesModelConverter::ingress2Route);
+        // Routes in the index are shared. Only those in the requested page are copied.
+        return PaginatedResult.createFromFullList(routeIndex.query(query), query, RouteIndex::copy);
     }
 
     @Override
@@ -86,7 +81,9 @@ class RouteServiceImpl implements RouteService {
             throw new BusinessException(
                 "Error occurs when updating the ingress generated by route with name: " + route.getName(), e);
         }
-        return kubernetesModelConverter.ingress2Route(newIngress);
+        Route newRoute = kubernetesModelConverter.ingress2Route(newIngress);
+        routeIndex.put(newIngress, newRoute);
+        return RouteIndex.copy(newRoute);
     }
 
     @Override
@@ -103,17 +100,39 @@ class RouteServiceImpl implements RouteService {
             throw new BusinessException(
                 "Error occurs when updating the ingress generated by route with name: " + route.getName(), e);
         }
-        return kubernetesModelConverter.ingress2Route(updatedIngress);
+        Route updatedRoute = kubernetesModelConverter.ingress2Route(updatedIngress);
+        routeIndex.put(updatedIngress, updatedRoute);
+        return RouteIndex.copy(updatedRoute);
     }
 
     @Override
     public void delete(String name) {
+        batchDelete(Collections.singletonList(name));
+    }
+
+    @Override
+    public void batchDelete(Collection<String> names) {
+        List<String> deletedNames = new ArrayList<>(names.size());
         try {
-            kubernetesClientService.deleteIngress(name);
-        } catch (ApiException e) {
-            throw new BusinessException("Error occurs when deleting ingress with name: " + name, e);
+            for (String name : names) {
+                try {
+                    kubernetesClientService.deleteIngress(name);
+                } catch (ApiException e) {
+                    throw new BusinessException("Error occurs when deleting ingress with name: " + name, e);
+                }
+                routeIndex.remove(name);
+                deletedNames.add(name);
+            }
+        } catch (RuntimeException e) {
+            // Plugin instances of the routes deleted so far still need to be cleaned up, but the deletion failure is
+            // what the caller needs to see.
+            try {
+                wasmPluginInstanceService.batchDeleteAll(WasmPluginInstanceScope.ROUTE, deletedNames);
+            } catch (RuntimeException cleanupException) {
+                e.addSuppressed(cleanupException);
+            }
+            throw e;
         }
-
-        wasmPluginInstanceService.deleteAll(WasmPluginInstanceScope.ROUTE, name);
+        wasmPluginInstanceService.batchDeleteAll(WasmPluginInstanceScope.ROUTE, deletedNames);
     }
 }
@@ -0,0 +1,386 @@
+/*
+ * Copyright (c) 2022-2024 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.higress.sdk.service;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import com.alibaba.higress.sdk.constant.CommonKey;
+import com.alibaba.higress.sdk.exception.BusinessException;
+import com.alibaba.higress.sdk.model.Service;
+import com.alibaba.higress.sdk.model.ServicePageQuery;
+import com.alibaba.higress.sdk.model.service.ServiceChangeEvent;
+import com.alibaba.higress.sdk.service.kubernetes.KubernetesClientService;
+import com.alibaba.higress.sdk.service.kubernetes.model.IstioEndpoint;
+import com.alibaba.higress.sdk.service.kubernetes.model.IstioEndpointShard;
+import com.alibaba.higress.sdk.service.kubernetes.model.Port;
+import com.alibaba.higress.sdk.service.kubernetes.model.RegistryzService;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A catalog of the services known to the controller, refreshed in the background.
+ * <p>
+ * Each refresh replaces an immutable, sorted and indexed snapshot, and the difference from the previous snapshot is
+ * published to the listeners. Background refreshing starts on first access and pauses once the catalog hasn't been
+ * accessed for a while. A snapshot gone stale during the pause is refreshed synchronously on the next access.
+ *
+ * @author CH3CHO
+ */
+@Slf4j
+class ServiceCatalog implements Closeable {
+
+    private static final long REFRESH_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(10);
+    private static final long STALE_THRESHOLD_MILLIS = REFRESH_INTERVAL_MILLIS * 3;
+    private static final long IDLE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    /**
+     * Number of endpoints included in {@link Service#getEndpoints()}. The full list is served page by page.
+     */
+    private static final int ENDPOINT_SUMMARY_SIZE = 10;
+
+    private static final Comparator<Service> SERVICE_COMPARATOR =
+        Comparator.comparing(Service::getNamespace).thenComparing(Service::getName)
+            .thenComparing(Service::getPort, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final KubernetesClientService kubernetesClientService;
+    private final List<Consumer<ServiceChangeEvent>> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean backgroundRefreshStarted = new AtomicBoolean();
+    /**
+     * No thread is created until the background refresh is started on first use.
+     */
+    private final ScheduledExecutorService scheduler = new ScheduledThreadPoolExecutor(1,
+        new ThreadFactoryBuilder().setDaemon(true).setNameFormat("ServiceCatalog-Refresher-%d").build());
+    /**
+     * Held while loading services from the API server, so it is not a monitor, which would pin virtual threads.
+     */
+    private final Lock refreshLock = new ReentrantLock();
+    private volatile Snapshot snapshot;
+    private volatile long lastAccessTime;
+
+    ServiceCatalog(KubernetesClientService kubernetesClientService) {
+        this.kubernetesClientService = kubernetesClientService;
+    }
+
+    /**
+     * @return sorted services matching the query
+     */
+    List<Service> search(ServicePageQuery query) {
+        return getSnapshot().search(query);
+    }
+
+    /**
+     * @return all the endpoints of the service, or {@code null} if the service is not found
+     */
+    EndpointSet getEndpoints(String namespace, String name) {
+        return getSnapshot().endpointsByService.get(buildKey(namespace, name));
+    }
+
+    void addChangeListener(Consumer<ServiceChangeEvent> listener) {
+        listeners.add(listener);
+    }
+
+    void removeChangeListener(Consumer<ServiceChangeEvent> listener) {
+        listeners.remove(listener);
+    }
+
+    private Snapshot getSnapshot() {
+        long now = System.currentTimeMillis();
+        lastAccessTime = now;
+        Snapshot current = snapshot;
+        if (current == null || now - current.timestamp > STALE_THRESHOLD_MILLIS) {
+            refreshLock.lock();
+            try {
+                current = snapshot;
+                if (current == null || now - current.timestamp > STALE_THRESHOLD_MILLIS) {
+                    current = refresh();
+                }
+            } finally {
+                refreshLock.unlock();
+            }
+        }
+        startBackgroundRefresh();
+        return current;
+    }
+
+    private void startBackgroundRefresh() {
+        if (!backgroundRefreshStarted.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            scheduler.scheduleWithFixedDelay(() -> {
+                if (System.currentTimeMillis() - lastAccessTime > IDLE_TIMEOUT_MILLIS) {
+                    return;
+                }
+                try {
+                    refresh();
+                } catch (Exception e) {
+                    log.warn("Error occurs when refreshing the service catalog.", e);
+                }
+            }, REFRESH_INTERVAL_MILLIS, REFRESH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Closed already. Snapshots are still loaded on demand.
+            log.debug("The service catalog is closed. Background refresh is not started.");
+        }
+    }
+
+    /**
+     * Stops the background refresh. Services can still be searched, but each stale snapshot is then reloaded on
+     * demand.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    boolean isClosed() {
+        return scheduler.isShutdown();
+    }
+
+    Snapshot refresh() {
+        refreshLock.lock();
+        try {
+            return doRefresh();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private Snapshot doRefresh() {
+        List<LoadedService> services;
+        try {
+            services = loadServices();
+        } catch (Exception e) {
+            throw new BusinessException("Error occurs when listing services.", e);
+        }
+        Snapshot previous = snapshot;
+        Snapshot current = new Snapshot(services, System.currentTimeMillis());
+        snapshot = current;
+
+        ServiceChangeEvent event = diff(previous, current);
+        if (!event.isEmpty()) {
+            for (Consumer<ServiceChangeEvent> listener : listeners) {
+                try {
+                    listener.accept(event);
+                } catch (Exception e) {
+                    log.warn("Error occurs when notifying a service change listener.", e);
+                }
+            }
+        }
+        return current;
+    }
+
+    private List<LoadedService> loadServices() throws Exception {
+        List<RegistryzService> registryzServices = kubernetesClientService.gatewayServiceList();
+        if (CollectionUtils.isEmpty(registryzServices)) {
+            return Collections.emptyList();
+        }
+
+        Map<String, Map<String, IstioEndpointShard>> serviceEndpoint = kubernetesClientService.gatewayServiceEndpoint();
+        List<LoadedService> services = new ArrayList<>(registryzServices.size());
+        for (RegistryzService registryzService : registryzServices) {
+            String namespace = registryzService.getAttributes().getNamespace();
+
+            if (kubernetesClientService.isNamespaceProtected(namespace)) {
+                continue;
+            }
+
+            String name = registryzService.getHostname();
+
+            EndpointSet endpoints = getServiceEndpoints(serviceEndpoint, namespace, name);
+            List<String> endpointSummary = summarize(endpoints);
+            Integer endpointCount = endpoints != null ? endpoints.size() : null;
+            if (CommonKey.MCP_NAMESPACE.equals(namespace) || CollectionUtils.isEmpty(registryzService.getPorts())) {
+                // We don't care about the port number of services got from McpBridge.
+                Service service = new Service();
+                service.setName(name);
+                service.setNamespace(namespace);
+                service.setEndpoints(endpointSummary);
+                service.setEndpointCount(endpointCount);
+                services.add(new LoadedService(service, endpoints));
+            } else {
+                Set<Integer> ports = new HashSet<>(registryzService.getPorts().size());
+                for (Port port : registryzService.getPorts()) {
+                    if (!ports.add(port.getPort())) {
+                        log.warn("Duplicate port found in service {}/{}: {}", namespace, name, port.getPort());
+                        continue;
+                    }
+                    Service service = new Service();
+                    service.setName(name);
+                    service.setPort(port.getPort());
+                    service.setNamespace(namespace);
+                    service.setEndpoints(endpointSummary);
+                    service.setEndpointCount(endpointCount);
+                    services.add(new LoadedService(service, endpoints));
+                }
+            }
+        }
+        services.sort(Comparator.comparing(LoadedService::getService, SERVICE_COMPARATOR));
+        return services;
+    }
+
+    private static EndpointSet getServiceEndpoints(Map<String, Map<String, IstioEndpointShard>> serviceEndpoint,
+        String serviceNamespace, String serviceName) {
+        if (serviceEndpoint == null) {
+            return null;
+        }
+
+        Map<String, IstioEndpointShard> namespace2Endpoints = serviceEndpoint.get(serviceName);
+        if (namespace2Endpoints == null) {
+            return null;
+        }
+
+        IstioEndpointShard endpointShard = namespace2Endpoints.get(serviceNamespace);
+        if (endpointShard == null || endpointShard.getShards() == null) {
+            return null;
+        }
+
+        List<String> addresses = new ArrayList<>();
+        for (List<IstioEndpoint> istioEndpoints : endpointShard.getShards().values()) {
+            if (istioEndpoints != null) {
+                istioEndpoints.forEach(e -> addresses.add(e.getAddress()));
+            }
+        }
+        return EndpointSet.of(addresses);
+    }
+
+    private static List<String> summarize(EndpointSet endpoints) {
+        if (endpoints == null) {
+            return null;
+        }
+        return List.copyOf(endpoints.subList(0, Math.min(endpoints.size(), ENDPOINT_SUMMARY_SIZE)));
+    }
+
+    private static ServiceChangeEvent diff(Snapshot previous, Snapshot current) {
+        Map<String, Entry> previousEntries = previous != null ? previous.entriesByKey : Collections.emptyMap();
+        List<Service> added = new ArrayList<>();
+        List<Service> updated = new ArrayList<>();
+        for (Map.Entry<String, Entry> entry : current.entriesByKey.entrySet()) {
+            Entry previousEntry = previousEntries.get(entry.getKey());
+            Entry currentEntry = entry.getValue();
+            if (previousEntry == null) {
+                added.add(currentEntry.service);
+            } else if (!previousEntry.service.equals(currentEntry.service)
+                || !Objects.equals(previousEntry.endpoints, currentEntry.endpoints)) {
+                updated.add(currentEntry.service);
+            }
+        }
+        List<Service> removed = new ArrayList<>();
+        for (Map.Entry<String, Entry> entry : previousEntries.entrySet()) {
+            if (!current.entriesByKey.containsKey(entry.getKey())) {
+                removed.add(entry.getValue().service);
+            }
+        }
+        added.sort(SERVICE_COMPARATOR);
+        updated.sort(SERVICE_COMPARATOR);
+        removed.sort(SERVICE_COMPARATOR);
+        return new ServiceChangeEvent(added, updated, removed, current.timestamp);
+    }
+
+    private static String buildKey(Service service) {
+        return buildKey(service.getNamespace(), service.getName()) + ":" + service.getPort();
+    }
+
+    private static String buildKey(String namespace, String name) {
+        return namespace + "/" + name;
+    }
+
+    static final class Snapshot {
+
+        private final long timestamp;
+        private final List<Entry> entries;
+        private final Map<String, List<Entry>> entriesByNamespace = new HashMap<>();
+        private final Map<String, Entry> entriesByKey;
+        private final Map<String, EndpointSet> endpointsByService = new HashMap<>();
+
+        private Snapshot(List<LoadedService> sortedServices, long timestamp) {
+            this.timestamp = timestamp;
+            this.entries = new ArrayList<>(sortedServices.size());
+            this.entriesByKey = new HashMap<>(sortedServices.size() * 4 / 3 + 1);
+            for (LoadedService loadedService : sortedServices) {
+                Service service = loadedService.getService();
+                Entry entry = new Entry(service, loadedService.getEndpoints());
+                entries.add(entry);
+                entriesByNamespace.computeIfAbsent(service.getNamespace(), k -> new ArrayList<>()).add(entry);
+                entriesByKey.put(buildKey(service), entry);
+                if (entry.endpoints != null) {
+                    endpointsByService.put(buildKey(service.getNamespace(), service.getName()), entry.endpoints);
+                }
+            }
+        }
+
+        private List<Service> search(ServicePageQuery query) {
+            List<Entry> candidates = entries;
+            String nameContains = null;
+            if (query != null) {
+                if (StringUtils.isNotEmpty(query.getNamespace())) {
+                    candidates = entriesByNamespace.getOrDefault(query.getNamespace(), Collections.emptyList());
+                }
+                if (StringUtils.isNotEmpty(query.getNameContains())) {
+                    nameContains = query.getNameContains().toLowerCase(Locale.ROOT);
+                }
+            }
+            List<Service> result = new ArrayList<>(candidates.size());
+            for (Entry entry : candidates) {
+                if (nameContains == null || entry.lowerCaseName.contains(nameContains)) {
+                    result.add(entry.service);
+                }
+            }
+            return result;
+        }
+    }
+
+    private static final class Entry {
+
+        private final Service service;
+        private final EndpointSet endpoints;
+        private final String lowerCaseName;
+
+        private Entry(Service service, EndpointSet endpoints) {
+            this.service = service;
+            this.endpoints = endpoints;
+            this.lowerCaseName = StringUtils.defaultString(service.getName()).toLowerCase(Locale.ROOT);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static final class LoadedService {
+
+        private final Service service;
+        private final EndpointSet endpoints;
+    }
+}
@@ -12,11 +12,43 @@
  */
 package com.alibaba.higress.sdk.service;
 
+import java.util.function.Consumer;
+
 import com.alibaba.higress.sdk.model.CommonPageQuery;
 import com.alibaba.higress.sdk.model.PaginatedResult;
 import com.alibaba.higress.sdk.model.Service;
+import com.alibaba.higress.sdk.model.ServicePageQuery;
+import com.alibaba.higress.sdk.model.service.ServiceChangeEvent;
 
 public interface ServiceService {
 
-    PaginatedResult<Service> list(CommonPageQuery query);
+    /**
+     * Services are served from a catalog refreshed in the background, so changes may take a few seconds to show up.
+     */
+    PaginatedResult<Service> list(ServicePageQuery query);
+
+    /**
+     * Lists services page by page without any filtering. Kept for callers built against the former signature.
+     */
+    default PaginatedResult<Service> list(CommonPageQuery query) {
+        ServicePageQuery servicePageQuery = null;
+        if (query != null) {
+            servicePageQuery = new ServicePageQuery();
+            servicePageQuery.setPageNum(query.getPageNum());
+            servicePageQuery.setPageSize(query.getPageSize());
+        }
+        return list(servicePageQuery);
+    }
+
+    /**
+     * Lists all the endpoints of a service page by page, sorted by address.
+     */
+    PaginatedResult<String> listEndpoints(String namespace, String name, CommonPageQuery query);
+
+    /**
+     * Registers a listener notified on the refreshing thread whenever a refresh of the service catalog finds changes.
+     */
+    void addChangeListener(Consumer<ServiceChangeEvent> listener);
+
+    void removeChangeListener(Consumer<ServiceChangeEvent> listener);
 }
@@ -12,114 +12,65 @@
  */
 package com.alibaba.higress.sdk.service;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
+import java.io.Closeable;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
-import org.apache.commons.collections4.CollectionUtils;
-
-import com.alibaba.higress.sdk.constant.CommonKey;
-import com.alibaba.higress.sdk.exception.BusinessException;
 import com.alibaba.higress.sdk.model.CommonPageQuery;
 import com.alibaba.higress.sdk.model.PaginatedResult;
 import com.alibaba.higress.sdk.model.Service;
-import com.alibaba.higress.sdk.service.kubernetes.KubernetesClientService;
-import com.alibaba.higress.sdk.service.kubernetes.model.IstioEndpoint;
-import com.alibaba.higress.sdk.service.kubernetes.model.IstioEndpointShard;
-import com.alibaba.higress.sdk.service.kubernetes.model.Port;
-import com.alibaba.higress.sdk.service.kubernetes.model.RegistryzService;
-
-import lombok.extern.slf4j.Slf4j;
+import com.alibaba.higress.sdk.model.ServicePageQuery;
+import com.alibaba.higress.sdk.model.service.ServiceChangeEvent;
 
-@Slf4j
-class ServiceServiceImpl implements ServiceService {
+class ServiceServiceImpl implements ServiceService, Closeable {
 
-    private final KubernetesClientService kubernetesClientService;
+    private final ServiceCatalog serviceCatalog;
+    private final RouteIndex routeIndex;
 
-    public ServiceServiceImpl(KubernetesClientService kubernetesClientService) {
-        this.kubernetesClientService = kubernetesClientService;
+    public ServiceServiceImpl(ServiceCatalog serviceCatalog, RouteIndex routeIndex) {
+        this.serviceCatalog = serviceCatalog;
+        this.routeIndex = routeIndex;
     }
 
     @Override
-    public PaginatedResult<Service> list(CommonPageQuery query) {
-        try {
-            List<RegistryzService> registryzServices = kubernetesClientService.gatewayServiceList();
-            if (!CollectionUtils.isNotEmpty(registryzServices)) {
-                return PaginatedResult.createFromFullList(Collections.emptyList(), query);
+    public PaginatedResult<Service> list(ServicePageQuery query) {
+        // Services in the catalog are shared. Only copies of those in the requested page are filled with route counts.
+        PaginatedResult<Service> result =
+            PaginatedResult.createFromFullList(serviceCatalog.search(query), query, ServiceServiceImpl::copy);
+        if (routeIndex.ensureLoaded()) {
+            for (Service service : result.getData()) {
+                service.setRouteCount(routeIndex.countRoutesByService(service.getName(), service.getPort(),
+                    Objects.toString(service.getVersion(), null)));
             }
-
-            Map<String, Map<String, IstioEndpointShard>> serviceEndpoint =
-                kubernetesClientService.gatewayServiceEndpoint();
-            List<Service> services = new ArrayList<>(registryzServices.size());
-            for (RegistryzService registryzService : registryzServices) {
-                String namespace = registryzService.getAttributes().getNamespace();
-
-                if (kubernetesClientService.isNamespaceProtected(namespace)) {
-                    continue;
-                }
-
-                String name = registryzService.getHostname();
-
-                List<String> endpoints = getServiceEndpoints(serviceEndpoint, namespace, name);
-                if (CommonKey.MCP_NAMESPACE.equals(namespace) || CollectionUtils.isEmpty(registryzService.getPorts())) {
-                    // We don't care about the port number of services got from McpBridge.
-                    Service service = new Service();
-                    service.setName(name);
-                    service.setNamespace(namespace);
-                    service.setEndpoints(endpoints);
-                    services.add(service);
-                } else {
-                    Set<Integer> ports = new HashSet<>(registryzService.getPorts().size());
-                    for (Port port : registryzService.getPorts()) {
-                        if (!ports.add(port.getPort())) {
-                            log.warn("Duplicate port found in service {}/{}: {}", namespace, name, port.getPort());
-                            continue;
-                        }
-                        Service service = new Service();
-                        service.setName(name);
-                        service.setPort(port.getPort());
-                        service.setNamespace(namespace);
-                        service.setEndpoints(endpoints);
-                        services.add(service);
-                    }
-                }
-            }
-
-            services.sort(Comparator.comparing(Service::getNamespace).thenComparing(Service::getName)
-                .thenComparing(Service::getPort));
-
-            return PaginatedResult.createFromFullList(services, query);
-        } catch (Exception e) {
-            throw new BusinessException("Error occurs when listing services.", e);
         }
+        return result;
     }
 
-    private static List<String> getServiceEndpoints(Map<String, Map<String, IstioEndpointShard>> serviceEndpoint,
-        String serviceNamespace, String serviceName) {
-        if (serviceEndpoint == null) {
-            return null;
-        }
+    @Override
+    public PaginatedResult<String> listEndpoints(String namespace, String name, CommonPageQuery query) {
+        // Only addresses in the requested page get formatted.
+        return PaginatedResult.createFromFullList(serviceCatalog.getEndpoints(namespace, name), query,
+            Function.identity());
+    }
 
-        Map<String, IstioEndpointShard> namespace2Endpoints = serviceEndpoint.get(serviceName);
-        if (namespace2Endpoints == null) {
-            return null;
-        }
+    @Override
+    public void addChangeListener(Consumer<ServiceChangeEvent> listener) {
+        serviceCatalog.addChangeListener(listener);
+    }
 
-        IstioEndpointShard endpointShard = namespace2Endpoints.get(serviceNamespace);
-        if (endpointShard == null || endpointShard.getShards() == null) {
-            return null;
-        }
+    @Override
+    public void removeChangeListener(Consumer<ServiceChangeEvent> listener) {
+        serviceCatalog.removeChangeListener(listener);
+    }
+
+    @Override
+    public void close() {
+        serviceCatalog.close();
+    }
 
-        List<String> endpoints = new ArrayList<>();
-        Map<String, List<IstioEndpoint>> shards = endpointShard.getShards();
-        shards.keySet().forEach(s -> {
-            List<IstioEndpoint> istioEndpoints = shards.get(s);
-            endpoints.addAll(istioEndpoints.stream().map(IstioEndpoint::getAddress).distinct().toList());
-        });
-        return endpoints;
+    private static Service copy(Service service) {
+        return new Service(service.getName(), service.getNamespace(), service.getPort(), service.getVersion(),
+            service.getEndpoints(), service.getEndpointCount(), null);
     }
 }
@@ -19,12 +19,15 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.collections4.MapUtils;
 import org.apache.commons.lang3.StringUtils;
 
+import com.alibaba.higress.sdk.constant.KubernetesConstants;
 import com.alibaba.higress.sdk.exception.BusinessException;
 import com.alibaba.higress.sdk.exception.ResourceConflictException;
 import com.alibaba.higress.sdk.exception.ValidationException;
@@ -33,11 +36,14 @@ import com.alibaba.higress.sdk.model.CommonPageQuery;
 import com.alibaba.higress.sdk.model.PaginatedResult;
 import com.alibaba.higress.sdk.model.ServiceSource;
 import com.alibaba.higress.sdk.model.ServiceSourceAuthN;
+import com.alibaba.higress.sdk.service.CustomResourceWriteQueue.Mutation;
 import com.alibaba.higress.sdk.service.kubernetes.KubernetesClientService;
 import com.alibaba.higress.sdk.service.kubernetes.KubernetesModelConverter;
+import com.alibaba.higress.sdk.service.kubernetes.KubernetesUtil;
 import com.alibaba.higress.sdk.service.kubernetes.crd.mcp.V1McpBridge;
 import com.alibaba.higress.sdk.service.kubernetes.crd.mcp.V1McpBridgeSpec;
 import com.alibaba.higress.sdk.service.kubernetes.crd.mcp.V1RegistryConfig;
+import com.google.common.collect.Maps;
 
 import io.kubernetes.client.openapi.ApiException;
 import io.kubernetes.client.openapi.models.V1ObjectMeta;
@@ -51,11 +57,14 @@ class ServiceSourceServiceImpl implements ServiceSourceService {
 
     private final KubernetesClientService kubernetesClientService;
     private final KubernetesModelConverter kubernetesModelConverter;
+    private final CustomResourceWriteQueue<V1McpBridge> mcpBridgeWriteQueue;
 
     public ServiceSourceServiceImpl(KubernetesClientService kubernetesClientService,
         KubernetesModelConverter kubernetesModelConverter) {
         this.kubernetesClientService = kubernetesClientService;
         this.kubernetesModelConverter = kubernetesModelConverter;
+        this.mcpBridgeWriteQueue = new CustomResourceWriteQueue<>("McpBridge", kubernetesClientService::readMcpBridge,
+            kubernetesClientService::createMcpBridge, kubernetesClientService::replaceMcpBridge);
     }
 
     @Override
@@ -72,9 +81,10 @@ class ServiceSourceServiceImpl implements ServiceSourceService {
                 mcpBridge.getMetadata() != null ? mcpBridge.getMetadata().getResourceVersion() : null;
             if (null != mcpBridge.getSpec() && CollectionUtils.isNotEmpty(mcpBridge.getSpec().getRegistries())) {
                 List<V1RegistryConfig> registries = mcpBridge.getSpec().getRegistries();
+                Map<String, V1Secret> authSecrets = loadAuthSecrets(registries);
                 serviceSources = new ArrayList<>(registries.size());
                 for (V1RegistryConfig registry : registries) {
-                    ServiceSource serviceSource = convert(registry);
+                    ServiceSource serviceSource = convert(registry, authSecrets);
                     serviceSource.setVersion(resourceVersion);
                     serviceSources.add(serviceSource);
                 }
@@ -85,60 +95,40 @@ class ServiceSourceServiceImpl implements ServiceSourceService {
 
     @Override
     public ServiceSource addOrUpdate(ServiceSource serviceSource) {
-        V1McpBridge mcpBridge;
-        try {
-            mcpBridge = kubernetesClientService.readMcpBridge(V1McpBridge.DEFAULT_NAME);
-        } catch (ApiException e) {
-            throw new BusinessException("Error occurs when getting McpBridge.", e);
-        }
-        try {
+        AtomicReference<String> createdSecretName = new AtomicReference<>();
+        mcpBridgeWriteQueue.submit(V1McpBridge.DEFAULT_NAME, Mutation.of(mcpBridge -> {
             if (null == mcpBridge) {
                 mcpBridge = new V1McpBridge();
                 kubernetesModelConverter.initV1McpBridge(mcpBridge);
-                V1RegistryConfig registry = kubernetesModelConverter.addV1McpBridgeRegistry(mcpBridge, serviceSource);
-                syncAuthSecret(serviceSource, registry);
-                kubernetesClientService.createMcpBridge(mcpBridge);
-            } else {
-                V1RegistryConfig registry = kubernetesModelConverter.addV1McpBridgeRegistry(mcpBridge, serviceSource);
-                syncAuthSecret(serviceSource, registry);
-                kubernetesClientService.replaceMcpBridge(mcpBridge);
             }
-        } catch (ApiException e) {
-            if (e.getCode() == HttpStatus.CONFLICT) {
-                throw new ResourceConflictException();
-            }
-            throw new BusinessException(
-                "Error occurs when adding or updating the ServiceSource with name: " + serviceSource.getName(), e);
-        }
+            V1RegistryConfig registry = kubernetesModelConverter.addV1McpBridgeRegistry(mcpBridge, serviceSource);
+            syncAuthSecret(serviceSource, registry, createdSecretName);
+            return mcpBridge;
+        }, mcpBridge -> null));
         return serviceSource;
     }
 
     @Override
     public void delete(String name) {
-        V1McpBridge mcpBridge;
-        try {
-            mcpBridge = kubernetesClientService.readMcpBridge(V1McpBridge.DEFAULT_NAME);
-        } catch (ApiException e) {
-            throw new BusinessException("Error occurs when getting McpBridge.", e);
-        }
-        if (mcpBridge == null) {
-            return;
-        }
-        V1RegistryConfig registry = kubernetesModelConverter.removeV1McpBridgeRegistry(mcpBridge, name);
-        if (StringUtils.isNotEmpty(registry.getAuthSecretName())) {
-            try {
-                kubernetesClientService.deleteSecret(registry.getAuthSecretName());
-            } catch (ApiException e) {
-                String message =
-                    "Error occurs when deleting the secret associated with ServiceSource named " + registry.getName();
-                throw new BusinessException(message, e);
+        mcpBridgeWriteQueue.submit(V1McpBridge.DEFAULT_NAME, Mutation.of(mcpBridge -> {
+            if (mcpBridge == null) {
+                return null;
             }
-        }
-        try {
-            kubernetesClientService.replaceMcpBridge(mcpBridge);
-        } catch (ApiException e) {
-            throw new BusinessException("Error occurs when deleting the ServiceSource with name: " + name, e);
-        }
+            V1RegistryConfig registry = kubernetesModelConverter.removeV1McpBridgeRegistry(mcpBridge, name);
+            if (registry == null) {
+                return null;
+            }
+            if (StringUtils.isNotEmpty(registry.getAuthSecretName())) {
+                try {
+                    kubernetesClientService.deleteSecret(registry.getAuthSecretName());
+                } catch (ApiException e) {
+                    String message = "Error occurs when deleting the secret associated with ServiceSource named "
+                        + registry.getName();
+                    throw new BusinessException(message, e);
+                }
+            }
+            return mcpBridge;
+        }, mcpBridge -> null));
     }
 
     @Override
@@ -157,26 +147,18 @@ class ServiceSourceServiceImpl implements ServiceSourceService {
         if (op.isEmpty()) {
             return null;
         }
-        ServiceSource source = convert(op.get());
+        ServiceSource source = convert(op.get(), loadAuthSecrets(Collections.singletonList(op.get())));
         source.setVersion(mcpBridge.getMetadata().getResourceVersion());
         return source;
     }
 
     @Override
     public ServiceSource add(ServiceSource serviceSource) {
-        V1McpBridge mcpBridge;
-        try {
-            mcpBridge = kubernetesClientService.readMcpBridge(V1McpBridge.DEFAULT_NAME);
-        } catch (ApiException e) {
-            throw new BusinessException("Error occurs when getting McpBridge.", e);
-        }
-        try {
+        AtomicReference<String> createdSecretName = new AtomicReference<>();
+        mcpBridgeWriteQueue.submit(V1McpBridge.DEFAULT_NAME, Mutation.of(mcpBridge -> {
             if (null == mcpBridge) {
                 mcpBridge = new V1McpBridge();
                 kubernetesModelConverter.initV1McpBridge(mcpBridge);
-                V1RegistryConfig registry = kubernetesModelConverter.addV1McpBridgeRegistry(mcpBridge, serviceSource);
-                syncAuthSecret(serviceSource, registry);
-                kubernetesClientService.createMcpBridge(mcpBridge);
             } else {
                 V1McpBridgeSpec spec = mcpBridge.getSpec();
                 if (spec != null && spec.getRegistries() != null) {
@@ -186,21 +168,20 @@ class ServiceSourceServiceImpl implements ServiceSourceService {
                         throw new ResourceConflictException();
                     }
                 }
-                V1RegistryConfig registry = kubernetesModelConverter.addV1McpBridgeRegistry(mcpBridge, serviceSource);
-                syncAuthSecret(serviceSource, registry);
-                kubernetesClientService.replaceMcpBridge(mcpBridge);
-            }
-        } catch (ApiException e) {
-            if (e.getCode() == HttpStatus.CONFLICT) {
-                throw new ResourceConflictException();
             }
-            throw new BusinessException(
-                "Error occurs when adding the ServiceSource with name: " + serviceSource.getName(), e);
-        }
+            V1RegistryConfig registry = kubernetesModelConverter.addV1McpBridgeRegistry(mcpBridge, serviceSource);
+            syncAuthSecret(serviceSource, registry, createdSecretName);
+            return mcpBridge;
+        }, mcpBridge -> null));
         return serviceSource;
     }
 
-    private void syncAuthSecret(ServiceSource serviceSource, V1RegistryConfig registry) throws BusinessException {
+    /**
+     * @param createdSecretName holds the name of the secret created in a previous attempt to apply the same change, so
+     *        no secret is created twice when the change is applied again
+     */
+    private void syncAuthSecret(ServiceSource serviceSource, V1RegistryConfig registry,
+        AtomicReference<String> createdSecretName) throws BusinessException {
         ServiceSourceAuthN authN = serviceSource.getAuthN();
         boolean authEnabledCurrent = StringUtils.isNotBlank(registry.getAuthSecretName());
         boolean authEnabledTarget = authN != null && Boolean.TRUE.equals(authN.getEnabled());
@@ -267,6 +248,8 @@ class ServiceSourceServiceImpl implements ServiceSourceService {
                     + serviceSource.getName();
                 throw new BusinessException(message, e);
             }
+        } else if (createdSecretName.get() != null) {
+            registry.setAuthSecretName(createdSecretName.get());
         } else {
             // Create a new secret
             V1Secret secret = new V1Secret();
@@ -280,6 +263,7 @@ class ServiceSourceServiceImpl implements ServiceSourceService {
                     metadata.setName(secretName);
                     kubernetesClientService.createSecret(secret);
                     registry.setAuthSecretName(secretName);
+                    createdSecretName.set(secretName);
                     done = true;
                 } catch (ApiException e) {
                     if (e.getCode() == HttpStatus.CONFLICT) {
@@ -298,23 +282,59 @@ class ServiceSourceServiceImpl implements ServiceSourceService {
         }
     }
 
-    private ServiceSource convert(V1RegistryConfig registry) {
+    /**
+     * Loads the auth secrets referenced by the given registries. Secrets written by the SDK are fetched with a single
+     * labelled list call, which leaves out TLS secrets so their private keys are never transferred. Only those missing
+     * from it, e.g. created by hand, are read one by one.
+     *
+     * @return secrets keyed by name
+     */
+    private Map<String, V1Secret> loadAuthSecrets(List<V1RegistryConfig> registries) {
+        Set<String> secretNames = registries.stream().map(V1RegistryConfig::getAuthSecretName)
+            .filter(StringUtils::isNotBlank).collect(Collectors.toSet());
+        if (secretNames.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, V1Secret> secrets = new HashMap<>(secretNames.size() * 4 / 3 + 1);
+        try {
+            if (secretNames.size() == 1) {
+                String secretName = secretNames.iterator().next();
+                V1Secret secret = kubernetesClientService.readSecret(secretName);
+                if (secret != null) {
+                    secrets.put(secretName, secret);
+                }
+                return secrets;
+            }
+            for (V1Secret secret : kubernetesClientService
+                .listSecretWithDefaultLabels(KubernetesConstants.SECRET_TYPE_TLS)) {
+                String secretName = KubernetesUtil.getObjectName(secret);
+                if (secretNames.contains(secretName)) {
+                    secrets.put(secretName, secret);
+                }
+            }
+            for (String secretName : secretNames) {
+                if (!secrets.containsKey(secretName)) {
+                    V1Secret secret = kubernetesClientService.readSecret(secretName);
+                    if (secret != null) {
+                        secrets.put(secretName, secret);
+                    }
+                }
+            }
+        } catch (ApiException e) {
+            throw new BusinessException("Error occurs when getting the auth secrets of service sources.", e);
+        }
+        return secrets;
+    }
+
+    private ServiceSource convert(V1RegistryConfig registry, Map<String, V1Secret> authSecrets) {
         ServiceSource source = kubernetesModelConverter.v1RegistryConfig2ServiceSource(registry);
         ServiceSourceAuthN authN = new ServiceSourceAuthN(false, Collections.emptyMap());
         if (StringUtils.isNotBlank(registry.getAuthSecretName())) {
-            V1Secret secret;
-            try {
-                secret = kubernetesClientService.readSecret(registry.getAuthSecretName());
-            } catch (ApiException e) {
-                throw new BusinessException("Error occurs when getting McpBridge.", e);
-            }
+            V1Secret secret = authSecrets.get(registry.getAuthSecretName());
             if (secret != null && MapUtils.isNotEmpty(secret.getData())) {
                 authN.setEnabled(true);
-                Map<String, String> properties = new HashMap<>(secret.getData().size());
-                for (Map.Entry<String, byte[]> entry : secret.getData().entrySet()) {
-                    properties.put(entry.getKey(), new String(entry.getValue()));
-                }
-                authN.setProperties(properties);
+                authN.setProperties(
+                    new HashMap<>(Maps.transformValues(secret.getData(), v -> new String(v, StandardCharsets.UTF_8))));
             }
         }
         source.setAuthN(authN);
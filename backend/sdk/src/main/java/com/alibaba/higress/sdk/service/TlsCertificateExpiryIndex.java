@@ -0,0 +1,492 @@
+/*
+ * Copyright (c) 2022-2024 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.higress.sdk.service;
+
+import java.io.Closeable;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.alibaba.higress.sdk.constant.CommonKey;
+import com.alibaba.higress.sdk.constant.KubernetesConstants;
+import com.alibaba.higress.sdk.exception.BusinessException;
+import com.alibaba.higress.sdk.model.Domain;
+import com.alibaba.higress.sdk.model.TlsCertificate;
+import com.alibaba.higress.sdk.model.TlsCertificateExpiry;
+import com.alibaba.higress.sdk.service.kubernetes.KubernetesClientService;
+import com.alibaba.higress.sdk.service.kubernetes.KubernetesModelConverter;
+import com.alibaba.higress.sdk.service.kubernetes.KubernetesResourceWatcher;
+import com.alibaba.higress.sdk.service.kubernetes.KubernetesResourceWatcher.Listing;
+import com.alibaba.higress.sdk.service.kubernetes.KubernetesUtil;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import io.kubernetes.client.openapi.ApiException;
+import io.kubernetes.client.openapi.models.V1ConfigMap;
+import io.kubernetes.client.openapi.models.V1ConfigMapList;
+import io.kubernetes.client.openapi.models.V1ListMeta;
+import io.kubernetes.client.openapi.models.V1Secret;
+import io.kubernetes.client.openapi.models.V1SecretList;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * An index of TLS certificates sorted by expiry. TLS secrets and domain ConfigMaps are listed on first access, and the
+ * index is kept up to date by watching them afterwards. Each secret is parsed once per resource version. Certificates
+ * saved through {@link TlsCertificateService} are indexed right away.
+ * <p>
+ * Both are listed again every {@link #RESYNC_INTERVAL_MILLIS} as a fallback, in case any change is missed by the
+ * watches.
+ *
+ * @author CH3CHO
+ */
+@Slf4j
+class TlsCertificateExpiryIndex implements Closeable {
+
+    private static final long RESYNC_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private static final Comparator<Entry> EXPIRY_COMPARATOR =
+        Comparator.comparing((Entry e) -> e.validityEnd).thenComparing(e -> e.name);
+
+    private final KubernetesClientService kubernetesClientService;
+    private final KubernetesModelConverter kubernetesModelConverter;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    /**
+     * Held while listing resources from the API server, so it is not a monitor, which would pin virtual threads.
+     */
+    private final Lock loadLock = new ReentrantLock();
+    private final Map<String, Entry> entries = new HashMap<>();
+    /**
+     * Entries with a known validity end only.
+     */
+    private final NavigableSet<Entry> entriesByExpiry = new TreeSet<>(EXPIRY_COMPARATOR);
+    private final Map<String, DomainBinding> domainBindings = new HashMap<>();
+    private final Map<String, Set<String>> boundDomainsByCertificate = new HashMap<>();
+    /**
+     * Generations at which certificates were last saved or removed through {@link #update} and {@link #remove}. A
+     * listing of the secrets made before such a change may include a stale copy, so it leaves these certificates
+     * alone. Entries no listing started before are pruned.
+     */
+    private final Map<String, Long> changeGenerations = new HashMap<>();
+    private final KubernetesResourceWatcher<V1Secret> secretWatcher;
+    private final KubernetesResourceWatcher<V1ConfigMap> configMapWatcher;
+    final SecretHandler secretHandler = new SecretHandler();
+    final DomainConfigMapHandler domainConfigMapHandler = new DomainConfigMapHandler();
+    /**
+     * No thread is created until the resync is started on first use.
+     */
+    private final ScheduledExecutorService scheduler = new ScheduledThreadPoolExecutor(1,
+        new ThreadFactoryBuilder().setDaemon(true).setNameFormat("TlsCertificateExpiryIndex-Resync-%d").build());
+    private long generation;
+    /**
+     * The generation at which the last listing of the secrets started. Secrets are listed by one thread at a time: the
+     * first access before the watch is started, and then the watching thread.
+     */
+    private volatile long secretListingGeneration;
+    private volatile boolean loaded;
+
+    TlsCertificateExpiryIndex(KubernetesClientService kubernetesClientService,
+        KubernetesModelConverter kubernetesModelConverter) {
+        this.kubernetesClientService = kubernetesClientService;
+        this.kubernetesModelConverter = kubernetesModelConverter;
+        this.secretWatcher = new KubernetesResourceWatcher<>("TlsCertificateExpiryIndex-Secrets", this::listSecrets,
+            (resourceVersion, timeoutSeconds) -> kubernetesClientService
+                .watchSecretsOfType(KubernetesConstants.SECRET_TYPE_TLS, resourceVersion, timeoutSeconds),
+            secretHandler);
+        this.configMapWatcher = new KubernetesResourceWatcher<>("TlsCertificateExpiryIndex-ConfigMaps", () -> {
+            V1ConfigMapList list = kubernetesClientService.listConfigMapForWatch();
+            return Listing.of(list.getItems(), getResourceVersion(list.getMetadata()));
+        }, kubernetesClientService::watchConfigMaps, domainConfigMapHandler);
+    }
+
+    /**
+     * @param expiringBefore only certificates expiring before this time are returned if not {@code null}
+     * @return certificates sorted by validity end, the soonest expiring first
+     */
+    List<TlsCertificateExpiry> list(LocalDateTime expiringBefore) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            List<TlsCertificateExpiry> result = new ArrayList<>();
+            for (Entry entry : entriesByExpiry) {
+                if (expiringBefore != null && !entry.validityEnd.isBefore(expiringBefore)) {
+                    break;
+                }
+                Set<String> boundDomains = boundDomainsByCertificate.get(entry.name);
+                result.add(new TlsCertificateExpiry(entry.name, entry.domains,
+                    boundDomains != null ? new ArrayList<>(new TreeSet<>(boundDomains)) : Collections.emptyList(),
+                    entry.validityEnd));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void update(TlsCertificate certificate) {
+        if (certificate == null || certificate.getName() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            changeGenerations.put(certificate.getName(), ++generation);
+            Entry entry = entries.get(certificate.getName());
+            if (entry == null || isNewer(certificate.getVersion(), entry.resourceVersion)) {
+                put(new Entry(certificate.getName(), certificate.getVersion(), certificate.getValidityEnd(),
+                    certificate.getDomains()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(String name) {
+        lock.writeLock().lock();
+        try {
+            changeGenerations.put(name, ++generation);
+            removeEntry(name);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Stops watching and the resync. Changes made outside the service are no longer picked up afterwards.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        secretWatcher.close();
+        configMapWatcher.close();
+    }
+
+    /**
+     * Lists the TLS secrets and domain ConfigMaps on the first call, and starts watching them for the following ones.
+     */
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        loadLock.lock();
+        try {
+            if (!loaded) {
+                // Either may be started already if the other failed to load last time.
+                if (!secretWatcher.isStarted()) {
+                    secretWatcher.start(secretWatcher.reload());
+                }
+                if (!configMapWatcher.isStarted()) {
+                    configMapWatcher.start(configMapWatcher.reload());
+                }
+                startResync();
+                loaded = true;
+            }
+        } catch (ApiException e) {
+            throw new BusinessException("Error occurs when loading TLS certificates.", e);
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private void startResync() {
+        try {
+            scheduler.scheduleWithFixedDelay(() -> {
+                secretWatcher.requestReload();
+                configMapWatcher.requestReload();
+            }, RESYNC_INTERVAL_MILLIS, RESYNC_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            log.debug("The TLS certificate expiry index is closed. Resync is not started.");
+        }
+    }
+
+    private Listing<V1Secret> listSecrets() throws ApiException {
+        long listingGeneration;
+        lock.readLock().lock();
+        try {
+            listingGeneration = generation;
+        } finally {
+            lock.readLock().unlock();
+        }
+        V1SecretList list = kubernetesClientService.listSecretForWatch(KubernetesConstants.SECRET_TYPE_TLS);
+        secretListingGeneration = listingGeneration;
+        return Listing.of(list.getItems(), getResourceVersion(list.getMetadata()));
+    }
+
+    private void syncCertificates(List<V1Secret> secrets, long listingGeneration) {
+        Set<String> names = new HashSet<>(secrets.size() * 4 / 3 + 1);
+        for (V1Secret secret : secrets) {
+            String name = KubernetesUtil.getObjectName(secret);
+            if (name == null) {
+                continue;
+            }
+            names.add(name);
+            if (isChangedSince(name, listingGeneration)) {
+                continue;
+            }
+            Entry entry = entries.get(name);
+            String resourceVersion = secret.getMetadata().getResourceVersion();
+            if (entry == null || !StringUtils.equals(entry.resourceVersion, resourceVersion)) {
+                TlsCertificate certificate = kubernetesModelConverter.secret2TlsCertificate(secret);
+                put(new Entry(name, resourceVersion, certificate.getValidityEnd(), certificate.getDomains()));
+            }
+        }
+        for (String name : new ArrayList<>(entries.keySet())) {
+            if (!names.contains(name) && !isChangedSince(name, listingGeneration)) {
+                removeEntry(name);
+            }
+        }
+    }
+
+    private boolean isChangedSince(String name, long listingGeneration) {
+        Long changeGeneration = changeGenerations.get(name);
+        return changeGeneration != null && changeGeneration > listingGeneration;
+    }
+
+    private void put(Entry entry) {
+        Entry previous = entries.put(entry.name, entry);
+        if (previous != null && previous.validityEnd != null) {
+            entriesByExpiry.remove(previous);
+        }
+        if (entry.validityEnd != null) {
+            entriesByExpiry.add(entry);
+        }
+    }
+
+    private void removeEntry(String name) {
+        Entry entry = entries.remove(name);
+        if (entry != null && entry.validityEnd != null) {
+            entriesByExpiry.remove(entry);
+        }
+    }
+
+    private void syncDomainBindings(List<V1ConfigMap> configMaps) {
+        Set<String> names = new HashSet<>(configMaps.size() * 4 / 3 + 1);
+        for (V1ConfigMap configMap : configMaps) {
+            String name = KubernetesUtil.getObjectName(configMap);
+            if (!StringUtils.startsWith(name, CommonKey.DOMAIN_PREFIX)) {
+                continue;
+            }
+            names.add(name);
+            bind(name, configMap);
+        }
+        domainBindings.keySet().removeIf(name -> {
+            if (names.contains(name)) {
+                return false;
+            }
+            unbind(domainBindings.get(name));
+            return true;
+        });
+    }
+
+    private void bind(String name, V1ConfigMap configMap) {
+        DomainBinding binding = domainBindings.get(name);
+        String resourceVersion = configMap.getMetadata().getResourceVersion();
+        if (binding != null && StringUtils.equals(binding.resourceVersion, resourceVersion)) {
+            return;
+        }
+        Domain domain;
+        try {
+            domain = kubernetesModelConverter.configMap2Domain(configMap);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid domain ConfigMap: {}", name, e);
+            return;
+        }
+        String certIdentifier = Domain.EnableHttps.OFF.equals(domain.getEnableHttps()) ? null
+            : StringUtils.trimToNull(domain.getCertIdentifier());
+        unbind(binding);
+        binding = new DomainBinding(resourceVersion, domain.getName(), certIdentifier);
+        domainBindings.put(name, binding);
+        if (binding.certIdentifier != null && binding.domainName != null) {
+            boundDomainsByCertificate.computeIfAbsent(binding.certIdentifier, k -> new HashSet<>())
+                .add(binding.domainName);
+        }
+    }
+
+    private void unbind(DomainBinding binding) {
+        if (binding == null || binding.certIdentifier == null || binding.domainName == null) {
+            return;
+        }
+        Set<String> domains = boundDomainsByCertificate.get(binding.certIdentifier);
+        if (domains != null) {
+            domains.remove(binding.domainName);
+            if (domains.isEmpty()) {
+                boundDomainsByCertificate.remove(binding.certIdentifier);
+            }
+        }
+    }
+
+    private static String getResourceVersion(V1ListMeta metadata) {
+        return metadata != null ? metadata.getResourceVersion() : null;
+    }
+
+    /**
+     * Resource versions are supposed to be opaque. They are only compared when both look like numbers, and taken as
+     * newer whenever they differ otherwise.
+     */
+    private static boolean isNewer(String version, String reference) {
+        if (StringUtils.equals(version, reference)) {
+            return false;
+        }
+        if (version == null || reference == null) {
+            return true;
+        }
+        try {
+            return Long.parseLong(version) > Long.parseLong(reference);
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    final class SecretHandler implements KubernetesResourceWatcher.Handler<V1Secret> {
+
+        @Override
+        public void onReload(List<V1Secret> secrets) {
+            long listingGeneration = secretListingGeneration;
+            lock.writeLock().lock();
+            try {
+                syncCertificates(secrets, listingGeneration);
+                changeGenerations.values().removeIf(g -> g <= listingGeneration);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        @Override
+        public void onChanged(V1Secret secret) {
+            String name = KubernetesUtil.getObjectName(secret);
+            if (name == null) {
+                return;
+            }
+            String resourceVersion = secret.getMetadata().getResourceVersion();
+            lock.readLock().lock();
+            try {
+                Entry entry = entries.get(name);
+                if (entry != null && !isNewer(resourceVersion, entry.resourceVersion)) {
+                    // Already applied, e.g. by the save which caused this event.
+                    return;
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            // Parsed outside the lock. A concurrent change of the same secret is settled by the version check below.
+            TlsCertificate certificate = kubernetesModelConverter.secret2TlsCertificate(secret);
+            lock.writeLock().lock();
+            try {
+                Entry entry = entries.get(name);
+                if (entry == null || isNewer(resourceVersion, entry.resourceVersion)) {
+                    put(new Entry(name, resourceVersion, certificate.getValidityEnd(), certificate.getDomains()));
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        @Override
+        public void onDeleted(V1Secret secret) {
+            String name = KubernetesUtil.getObjectName(secret);
+            if (name == null) {
+                return;
+            }
+            lock.writeLock().lock();
+            try {
+                removeEntry(name);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    final class DomainConfigMapHandler implements KubernetesResourceWatcher.Handler<V1ConfigMap> {
+
+        @Override
+        public void onReload(List<V1ConfigMap> configMaps) {
+            lock.writeLock().lock();
+            try {
+                syncDomainBindings(configMaps);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        @Override
+        public void onChanged(V1ConfigMap configMap) {
+            String name = KubernetesUtil.getObjectName(configMap);
+            if (!StringUtils.startsWith(name, CommonKey.DOMAIN_PREFIX)) {
+                return;
+            }
+            lock.writeLock().lock();
+            try {
+                bind(name, configMap);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        @Override
+        public void onDeleted(V1ConfigMap configMap) {
+            String name = KubernetesUtil.getObjectName(configMap);
+            if (name == null) {
+                return;
+            }
+            lock.writeLock().lock();
+            try {
+                unbind(domainBindings.remove(name));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private static final class Entry {
+
+        private final String name;
+        private final String resourceVersion;
+        private final LocalDateTime validityEnd;
+        private final List<String> domains;
+
+        private Entry(String name, String resourceVersion, LocalDateTime validityEnd, List<String> domains) {
+            this.name = name;
+            this.resourceVersion = resourceVersion;
+            this.validityEnd = validityEnd;
+            this.domains = domains != null ? List.copyOf(domains) : Collections.emptyList();
+        }
+    }
+
+    private static final class DomainBinding {
+
+        private final String resourceVersion;
+        private final String domainName;
+        private final String certIdentifier;
+
+        private DomainBinding(String resourceVersion, String domainName, String certIdentifier) {
+            this.resourceVersion = resourceVersion;
+            this.domainName = domainName;
+            this.certIdentifier = certIdentifier;
+        }
+    }
+}
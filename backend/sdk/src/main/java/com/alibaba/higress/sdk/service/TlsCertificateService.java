@@ -15,6 +15,8 @@ package com.alibaba.higress.sdk.service;
 import com.alibaba.higress.sdk.model.CommonPageQuery;
 import com.alibaba.higress.sdk.model.PaginatedResult;
 import com.alibaba.higress.sdk.model.TlsCertificate;
+import com.alibaba.higress.sdk.model.TlsCertificateExpiry;
+import com.alibaba.higress.sdk.model.TlsCertificateExpiryPageQuery;
 
 public interface TlsCertificateService {
 
@@ -27,4 +29,10 @@ public interface TlsCertificateService {
     TlsCertificate update(TlsCertificate certificate);
 
     void delete(String name);
+
+    /**
+     * Lists certificates by expiry, the soonest expiring first. Certificates are indexed in the background, so changes
+     * made outside this service may take a minute to show up.
+     */
+    PaginatedResult<TlsCertificateExpiry> listExpiries(TlsCertificateExpiryPageQuery query);
 }
@@ -12,6 +12,7 @@
  */
 package com.alibaba.higress.sdk.service;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 
@@ -20,10 +21,13 @@ import org.apache.commons.collections4.CollectionUtils;
 import com.alibaba.higress.sdk.constant.KubernetesConstants;
 import com.alibaba.higress.sdk.exception.BusinessException;
 import com.alibaba.higress.sdk.exception.ResourceConflictException;
+import com.alibaba.higress.sdk.exception.ValidationException;
 import com.alibaba.higress.sdk.http.HttpStatus;
 import com.alibaba.higress.sdk.model.CommonPageQuery;
 import com.alibaba.higress.sdk.model.PaginatedResult;
 import com.alibaba.higress.sdk.model.TlsCertificate;
+import com.alibaba.higress.sdk.model.TlsCertificateExpiry;
+import com.alibaba.higress.sdk.model.TlsCertificateExpiryPageQuery;
 import com.alibaba.higress.sdk.service.kubernetes.KubernetesClientService;
 import com.alibaba.higress.sdk.service.kubernetes.KubernetesModelConverter;
 
@@ -36,11 +40,13 @@ class TlsCertificateServiceImpl implements TlsCertificateService {
 
     private final KubernetesClientService kubernetesClientService;
     private final KubernetesModelConverter kubernetesModelConverter;
+    private final TlsCertificateExpiryIndex expiryIndex;
 
     public TlsCertificateServiceImpl(KubernetesClientService kubernetesClientService,
-        KubernetesModelConverter kubernetesModelConverter) {
+        KubernetesModelConverter kubernetesModelConverter, TlsCertificateExpiryIndex expiryIndex) {
         this.kubernetesClientService = kubernetesClientService;
         this.kubernetesModelConverter = kubernetesModelConverter;
+        this.expiryIndex = expiryIndex;
     }
 
     @Override
@@ -87,7 +93,9 @@ class TlsCertificateServiceImpl implements TlsCertificateService {
             throw new BusinessException("Error occurs when updating the secret generated by tls certificate with name: "
                 + certificate.getName(), e);
         }
-        return kubernetesModelConverter.secret2TlsCertificate(newSecret);
+        TlsCertificate newCertificate = kubernetesModelConverter.secret2TlsCertificate(newSecret);
+        expiryIndex.update(newCertificate);
+        return newCertificate;
     }
 
     @Override
@@ -103,7 +111,9 @@ class TlsCertificateServiceImpl implements TlsCertificateService {
             throw new BusinessException("Error occurs when updating the secret generated by tls certificate with name: "
                 + tlsCertificate.getName(), e);
         }
-        return kubernetesModelConverter.secret2TlsCertificate(newSecret);
+        TlsCertificate updatedCertificate = kubernetesModelConverter.secret2TlsCertificate(newSecret);
+        expiryIndex.update(updatedCertificate);
+        return updatedCertificate;
     }
 
     @Override
@@ -113,5 +123,18 @@ class TlsCertificateServiceImpl implements TlsCertificateService {
         } catch (ApiException e) {
             throw new BusinessException("Error occurs when deleting secret with name: " + name, e);
         }
+        expiryIndex.remove(name);
+    }
+
+    @Override
+    public PaginatedResult<TlsCertificateExpiry> listExpiries(TlsCertificateExpiryPageQuery query) {
+        LocalDateTime expiringBefore = null;
+        if (query != null && query.getExpiringInDays() != null) {
+            if (query.getExpiringInDays() < 0) {
+                throw new ValidationException("expiringInDays must not be negative.");
+            }
+            expiringBefore = LocalDateTime.now().plusDays(query.getExpiringInDays());
+        }
+        return PaginatedResult.createFromFullList(expiryIndex.list(expiringBefore), query);
     }
 }
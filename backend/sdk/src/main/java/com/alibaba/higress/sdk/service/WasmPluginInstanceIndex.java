@@ -0,0 +1,377 @@
+/*
+ * Copyright (c) 2022-2024 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.higress.sdk.service;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.commons.collections4.MapUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import com.alibaba.higress.sdk.constant.KubernetesConstants;
+import com.alibaba.higress.sdk.exception.BusinessException;
+import com.alibaba.higress.sdk.model.WasmPluginInstance;
+import com.alibaba.higress.sdk.model.WasmPluginInstanceScope;
+import com.alibaba.higress.sdk.service.kubernetes.KubernetesClientService;
+import com.alibaba.higress.sdk.service.kubernetes.KubernetesModelConverter;
+import com.alibaba.higress.sdk.service.kubernetes.KubernetesResourceWatcher;
+import com.alibaba.higress.sdk.service.kubernetes.KubernetesResourceWatcher.Listing;
+import com.alibaba.higress.sdk.service.kubernetes.KubernetesUtil;
+import com.alibaba.higress.sdk.service.kubernetes.crd.wasm.V1alpha1WasmPlugin;
+import com.alibaba.higress.sdk.service.kubernetes.crd.wasm.V1alpha1WasmPluginList;
+
+import io.kubernetes.client.openapi.ApiException;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+
+/**
+ * An in-memory index of the plugin instances configured in the WasmPlugin CRs, by target and by plugin. Only
+ * configured targets are indexed, i.e. those {@link KubernetesModelConverter} builds an instance for. All the CRs are
+ * listed on first access, and the index is kept up to date by watching them afterwards. Each CR is converted once per
+ * resource version.
+ *
+ * @author CH3CHO
+ */
+class WasmPluginInstanceIndex implements KubernetesResourceWatcher.Handler<V1alpha1WasmPlugin>, Closeable {
+
+    private static final String GLOBAL_TARGET = "";
+
+    private final KubernetesModelConverter kubernetesModelConverter;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Entry> entries = new TreeMap<>();
+    private final Map<String, Set<String>> pluginIndex = new HashMap<>();
+    private final Map<WasmPluginInstanceScope, Map<String, Set<String>>> targetIndex =
+        new EnumMap<>(WasmPluginInstanceScope.class);
+    private final KubernetesResourceWatcher<V1alpha1WasmPlugin> watcher;
+    /**
+     * Held while listing WasmPlugins from the API server, so it is not a monitor, which would pin virtual threads.
+     */
+    private final Lock loadLock = new ReentrantLock();
+    private volatile boolean loaded;
+
+    WasmPluginInstanceIndex(KubernetesClientService kubernetesClientService,
+        KubernetesModelConverter kubernetesModelConverter) {
+        this.kubernetesModelConverter = kubernetesModelConverter;
+        for (WasmPluginInstanceScope scope : WasmPluginInstanceScope.values()) {
+            targetIndex.put(scope, new HashMap<>());
+        }
+        this.watcher = new KubernetesResourceWatcher<>("WasmPluginInstanceIndex", () -> {
+            V1alpha1WasmPluginList list = kubernetesClientService.listWasmPluginForWatch();
+            return Listing.of(list.getItems(), list.getMetadata() != null ? list.getMetadata().getResourceVersion()
+                : null);
+        }, kubernetesClientService::watchWasmPlugin, this);
+    }
+
+    /**
+     * Lists all the WasmPlugin CRs on the first call, and starts watching them for the following ones.
+     */
+    void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        loadLock.lock();
+        try {
+            if (!loaded) {
+                watcher.start(watcher.reload());
+                loaded = true;
+            }
+        } catch (ApiException e) {
+            throw new BusinessException("Error occurs when listing WasmPlugin.", e);
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        watcher.close();
+    }
+
+    @Override
+    public void onReload(List<V1alpha1WasmPlugin> crs) {
+        sync(crs);
+    }
+
+    @Override
+    public void onChanged(V1alpha1WasmPlugin cr) {
+        put(cr);
+    }
+
+    @Override
+    public void onDeleted(V1alpha1WasmPlugin cr) {
+        String name = KubernetesUtil.getObjectName(cr);
+        if (name != null) {
+            remove(name);
+        }
+    }
+
+    /**
+     * Brings the index in line with the given full list of CRs. Unchanged ones are skipped by resource version.
+     */
+    void sync(List<V1alpha1WasmPlugin> crs) {
+        lock.writeLock().lock();
+        try {
+            Set<String> names = new HashSet<>(crs.size() * 4 / 3 + 1);
+            for (V1alpha1WasmPlugin cr : crs) {
+                String name = KubernetesUtil.getObjectName(cr);
+                if (name == null) {
+                    continue;
+                }
+                names.add(name);
+                Entry entry = entries.get(name);
+                if (entry == null || !StringUtils.equals(entry.resourceVersion, getResourceVersion(cr))) {
+                    doPut(new Entry(name, cr, kubernetesModelConverter));
+                }
+            }
+            entries.keySet().removeIf(name -> {
+                if (names.contains(name)) {
+                    return false;
+                }
+                unindex(entries.get(name));
+                return true;
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds or replaces the given CR, unless a newer version of it is indexed already, e.g. after the CR is written.
+     */
+    void put(V1alpha1WasmPlugin cr) {
+        String name = cr != null ? KubernetesUtil.getObjectName(cr) : null;
+        if (name == null) {
+            return;
+        }
+        lock.readLock().lock();
+        try {
+            Entry entry = entries.get(name);
+            if (entry != null && !isNewer(getResourceVersion(cr), entry.resourceVersion)) {
+                // Already applied, e.g. by the write which caused this event.
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        // Converted outside the lock. A concurrent change of the same CR is settled by the version check below.
+        Entry newEntry = new Entry(name, cr, kubernetesModelConverter);
+        lock.writeLock().lock();
+        try {
+            Entry entry = entries.get(name);
+            if (entry == null || isNewer(newEntry.resourceVersion, entry.resourceVersion)) {
+                doPut(newEntry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(String name) {
+        lock.writeLock().lock();
+        try {
+            Entry entry = entries.remove(name);
+            if (entry != null) {
+                unindex(entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return the instances configured on the given target, in CR name order
+     */
+    List<WasmPluginInstance> getInstancesByTarget(WasmPluginInstanceScope scope, String target) {
+        String normalizedTarget = normalizeTarget(scope, target);
+        lock.readLock().lock();
+        try {
+            Set<String> names = targetIndex.get(scope).get(normalizedTarget);
+            if (names == null) {
+                return Collections.emptyList();
+            }
+            List<WasmPluginInstance> instances = new ArrayList<>(names.size());
+            for (String name : new TreeSet<>(names)) {
+                instances.add(copy(entries.get(name).instancesByTarget.get(scope).get(normalizedTarget)));
+            }
+            return instances;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the instances of all the versions of the given plugin, in CR name order
+     */
+    List<WasmPluginInstance> getInstancesByPlugin(String pluginName) {
+        lock.readLock().lock();
+        try {
+            Set<String> names = pluginIndex.get(pluginName);
+            if (names == null) {
+                return Collections.emptyList();
+            }
+            List<WasmPluginInstance> instances = new ArrayList<>();
+            for (String name : new TreeSet<>(names)) {
+                entries.get(name).instances.forEach(instance -> instances.add(copy(instance)));
+            }
+            return instances;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the CRs which have anything to be removed for the given targets. Unlike the instances, this includes match
+     * rules without any configuration.
+     *
+     * @param pluginName only CRs of this plugin are checked if it is not {@code null}
+     * @return names of the CRs found
+     */
+    List<String> getCrNamesToRemoveFrom(String pluginName, WasmPluginInstanceScope scope,
+        Collection<String> targets) {
+        lock.readLock().lock();
+        try {
+            Collection<Entry> candidates = entries.values();
+            if (pluginName != null) {
+                Set<String> names = pluginIndex.getOrDefault(pluginName, Collections.emptySet());
+                candidates = candidates.stream().filter(e -> names.contains(e.name)).toList();
+            }
+            List<String> result = new ArrayList<>();
+            for (Entry entry : candidates) {
+                if (kubernetesModelConverter.isWasmPluginInstanceRemovable(entry.cr, scope, targets)) {
+                    result.add(entry.name);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Makes a copy of an indexed instance which can be modified without affecting the index. Nested objects are shared
+     * with the index, and shall be replaced rather than modified in place.
+     */
+    private static WasmPluginInstance copy(WasmPluginInstance instance) {
+        return instance.toBuilder().build();
+    }
+
+    private void doPut(Entry entry) {
+        Entry oldEntry = entries.get(entry.name);
+        if (oldEntry != null) {
+            unindex(oldEntry);
+        }
+        entries.put(entry.name, entry);
+        if (entry.pluginName != null) {
+            pluginIndex.computeIfAbsent(entry.pluginName, k -> new HashSet<>()).add(entry.name);
+        }
+        entry.instancesByTarget.forEach((scope, instances) -> {
+            Map<String, Set<String>> index = targetIndex.get(scope);
+            instances.keySet().forEach(target -> index.computeIfAbsent(target, k -> new HashSet<>()).add(entry.name));
+        });
+    }
+
+    private void unindex(Entry entry) {
+        if (entry.pluginName != null) {
+            removeFromIndex(pluginIndex, entry.pluginName, entry.name);
+        }
+        entry.instancesByTarget.forEach((scope, instances) -> {
+            Map<String, Set<String>> index = targetIndex.get(scope);
+            instances.keySet().forEach(target -> removeFromIndex(index, target, entry.name));
+        });
+    }
+
+    private static void removeFromIndex(Map<String, Set<String>> index, String key, String name) {
+        Set<String> names = index.get(key);
+        if (names != null && names.remove(name) && names.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    private static String normalizeTarget(WasmPluginInstanceScope scope, String target) {
+        return scope == WasmPluginInstanceScope.GLOBAL ? GLOBAL_TARGET : StringUtils.defaultString(target);
+    }
+
+    private static String getResourceVersion(V1alpha1WasmPlugin cr) {
+        return cr.getMetadata() != null ? cr.getMetadata().getResourceVersion() : null;
+    }
+
+    /**
+     * Resource versions are supposed to be opaque. They are only compared when both look like numbers, and taken as
+     * newer whenever they differ otherwise.
+     */
+    private static boolean isNewer(String version, String reference) {
+        if (StringUtils.equals(version, reference)) {
+            return false;
+        }
+        if (version == null || reference == null) {
+            return true;
+        }
+        try {
+            return Long.parseLong(version) > Long.parseLong(reference);
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    private static final class Entry {
+
+        private final String name;
+        private final String resourceVersion;
+        /**
+         * Only read after the entry is built.
+         */
+        private final V1alpha1WasmPlugin cr;
+        private final String pluginName;
+        private final List<WasmPluginInstance> instances;
+        private final Map<WasmPluginInstanceScope, Map<String, WasmPluginInstance>> instancesByTarget =
+            new EnumMap<>(WasmPluginInstanceScope.class);
+
+        private Entry(String name, V1alpha1WasmPlugin cr, KubernetesModelConverter kubernetesModelConverter) {
+            this.name = name;
+            this.resourceVersion = getResourceVersion(cr);
+            this.cr = cr;
+
+            V1ObjectMeta metadata = cr.getMetadata();
+            String pluginName = null;
+            if (MapUtils.isNotEmpty(metadata.getLabels())) {
+                pluginName = metadata.getLabels().get(KubernetesConstants.Label.WASM_PLUGIN_NAME_KEY);
+                String pluginVersion = metadata.getLabels().get(KubernetesConstants.Label.WASM_PLUGIN_VERSION_KEY);
+                if (StringUtils.isAnyBlank(pluginName, pluginVersion)) {
+                    pluginName = null;
+                }
+            }
+            this.pluginName = pluginName;
+
+            this.instances = pluginName != null ? kubernetesModelConverter.getWasmPluginInstancesFromCr(cr)
+                : Collections.emptyList();
+            for (WasmPluginInstance instance : instances) {
+                instancesByTarget.computeIfAbsent(instance.getScope(), k -> new HashMap<>())
+                    .putIfAbsent(normalizeTarget(instance.getScope(), instance.getTarget()), instance);
+            }
+        }
+    }
+}
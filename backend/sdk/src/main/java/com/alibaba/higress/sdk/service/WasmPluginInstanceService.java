@@ -12,6 +12,7 @@
  */
 package com.alibaba.higress.sdk.service;
 
+import java.util.Collection;
 import java.util.List;
 
 import com.alibaba.higress.sdk.model.WasmPluginInstance;
@@ -21,6 +22,11 @@ public interface WasmPluginInstanceService {
 
     List<WasmPluginInstance> list(WasmPluginInstanceScope scope, String target);
 
+    /**
+     * Lists the instances of all the versions of a plugin on every target it is configured on.
+     */
+    List<WasmPluginInstance> listByPlugin(String pluginName);
+
     WasmPluginInstance query(WasmPluginInstanceScope scope, String target, String pluginName);
 
     WasmPluginInstance addOrUpdate(WasmPluginInstance instance);
@@ -28,4 +34,9 @@ public interface WasmPluginInstanceService {
     void delete(WasmPluginInstanceScope scope, String target, String pluginName);
 
     void deleteAll(WasmPluginInstanceScope scope, String target);
+
+    /**
+     * Deletes the instances on all the given targets. Every affected WasmPlugin CR is written only once.
+     */
+    void batchDeleteAll(WasmPluginInstanceScope scope, Collection<String> targets);
 }
@@ -12,59 +12,84 @@
  */
 package com.alibaba.higress.sdk.service;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.StringReader;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import io.swagger.v3.core.util.Yaml;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 
 import com.alibaba.higress.sdk.exception.BusinessException;
-import com.alibaba.higress.sdk.exception.ResourceConflictException;
 import com.alibaba.higress.sdk.exception.ValidationException;
-import com.alibaba.higress.sdk.http.HttpStatus;
 import com.alibaba.higress.sdk.model.WasmPlugin;
 import com.alibaba.higress.sdk.model.WasmPluginConfig;
 import com.alibaba.higress.sdk.model.WasmPluginInstance;
 import com.alibaba.higress.sdk.model.WasmPluginInstanceScope;
+import com.alibaba.higress.sdk.service.CustomResourceWriteQueue.Mutation;
 import com.alibaba.higress.sdk.service.kubernetes.KubernetesClientService;
 import com.alibaba.higress.sdk.service.kubernetes.KubernetesModelConverter;
+import com.alibaba.higress.sdk.service.kubernetes.KubernetesUtil;
 import com.alibaba.higress.sdk.service.kubernetes.crd.wasm.V1alpha1WasmPlugin;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import io.kubernetes.client.openapi.ApiException;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
-class WasmPluginInstanceServiceImpl implements WasmPluginInstanceService {
+class WasmPluginInstanceServiceImpl implements WasmPluginInstanceService, Closeable {
+
+    private static final int MAX_PARALLEL_CR_WRITES = 8;
 
     private final WasmPluginService wasmPluginService;
     private final KubernetesClientService kubernetesClientService;
     private final KubernetesModelConverter kubernetesModelConverter;
+    private final WasmPluginInstanceIndex instanceIndex;
+    private final CustomResourceWriteQueue<V1alpha1WasmPlugin> crWriteQueue;
+    /**
+     * Threads are only kept while there are writes going on, and are daemons, so an SDK user not closing the service
+     * won't be kept from exiting.
+     */
+    private final ThreadPoolExecutor crWriteExecutor = new ThreadPoolExecutor(MAX_PARALLEL_CR_WRITES,
+        MAX_PARALLEL_CR_WRITES, 1, TimeUnit.MINUTES, new LinkedBlockingQueue<>(),
+        new ThreadFactoryBuilder().setDaemon(true).setNameFormat("WasmPluginInstanceService-Writer-%d").build());
 
     public WasmPluginInstanceServiceImpl(WasmPluginService wasmPluginService,
         KubernetesClientService kubernetesClientService, KubernetesModelConverter kubernetesModelConverter) {
         this.wasmPluginService = wasmPluginService;
         this.kubernetesClientService = kubernetesClientService;
         this.kubernetesModelConverter = kubernetesModelConverter;
+        this.instanceIndex = new WasmPluginInstanceIndex(kubernetesClientService, kubernetesModelConverter);
+        this.crWriteQueue = new CustomResourceWriteQueue<>("WasmPlugin", kubernetesClientService::readWasmPlugin,
+            kubernetesClientService::createWasmPlugin, kubernetesClientService::replaceWasmPlugin);
+        this.crWriteExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public void close() {
+        instanceIndex.close();
+        crWriteExecutor.shutdown();
     }
 
     @Override
     public List<WasmPluginInstance> list(WasmPluginInstanceScope scope, String target) {
-        List<V1alpha1WasmPlugin> plugins;
-        try {
-            plugins = kubernetesClientService.listWasmPlugin();
-        } catch (ApiException e) {
-            throw new BusinessException("Error occurs when listing WasmPlugin.", e);
-        }
-        if (CollectionUtils.isEmpty(plugins)) {
-            return Collections.emptyList();
-        }
-        return plugins.stream().map(p -> kubernetesModelConverter.getWasmPluginInstanceFromCr(p, scope, target))
-            .filter(Objects::nonNull).toList();
+        instanceIndex.ensureLoaded();
+        return instanceIndex.getInstancesByTarget(scope, target);
+    }
+
+    @Override
+    public List<WasmPluginInstance> listByPlugin(String pluginName) {
+        instanceIndex.ensureLoaded();
+        return instanceIndex.getInstancesByPlugin(pluginName);
     }
 
     @Override
@@ -140,66 +165,80 @@ class WasmPluginInstanceServiceImpl implements WasmPluginInstanceService {
         }
         instance.setConfigurations(configurations);
 
-        V1alpha1WasmPlugin result;
-        try {
-            if (existedCr == null) {
+        String crName = KubernetesUtil
+            .getObjectName(existedCr != null ? existedCr : kubernetesModelConverter.wasmPluginToCr(plugin));
+        return crWriteQueue.submit(crName, Mutation.of(cr -> {
+            if (cr == null) {
                 if (!version.equals(plugin.getPluginVersion())) {
-                    throw new IllegalArgumentException("Add operation is only allowed for the current plugin version.");
+                    throw new IllegalArgumentException(
+                        "Add operation is only allowed for the current plugin version.");
                 }
-                result = kubernetesModelConverter.wasmPluginToCr(plugin);
-                kubernetesModelConverter.setWasmPluginInstanceToCr(result, instance);
-                result = kubernetesClientService.createWasmPlugin(result);
-            } else {
-                result = existedCr;
-                kubernetesModelConverter.setWasmPluginInstanceToCr(result, instance);
-                result = kubernetesClientService.replaceWasmPlugin(result);
+                cr = kubernetesModelConverter.wasmPluginToCr(plugin);
             }
-        } catch (ApiException e) {
-            if (e.getCode() == HttpStatus.CONFLICT) {
-                throw new ResourceConflictException();
-            }
-            throw new BusinessException(
-                "Error occurs when adding or updating the WasmPlugin CR with name: " + plugin.getName(), e);
-        }
-        return kubernetesModelConverter.getWasmPluginInstanceFromCr(result, scope, target);
+            kubernetesModelConverter.setWasmPluginInstanceToCr(cr, instance);
+            return cr;
+        }, cr -> {
+            instanceIndex.put(cr);
+            return kubernetesModelConverter.getWasmPluginInstanceFromCr(cr, scope, target);
+        }));
     }
 
     @Override
     public void delete(WasmPluginInstanceScope scope, String target, String pluginName) {
-        List<V1alpha1WasmPlugin> existedCrs;
-        try {
-            existedCrs = kubernetesClientService.listWasmPlugin(pluginName);
-        } catch (ApiException e) {
-            throw new BusinessException("Error occurs when getting WasmPlugin.", e);
-        }
-        deletePluginInstances(existedCrs, scope, target);
+        deletePluginInstances(pluginName, scope, Collections.singletonList(target));
     }
 
     @Override
     public void deleteAll(WasmPluginInstanceScope scope, String target) {
-        List<V1alpha1WasmPlugin> existedCrs = null;
-        try {
-            existedCrs = kubernetesClientService.listWasmPlugin();
-        } catch (ApiException e) {
-            throw new BusinessException("Error occurs when getting WasmPlugin.", e);
+        batchDeleteAll(scope, Collections.singletonList(target));
+    }
+
+    @Override
+    public void batchDeleteAll(WasmPluginInstanceScope scope, Collection<String> targets) {
+        if (CollectionUtils.isEmpty(targets)) {
+            return;
         }
-        deletePluginInstances(existedCrs, scope, target);
+        deletePluginInstances(null, scope, targets);
     }
 
-    private void deletePluginInstances(List<V1alpha1WasmPlugin> crs, WasmPluginInstanceScope scope, String target) {
-        if (CollectionUtils.isEmpty(crs)) {
+    /**
+     * @param pluginName only instances of this plugin are deleted if it is not {@code null}
+     */
+    private void deletePluginInstances(String pluginName, WasmPluginInstanceScope scope,
+        Collection<String> targets) {
+        instanceIndex.ensureLoaded();
+        // Each CR found is read again before it is changed.
+        List<String> affectedCrNames = instanceIndex.getCrNamesToRemoveFrom(pluginName, scope, targets);
+        if (affectedCrNames.isEmpty()) {
             return;
         }
-        for (V1alpha1WasmPlugin cr : crs) {
-            boolean needUpdate = kubernetesModelConverter.removeWasmPluginInstanceFromCr(cr, scope, target);
-            if (needUpdate) {
-                try {
-                    kubernetesClientService.replaceWasmPlugin(cr);
-                } catch (ApiException e) {
-                    throw new BusinessException(
-                        "Error occurs when trying to updating WasmPlugin with name " + cr.getMetadata().getName(), e);
-                }
+        if (affectedCrNames.size() == 1) {
+            removePluginInstances(affectedCrNames.get(0), scope, targets);
+            return;
+        }
+        CompletableFuture<?>[] futures = affectedCrNames.stream()
+            .map(name -> CompletableFuture.runAsync(() -> removePluginInstances(name, scope, targets),
+                crWriteExecutor))
+            .toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException)e.getCause();
             }
+            throw new BusinessException("Error occurs when updating WasmPlugins.", e.getCause());
         }
     }
+
+    private void removePluginInstances(String crName, WasmPluginInstanceScope scope, Collection<String> targets) {
+        crWriteQueue.submit(crName, Mutation.of(cr -> {
+            if (cr == null || !kubernetesModelConverter.removeWasmPluginInstancesFromCr(cr, scope, targets)) {
+                return null;
+            }
+            return cr;
+        }, cr -> {
+            instanceIndex.put(cr);
+            return null;
+        }));
+    }
 }
@@ -16,6 +16,7 @@ import com.alibaba.higress.sdk.model.PaginatedResult;
 import com.alibaba.higress.sdk.model.WasmPlugin;
 import com.alibaba.higress.sdk.model.WasmPluginConfig;
 import com.alibaba.higress.sdk.model.WasmPluginPageQuery;
+import com.alibaba.higress.sdk.model.wasmplugin.PluginAsset;
 
 /**
  * @author CH3CHO
@@ -26,10 +27,27 @@ public interface WasmPluginService {
 
     WasmPlugin query(String name, String language);
 
+    /**
+     * @return the config schema of the plugin. Localized configs of built-in plugins are built once and shared among
+     *         callers, so neither the returned object nor its schema may be modified.
+     */
     WasmPluginConfig queryConfig(String name, String language);
 
     String queryReadme(String name, String language);
 
+    /**
+     * @param version plugin version. The current one is used if it is empty.
+     * @return the icon of a built-in plugin, or {@code null} if not found or the version doesn't match
+     */
+    PluginAsset queryIcon(String name, String version);
+
+    /**
+     * @param version plugin version. The current one is used if it is empty.
+     * @return the README of a built-in plugin in the given language with a fallback to the default one, or
+     *         {@code null} if not found or the version doesn't match
+     */
+    PluginAsset queryReadmeAsset(String name, String version, String language);
+
     WasmPlugin updateBuiltIn(String name, String imageVersion);
 
     WasmPlugin addCustom(WasmPlugin plugin);
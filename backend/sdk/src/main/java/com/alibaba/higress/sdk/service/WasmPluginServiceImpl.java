@@ -12,10 +12,6 @@
  */
 package com.alibaba.higress.sdk.service;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.StringReader;
 import java.lang.reflect.Method;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
@@ -25,18 +21,15 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Properties;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import javax.annotation.PostConstruct;
-
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.collections4.MapUtils;
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 
 import com.alibaba.higress.sdk.constant.Separators;
@@ -48,8 +41,8 @@ import com.alibaba.higress.sdk.model.PaginatedResult;
 import com.alibaba.higress.sdk.model.WasmPlugin;
 import com.alibaba.higress.sdk.model.WasmPluginConfig;
 import com.alibaba.higress.sdk.model.WasmPluginPageQuery;
-import com.alibaba.higress.sdk.model.wasmplugin.Language;
 import com.alibaba.higress.sdk.model.wasmplugin.Plugin;
+import com.alibaba.higress.sdk.model.wasmplugin.PluginAsset;
 import com.alibaba.higress.sdk.model.wasmplugin.PluginCategory;
 import com.alibaba.higress.sdk.model.wasmplugin.PluginInfo;
 import com.alibaba.higress.sdk.model.wasmplugin.PluginSpec;
@@ -59,15 +52,16 @@ import com.alibaba.higress.sdk.service.kubernetes.crd.wasm.PluginPhase;
 import com.alibaba.higress.sdk.service.kubernetes.crd.wasm.V1alpha1WasmPlugin;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.google.common.base.Preconditions;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 
 import io.kubernetes.client.openapi.ApiException;
 import io.swagger.v3.core.util.Json;
-import io.swagger.v3.core.util.Yaml;
 import io.swagger.v3.oas.models.media.Schema;
 import lombok.AccessLevel;
 import lombok.Data;
 import lombok.Getter;
-import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -76,25 +70,18 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 class WasmPluginServiceImpl implements WasmPluginService {
 
-    private static final String PLUGINS_RESOURCE_FOLDER = "plugins/";
-    private static final String PLUGINS_PROPERTIES_FILE = PLUGINS_RESOURCE_FOLDER + "plugins.properties";
-    private static final String SPEC_FILE = "spec.yaml";
-    private static final String README_FILE = "README.md";
-    private static final String README_CN_FILE = "README_CN.md";
-    private static final String README_EN_FILE = "README_EN.md";
-    private static final String ICON_FILE = "icon.png";
-    private static final String ICON_DATA_PREFIX = "data:image/png;base64,";
+    private static final String ICON_CONTENT_TYPE = "image/png";
+    private static final String ICON_DATA_PREFIX = "data:" + ICON_CONTENT_TYPE + ";base64,";
+    private static final String README_CONTENT_TYPE = "text/markdown;charset=UTF-8";
     private static final Charset CHARSET = StandardCharsets.UTF_8;
     private static final Pattern I18N_EXTENSION_KEY_PATTERN = Pattern.compile("^x-(.+)-i18n$");
     private static final String DEFAULT_PLUGIN_VERSION = "1.0.0";
+    private static final int MAX_CACHED_CONFIG_LANGUAGES = 8;
 
-    private static final String EXAMPLE_RAW_PROPERTY_NAME = "x-example-raw";
-
-    private static final Pattern YAML_CONTENT_PATTERN = Pattern.compile("^(\\s*)(\\S.*)\\s*$");
-    private static final String YAML_V3_SCHEMA_PROPERTY_KEY = "openAPIV3Schema:";
-    private static final String YAML_EXAMPLE_PROPERTY_KEY = "example:";
-
-    private volatile List<PluginCacheItem> builtInPlugins = Collections.emptyList();
+    /**
+     * Built-in plugins keyed by name, in catalog order.
+     */
+    private volatile Map<String, PluginCacheItem> builtInPlugins;
 
     private final KubernetesClientService kubernetesClientService;
 
@@ -106,168 +93,51 @@ class WasmPluginServiceImpl implements WasmPluginService {
         this.kubernetesModelConverter = kubernetesModelConverter;
     }
 
-    @PostConstruct
+    /**
+     * Loads the built-in plugin catalog eagerly. It is loaded on first use otherwise.
+     */
     public void initialize() {
-        Properties properties = new Properties();
-        try (InputStream stream = getResourceAsStream(PLUGINS_PROPERTIES_FILE)) {
-            properties.load(stream);
-        } catch (IOException ex) {
-            throw new IllegalStateException("Error occurs when loading built-in plugin list.", ex);
-        }
-
-        final List<PluginCacheItem> plugins = new ArrayList<>(properties.size());
-
-        for (Object key : properties.keySet()) {
-            String pluginName = (String)key;
-            String imageRepository = properties.getProperty(pluginName);
-            if (StringUtils.isEmpty(imageRepository)) {
-                continue;
-            }
-
-            PluginCacheItem cacheItem = new PluginCacheItem(pluginName, imageRepository);
-
-            final String pluginFolder = PLUGINS_RESOURCE_FOLDER + pluginName + "/";
-            try (InputStream stream = getResourceAsStream(pluginFolder + SPEC_FILE)) {
-                if (stream == null) {
-                    // No spec. Ignore it.
-                    continue;
-                }
-                String content = IOUtils.toString(stream, CHARSET);
-                Plugin plugin = Yaml.mapper().readValue(content, Plugin.class);
-                fillPluginConfigExample(plugin, content);
-                cacheItem.plugin = plugin;
-            } catch (IOException ex) {
-                throw new IllegalStateException("Error occurs when loading spec file of plugin " + pluginName + ".",
-                    ex);
-            }
-
-            cacheItem.setDefaultReadme(loadPluginReadme(pluginName, README_FILE));
-            cacheItem.setReadme(Language.ZH_CN.getCode(), loadPluginReadme(pluginName, README_CN_FILE));
-            cacheItem.setReadme(Language.EN_US.getCode(), loadPluginReadme(pluginName, README_EN_FILE));
-
-            try (InputStream stream = getResourceAsStream(pluginFolder + ICON_FILE)) {
-                if (stream != null) {
-                    byte[] rawIconData = IOUtils.toByteArray(stream);
-                    cacheItem.iconData = ICON_DATA_PREFIX + Base64.getEncoder().encodeToString(rawIconData);
-                }
-            } catch (IOException ex) {
-                log.warn("Error occurs when loading spec file of plugin {}.", pluginName, ex);
-            }
-
-            plugins.add(cacheItem);
-        }
-
-        plugins.sort(Comparator.comparing(PluginCacheItem::getName));
-        this.builtInPlugins = plugins;
+        getBuiltInPlugins();
     }
 
-    private void fillPluginConfigExample(Plugin plugin, String content) {
-        String example;
-        try {
-            example = extractConfigExample(content);
-        } catch (IOException e) {
-            log.warn("Error occurs when extracting config example for plugin " + plugin.getInfo().getName(), e);
-            return;
-        }
-        if (StringUtils.isEmpty(content)) {
-            return;
-        }
-        if (plugin.getSpec() == null || plugin.getSpec().getConfigSchema() == null
-            || plugin.getSpec().getConfigSchema().getOpenApiV3Schema() == null) {
-            return;
-        }
-        Schema<?> schema = plugin.getSpec().getConfigSchema().getOpenApiV3Schema();
-        schema.addExtension(EXAMPLE_RAW_PROPERTY_NAME, example);
-    }
-
-    private String extractConfigExample(String content) throws IOException {
-        StringBuilder builder = new StringBuilder();
-        try (BufferedReader reader = new BufferedReader(new StringReader(content))) {
-            boolean foundSchema = false, foundExample = false;
-            String schemaOuterIndentation = null, exampleOuterIndentation = null, exampleInnerIndentation = null;
-            String line;
-            while ((line = reader.readLine()) != null) {
-                Matcher yamlContentMatcher = YAML_CONTENT_PATTERN.matcher(line);
-
-                if (!yamlContentMatcher.find()) {
-                    // A blank line, obviously.
-                    continue;
+    private Map<String, PluginCacheItem> getBuiltInPlugins() {
+        Map<String, PluginCacheItem> plugins = builtInPlugins;
+        if (plugins != null) {
+            return plugins;
+        }
+        synchronized (this) {
+            if (builtInPlugins == null) {
+                List<BuiltInPluginCatalog.Entry> entries = BuiltInPluginCatalog.load(getClass().getClassLoader());
+                Map<String, PluginCacheItem> items = new LinkedHashMap<>(entries.size() * 2);
+                for (BuiltInPluginCatalog.Entry entry : entries) {
+                    items.put(entry.getName(), new PluginCacheItem(entry));
                 }
-
-                String indentation = yamlContentMatcher.group(1);
-                String unindentedContent = yamlContentMatcher.group(2);
-
-                if (!foundSchema) {
-                    // We only care about finding the openAPIV3Schema property now.
-                    if (unindentedContent.startsWith(YAML_V3_SCHEMA_PROPERTY_KEY)) {
-                        foundSchema = true;
-                        schemaOuterIndentation = indentation;
-                    }
-                    continue;
-                }
-
-                if (!foundExample) {
-                    if (indentation.length() <= schemaOuterIndentation.length()) {
-                        // This line is not a child of the previously found openAPIV3Schema property,
-                        // which means no example property exists as a child of openAPIV3Schema.
-                        break;
-                    }
-                    // We've found the first and direct child of openAPIV3Schema property.
-                    // The example property we are looking for must share the same indentation.
-                    if (exampleOuterIndentation == null) {
-                        exampleOuterIndentation = indentation;
-                    }
-                    if (indentation.equals(exampleOuterIndentation)
-                        && unindentedContent.startsWith(YAML_EXAMPLE_PROPERTY_KEY)) {
-                        foundExample = true;
-                    }
-                    continue;
-                }
-
-                if (indentation.length() <= exampleOuterIndentation.length()) {
-                    // Found a sibling of the example property or its parent.
-                    // So much for the example content.
-                    break;
-                }
-
-                if (exampleInnerIndentation == null) {
-                    exampleInnerIndentation = indentation;
-                }
-                if (!builder.isEmpty()) {
-                    builder.append("\n");
-                }
-                builder.append(line.substring(exampleInnerIndentation.length()));
+                builtInPlugins = Collections.unmodifiableMap(items);
             }
+            return builtInPlugins;
         }
-        return builder.toString();
     }
 
-    private String loadPluginReadme(String pluginId, String fileName) {
-        String resource = PLUGINS_RESOURCE_FOLDER + pluginId + "/" + fileName;
-        try (InputStream stream = getResourceAsStream(resource)) {
-            if (stream != null) {
-                return IOUtils.toString(stream, CHARSET);
-            }
-        } catch (IOException ex) {
-            throw new IllegalStateException("Error occurs when loading readme data from resource " + resource, ex);
-        }
-        return null;
+    private PluginCacheItem getBuiltInPlugin(String name) {
+        return name != null ? getBuiltInPlugins().get(name) : null;
     }
 
     @Override
     public PaginatedResult<WasmPlugin> list(WasmPluginPageQuery query) {
         String lang = query != null ? query.getLang() : null;
         List<WasmPlugin> plugins = new ArrayList<>();
-        for (PluginCacheItem item : builtInPlugins) {
-            plugins.add(item.buildWasmPlugin(lang));
+        Map<String, WasmPlugin> builtInPluginsByName = new HashMap<>(getBuiltInPlugins().size() * 2);
+        for (PluginCacheItem item : getBuiltInPlugins().values()) {
+            WasmPlugin plugin = item.buildWasmPlugin(lang);
+            plugins.add(plugin);
+            builtInPluginsByName.put(plugin.getName(), plugin);
         }
         try {
             List<V1alpha1WasmPlugin> crs = kubernetesClientService.listWasmPlugin();
             for (V1alpha1WasmPlugin cr : crs) {
                 WasmPlugin plugin = kubernetesModelConverter.wasmPluginFromCr(cr);
                 if (plugin.getBuiltIn()) {
-                    WasmPlugin builtInPlugin = plugins.stream()
-                        .filter(p -> p.getName().equals(plugin.getName())).findFirst().orElse(null);
+                    WasmPlugin builtInPlugin = builtInPluginsByName.get(plugin.getName());
                     if (builtInPlugin != null){
                         builtInPlugin.setImageRepository(plugin.getImageRepository());
                         builtInPlugin.setImageVersion(plugin.getImageVersion());
@@ -289,7 +159,7 @@ class WasmPluginServiceImpl implements WasmPluginService {
         }
 
         // Built-in plugin
-        PluginCacheItem item = builtInPlugins.stream().filter(p -> name.equals(p.name)).findFirst().orElse(null);
+        PluginCacheItem item = getBuiltInPlugin(name);
         if (item != null) {
             return item.buildWasmPlugin(language);
         }
@@ -320,7 +190,7 @@ class WasmPluginServiceImpl implements WasmPluginService {
             return null;
         }
 
-        PluginCacheItem item = builtInPlugins.stream().filter(p -> name.equals(p.name)).findFirst().orElse(null);
+        PluginCacheItem item = getBuiltInPlugin(name);
         if (item != null) {
             return item.buildWasmPluginConfig(language);
         }
@@ -349,7 +219,7 @@ class WasmPluginServiceImpl implements WasmPluginService {
             return null;
         }
 
-        PluginCacheItem item = builtInPlugins.stream().filter(p -> name.equals(p.name)).findFirst().orElse(null);
+        PluginCacheItem item = getBuiltInPlugin(name);
         if (item != null) {
             String content = null;
             if (StringUtils.isNotEmpty(language)) {
@@ -375,13 +245,43 @@ class WasmPluginServiceImpl implements WasmPluginService {
         return null;
     }
 
+    @Override
+    public PluginAsset queryIcon(String name, String version) {
+        PluginCacheItem item = findBuiltInPlugin(name, version);
+        return item != null ? item.getIcon() : null;
+    }
+
+    @Override
+    public PluginAsset queryReadmeAsset(String name, String version, String language) {
+        PluginCacheItem item = findBuiltInPlugin(name, version);
+        if (item == null) {
+            return null;
+        }
+        PluginAsset readme = null;
+        if (StringUtils.isNotEmpty(language)) {
+            readme = item.getReadmeAsset(language);
+        }
+        return readme != null ? readme : item.getReadmeAsset(PluginCacheItem.DEFAULT_README_KEY);
+    }
+
+    private PluginCacheItem findBuiltInPlugin(String name, String version) {
+        if (StringUtils.isEmpty(name)) {
+            return null;
+        }
+        PluginCacheItem item = getBuiltInPlugin(name);
+        if (item == null || StringUtils.isNotEmpty(version) && item.getPlugin().getInfo() != null
+            && !version.equals(item.getPlugin().getInfo().getVersion())) {
+            return null;
+        }
+        return item;
+    }
+
     @Override
     public WasmPlugin updateBuiltIn(String name, String imageVersion) {
         Preconditions.checkArgument(StringUtils.isNotEmpty(name), "name cannot be blank.");
         Preconditions.checkArgument(StringUtils.isNotEmpty(imageVersion), "imageVersion cannot be blank.");
 
-        PluginCacheItem builtInPlugin =
-            builtInPlugins.stream().filter(p -> p.getName().equals(name)).findFirst().orElse(null);
+        PluginCacheItem builtInPlugin = getBuiltInPlugin(name);
         if (builtInPlugin == null) {
             throw new ResourceConflictException("No built-in plugin is found with the given name: " + name);
         }
@@ -438,7 +338,7 @@ class WasmPluginServiceImpl implements WasmPluginService {
             throw new ResourceConflictException("Adding a built-in plugin is not allowed.");
         }
 
-        if (builtInPlugins.stream().anyMatch(p -> p.getName().equals(plugin.getName()))) {
+        if (getBuiltInPlugins().containsKey(plugin.getName())) {
             throw new ResourceConflictException("Name conflicted with a built-in plugin.");
         }
 
@@ -470,7 +370,7 @@ class WasmPluginServiceImpl implements WasmPluginService {
         if (Boolean.TRUE.equals(plugin.getBuiltIn())) {
             throw new ResourceConflictException("Updating a built-in plugin is not allowed.");
         }
-        if (builtInPlugins.stream().anyMatch(p -> p.getName().equals(name))) {
+        if (getBuiltInPlugins().containsKey(name)) {
             throw new ResourceConflictException("Updating a built-in plugin is not allowed.");
         }
 
@@ -549,7 +449,7 @@ class WasmPluginServiceImpl implements WasmPluginService {
 
     @Override
     public void deleteCustom(String name) {
-        if (builtInPlugins.stream().anyMatch(p -> p.getName().equals(name))) {
+        if (getBuiltInPlugin(name) != null) {
             throw new ResourceConflictException("Deleting a built-in plugin is not allowed.");
         }
 
@@ -574,45 +474,56 @@ class WasmPluginServiceImpl implements WasmPluginService {
         }
     }
 
-    private InputStream getResourceAsStream(String name) {
-        return getClass().getClassLoader().getResourceAsStream(name);
-    }
-
     @Data
     private static class PluginCacheItem {
 
-        private static final String DEFAULT_README_KEY = "_default_";
+        private static final String DEFAULT_README_KEY = BuiltInPluginCatalog.README_DEFAULT_KEY;
 
         private final String name;
         private final String imageUrl;
-        private Plugin plugin;
-        private String iconData;
+        private final Plugin plugin;
+        private final PluginAsset icon;
+        /**
+         * The icon inlined as a data URI, which is what SDK users get in {@link WasmPlugin#getIcon()}. Built once as
+         * it is the same for every plugin built.
+         */
+        @Getter(AccessLevel.NONE)
+        private final String iconData;
 
         @Getter(AccessLevel.NONE)
-        @Setter(AccessLevel.NONE)
-        private final Map<String, String> readmes = new HashMap<>(4);
+        private final Map<String, PluginAsset> readmes;
 
-        public PluginCacheItem(String name, String imageUrl) {
-            this.name = name;
-            this.imageUrl = imageUrl;
-        }
+        /**
+         * Localized configs keyed by normalized language, shared by all the callers. Only a few languages are kept so
+         * arbitrary language codes from requests cannot grow it unboundedly.
+         */
+        @Getter(AccessLevel.NONE)
+        private final LoadingCache<String, WasmPluginConfig> localizedConfigs = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_CONFIG_LANGUAGES).build(CacheLoader.from(this::doBuildLocalizedConfig));
 
-        public String getDefaultReadme() {
-            return readmes.get(DEFAULT_README_KEY);
+        public PluginCacheItem(BuiltInPluginCatalog.Entry entry) {
+            this.name = entry.getName();
+            this.imageUrl = entry.getImageUrl();
+            this.plugin = entry.getPlugin();
+            this.icon = entry.getIcon() != null ? PluginAsset.of(entry.getIcon(), ICON_CONTENT_TYPE) : null;
+            this.iconData =
+                entry.getIcon() != null ? ICON_DATA_PREFIX + Base64.getEncoder().encodeToString(entry.getIcon()) : null;
+            Map<String, PluginAsset> readmes = new HashMap<>(4);
+            entry.getReadmes().forEach((k, v) -> readmes.put(k, PluginAsset.of(v, README_CONTENT_TYPE)));
+            this.readmes = readmes;
         }
 
-        public void setDefaultReadme(String content) {
-            readmes.put(DEFAULT_README_KEY, content);
+        public String getDefaultReadme() {
+            return getReadme(DEFAULT_README_KEY);
         }
 
         public String getReadme(String language) {
-            return readmes.get(language);
+            PluginAsset asset = readmes.get(language);
+            return asset != null ? CHARSET.decode(asset.asByteBuffer()).toString() : null;
         }
 
-        public void setReadme(String language, String content) {
-            if (StringUtils.isNotEmpty(content)) {
-                readmes.put(language, content);
-            }
+        public PluginAsset getReadmeAsset(String language) {
+            return readmes.get(language);
         }
 
         public WasmPlugin buildWasmPlugin() {
@@ -662,6 +573,17 @@ class WasmPluginServiceImpl implements WasmPluginService {
         }
 
         public WasmPluginConfig buildWasmPluginConfig(String language) {
+            return localizedConfigs.getUnchecked(normalizeLanguage(language));
+        }
+
+        /**
+         * An empty language, the same as a null or blank one, means the default one.
+         */
+        private static String normalizeLanguage(String language) {
+            return StringUtils.trimToEmpty(language);
+        }
+
+        private WasmPluginConfig doBuildLocalizedConfig(String language) {
             if (plugin.getSpec() == null || plugin.getSpec().getConfigSchema() == null
                 || plugin.getSpec().getConfigSchema().getOpenApiV3Schema() == null) {
                 return new WasmPluginConfig();
@@ -48,6 +48,7 @@ import com.alibaba.higress.sdk.service.kubernetes.crd.wasm.V1alpha1WasmPluginLis
 import com.alibaba.higress.sdk.service.kubernetes.model.IstioEndpointShard;
 import com.alibaba.higress.sdk.service.kubernetes.model.RegistryzService;
 import com.google.common.net.HttpHeaders;
+import com.google.gson.reflect.TypeToken;
 
 import io.kubernetes.client.common.KubernetesObject;
 import io.kubernetes.client.openapi.ApiClient;
@@ -67,7 +68,9 @@ import io.kubernetes.client.openapi.models.V1Status;
 import io.kubernetes.client.util.ClientBuilder;
 import io.kubernetes.client.util.KubeConfig;
 import io.kubernetes.client.util.Strings;
+import io.kubernetes.client.util.Watch;
 import lombok.extern.slf4j.Slf4j;
+import okhttp3.Call;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
@@ -156,7 +159,7 @@ public class KubernetesClientService {
 
     public List<RegistryzService> gatewayServiceList() throws IOException {
         Request request = buildControllerRequest("/debug/registryz");
-        log.info("gatewayServiceList url {}", request.url());
+        log.debug("gatewayServiceList url {}", request.url());
         try (Response response = okHttpClient.newCall(request).execute()) {
             if (!response.isSuccessful()) {
                 throw new BusinessException(
@@ -175,7 +178,7 @@ public class KubernetesClientService {
 
     public Map<String, Map<String, IstioEndpointShard>> gatewayServiceEndpoint() throws IOException {
         Request request = buildControllerRequest("/debug/endpointShardz");
-        log.info("gatewayServiceEndpoint url {}", request.url());
+        log.debug("gatewayServiceEndpoint url {}", request.url());
         try (Response response = okHttpClient.newCall(request).execute()) {
             if (!response.isSuccessful()) {
                 throw new BusinessException("Failed to get service endpoints from controller. Code=" + response.code());
@@ -211,6 +214,27 @@ public class KubernetesClientService {
         }
     }
 
+    /**
+     * Lists the Ingresses like {@link #listIngress()}, but keeps the resource version of the list, so changes can be
+     * watched from there with {@link #watchIngress(String, int)}.
+     */
+    public V1IngressList listIngressForWatch() throws ApiException {
+        NetworkingV1Api apiInstance = new NetworkingV1Api(client);
+        return apiInstance.listNamespacedIngress(controllerNamespace, null, null, null, null,
+            DEFAULT_LABEL_SELECTORS, null, null, null, null, null);
+    }
+
+    /**
+     * Watches changes of the Ingresses listed by {@link #listIngress()}. See
+     * {@link #watchConfigMap(String, String, int)} for details.
+     */
+    public Watch<V1Ingress> watchIngress(String resourceVersion, int timeoutSeconds) throws ApiException {
+        NetworkingV1Api apiInstance = new NetworkingV1Api(client);
+        Call call = apiInstance.listNamespacedIngressCall(controllerNamespace, null, null, null, null,
+            DEFAULT_LABEL_SELECTORS, null, resourceVersion, null, timeoutSeconds, true, null);
+        return Watch.createWatch(client, call, new TypeToken<Watch.Response<V1Ingress>>() {}.getType());
+    }
+
     public List<V1Ingress> listIngressByDomain(String domainName) {
         NetworkingV1Api apiInstance = new NetworkingV1Api(client);
         String labelSelectors = joinLabelSelectors(DEFAULT_LABEL_SELECTORS, buildDomainLabelSelector(domainName));
@@ -281,6 +305,27 @@ public class KubernetesClientService {
         return sortKubernetesObjects(Optional.ofNullable(list.getItems()).orElse(Collections.emptyList()));
     }
 
+    /**
+     * Lists the ConfigMaps like {@link #listConfigMap()}, but keeps the resource version of the list, so changes can be
+     * watched from there with {@link #watchConfigMaps(String, int)}.
+     */
+    public V1ConfigMapList listConfigMapForWatch() throws ApiException {
+        CoreV1Api coreV1Api = new CoreV1Api(client);
+        return coreV1Api.listNamespacedConfigMap(controllerNamespace, null, null, null, null, DEFAULT_LABEL_SELECTORS,
+            null, null, null, null, null);
+    }
+
+    /**
+     * Watches changes of the ConfigMaps listed by {@link #listConfigMap()}. See
+     * {@link #watchConfigMap(String, String, int)} for details.
+     */
+    public Watch<V1ConfigMap> watchConfigMaps(String resourceVersion, int timeoutSeconds) throws ApiException {
+        CoreV1Api coreV1Api = new CoreV1Api(client);
+        Call call = coreV1Api.listNamespacedConfigMapCall(controllerNamespace, null, null, null, null,
+            DEFAULT_LABEL_SELECTORS, null, resourceVersion, null, timeoutSeconds, true, null);
+        return Watch.createWatch(client, call, new TypeToken<Watch.Response<V1ConfigMap>>() {}.getType());
+    }
+
     public V1ConfigMap createConfigMap(V1ConfigMap configMap) throws ApiException {
         renderDefaultLabels(configMap);
         CoreV1Api coreV1Api = new CoreV1Api(client);
@@ -299,6 +344,21 @@ public class KubernetesClientService {
         }
     }
 
+    /**
+     * Watches changes of the ConfigMap with the given name. The server ends the watch after the given timeout, so
+     * callers are expected to start a new one from the last resource version seen.
+     *
+     * @param resourceVersion the resource version to start from. All the matching ConfigMaps are reported as added if
+     *        it is {@code null}.
+     */
+    public Watch<V1ConfigMap> watchConfigMap(String name, String resourceVersion, int timeoutSeconds)
+        throws ApiException {
+        CoreV1Api coreV1Api = new CoreV1Api(client);
+        Call call = coreV1Api.listNamespacedConfigMapCall(controllerNamespace, null, null, null,
+            "metadata.name=" + name, null, null, resourceVersion, null, timeoutSeconds, true, null);
+        return Watch.createWatch(client, call, new TypeToken<Watch.Response<V1ConfigMap>>() {}.getType());
+    }
+
     public void deleteConfigMap(String name) throws ApiException {
         CoreV1Api coreV1Api = new CoreV1Api(client);
         V1Status status;
@@ -326,13 +386,50 @@ public class KubernetesClientService {
     }
 
     public List<V1Secret> listSecret(String type) throws ApiException {
+        V1SecretList list = listSecretForWatch(type);
+        return sortKubernetesObjects(Optional.ofNullable(list.getItems()).orElse(Collections.emptyList()));
+    }
+
+    /**
+     * Lists the secrets like {@link #listSecret(String)}, but keeps the resource version of the list, so changes can be
+     * watched from there with {@link #watchSecretsOfType(String, String, int)}.
+     */
+    public V1SecretList listSecretForWatch(String type) throws ApiException {
+        CoreV1Api coreV1Api = new CoreV1Api(client);
+        return coreV1Api.listNamespacedSecret(controllerNamespace, null, null, null, buildSecretTypeFieldSelector(type),
+            null, null, null, null, null, null);
+    }
+
+    /**
+     * Watches changes of the secrets listed by {@link #listSecret(String)}. See
+     * {@link #watchConfigMap(String, String, int)} for details.
+     */
+    public Watch<V1Secret> watchSecretsOfType(String type, String resourceVersion, int timeoutSeconds)
+        throws ApiException {
+        CoreV1Api coreV1Api = new CoreV1Api(client);
+        Call call = coreV1Api.listNamespacedSecretCall(controllerNamespace, null, null, null,
+            buildSecretTypeFieldSelector(type), null, null, resourceVersion, null, timeoutSeconds, true, null);
+        return Watch.createWatch(client, call, new TypeToken<Watch.Response<V1Secret>>() {}.getType());
+    }
+
+    private static String buildSecretTypeFieldSelector(String type) {
+        return StringUtils.isNotEmpty(type) ? KubernetesConstants.TYPE_FIELD + Separators.EQUALS_SIGN + type : null;
+    }
+
+    /**
+     * Lists the secrets carrying the default labels, i.e. those written by the SDK.
+     *
+     * @param excludedType secrets of this type are filtered out by the API server, so e.g. TLS private keys are not
+     *        transferred when they are not needed. Nothing is filtered out if it is empty.
+     */
+    public List<V1Secret> listSecretWithDefaultLabels(String excludedType) throws ApiException {
         CoreV1Api coreV1Api = new CoreV1Api(client);
         String fieldSelectors = null;
-        if (StringUtils.isNotEmpty(type)) {
-            fieldSelectors = KubernetesConstants.TYPE_FIELD + Separators.EQUALS_SIGN + type;
+        if (StringUtils.isNotEmpty(excludedType)) {
+            fieldSelectors = KubernetesConstants.TYPE_FIELD + "!=" + excludedType;
         }
-        V1SecretList list = coreV1Api.listNamespacedSecret(controllerNamespace, null, null, null, fieldSelectors, null,
-            null, null, null, null, null);
+        V1SecretList list = coreV1Api.listNamespacedSecret(controllerNamespace, null, null, null, fieldSelectors,
+            DEFAULT_LABEL_SELECTORS, null, null, null, null, null);
         return sortKubernetesObjects(Optional.ofNullable(list.getItems()).orElse(Collections.emptyList()));
     }
 
@@ -348,6 +445,16 @@ public class KubernetesClientService {
         }
     }
 
+    /**
+     * Watches changes of the Secret with the given name. See {@link #watchConfigMap(String, String, int)} for details.
+     */
+    public Watch<V1Secret> watchSecret(String name, String resourceVersion, int timeoutSeconds) throws ApiException {
+        CoreV1Api coreV1Api = new CoreV1Api(client);
+        Call call = coreV1Api.listNamespacedSecretCall(controllerNamespace, null, null, null,
+            "metadata.name=" + name, null, null, resourceVersion, null, timeoutSeconds, true, null);
+        return Watch.createWatch(client, call, new TypeToken<Watch.Response<V1Secret>>() {}.getType());
+    }
+
     public V1Secret createSecret(V1Secret secret) throws ApiException {
         renderDefaultLabels(secret);
         CoreV1Api coreV1Api = new CoreV1Api(client);
@@ -469,6 +576,31 @@ public class KubernetesClientService {
         return sortKubernetesObjects(list.getItems());
     }
 
+    /**
+     * Lists all the WasmPlugins like {@link #listWasmPlugin()}, but keeps the resource version of the list, so changes
+     * can be watched from there with {@link #watchWasmPlugin(String, int)}.
+     */
+    public V1alpha1WasmPluginList listWasmPluginForWatch() throws ApiException {
+        CustomObjectsApi customObjectsApi = new CustomObjectsApi(client);
+        Object response = customObjectsApi.listNamespacedCustomObject(V1alpha1WasmPlugin.API_GROUP,
+            V1alpha1WasmPlugin.VERSION, controllerNamespace, V1alpha1WasmPlugin.PLURAL, null, null, null, null,
+            DEFAULT_LABEL_SELECTORS, null, null, null, null, null);
+        io.kubernetes.client.openapi.JSON json = new io.kubernetes.client.openapi.JSON();
+        return json.deserialize(json.serialize(response), V1alpha1WasmPluginList.class);
+    }
+
+    /**
+     * Watches changes of the WasmPlugins listed by {@link #listWasmPlugin()}. See
+     * {@link #watchConfigMap(String, String, int)} for details.
+     */
+    public Watch<V1alpha1WasmPlugin> watchWasmPlugin(String resourceVersion, int timeoutSeconds) throws ApiException {
+        CustomObjectsApi customObjectsApi = new CustomObjectsApi(client);
+        Call call = customObjectsApi.listNamespacedCustomObjectCall(V1alpha1WasmPlugin.API_GROUP,
+            V1alpha1WasmPlugin.VERSION, controllerNamespace, V1alpha1WasmPlugin.PLURAL, null, null, null, null,
+            DEFAULT_LABEL_SELECTORS, null, resourceVersion, null, timeoutSeconds, true, null);
+        return Watch.createWatch(client, call, new TypeToken<Watch.Response<V1alpha1WasmPlugin>>() {}.getType());
+    }
+
     public V1alpha1WasmPlugin createWasmPlugin(V1alpha1WasmPlugin plugin) throws ApiException {
         CustomObjectsApi customObjectsApi = new CustomObjectsApi(client);
         renderDefaultLabels(plugin);
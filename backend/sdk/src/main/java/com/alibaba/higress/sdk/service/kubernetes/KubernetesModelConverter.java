@@ -39,6 +39,7 @@ import javax.naming.ldap.LdapName;
 import javax.security.auth.x500.X500Principal;
 
 import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.collections4.ListUtils;
 import org.apache.commons.collections4.MapUtils;
 import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.RandomStringUtils;
@@ -419,15 +420,20 @@ public class KubernetesModelConverter {
 
         dstSpec.setDefaultConfig(srcSpec.getDefaultConfig());
         dstSpec.setDefaultConfigDisable(srcSpec.getDefaultConfigDisable());
-        if (CollectionUtils.isNotEmpty(srcSpec.getMatchRules())) {
-            if (dstSpec.getMatchRules() == null) {
-                dstSpec.setMatchRules(new ArrayList<>());
-            } else {
-                dstSpec.getMatchRules().removeIf(r -> srcSpec.getMatchRules().stream().anyMatch(r::keyEquals));
+        List<MatchRule> srcRules = srcSpec.getMatchRules();
+        if (CollectionUtils.isNotEmpty(srcRules)) {
+            // The source rules keep their order. Rules only found in the destination are merged in as new ones,
+            // added backwards so those on top stay on top.
+            MatchRuleIndex index = MatchRuleIndex.of(srcRules);
+            List<MatchRule> dstRules = ListUtils.emptyIfNull(dstSpec.getMatchRules());
+            for (int i = dstRules.size() - 1; i >= 0; --i) {
+                MatchRule rule = dstRules.get(i);
+                if (srcRules.stream().noneMatch(rule::keyEquals)) {
+                    index.addRule(rule);
+                }
             }
-            dstSpec.getMatchRules().addAll(srcSpec.getMatchRules());
+            dstSpec.setMatchRules(index.toMatchRules());
         }
-        sortWasmPluginMatchRules(dstSpec.getMatchRules());
     }
 
     public WasmPluginInstance getWasmPluginInstanceFromCr(V1alpha1WasmPlugin plugin, WasmPluginInstanceScope scope,
@@ -459,21 +465,19 @@ public class KubernetesModelConverter {
                 break;
             case DOMAIN:
                 if (StringUtils.isNotEmpty(target) && CollectionUtils.isNotEmpty(spec.getMatchRules())) {
-                    Optional<MatchRule> rule = spec.getMatchRules().stream()
-                        .filter(r -> r.getDomain() != null && r.getDomain().contains(target)).findFirst();
-                    if (rule.isPresent()) {
-                        enabled = !Boolean.TRUE.equals(rule.get().getConfigDisable());
-                        configurations = rule.get().getConfig();
+                    MatchRule rule = MatchRuleIndex.findFirstByDomain(spec.getMatchRules(), target);
+                    if (rule != null) {
+                        enabled = !Boolean.TRUE.equals(rule.getConfigDisable());
+                        configurations = rule.getConfig();
                     }
                 }
                 break;
             case ROUTE:
                 if (StringUtils.isNotEmpty(target) && CollectionUtils.isNotEmpty(spec.getMatchRules())) {
-                    Optional<MatchRule> rule = spec.getMatchRules().stream()
-                        .filter(r -> r.getIngress() != null && r.getIngress().contains(target)).findFirst();
-                    if (rule.isPresent()) {
-                        enabled = !Boolean.TRUE.equals(rule.get().getConfigDisable());
-                        configurations = rule.get().getConfig();
+                    MatchRule rule = MatchRuleIndex.findFirstByIngress(spec.getMatchRules(), target);
+                    if (rule != null) {
+                        enabled = !Boolean.TRUE.equals(rule.getConfigDisable());
+                        configurations = rule.getConfig();
                     }
                 }
                 break;
@@ -481,6 +485,50 @@ public class KubernetesModelConverter {
                 throw new IllegalArgumentException("Unsupported scope: " + scope);
         }
 
+        return buildWasmPluginInstance(metadata, name, version, scope, target, enabled, configurations);
+    }
+
+    /**
+     * Returns all the configured instances in the CR: the global one first, followed by domain and route ones in the
+     * order of {@link MatchRuleIndex#getDomains()} and {@link MatchRuleIndex#getIngresses()}.
+     */
+    public List<WasmPluginInstance> getWasmPluginInstancesFromCr(V1alpha1WasmPlugin plugin) {
+        V1ObjectMeta metadata = plugin.getMetadata();
+        V1alpha1WasmPluginSpec spec = plugin.getSpec();
+        if (metadata == null || MapUtils.isEmpty(metadata.getLabels()) || spec == null) {
+            return Collections.emptyList();
+        }
+
+        String name = metadata.getLabels().get(KubernetesConstants.Label.WASM_PLUGIN_NAME_KEY);
+        String version = metadata.getLabels().get(KubernetesConstants.Label.WASM_PLUGIN_VERSION_KEY);
+        if (StringUtils.isAnyBlank(name, version)) {
+            return Collections.emptyList();
+        }
+
+        List<WasmPluginInstance> instances = new ArrayList<>();
+        Optional.ofNullable(buildWasmPluginInstance(metadata, name, version, WasmPluginInstanceScope.GLOBAL, null,
+            !Boolean.TRUE.equals(spec.getDefaultConfigDisable()),
+            Optional.ofNullable(spec.getDefaultConfig()).orElse(Collections.emptyMap()))).ifPresent(instances::add);
+        if (CollectionUtils.isNotEmpty(spec.getMatchRules())) {
+            MatchRuleIndex index = MatchRuleIndex.of(spec.getMatchRules());
+            for (String domain : index.getDomains()) {
+                MatchRule rule = index.findByDomain(domain);
+                Optional.ofNullable(buildWasmPluginInstance(metadata, name, version, WasmPluginInstanceScope.DOMAIN,
+                    domain, !Boolean.TRUE.equals(rule.getConfigDisable()), rule.getConfig()))
+                    .ifPresent(instances::add);
+            }
+            for (String ingress : index.getIngresses()) {
+                MatchRule rule = index.findByIngress(ingress);
+                Optional.ofNullable(buildWasmPluginInstance(metadata, name, version, WasmPluginInstanceScope.ROUTE,
+                    ingress, !Boolean.TRUE.equals(rule.getConfigDisable()), rule.getConfig()))
+                    .ifPresent(instances::add);
+            }
+        }
+        return instances;
+    }
+
+    private WasmPluginInstance buildWasmPluginInstance(V1ObjectMeta metadata, String name, String version,
+        WasmPluginInstanceScope scope, String target, Boolean enabled, Map<String, Object> configurations) {
         if (enabled == null) {
             // No enabled is set, which means not configured.
             return null;
@@ -542,10 +590,8 @@ public class KubernetesModelConverter {
             cr.setSpec(spec);
         }
 
-        List<MatchRule> matchRules = spec.getMatchRules();
-        if (matchRules == null) {
-            matchRules = new ArrayList<>();
-            spec.setMatchRules(matchRules);
+        if (spec.getMatchRules() == null) {
+            spec.setMatchRules(new ArrayList<>());
         }
 
         boolean enabled = instance.getEnabled() == null || instance.getEnabled();
@@ -559,26 +605,23 @@ public class KubernetesModelConverter {
                 }
                 break;
             case DOMAIN:
-                String domain = instance.getTarget();
-                MatchRule domainRule = matchRules.stream()
-                    .filter(r -> r.getDomain() != null && r.getDomain().contains(domain)).findFirst().orElse(null);
+                MatchRule domainRule = MatchRuleIndex.findFirstByDomain(spec.getMatchRules(), instance.getTarget());
                 if (domainRule == null) {
-                    domainRule = MatchRule.forDomain(domain);
-                    matchRules.add(domainRule);
-                    sortWasmPluginMatchRules(matchRules);
+                    // The rule list is only rebuilt when a new rule needs to be merged into place.
+                    MatchRuleIndex index = MatchRuleIndex.of(spec.getMatchRules());
+                    domainRule = index.getOrAddDomainRule(instance.getTarget());
+                    spec.setMatchRules(index.toMatchRules());
                 }
                 domainRule.setConfigDisable(!enabled);
                 domainRule.setConfig(configurations);
                 break;
             case ROUTE:
-                String route = instance.getTarget();
-                MatchRule routeRule = matchRules.stream()
-                    .filter(r -> r.getIngress() != null && r.getIngress().contains(route)).findFirst().orElse(null);
+                MatchRule routeRule = MatchRuleIndex.findFirstByIngress(spec.getMatchRules(), instance.getTarget());
                 if (routeRule == null) {
-                    routeRule = MatchRule.forIngress(route);
-                    // Route rules shall come first to get a higher priority.
-                    matchRules.add(0, routeRule);
-                    sortWasmPluginMatchRules(matchRules);
+                    // New route rules are put at the top by the index to get a higher priority.
+                    MatchRuleIndex index = MatchRuleIndex.of(spec.getMatchRules());
+                    routeRule = index.getOrAddIngressRule(instance.getTarget());
+                    spec.setMatchRules(index.toMatchRules());
                 }
                 routeRule.setConfigDisable(!enabled);
                 routeRule.setConfig(configurations);
@@ -589,6 +632,36 @@ public class KubernetesModelConverter {
     }
 
     public boolean removeWasmPluginInstanceFromCr(V1alpha1WasmPlugin cr, WasmPluginInstanceScope scope, String target) {
+        return removeWasmPluginInstancesFromCr(cr, scope, Collections.singletonList(target));
+    }
+
+    /**
+     * Tells whether {@link #removeWasmPluginInstancesFromCr} may change the CR, without changing it.
+     */
+    public boolean isWasmPluginInstanceRemovable(V1alpha1WasmPlugin cr, WasmPluginInstanceScope scope,
+        Collection<String> targets) {
+        V1alpha1WasmPluginSpec spec = cr.getSpec();
+        if (spec == null) {
+            return false;
+        }
+        switch (scope) {
+            case GLOBAL:
+                return targets.stream().anyMatch(Objects::isNull);
+            case DOMAIN:
+            case ROUTE:
+                return isAnyTargetMatched(spec.getMatchRules(), scope, targets);
+            default:
+                throw new IllegalArgumentException("Unsupported scope: " + scope);
+        }
+    }
+
+    /**
+     * Removes the instances on all the given targets from the CR, building the match rule list only once.
+     *
+     * @return {@code true} if the CR is changed and needs to be written back
+     */
+    public boolean removeWasmPluginInstancesFromCr(V1alpha1WasmPlugin cr, WasmPluginInstanceScope scope,
+        Collection<String> targets) {
         V1alpha1WasmPluginSpec spec = cr.getSpec();
         if (spec == null) {
             return false;
@@ -597,47 +670,28 @@ public class KubernetesModelConverter {
         boolean changed = false;
         switch (scope) {
             case GLOBAL:
-                if (target == null) {
+                // Not contains(null), which throws on immutable lists.
+                if (targets.stream().anyMatch(Objects::isNull)) {
                     spec.setDefaultConfig(null);
                     changed = true;
                 }
                 break;
             case DOMAIN:
-                if (StringUtils.isEmpty(target) || CollectionUtils.isEmpty(spec.getMatchRules())) {
-                    break;
-                }
-                for (Iterator<MatchRule> it = spec.getMatchRules().listIterator(); it.hasNext();) {
-                    MatchRule rule = it.next();
-                    if (CollectionUtils.isEmpty(rule.getDomain())) {
-                        continue;
-                    }
-                    if (!rule.getDomain().contains(target)) {
-                        continue;
-                    }
-                    changed = true;
-                    rule.getDomain().remove(target);
-                    if (CollectionUtils.isEmpty(rule.getDomain()) && CollectionUtils.isEmpty(rule.getIngress())) {
-                        it.remove();
-                    }
-                }
-                break;
             case ROUTE:
-                if (StringUtils.isEmpty(target) || CollectionUtils.isEmpty(spec.getMatchRules())) {
+                if (!isAnyTargetMatched(spec.getMatchRules(), scope, targets)) {
+                    // Most CRs don't refer to the targets at all, e.g. when cleaning up after a route deletion.
                     break;
                 }
-                for (Iterator<MatchRule> it = spec.getMatchRules().listIterator(); it.hasNext();) {
-                    MatchRule rule = it.next();
-                    if (CollectionUtils.isEmpty(rule.getIngress())) {
-                        continue;
-                    }
-                    if (!rule.getIngress().contains(target)) {
+                MatchRuleIndex index = MatchRuleIndex.of(spec.getMatchRules());
+                for (String target : targets) {
+                    if (StringUtils.isEmpty(target)) {
                         continue;
                     }
-                    changed = true;
-                    rule.getIngress().remove(target);
-                    if (CollectionUtils.isEmpty(rule.getDomain()) && CollectionUtils.isEmpty(rule.getIngress())) {
-                        it.remove();
-                    }
+                    changed |= scope == WasmPluginInstanceScope.DOMAIN ? index.removeDomain(target)
+                        : index.removeIngress(target);
+                }
+                if (changed) {
+                    spec.setMatchRules(index.toMatchRules());
                 }
                 break;
             default:
@@ -646,80 +700,19 @@ public class KubernetesModelConverter {
         return changed;
     }
 
-    private void sortWasmPluginMatchRules(List<MatchRule> matchRules) {
-        if (CollectionUtils.isEmpty(matchRules)) {
-            return;
-        }
-        matchRules.sort(KubernetesModelConverter::compareMatchRules);
-    }
-
-    private static int compareMatchRules(MatchRule r1, MatchRule r2) {
-        boolean hasDomain1 = CollectionUtils.isNotEmpty(r1.getDomain());
-        boolean hasDomain2 = CollectionUtils.isNotEmpty(r2.getDomain());
-        boolean hasIngress1 = CollectionUtils.isNotEmpty(r1.getIngress());
-        boolean hasIngress2 = CollectionUtils.isNotEmpty(r2.getIngress());
-
-        boolean empty1 = !hasDomain1 && !hasIngress1;
-        boolean empty2 = !hasDomain2 && !hasIngress2;
-        if (empty1 && empty2) {
-            return 0;
-        }
-        if (empty1 != empty2) {
-            // One of them is empty. The non-empty one comes first.
-            return empty1 ? 1 : -1;
-        }
-
-        // One contains some Ingresses, but the other one doesn't.
-        // The one with Ingresses comes first since we need to match any Ingress rules before all the domain
-        // rules.
-        if (hasIngress1 != hasIngress2) {
-            return hasIngress1 ? -1 : 1;
-        }
-
-        if (!hasIngress1) {
-            // None of them contains Ingress, so both of them contain domains.
-            return compareStringLists(r1.getDomain(), r2.getDomain());
-        }
-
-        // One contains some domains as well, but the other one doesn't.
-        // The one without any domain comes first since we need to match any Ingress rules before all the
-        // domain rules.
-        if (hasDomain1 != hasDomain2) {
-            return hasDomain1 ? 1 : -1;
-        }
-
-        int ret = compareStringLists(r1.getIngress(), r2.getIngress());
-        if (ret != 0) {
-            return 0;
-        }
-        return hasDomain1 ? compareStringLists(r1.getDomain(), r2.getDomain()) : 0;
-    }
-
-    private static int compareStringLists(List<String> l1, List<String> l2) {
-        boolean empty1 = CollectionUtils.isEmpty(l1);
-        boolean empty2 = CollectionUtils.isEmpty(l2);
-        if (empty1 && empty2) {
-            return 0;
-        }
-        if (empty1 != empty2) {
-            // One of them is empty. The non-empty one comes first.
-            return empty1 ? 1 : -1;
+    private static boolean isAnyTargetMatched(List<MatchRule> matchRules, WasmPluginInstanceScope scope,
+        Collection<String> targets) {
+        if (CollectionUtils.isEmpty(matchRules) || CollectionUtils.isEmpty(targets)) {
+            return false;
         }
-
-        for (int i = 0, n = Math.max(l1.size(), l2.size()); i < n; ++i) {
-            if (i >= l1.size()) {
-                return -1;
-            }
-            if (i >= l2.size()) {
-                return 1;
-            }
-            int ret = StringUtils.compare(l1.get(i), l2.get(i));
-            if (ret != 0) {
-                return ret;
+        Set<String> targetSet = new HashSet<>(targets);
+        for (MatchRule rule : matchRules) {
+            List<String> ruleTargets = scope == WasmPluginInstanceScope.DOMAIN ? rule.getDomain() : rule.getIngress();
+            if (ruleTargets != null && ruleTargets.stream().anyMatch(targetSet::contains)) {
+                return true;
             }
         }
-
-        return 0;
+        return false;
     }
 
     private static void fillRouteMetadata(Route route, V1ObjectMeta metadata) {
@@ -0,0 +1,294 @@
+/*
+ * Copyright (c) 2022-2024 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.higress.sdk.service.kubernetes;
+
+import java.io.Closeable;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.alibaba.higress.sdk.http.HttpStatus;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import io.kubernetes.client.common.KubernetesObject;
+import io.kubernetes.client.openapi.ApiException;
+import io.kubernetes.client.openapi.models.V1ConfigMap;
+import io.kubernetes.client.openapi.models.V1Secret;
+import io.kubernetes.client.openapi.models.V1Status;
+import io.kubernetes.client.util.Watch;
+import io.kubernetes.client.util.Watchable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps a {@link Handler} in sync with some Kubernetes resources on a background thread: the resources are listed
+ * once, and then watched from the resource version of the list. The server ends a watch after the given timeout, and
+ * a new one is started from the last resource version seen. Everything is listed again if that version is gone, or
+ * after an error.
+ *
+ * @author CH3CHO
+ */
+@Slf4j
+public class KubernetesResourceWatcher<T extends KubernetesObject> implements Closeable {
+
+    private static final int DEFAULT_WATCH_TIMEOUT_SECONDS = 300;
+    private static final long DEFAULT_RETRY_INTERVAL_MILLIS = 5000;
+
+    private static final String EVENT_ADDED = "ADDED";
+    private static final String EVENT_MODIFIED = "MODIFIED";
+    private static final String EVENT_DELETED = "DELETED";
+    private static final String EVENT_ERROR = "ERROR";
+
+    private final String name;
+    private final Lister<T> lister;
+    private final WatchFactory<T> watchFactory;
+    private final Handler<T> handler;
+    private final int watchTimeoutSeconds;
+    private final long retryIntervalMillis;
+    private final ExecutorService executor;
+    private final AtomicBoolean started = new AtomicBoolean();
+    private volatile boolean running;
+    private volatile boolean reloadRequested;
+    private volatile Watchable<T> currentWatch;
+
+    public KubernetesResourceWatcher(String name, Lister<T> lister, WatchFactory<T> watchFactory,
+        Handler<T> handler) {
+        this(name, lister, watchFactory, handler, DEFAULT_WATCH_TIMEOUT_SECONDS, DEFAULT_RETRY_INTERVAL_MILLIS);
+    }
+
+    public KubernetesResourceWatcher(String name, Lister<T> lister, WatchFactory<T> watchFactory, Handler<T> handler,
+        int watchTimeoutSeconds, long retryIntervalMillis) {
+        this.name = name;
+        this.lister = lister;
+        this.watchFactory = watchFactory;
+        this.handler = handler;
+        this.watchTimeoutSeconds = watchTimeoutSeconds;
+        this.retryIntervalMillis = retryIntervalMillis;
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat(name + "-Watcher-%d").build());
+    }
+
+    /**
+     * Creates a watcher of the ConfigMap with the given name. The handler gets at most one ConfigMap on reload, and
+     * none if it doesn't exist.
+     */
+    public static KubernetesResourceWatcher<V1ConfigMap> ofConfigMap(KubernetesClientService kubernetesClientService,
+        String name, Handler<V1ConfigMap> handler) {
+        return new KubernetesResourceWatcher<>("ConfigMap-" + name,
+            () -> singleListing(kubernetesClientService.readConfigMap(name)),
+            (resourceVersion, timeoutSeconds) -> kubernetesClientService.watchConfigMap(name, resourceVersion,
+                timeoutSeconds),
+            handler);
+    }
+
+    /**
+     * Creates a watcher of the Secret with the given name. See {@link #ofConfigMap} for details.
+     */
+    public static KubernetesResourceWatcher<V1Secret> ofSecret(KubernetesClientService kubernetesClientService,
+        String name, Handler<V1Secret> handler) {
+        return new KubernetesResourceWatcher<>("Secret-" + name,
+            () -> singleListing(kubernetesClientService.readSecret(name)),
+            (resourceVersion, timeoutSeconds) -> kubernetesClientService.watchSecret(name, resourceVersion,
+                timeoutSeconds),
+            handler);
+    }
+
+    /**
+     * Starts watching in background. Calls after the first one are ignored.
+     *
+     * @param resourceVersion the resource version to start watching from, usually that of a listing the caller has
+     *        just applied by itself. The resources are listed first if it is {@code null}.
+     */
+    public void start(String resourceVersion) {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+        running = true;
+        executor.submit(() -> run(resourceVersion));
+    }
+
+    public boolean isStarted() {
+        return started.get();
+    }
+
+    /**
+     * Has the watching thread list the resources again before the next watch, e.g. as a periodic fallback for changes
+     * missed by the watch. The current watch is closed for that.
+     */
+    public void requestReload() {
+        reloadRequested = true;
+        closeCurrentWatch();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        closeCurrentWatch();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Lists the resources and passes them to the handler.
+     *
+     * @return the resource version to start watching from
+     */
+    public String reload() throws ApiException {
+        Listing<T> listing = lister.list();
+        handler.onReload(listing.getItems() != null ? listing.getItems() : Collections.emptyList());
+        return listing.getResourceVersion();
+    }
+
+    private static <T extends KubernetesObject> Listing<T> singleListing(T resource) {
+        if (resource == null) {
+            return Listing.of(Collections.emptyList(), null);
+        }
+        String resourceVersion = resource.getMetadata() != null ? resource.getMetadata().getResourceVersion() : null;
+        return Listing.of(Collections.singletonList(resource), resourceVersion);
+    }
+
+    private void run(String initialResourceVersion) {
+        String resourceVersion = initialResourceVersion;
+        boolean reloadNeeded = resourceVersion == null;
+        while (running) {
+            try {
+                if (reloadNeeded || reloadRequested) {
+                    reloadRequested = false;
+                    resourceVersion = reload();
+                    reloadNeeded = false;
+                }
+                resourceVersion = watchFrom(resourceVersion);
+                reloadNeeded = resourceVersion == null;
+            } catch (Exception e) {
+                if (!running) {
+                    break;
+                }
+                if (reloadRequested) {
+                    // The watch was closed on request.
+                    continue;
+                }
+                log.warn("Error occurs when watching {}. Will retry later.", name, e);
+                reloadNeeded = true;
+                try {
+                    Thread.sleep(retryIntervalMillis);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the last resource version seen, or {@code null} if everything needs to be listed again
+     */
+    private String watchFrom(String resourceVersion) throws Exception {
+        try (Watchable<T> watch = watchFactory.watch(resourceVersion, watchTimeoutSeconds)) {
+            currentWatch = watch;
+            if (!running || reloadRequested) {
+                return resourceVersion;
+            }
+            for (Watch.Response<T> event : watch) {
+                if (reloadRequested) {
+                    return resourceVersion;
+                }
+                if (EVENT_ERROR.equals(event.type)) {
+                    V1Status status = event.status;
+                    if (status == null || status.getCode() == null || status.getCode() != HttpStatus.GONE) {
+                        log.warn("Error event received when watching {}: {}", name, status);
+                    }
+                    // Most likely the resource version we started from is too old.
+                    return null;
+                }
+                if (event.object != null && event.object.getMetadata() != null
+                    && event.object.getMetadata().getResourceVersion() != null) {
+                    resourceVersion = event.object.getMetadata().getResourceVersion();
+                }
+                switch (event.type) {
+                    case EVENT_ADDED:
+                    case EVENT_MODIFIED:
+                        handler.onChanged(event.object);
+                        break;
+                    case EVENT_DELETED:
+                        handler.onDeleted(event.object);
+                        break;
+                    default:
+                        // Bookmarks only move the resource version forward.
+                        break;
+                }
+            }
+            return resourceVersion;
+        } finally {
+            currentWatch = null;
+        }
+    }
+
+    private void closeCurrentWatch() {
+        Watchable<T> watch = currentWatch;
+        if (watch == null) {
+            return;
+        }
+        try {
+            watch.close();
+        } catch (Exception e) {
+            log.debug("Error occurs when closing the watch of {}.", name, e);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Lister<T> {
+
+        Listing<T> list() throws ApiException;
+    }
+
+    @FunctionalInterface
+    public interface WatchFactory<T> {
+
+        Watchable<T> watch(String resourceVersion, int timeoutSeconds) throws ApiException;
+    }
+
+    /**
+     * Receives the resources on the watching thread, except for {@link #reload()} calls made by other threads.
+     * Implementations shall be thread-safe, and are expected to ignore versions older than what they already have.
+     */
+    public interface Handler<T> {
+
+        /**
+         * Called with all the resources after listing them. Resources not included are gone.
+         */
+        void onReload(List<T> resources);
+
+        /**
+         * Called when a resource is added or modified.
+         */
+        void onChanged(T resource);
+
+        void onDeleted(T resource);
+    }
+
+    @Getter
+    @AllArgsConstructor(staticName = "of")
+    public static final class Listing<T> {
+
+        private final List<T> items;
+        /**
+         * The resource version to start watching from. {@code null} means watching from the latest state, in which
+         * case all the existing resources are reported as added first.
+         */
+        private final String resourceVersion;
+    }
+}
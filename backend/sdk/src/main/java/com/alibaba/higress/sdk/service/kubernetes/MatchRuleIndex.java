@@ -0,0 +1,294 @@
+/*
+ * Copyright (c) 2022-2023 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.higress.sdk.service.kubernetes;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import com.alibaba.higress.sdk.service.kubernetes.crd.wasm.MatchRule;
+
+/**
+ * An indexed view of the match rules in a WasmPlugin CR. Rules are looked up by domain or Ingress name in constant
+ * time, and the original rule order is kept when the view is written back with {@link #toMatchRules()}.
+ * <p>
+ * Building the view costs a pass over all the rules, so it only pays off when a CR is looked up or changed for
+ * multiple targets. Single lookups shall use {@link #findFirstByDomain(List, String)} and
+ * {@link #findFirstByIngress(List, String)} instead.
+ *
+ * @author CH3CHO
+ */
+public class MatchRuleIndex {
+
+    private final List<MatchRule> rules;
+    private final Map<String, List<MatchRule>> domainRules = new LinkedHashMap<>();
+    private final Map<String, List<MatchRule>> ingressRules = new LinkedHashMap<>();
+    private final List<MatchRule> addedIngressRules = new ArrayList<>();
+    private final List<MatchRule> addedDomainRules = new ArrayList<>();
+    private final Set<MatchRule> droppedRules = Collections.newSetFromMap(new IdentityHashMap<>());
+    private boolean modified;
+
+    private MatchRuleIndex(List<MatchRule> rules) {
+        this.rules = rules != null ? rules : Collections.emptyList();
+        for (MatchRule rule : this.rules) {
+            index(rule);
+        }
+    }
+
+    public static MatchRuleIndex of(List<MatchRule> rules) {
+        return new MatchRuleIndex(rules);
+    }
+
+    public static MatchRule findFirstByDomain(List<MatchRule> rules, String domain) {
+        if (rules == null) {
+            return null;
+        }
+        for (MatchRule rule : rules) {
+            if (rule.getDomain() != null && rule.getDomain().contains(domain)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    public static MatchRule findFirstByIngress(List<MatchRule> rules, String ingress) {
+        if (rules == null) {
+            return null;
+        }
+        for (MatchRule rule : rules) {
+            if (rule.getIngress() != null && rule.getIngress().contains(ingress)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    public MatchRule findByDomain(String domain) {
+        List<MatchRule> matched = domainRules.get(domain);
+        return CollectionUtils.isNotEmpty(matched) ? matched.get(0) : null;
+    }
+
+    public MatchRule findByIngress(String ingress) {
+        List<MatchRule> matched = ingressRules.get(ingress);
+        return CollectionUtils.isNotEmpty(matched) ? matched.get(0) : null;
+    }
+
+    public Set<String> getDomains() {
+        return Collections.unmodifiableSet(domainRules.keySet());
+    }
+
+    public Set<String> getIngresses() {
+        return Collections.unmodifiableSet(ingressRules.keySet());
+    }
+
+    public MatchRule getOrAddDomainRule(String domain) {
+        MatchRule rule = findByDomain(domain);
+        if (rule == null) {
+            rule = MatchRule.forDomain(domain);
+            addedDomainRules.add(rule);
+            index(rule);
+            modified = true;
+        }
+        return rule;
+    }
+
+    public MatchRule getOrAddIngressRule(String ingress) {
+        MatchRule rule = findByIngress(ingress);
+        if (rule == null) {
+            rule = MatchRule.forIngress(ingress);
+            addedIngressRules.add(rule);
+            index(rule);
+            modified = true;
+        }
+        return rule;
+    }
+
+    /**
+     * Adds the given rule as a new one. It is placed by {@link #toMatchRules()} like the rules added for a single
+     * Ingress or domain, depending on whether it has any Ingress.
+     */
+    public void addRule(MatchRule rule) {
+        if (CollectionUtils.isNotEmpty(rule.getIngress())) {
+            addedIngressRules.add(rule);
+        } else {
+            addedDomainRules.add(rule);
+        }
+        index(rule);
+        modified = true;
+    }
+
+    public boolean removeDomain(String domain) {
+        List<MatchRule> matched = domainRules.remove(domain);
+        if (CollectionUtils.isEmpty(matched)) {
+            return false;
+        }
+        for (MatchRule rule : matched) {
+            List<String> domains = new ArrayList<>(rule.getDomain());
+            domains.remove(domain);
+            rule.setDomain(domains);
+            dropIfEmpty(rule);
+        }
+        modified = true;
+        return true;
+    }
+
+    public boolean removeIngress(String ingress) {
+        List<MatchRule> matched = ingressRules.remove(ingress);
+        if (CollectionUtils.isEmpty(matched)) {
+            return false;
+        }
+        for (MatchRule rule : matched) {
+            List<String> ingresses = new ArrayList<>(rule.getIngress());
+            ingresses.remove(ingress);
+            rule.setIngress(ingresses);
+            dropIfEmpty(rule);
+        }
+        modified = true;
+        return true;
+    }
+
+    public boolean isModified() {
+        return modified;
+    }
+
+    /**
+     * Serializes the view back to a rule list. Newly added Ingress rules come first, with the latest one at the top,
+     * so they take precedence over any domain rule. Newly added domain rules are merged into the existing ones by
+     * {@link #compareMatchRules(MatchRule, MatchRule)}. Existing rules keep their relative order.
+     */
+    public List<MatchRule> toMatchRules() {
+        List<MatchRule> result = new ArrayList<>(rules.size() + addedIngressRules.size() + addedDomainRules.size());
+        for (int i = addedIngressRules.size() - 1; i >= 0; --i) {
+            addIfRetained(result, addedIngressRules.get(i));
+        }
+        List<MatchRule> pendingDomainRules = new ArrayList<>(addedDomainRules);
+        pendingDomainRules.sort(MatchRuleIndex::compareMatchRules);
+        int pendingIndex = 0;
+        for (MatchRule rule : rules) {
+            while (pendingIndex < pendingDomainRules.size()
+                && compareMatchRules(pendingDomainRules.get(pendingIndex), rule) < 0) {
+                addIfRetained(result, pendingDomainRules.get(pendingIndex++));
+            }
+            addIfRetained(result, rule);
+        }
+        while (pendingIndex < pendingDomainRules.size()) {
+            addIfRetained(result, pendingDomainRules.get(pendingIndex++));
+        }
+        return result;
+    }
+
+    private void addIfRetained(List<MatchRule> result, MatchRule rule) {
+        if (!droppedRules.contains(rule)) {
+            result.add(rule);
+        }
+    }
+
+    private void dropIfEmpty(MatchRule rule) {
+        if (CollectionUtils.isEmpty(rule.getDomain()) && CollectionUtils.isEmpty(rule.getIngress())) {
+            droppedRules.add(rule);
+        }
+    }
+
+    private void index(MatchRule rule) {
+        if (rule.getDomain() != null) {
+            for (String domain : rule.getDomain()) {
+                if (StringUtils.isNotEmpty(domain)) {
+                    domainRules.computeIfAbsent(domain, k -> new ArrayList<>(1)).add(rule);
+                }
+            }
+        }
+        if (rule.getIngress() != null) {
+            for (String ingress : rule.getIngress()) {
+                if (StringUtils.isNotEmpty(ingress)) {
+                    ingressRules.computeIfAbsent(ingress, k -> new ArrayList<>(1)).add(rule);
+                }
+            }
+        }
+    }
+
+    public static int compareMatchRules(MatchRule r1, MatchRule r2) {
+        boolean hasDomain1 = CollectionUtils.isNotEmpty(r1.getDomain());
+        boolean hasDomain2 = CollectionUtils.isNotEmpty(r2.getDomain());
+        boolean hasIngress1 = CollectionUtils.isNotEmpty(r1.getIngress());
+        boolean hasIngress2 = CollectionUtils.isNotEmpty(r2.getIngress());
+
+        boolean empty1 = !hasDomain1 && !hasIngress1;
+        boolean empty2 = !hasDomain2 && !hasIngress2;
+        if (empty1 && empty2) {
+            return 0;
+        }
+        if (empty1 != empty2) {
+            // One of them is empty. The non-empty one comes first.
+            return empty1 ? 1 : -1;
+        }
+
+        // One contains some Ingresses, but the other one doesn't.
+        // The one with Ingresses comes first since we need to match any Ingress rules before all the domain
+        // rules.
+        if (hasIngress1 != hasIngress2) {
+            return hasIngress1 ? -1 : 1;
+        }
+
+        if (!hasIngress1) {
+            // None of them contains Ingress, so both of them contain domains.
+            return compareStringLists(r1.getDomain(), r2.getDomain());
+        }
+
+        // One contains some domains as well, but the other one doesn't.
+        // The one without any domain comes first since we need to match any Ingress rules before all the
+        // domain rules.
+        if (hasDomain1 != hasDomain2) {
+            return hasDomain1 ? 1 : -1;
+        }
+
+        int ret = compareStringLists(r1.getIngress(), r2.getIngress());
+        if (ret != 0) {
+            return ret;
+        }
+        return hasDomain1 ? compareStringLists(r1.getDomain(), r2.getDomain()) : 0;
+    }
+
+    private static int compareStringLists(List<String> l1, List<String> l2) {
+        boolean empty1 = CollectionUtils.isEmpty(l1);
+        boolean empty2 = CollectionUtils.isEmpty(l2);
+        if (empty1 && empty2) {
+            return 0;
+        }
+        if (empty1 != empty2) {
+            // One of them is empty. The non-empty one comes first.
+            return empty1 ? 1 : -1;
+        }
+
+        for (int i = 0, n = Math.max(l1.size(), l2.size()); i < n; ++i) {
+            if (i >= l1.size()) {
+                return -1;
+            }
+            if (i >= l2.size()) {
+                return 1;
+            }
+            int ret = StringUtils.compare(l1.get(i), l2.get(i));
+            if (ret != 0) {
+                return ret;
+            }
+        }
+
+        return 0;
+    }
+}
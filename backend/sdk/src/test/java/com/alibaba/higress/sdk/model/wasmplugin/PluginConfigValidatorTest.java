@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2022-2024 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.higress.sdk.model.wasmplugin;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.alibaba.higress.sdk.exception.ValidationException;
+
+import io.swagger.v3.oas.models.media.ArraySchema;
+import io.swagger.v3.oas.models.media.BooleanSchema;
+import io.swagger.v3.oas.models.media.IntegerSchema;
+import io.swagger.v3.oas.models.media.ObjectSchema;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.media.StringSchema;
+
+public class PluginConfigValidatorTest {
+
+    @Test
+    public void validateAndCleanUpTestValidConfig() {
+        PluginConfigValidator validator = PluginConfigValidator.compile(buildSchema());
+
+        Map<String, Object> consumer = new HashMap<>();
+        consumer.put("name", "consumer-1");
+        consumer.put("credential", "secret");
+        consumer.put("comment", null);
+        Map<String, Object> config = new HashMap<>();
+        config.put("consumers", List.of(consumer));
+        config.put("global_auth", true);
+        config.put("timeout", 3000.0);
+        config.put("mode", "header");
+        config.put("unknown", "kept");
+
+        Map<String, Object> result = validator.validateAndCleanUp(config);
+        Assertions.assertEquals("kept", result.get("unknown"));
+        Map<?, ?> cleanedConsumer = (Map<?, ?>)((List<?>)result.get("consumers")).get(0);
+        Assertions.assertEquals(Map.of("name", "consumer-1", "credential", "secret"), cleanedConsumer);
+        Assertions.assertNull(validator.validateAndCleanUp(null));
+    }
+
+    @Test
+    public void validateAndCleanUpTestInvalidConfigs() {
+        PluginConfigValidator validator = PluginConfigValidator.compile(buildSchema());
+
+        assertInvalid(validator, Map.of("consumers", "consumer-1"), "consumers");
+        assertInvalid(validator, Map.of("consumers", List.of(Map.of("name", List.of("a")))), "consumers[0].name");
+        assertInvalid(validator, Map.of("global_auth", "yes"), "global_auth");
+        assertInvalid(validator, Map.of("timeout", 1.5), "timeout");
+        assertInvalid(validator, Map.of("timeout", 0), "timeout");
+        assertInvalid(validator, Map.of("mode", "cookie"), "mode");
+    }
+
+    @Test
+    public void validateAndCleanUpTestLargeList() {
+        PluginConfigValidator validator = PluginConfigValidator.compile(buildSchema());
+        List<Map<String, Object>> consumers = new ArrayList<>();
+        for (int i = 0; i < 10000; ++i) {
+            consumers.add(Map.of("name", "consumer-" + i, "credential", "credential-" + i));
+        }
+        Map<String, Object> result = validator.validateAndCleanUp(Map.of("consumers", consumers));
+        Assertions.assertEquals(consumers, result.get("consumers"));
+    }
+
+    private static void assertInvalid(PluginConfigValidator validator, Map<String, Object> config, String path) {
+        ValidationException ex =
+            Assertions.assertThrows(ValidationException.class, () -> validator.validateAndCleanUp(config));
+        Assertions.assertTrue(ex.getMessage().contains("\"" + path + "\""), ex.getMessage());
+    }
+
+    private static Schema<?> buildSchema() {
+        ObjectSchema consumer = new ObjectSchema();
+        consumer.addProperty("name", new StringSchema());
+        consumer.addProperty("credential", new StringSchema());
+        consumer.setAdditionalProperties(false);
+
+        ArraySchema consumers = new ArraySchema();
+        consumers.setItems(consumer);
+
+        IntegerSchema timeout = new IntegerSchema();
+        timeout.setMinimum(BigDecimal.ONE);
+
+        StringSchema mode = new StringSchema();
+        mode.setEnum(List.of("header", "query"));
+
+        ObjectSchema schema = new ObjectSchema();
+        schema.addProperty("consumers", consumers);
+        schema.addProperty("global_auth", new BooleanSchema());
+        schema.addProperty("timeout", timeout);
+        schema.addProperty("mode", mode);
+        return schema;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2022-2024 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.higress.sdk.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.alibaba.higress.sdk.model.wasmplugin.PluginConfigValidator;
+import com.alibaba.higress.sdk.model.wasmplugin.PluginSpec;
+
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.core.util.Yaml;
+import io.swagger.v3.oas.models.media.Schema;
+
+public class BuiltInPluginCatalogTest {
+
+    @Test
+    public void writeAndReadTestRoundTrip() throws Exception {
+        List<BuiltInPluginCatalog.Entry> compiled = BuiltInPluginCatalog.compile(getClass().getClassLoader());
+        Assertions.assertFalse(compiled.isEmpty());
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        BuiltInPluginCatalog.write(compiled, output);
+        List<BuiltInPluginCatalog.Entry> loaded =
+            BuiltInPluginCatalog.read(new ByteArrayInputStream(output.toByteArray()));
+
+        Assertions.assertEquals(compiled.size(), loaded.size());
+        for (int i = 0; i < compiled.size(); ++i) {
+            BuiltInPluginCatalog.Entry expected = compiled.get(i);
+            BuiltInPluginCatalog.Entry actual = loaded.get(i);
+            Assertions.assertEquals(expected.getName(), actual.getName());
+            Assertions.assertEquals(expected.getImageUrl(), actual.getImageUrl());
+            Assertions.assertArrayEquals(expected.getIcon(), actual.getIcon());
+            Assertions.assertEquals(expected.getReadmes().keySet(), actual.getReadmes().keySet());
+            Assertions.assertEquals(Json.mapper().writeValueAsString(expected.getPlugin()),
+                Json.mapper().writeValueAsString(actual.getPlugin()));
+        }
+
+        BuiltInPluginCatalog.Entry keyAuth =
+            loaded.stream().filter(e -> "key-auth".equals(e.getName())).findFirst().orElse(null);
+        Assertions.assertNotNull(keyAuth);
+        Assertions.assertNotNull(
+            keyAuth.getPlugin().getSpec().getConfigSchema().getOpenApiV3Schema().getExtensions().get("x-example-raw"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void compileTestConfigExamplesMatchSchemas() throws Exception {
+        for (BuiltInPluginCatalog.Entry entry : BuiltInPluginCatalog.compile(getClass().getClassLoader())) {
+            PluginSpec spec = entry.getPlugin().getSpec();
+            if (spec == null || spec.getConfigSchema() == null
+                || spec.getConfigSchema().getOpenApiV3Schema() == null) {
+                continue;
+            }
+            Schema<?> schema = spec.getConfigSchema().getOpenApiV3Schema();
+            Object example = schema.getExtensions() != null ? schema.getExtensions().get("x-example-raw") : null;
+            if (!(example instanceof String) || ((String)example).isEmpty()) {
+                continue;
+            }
+            Map<String, Object> config = Yaml.mapper().readValue((String)example, Map.class);
+            Assertions.assertDoesNotThrow(() -> PluginConfigValidator.compile(schema).validateAndCleanUp(config),
+                entry.getName());
+        }
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2022-2024 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.higress.sdk.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.alibaba.higress.sdk.exception.BusinessException;
+import com.alibaba.higress.sdk.exception.ResourceConflictException;
+import com.alibaba.higress.sdk.exception.ValidationException;
+import com.alibaba.higress.sdk.http.HttpStatus;
+import com.alibaba.higress.sdk.service.CustomResourceWriteQueue.Mutation;
+
+import io.kubernetes.client.openapi.ApiException;
+import io.kubernetes.client.openapi.models.V1ConfigMap;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+
+public class CustomResourceWriteQueueTest {
+
+    private final AtomicInteger reads = new AtomicInteger();
+    private final AtomicInteger writes = new AtomicInteger();
+    private final AtomicInteger conflictsToThrow = new AtomicInteger();
+    private final CountDownLatch readBlocked = new CountDownLatch(1);
+    private volatile CountDownLatch readGate;
+    private volatile V1ConfigMap stored;
+
+    private final CustomResourceWriteQueue<V1ConfigMap> queue =
+        new CustomResourceWriteQueue<>("ConfigMap", this::read, this::write, this::write, 200);
+
+    @Test
+    public void submitTestConcurrentMutationsCoalesced() throws Exception {
+        int callers = 5;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        CountDownLatch gate = new CountDownLatch(1);
+        readGate = gate;
+        results.add(submitAsync(executor, "key0"));
+        awaitQuietly(readBlocked);
+        // The others arrive while the first one is being written, and are written together afterwards.
+        for (int i = 1; i < callers; ++i) {
+            results.add(submitAsync(executor, "key" + i));
+        }
+        Thread.sleep(200);
+        gate.countDown();
+        for (int i = 0; i < callers; ++i) {
+            Assertions.assertEquals("key" + i, results.get(i).get());
+        }
+        executor.shutdown();
+        Assertions.assertEquals(callers, stored.getData().size());
+        Assertions.assertEquals(2, writes.get());
+        Assertions.assertEquals(2, reads.get());
+    }
+
+    @Test
+    public void submitTestSingleMutationNotDelayed() {
+        CustomResourceWriteQueue<V1ConfigMap> slowQueue =
+            new CustomResourceWriteQueue<>("ConfigMap", this::read, this::write, this::write, 60_000);
+        Assertions.assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            Assertions.assertEquals("key", slowQueue.submit("cm", Mutation.of(cm -> put(cm, "key"), cm -> "key")));
+        });
+    }
+
+    @Test
+    public void submitTestErrorDoesNotLeaveFollowersWaiting() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        CountDownLatch gate = new CountDownLatch(1);
+        readGate = gate;
+        CompletableFuture<String> first = submitAsync(executor, "first");
+        awaitQuietly(readBlocked);
+        CompletableFuture<String> good = submitAsync(executor, "good");
+        CompletableFuture<String> bad = CompletableFuture.supplyAsync(() -> queue.submit("cm", Mutation.of(cm -> {
+            throw new AssertionError("bad");
+        }, cm -> "unreachable")), executor);
+        Thread.sleep(200);
+        gate.countDown();
+
+        Assertions.assertEquals("first", first.get());
+        List<Class<?>> causes = new ArrayList<>();
+        for (CompletableFuture<String> future : List.of(good, bad)) {
+            ExecutionException e =
+                Assertions.assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+            causes.add(e.getCause().getClass());
+        }
+        // The leader gets the error, the follower a failure instead of hanging.
+        Assertions.assertTrue(causes.contains(AssertionError.class));
+        Assertions.assertTrue(causes.contains(BusinessException.class));
+        executor.shutdown();
+    }
+
+    @Test
+    public void submitTestFailedMutationOnlyFailsItsCaller() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch start = new CountDownLatch(1);
+        CompletableFuture<String> good = CompletableFuture.supplyAsync(() -> {
+            awaitQuietly(start);
+            return queue.submit("cm", Mutation.of(cm -> put(cm, "good"), cm -> cm.getData().get("good")));
+        }, executor);
+        CompletableFuture<String> bad = CompletableFuture.supplyAsync(() -> {
+            awaitQuietly(start);
+            return queue.submit("cm", Mutation.of(cm -> {
+                put(cm, "bad");
+                throw new ValidationException("bad");
+            }, cm -> "unreachable"));
+        }, executor);
+        start.countDown();
+        Assertions.assertEquals("good", good.get());
+        CompletionException e = Assertions.assertThrows(CompletionException.class, bad::join);
+        Assertions.assertInstanceOf(ValidationException.class, e.getCause());
+        Assertions.assertEquals(List.of("good"), new ArrayList<>(stored.getData().keySet()));
+        executor.shutdown();
+    }
+
+    @Test
+    public void submitTestConflictsRetried() {
+        stored = new V1ConfigMap().metadata(new V1ObjectMeta().name("cm")).data(new HashMap<>());
+        conflictsToThrow.set(2);
+        Assertions.assertEquals("v", queue.submit("cm", Mutation.of(cm -> put(cm, "k"), cm -> cm.getData().get("k"))));
+        Assertions.assertEquals(3, reads.get());
+
+        conflictsToThrow.set(3);
+        Assertions.assertThrows(ResourceConflictException.class,
+            () -> queue.submit("cm", Mutation.of(cm -> put(cm, "k2"), cm -> null)));
+    }
+
+    @Test
+    public void submitTestNothingWrittenWithoutChanges() {
+        Assertions.assertNull(queue.submit("cm", Mutation.of(cm -> null, cm -> cm)));
+        Assertions.assertEquals(0, writes.get());
+    }
+
+    private CompletableFuture<String> submitAsync(ExecutorService executor, String key) {
+        return CompletableFuture.supplyAsync(
+            () -> queue.submit("cm", Mutation.of(cm -> put(cm, key), cm -> cm.getData().get(key))), executor);
+    }
+
+    private V1ConfigMap read(String name) {
+        CountDownLatch gate = readGate;
+        if (gate != null) {
+            readGate = null;
+            readBlocked.countDown();
+            awaitQuietly(gate);
+        }
+        reads.incrementAndGet();
+        V1ConfigMap cm = stored;
+        if (cm == null) {
+            return null;
+        }
+        return new V1ConfigMap().metadata(cm.getMetadata()).data(new HashMap<>(cm.getData()));
+    }
+
+    private V1ConfigMap write(V1ConfigMap cm) throws ApiException {
+        if (conflictsToThrow.getAndDecrement() > 0) {
+            throw new ApiException(HttpStatus.CONFLICT, "Conflict");
+        }
+        writes.incrementAndGet();
+        stored = cm;
+        return cm;
+    }
+
+    private static V1ConfigMap put(V1ConfigMap cm, String key) {
+        if (cm == null) {
+            cm = new V1ConfigMap().metadata(new V1ObjectMeta().name("cm")).data(new HashMap<>());
+        }
+        cm.getData().put(key, key.equals("k") ? "v" : key);
+        return cm;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2022-2024 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.higress.sdk.service;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class EndpointSetTest {
+
+    @Test
+    public void ofTestSortedAndDeduplicated() {
+        EndpointSet endpoints = EndpointSet.of(Arrays.asList("10.0.0.2", "www.example.com", "2001:db8::1", "10.0.0.2",
+            "192.168.1.1", null, "", "10.0.0.10", "2001:DB8:0:0:0:0:0:1", "api.example.com", "::1"));
+        Assertions.assertEquals(List.of("10.0.0.2", "10.0.0.10", "192.168.1.1", "::1", "2001:db8::1",
+            "api.example.com", "www.example.com"), endpoints);
+        Assertions.assertEquals(7, endpoints.size());
+        Assertions.assertEquals("::1", endpoints.get(3));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> endpoints.get(7));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> endpoints.get(-1));
+    }
+
+    @Test
+    public void equalsTestSameAddressesInDifferentOrder() {
+        EndpointSet a = EndpointSet.of(Arrays.asList("10.0.0.1", "fe80::1", "example.com"));
+        EndpointSet b = EndpointSet.of(Arrays.asList("example.com", "fe80::1", "10.0.0.1", "10.0.0.1"));
+        Assertions.assertEquals(a, b);
+        Assertions.assertEquals(a.hashCode(), b.hashCode());
+        Assertions.assertEquals(List.of("10.0.0.1", "fe80::1", "example.com"), a);
+        Assertions.assertNotEquals(a, EndpointSet.of(Collections.singletonList("10.0.0.1")));
+        Assertions.assertTrue(EndpointSet.of(Collections.emptyList()).isEmpty());
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) 2022-2024 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.higress.sdk.service;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.alibaba.higress.sdk.exception.ValidationException;
+import com.alibaba.higress.sdk.model.Route;
+import com.alibaba.higress.sdk.model.RoutePageQuery;
+import com.alibaba.higress.sdk.model.SortOrder;
+import com.alibaba.higress.sdk.model.route.KeyedRoutePredicate;
+import com.alibaba.higress.sdk.model.route.RoutePredicate;
+import com.alibaba.higress.sdk.model.route.RoutePredicateTypeEnum;
+import com.alibaba.higress.sdk.model.route.RouteSortKey;
+import com.alibaba.higress.sdk.model.route.UpstreamService;
+import com.alibaba.higress.sdk.service.kubernetes.KubernetesClientService;
+import com.alibaba.higress.sdk.service.kubernetes.KubernetesModelConverter;
+
+import io.kubernetes.client.openapi.models.V1Ingress;
+import io.kubernetes.client.openapi.models.V1IngressList;
+import io.kubernetes.client.openapi.models.V1ListMeta;
+
+public class RouteIndexTest {
+
+    private KubernetesClientService kubernetesClientService;
+    private KubernetesModelConverter converter;
+    private RouteIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        kubernetesClientService = mock(KubernetesClientService.class);
+        converter = new KubernetesModelConverter(mock(KubernetesClientService.class));
+        index = new RouteIndex(kubernetesClientService, converter);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        index.close();
+    }
+
+    @Test
+    public void queryTestFilters() {
+        List<V1Ingress> ingresses = new ArrayList<>();
+        ingresses.add(
+            buildIngress("route-a", "/api/users", "user.default.svc.cluster.local", List.of("GET"), "X-Tenant"));
+        ingresses.add(buildIngress("route-b", "/api/orders", "order.default.svc.cluster.local", List.of("POST"), null));
+        ingresses.add(buildIngress("route-c", "/static", "user.default.svc.cluster.local", null, null));
+        index.sync(ingresses, converter::ingress2Route);
+
+        RoutePageQuery query = new RoutePageQuery();
+        query.setPathPrefix("/api");
+        Assertions.assertEquals(List.of("route-a", "route-b"), queryNames(query));
+
+        query = new RoutePageQuery();
+        query.setServiceName("user.default.svc.cluster.local");
+        query.setMethod("get");
+        Assertions.assertEquals(List.of("route-a", "route-c"), queryNames(query));
+
+        query = new RoutePageQuery();
+        query.setHeaderKey("x-tenant");
+        Assertions.assertEquals(List.of("route-a"), queryNames(query));
+
+        query = new RoutePageQuery();
+        query.setPathPattern("ord.rs$");
+        query.setNameContains("ROUTE");
+        Assertions.assertEquals(List.of("route-b"), queryNames(query));
+
+        query = new RoutePageQuery();
+        query.setSortBy(RouteSortKey.PATH);
+        query.setSortOrder(SortOrder.DESC);
+        Assertions.assertEquals(List.of("route-c", "route-a", "route-b"), queryNames(query));
+
+        Assertions.assertEquals(List.of("route-a", "route-b", "route-c"), queryNames(null));
+    }
+
+    @Test
+    public void syncTestOnlyChangedIngressesAreConverted() {
+        List<V1Ingress> ingresses = new ArrayList<>();
+        ingresses.add(buildIngress("route-a", "/a", "a.default.svc.cluster.local", null, null));
+        ingresses.add(buildIngress("route-b", "/b", "b.default.svc.cluster.local", null, null));
+        AtomicInteger conversions = new AtomicInteger();
+        index.sync(ingresses, ingress -> {
+            conversions.incrementAndGet();
+            return converter.ingress2Route(ingress);
+        });
+        Assertions.assertEquals(2, conversions.get());
+
+        V1Ingress updated = buildIngress("route-b", "/b2", "b.default.svc.cluster.local", null, null);
+        updated.getMetadata().setResourceVersion("2");
+        List<V1Ingress> newIngresses = List.of(updated);
+        index.sync(newIngresses, ingress -> {
+            conversions.incrementAndGet();
+            return converter.ingress2Route(ingress);
+        });
+        Assertions.assertEquals(3, conversions.get());
+
+        RoutePageQuery query = new RoutePageQuery();
+        query.setPathPrefix("/");
+        Assertions.assertEquals(List.of("route-b"), queryNames(query));
+        query.setPathPrefix("/b2");
+        Assertions.assertEquals(List.of("route-b"), queryNames(query));
+        query = new RoutePageQuery();
+        query.setServiceName("a.default.svc.cluster.local");
+        Assertions.assertTrue(queryNames(query).isEmpty());
+    }
+
+    @Test
+    public void getRouteNamesByServiceTestPortMatching() {
+        index.sync(List.of(buildIngress("route-a", "/a", "a.default.svc.cluster.local", null, null)),
+            converter::ingress2Route);
+
+        String service = "a.default.svc.cluster.local";
+        Assertions.assertEquals(Set.of("route-a"), index.getRouteNamesByService(service, null, null));
+        Assertions.assertEquals(Set.of("route-a"), index.getRouteNamesByService(service, 8080, null));
+        Assertions.assertTrue(index.getRouteNamesByService(service, 9090, null).isEmpty());
+        Assertions.assertEquals(0, index.countRoutesByService("b.default.svc.cluster.local", null, null));
+
+        RoutePageQuery query = new RoutePageQuery();
+        query.setServiceName(service);
+        query.setServicePort(9090);
+        Assertions.assertTrue(queryNames(query).isEmpty());
+    }
+
+    @Test
+    public void ensureLoadedTestListOnceThenWatch() throws Exception {
+        V1IngressList list = new V1IngressList();
+        list.setMetadata(new V1ListMeta().resourceVersion("5"));
+        list.setItems(List.of(buildIngress("route-a", "/a", "a.default.svc.cluster.local", null, null)));
+        when(kubernetesClientService.listIngressForWatch()).thenReturn(list);
+
+        Assertions.assertTrue(index.ensureLoaded());
+        Assertions.assertTrue(index.ensureLoaded());
+        Assertions.assertEquals(List.of("route-a"), queryNames(null));
+        verify(kubernetesClientService, times(1)).listIngressForWatch();
+        verify(kubernetesClientService, timeout(1000)).watchIngress(eq("5"), anyInt());
+    }
+
+    @Test
+    public void onChangedTestWatchEvents() {
+        index.onReload(List.of(buildIngress("route-a", "/a", "a.default.svc.cluster.local", null, null)));
+
+        V1Ingress added = buildIngress("route-b", "/b", "b.default.svc.cluster.local", null, null);
+        index.onChanged(added);
+        Assertions.assertEquals(List.of("route-a", "route-b"), queryNames(null));
+
+        V1Ingress modified = buildIngress("route-b", "/b2", "b.default.svc.cluster.local", null, null);
+        modified.getMetadata().setResourceVersion("3");
+        index.onChanged(modified);
+        V1Ingress stale = buildIngress("route-b", "/b1", "b.default.svc.cluster.local", null, null);
+        stale.getMetadata().setResourceVersion("2");
+        index.onChanged(stale);
+        RoutePageQuery query = new RoutePageQuery();
+        query.setPathPrefix("/b2");
+        Assertions.assertEquals(List.of("route-b"), queryNames(query));
+
+        index.onDeleted(modified);
+        Assertions.assertEquals(List.of("route-a"), queryNames(null));
+    }
+
+    @Test
+    public void copyTestIndexNotAffected() {
+        index.onReload(List.of(buildIngress("route-a", "/a", "a.default.svc.cluster.local", null, null)));
+
+        Route copy = RouteIndex.copy(index.query(null).get(0));
+        copy.setName("changed");
+        copy.setPath(new RoutePredicate(RoutePredicateTypeEnum.PRE.toString(), "/changed", true));
+
+        Assertions.assertEquals(List.of("route-a"), queryNames(null));
+        Assertions.assertEquals("/a", index.query(null).get(0).getPath().getMatchValue());
+    }
+
+    @Test
+    public void countRoutesByServiceTestVersionMatching() {
+        String service = "a.default.svc.cluster.local";
+        List<V1Ingress> ingresses = List.of(buildIngress("route-v1", "/v1", service, null, null),
+            buildIngress("route-v2", "/v2", service, null, null), buildIngress("route-any", "/any", service, null, null));
+        index.sync(ingresses, ingress -> {
+            Route route = converter.ingress2Route(ingress);
+            if (!route.getName().endsWith("any")) {
+                route.getServices().get(0).setVersion(route.getName().substring("route-".length()));
+            }
+            return route;
+        });
+
+        Assertions.assertEquals(3, index.countRoutesByService(service, 8080, null));
+        Assertions.assertEquals(2, index.countRoutesByService(service, 8080, "v1"));
+        Assertions.assertEquals(Set.of("route-v2", "route-any"), index.getRouteNamesByService(service, null, "v2"));
+    }
+
+    @Test
+    public void queryTestInvalidPathPattern() {
+        RoutePageQuery query = new RoutePageQuery();
+        query.setPathPattern("[");
+        Assertions.assertThrows(ValidationException.class, () -> index.query(query));
+    }
+
+    private List<String> queryNames(RoutePageQuery query) {
+        return index.query(query).stream().map(Route::getName).toList();
+    }
+
+    private V1Ingress buildIngress(String name, String path, String service, List<String> methods, String headerKey) {
+        Route route = new Route();
+        route.setName(name);
+        route.setPath(new RoutePredicate(RoutePredicateTypeEnum.PRE.toString(), path, true));
+        route.setServices(List.of(new UpstreamService(service, 8080, null, null)));
+        route.setMethods(methods);
+        if (headerKey != null) {
+            KeyedRoutePredicate header = new KeyedRoutePredicate(headerKey);
+            header.setMatchType(RoutePredicateTypeEnum.EQUAL.toString());
+            header.setMatchValue("value");
+            route.setHeaders(List.of(header));
+        }
+        V1Ingress ingress = converter.route2Ingress(route);
+        ingress.getMetadata().setResourceVersion("1");
+        return ingress;
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2022-2024 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.higress.sdk.service;
+
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.alibaba.higress.sdk.exception.BusinessException;
+import com.alibaba.higress.sdk.model.WasmPluginInstanceScope;
+import com.alibaba.higress.sdk.service.kubernetes.KubernetesClientService;
+import com.alibaba.higress.sdk.service.kubernetes.KubernetesModelConverter;
+
+import io.kubernetes.client.openapi.ApiException;
+
+public class RouteServiceTest {
+
+    private KubernetesClientService kubernetesClientService;
+    private WasmPluginInstanceService wasmPluginInstanceService;
+    private RouteService service;
+
+    @BeforeEach
+    public void setUp() {
+        kubernetesClientService = mock(KubernetesClientService.class);
+        wasmPluginInstanceService = mock(WasmPluginInstanceService.class);
+        KubernetesModelConverter converter = new KubernetesModelConverter(kubernetesClientService);
+        service = new RouteServiceImpl(kubernetesClientService, converter, wasmPluginInstanceService,
+            new RouteIndex(kubernetesClientService, converter));
+    }
+
+    @Test
+    public void batchDeleteTestCleanUpDeletedRoutes() throws Exception {
+        service.batchDelete(List.of("route-a", "route-b"));
+
+        verify(kubernetesClientService).deleteIngress("route-a");
+        verify(kubernetesClientService).deleteIngress("route-b");
+        verify(wasmPluginInstanceService).batchDeleteAll(WasmPluginInstanceScope.ROUTE, List.of("route-a", "route-b"));
+    }
+
+    @Test
+    public void batchDeleteTestCleanupFailureSuppressed() throws Exception {
+        doThrow(new ApiException(500, "boom")).when(kubernetesClientService).deleteIngress("route-b");
+        IllegalStateException cleanupException = new IllegalStateException("cleanup");
+        doThrow(cleanupException).when(wasmPluginInstanceService).batchDeleteAll(eq(WasmPluginInstanceScope.ROUTE),
+            eq(List.of("route-a")));
+
+        BusinessException e = Assertions.assertThrows(BusinessException.class,
+            () -> service.batchDelete(List.of("route-a", "route-b", "route-c")));
+
+        Assertions.assertTrue(e.getMessage().contains("route-b"));
+        Assertions.assertArrayEquals(new Throwable[] {cleanupException}, e.getSuppressed());
+        verify(kubernetesClientService, never()).deleteIngress("route-c");
+    }
+}
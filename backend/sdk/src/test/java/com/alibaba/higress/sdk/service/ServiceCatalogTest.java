@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2022-2024 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.higress.sdk.service;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.alibaba.higress.sdk.model.Service;
+import com.alibaba.higress.sdk.model.ServicePageQuery;
+import com.alibaba.higress.sdk.model.service.ServiceChangeEvent;
+import com.alibaba.higress.sdk.service.kubernetes.KubernetesClientService;
+import com.alibaba.higress.sdk.service.kubernetes.model.IstioEndpoint;
+import com.alibaba.higress.sdk.service.kubernetes.model.IstioEndpointShard;
+import com.alibaba.higress.sdk.service.kubernetes.model.Port;
+import com.alibaba.higress.sdk.service.kubernetes.model.RegistryzService;
+import com.alibaba.higress.sdk.service.kubernetes.model.RegistryzServiceAttributes;
+
+public class ServiceCatalogTest {
+
+    private KubernetesClientService kubernetesClientService;
+    private ServiceCatalog catalog;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        kubernetesClientService = mock(KubernetesClientService.class);
+        when(kubernetesClientService.gatewayServiceEndpoint()).thenReturn(Collections.emptyMap());
+        catalog = new ServiceCatalog(kubernetesClientService);
+    }
+
+    @Test
+    public void searchTestSortedAndFiltered() throws Exception {
+        List<RegistryzService> services = new ArrayList<>();
+        services.add(buildService("user.default.svc.cluster.local", "default", 8080, 80));
+        services.add(buildService("order.default.svc.cluster.local", "default", 8080));
+        services.add(buildService("user.sandbox.svc.cluster.local", "sandbox", 8080));
+        services.add(buildService("coredns.kube-system.svc.cluster.local", "kube-system", 53));
+        when(kubernetesClientService.isNamespaceProtected("kube-system")).thenReturn(true);
+        when(kubernetesClientService.gatewayServiceList()).thenReturn(services);
+
+        Assertions.assertEquals(List.of("default/order.default.svc.cluster.local:8080",
+            "default/user.default.svc.cluster.local:80", "default/user.default.svc.cluster.local:8080",
+            "sandbox/user.sandbox.svc.cluster.local:8080"), keys(catalog.search(null)));
+
+        ServicePageQuery query = new ServicePageQuery();
+        query.setNamespace("default");
+        query.setNameContains("USER");
+        Assertions.assertEquals(
+            List.of("default/user.default.svc.cluster.local:80", "default/user.default.svc.cluster.local:8080"),
+            keys(catalog.search(query)));
+
+        query.setNamespace("missing");
+        Assertions.assertTrue(catalog.search(query).isEmpty());
+
+        // Served from the snapshot without asking the controller again.
+        verify(kubernetesClientService, times(1)).gatewayServiceList();
+    }
+
+    @Test
+    public void closeTestSearchStillServed() throws Exception {
+        when(kubernetesClientService.gatewayServiceList())
+            .thenReturn(List.of(buildService("a.default.svc.cluster.local", "default", 80)));
+        Assertions.assertEquals(1, catalog.search(null).size());
+
+        catalog.close();
+        catalog.close();
+        Assertions.assertTrue(catalog.isClosed());
+        Assertions.assertEquals(1, catalog.search(null).size());
+    }
+
+    @Test
+    public void refreshTestChangesArePublished() throws Exception {
+        List<ServiceChangeEvent> events = new ArrayList<>();
+        catalog.addChangeListener(events::add);
+
+        when(kubernetesClientService.gatewayServiceList())
+            .thenReturn(List.of(buildService("a.default.svc.cluster.local", "default", 80),
+                buildService("b.default.svc.cluster.local", "default", 80)));
+        catalog.refresh();
+        Assertions.assertEquals(1, events.size());
+        Assertions.assertEquals(2, events.get(0).getAdded().size());
+
+        catalog.refresh();
+        Assertions.assertEquals(1, events.size());
+
+        when(kubernetesClientService.gatewayServiceList())
+            .thenReturn(List.of(buildService("b.default.svc.cluster.local", "default", 80),
+                buildService("c.default.svc.cluster.local", "default", 80)));
+        catalog.refresh();
+        Assertions.assertEquals(2, events.size());
+        ServiceChangeEvent event = events.get(1);
+        Assertions.assertEquals(List.of("default/c.default.svc.cluster.local:80"), keys(event.getAdded()));
+        Assertions.assertEquals(List.of("default/a.default.svc.cluster.local:80"), keys(event.getRemoved()));
+        Assertions.assertTrue(event.getUpdated().isEmpty());
+    }
+
+    @Test
+    public void refreshTestEndpointsSummarized() throws Exception {
+        when(kubernetesClientService.gatewayServiceList())
+            .thenReturn(List.of(buildService("big.default.svc.cluster.local", "default", 80)));
+        List<IstioEndpoint> shard1 = new ArrayList<>();
+        List<IstioEndpoint> shard2 = new ArrayList<>();
+        for (int i = 0; i < 30; ++i) {
+            (i % 2 == 0 ? shard1 : shard2).add(buildEndpoint("10.0.0." + i));
+        }
+        shard2.add(buildEndpoint("10.0.0.0"));
+        IstioEndpointShard endpointShard = new IstioEndpointShard();
+        endpointShard.setShards(Map.of("cluster1", shard1, "cluster2", shard2));
+        when(kubernetesClientService.gatewayServiceEndpoint())
+            .thenReturn(Map.of("big.default.svc.cluster.local", Map.of("default", endpointShard)));
+        List<ServiceChangeEvent> events = new ArrayList<>();
+        catalog.addChangeListener(events::add);
+        catalog.refresh();
+
+        Service service = catalog.search(null).get(0);
+        Assertions.assertEquals(30, service.getEndpointCount());
+        Assertions.assertEquals(10, service.getEndpoints().size());
+        Assertions.assertEquals("10.0.0.9", service.getEndpoints().get(9));
+        EndpointSet endpoints = catalog.getEndpoints("default", "big.default.svc.cluster.local");
+        Assertions.assertEquals(30, endpoints.size());
+        Assertions.assertEquals("10.0.0.29", endpoints.get(29));
+        Assertions.assertNull(catalog.getEndpoints("default", "missing.default.svc.cluster.local"));
+
+        // An endpoint beyond the summary still makes the service updated.
+        shard2.add(buildEndpoint("10.0.0.30"));
+        catalog.refresh();
+        Assertions.assertEquals(2, events.size());
+        Assertions.assertEquals(List.of("default/big.default.svc.cluster.local:80"), keys(events.get(1).getUpdated()));
+    }
+
+    private static IstioEndpoint buildEndpoint(String address) {
+        IstioEndpoint endpoint = new IstioEndpoint();
+        endpoint.setAddress(address);
+        return endpoint;
+    }
+
+    private static List<String> keys(List<Service> services) {
+        return services.stream().map(s -> s.getNamespace() + "/" + s.getName() + ":" + s.getPort()).toList();
+    }
+
+    private static RegistryzService buildService(String hostname, String namespace, Integer... ports) {
+        RegistryzService service = new RegistryzService();
+        service.setHostname(hostname);
+        RegistryzServiceAttributes attributes = new RegistryzServiceAttributes();
+        attributes.setNamespace(namespace);
+        service.setAttributes(attributes);
+        List<Port> portList = new ArrayList<>();
+        for (Integer number : ports) {
+            Port port = new Port();
+            port.setPort(number);
+            portList.add(port);
+        }
+        service.setPorts(portList);
+        return service;
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2022-2024 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.higress.sdk.service;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.alibaba.higress.sdk.model.CommonPageQuery;
+import com.alibaba.higress.sdk.model.PaginatedResult;
+import com.alibaba.higress.sdk.model.Service;
+import com.alibaba.higress.sdk.model.ServicePageQuery;
+
+public class ServiceServiceTest {
+
+    private ServiceCatalog catalog;
+    private ServiceServiceImpl service;
+
+    @BeforeEach
+    public void setUp() {
+        catalog = mock(ServiceCatalog.class);
+        service = new ServiceServiceImpl(catalog, mock(RouteIndex.class));
+    }
+
+    @Test
+    public void listTestCommonPageQuery() {
+        ServicePageQuery expectedQuery = new ServicePageQuery();
+        expectedQuery.setPageNum(2);
+        expectedQuery.setPageSize(1);
+        when(catalog.search(expectedQuery)).thenReturn(List.of(buildService("a"), buildService("b")));
+
+        PaginatedResult<Service> result = service.list(new CommonPageQuery(2, 1));
+
+        Assertions.assertEquals(2, result.getTotal());
+        Assertions.assertEquals(1, result.getData().size());
+        Assertions.assertEquals("b", result.getData().get(0).getName());
+    }
+
+    @Test
+    public void closeTestCatalogClosed() {
+        service.close();
+        verify(catalog).close();
+    }
+
+    private static Service buildService(String name) {
+        return new Service(name, "default", 80, null, List.of(), 0, null);
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2022-2024 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.higress.sdk.service;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.alibaba.higress.sdk.constant.KubernetesConstants;
+import com.alibaba.higress.sdk.model.PaginatedResult;
+import com.alibaba.higress.sdk.model.ServiceSource;
+import com.alibaba.higress.sdk.service.kubernetes.KubernetesClientService;
+import com.alibaba.higress.sdk.service.kubernetes.KubernetesModelConverter;
+import com.alibaba.higress.sdk.service.kubernetes.crd.mcp.V1McpBridge;
+import com.alibaba.higress.sdk.service.kubernetes.crd.mcp.V1RegistryConfig;
+
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import io.kubernetes.client.openapi.models.V1Secret;
+
+public class ServiceSourceServiceTest {
+
+    private KubernetesClientService kubernetesClientService;
+    private ServiceSourceServiceImpl service;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        kubernetesClientService = mock(KubernetesClientService.class);
+        KubernetesModelConverter kubernetesModelConverter = new KubernetesModelConverter(kubernetesClientService);
+        service = new ServiceSourceServiceImpl(kubernetesClientService, kubernetesModelConverter);
+
+        V1McpBridge mcpBridge = new V1McpBridge();
+        kubernetesModelConverter.initV1McpBridge(mcpBridge);
+        mcpBridge.getMetadata().setResourceVersion("1");
+        List<V1RegistryConfig> registries = mcpBridge.getSpec().getRegistries();
+        registries.add(buildRegistry("nacos-a", "nacos-a-auth"));
+        registries.add(buildRegistry("nacos-b", "nacos-b-auth"));
+        registries.add(buildRegistry("nacos-c", "manual-secret"));
+        registries.add(buildRegistry("nacos-d", null));
+        when(kubernetesClientService.readMcpBridge(V1McpBridge.DEFAULT_NAME)).thenReturn(mcpBridge);
+
+        List<V1Secret> labelledSecrets = new ArrayList<>();
+        labelledSecrets.add(buildSecret("nacos-a-auth", "user-a"));
+        labelledSecrets.add(buildSecret("nacos-b-auth", "user-b"));
+        labelledSecrets.add(buildSecret("unrelated", "user-x"));
+        when(kubernetesClientService.listSecretWithDefaultLabels(KubernetesConstants.SECRET_TYPE_TLS))
+            .thenReturn(labelledSecrets);
+        V1Secret manualSecret = buildSecret("manual-secret", "user-c");
+        when(kubernetesClientService.readSecret("manual-secret")).thenReturn(manualSecret);
+        V1Secret secretA = labelledSecrets.get(0);
+        when(kubernetesClientService.readSecret("nacos-a-auth")).thenReturn(secretA);
+    }
+
+    @Test
+    public void listTestSecretsAreLoadedInOneCall() throws Exception {
+        PaginatedResult<ServiceSource> result = service.list(null);
+
+        Assertions.assertEquals(4, result.getTotal());
+        Assertions.assertEquals("user-a", username(result.getData().get(0)));
+        Assertions.assertEquals("user-b", username(result.getData().get(1)));
+        Assertions.assertEquals("user-c", username(result.getData().get(2)));
+        Assertions.assertFalse(result.getData().get(3).getAuthN().getEnabled());
+        verify(kubernetesClientService, times(1)).listSecretWithDefaultLabels(KubernetesConstants.SECRET_TYPE_TLS);
+        verify(kubernetesClientService, times(1)).readSecret(anyString());
+        verify(kubernetesClientService, times(1)).readSecret("manual-secret");
+    }
+
+    @Test
+    public void queryTestSingleSecretIsRead() throws Exception {
+        ServiceSource source = service.query("nacos-a");
+
+        Assertions.assertEquals("user-a", username(source));
+        Assertions.assertEquals("1", source.getVersion());
+        verify(kubernetesClientService, never()).listSecretWithDefaultLabels(anyString());
+        verify(kubernetesClientService, times(1)).readSecret("nacos-a-auth");
+    }
+
+    @Test
+    public void listTestAuthPropertiesAreDetached() throws Exception {
+        ServiceSource source = service.list(null).getData().get(0);
+        Map<String, String> properties = source.getAuthN().getProperties();
+
+        // Callers may edit the properties, e.g. before saving the source again.
+        properties.put(V1McpBridge.REGISTRY_TYPE_NACOS_USERNAME, "edited");
+        Assertions.assertEquals("password", properties.get(V1McpBridge.REGISTRY_TYPE_NACOS_PASSWORD));
+        Assertions.assertEquals("user-a", username(service.list(null).getData().get(0)));
+    }
+
+    private static String username(ServiceSource source) {
+        Assertions.assertTrue(source.getAuthN().getEnabled());
+        return source.getAuthN().getProperties().get(V1McpBridge.REGISTRY_TYPE_NACOS_USERNAME);
+    }
+
+    private static V1RegistryConfig buildRegistry(String name, String authSecretName) {
+        V1RegistryConfig registry = new V1RegistryConfig();
+        registry.setName(name);
+        registry.setType(V1McpBridge.REGISTRY_TYPE_NACOS2);
+        registry.setDomain(name + ".example.com");
+        registry.setPort(8848);
+        registry.setAuthSecretName(authSecretName);
+        return registry;
+    }
+
+    private static V1Secret buildSecret(String name, String username) {
+        V1Secret secret = new V1Secret();
+        V1ObjectMeta metadata = new V1ObjectMeta();
+        metadata.setName(name);
+        secret.setMetadata(metadata);
+        secret.setData(Map.of(V1McpBridge.REGISTRY_TYPE_NACOS_USERNAME, username.getBytes(StandardCharsets.UTF_8),
+            V1McpBridge.REGISTRY_TYPE_NACOS_PASSWORD, "password".getBytes(StandardCharsets.UTF_8)));
+        return secret;
+    }
+}
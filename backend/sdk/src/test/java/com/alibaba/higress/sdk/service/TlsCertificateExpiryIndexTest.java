@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2022-2024 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.higress.sdk.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.alibaba.higress.sdk.constant.CommonKey;
+import com.alibaba.higress.sdk.constant.KubernetesConstants;
+import com.alibaba.higress.sdk.model.Domain;
+import com.alibaba.higress.sdk.model.TlsCertificate;
+import com.alibaba.higress.sdk.model.TlsCertificateExpiry;
+import com.alibaba.higress.sdk.service.kubernetes.KubernetesClientService;
+import com.alibaba.higress.sdk.service.kubernetes.KubernetesModelConverter;
+
+import io.kubernetes.client.openapi.models.V1ConfigMap;
+import io.kubernetes.client.openapi.models.V1ConfigMapList;
+import io.kubernetes.client.openapi.models.V1ListMeta;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import io.kubernetes.client.openapi.models.V1Secret;
+import io.kubernetes.client.openapi.models.V1SecretList;
+
+public class TlsCertificateExpiryIndexTest {
+
+    private final LocalDateTime now = LocalDateTime.now();
+    private final Map<String, LocalDateTime> validityEnds = new HashMap<>();
+    private final List<V1Secret> secrets = new ArrayList<>();
+    private final List<V1ConfigMap> configMaps = new ArrayList<>();
+    private KubernetesClientService kubernetesClientService;
+    private KubernetesModelConverter kubernetesModelConverter;
+    private TlsCertificateExpiryIndex index;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        kubernetesClientService = mock(KubernetesClientService.class);
+        when(kubernetesClientService.listSecretForWatch(KubernetesConstants.SECRET_TYPE_TLS))
+            .thenAnswer(invocation -> secretList());
+        when(kubernetesClientService.listConfigMapForWatch()).thenAnswer(invocation -> new V1ConfigMapList()
+            .items(new ArrayList<>(configMaps)).metadata(new V1ListMeta().resourceVersion("100")));
+        // Watches stay open until the index is closed. Events are passed to the handlers by the tests.
+        CountDownLatch closed = new CountDownLatch(1);
+        when(kubernetesClientService.watchSecretsOfType(anyString(), anyString(), anyInt())).thenAnswer(invocation -> {
+            closed.await();
+            return null;
+        });
+        when(kubernetesClientService.watchConfigMaps(anyString(), anyInt())).thenAnswer(invocation -> {
+            closed.await();
+            return null;
+        });
+        kubernetesModelConverter = spy(new KubernetesModelConverter(kubernetesClientService));
+        doAnswer(invocation -> {
+            V1Secret secret = invocation.getArgument(0);
+            TlsCertificate certificate = new TlsCertificate();
+            certificate.setName(secret.getMetadata().getName());
+            certificate.setVersion(secret.getMetadata().getResourceVersion());
+            certificate.setValidityEnd(validityEnds.get(certificate.getName()));
+            return certificate;
+        }).when(kubernetesModelConverter).secret2TlsCertificate(any());
+        index = new TlsCertificateExpiryIndex(kubernetesClientService, kubernetesModelConverter);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        index.close();
+    }
+
+    @Test
+    public void listTestSortedByExpiryWithBoundDomains() {
+        addSecret("late", "1", now.plusDays(60));
+        addSecret("soon", "1", now.plusDays(3));
+        addSecret("expired", "1", now.minusDays(1));
+        addSecret("broken", "1", null);
+        addDomain("b.example.com", "soon", Domain.EnableHttps.ON);
+        addDomain("a.example.com", "soon", Domain.EnableHttps.FORCE);
+        addDomain("c.example.com", "late", Domain.EnableHttps.OFF);
+
+        List<TlsCertificateExpiry> all = index.list(null);
+        Assertions.assertEquals(List.of("expired", "soon", "late"), names(all));
+        Assertions.assertEquals(List.of("a.example.com", "b.example.com"), all.get(1).getBoundDomains());
+        Assertions.assertTrue(all.get(2).getBoundDomains().isEmpty());
+
+        Assertions.assertEquals(List.of("expired", "soon"), names(index.list(now.plusDays(30))));
+        Assertions.assertEquals(List.of("expired"), names(index.list(now)));
+    }
+
+    @Test
+    public void listTestListOnceThenWatch() throws Exception {
+        addSecret("a", "1", now.plusDays(10));
+
+        Assertions.assertEquals(List.of("a"), names(index.list(null)));
+        Assertions.assertEquals(List.of("a"), names(index.list(null)));
+        verify(kubernetesClientService, times(1)).listSecretForWatch(KubernetesConstants.SECRET_TYPE_TLS);
+        verify(kubernetesClientService, times(1)).listConfigMapForWatch();
+        verify(kubernetesClientService, timeout(1000)).watchSecretsOfType(eq(KubernetesConstants.SECRET_TYPE_TLS),
+            eq("100"), anyInt());
+        verify(kubernetesClientService, timeout(1000)).watchConfigMaps(eq("100"), anyInt());
+    }
+
+    @Test
+    public void secretHandlerTestOnlyChangedSecretsParsed() {
+        addSecret("a", "1", now.plusDays(10));
+        addSecret("b", "1", now.plusDays(20));
+        index.list(null);
+        verify(kubernetesModelConverter, times(2)).secret2TlsCertificate(any());
+
+        validityEnds.put("b", now.plusDays(5));
+        index.secretHandler.onChanged(secret("b", "2"));
+        validityEnds.put("c", now.plusDays(7));
+        index.secretHandler.onChanged(secret("c", "1"));
+        index.secretHandler.onDeleted(secret("a", "3"));
+        // Events already applied are skipped.
+        index.secretHandler.onChanged(secret("c", "1"));
+        verify(kubernetesModelConverter, times(4)).secret2TlsCertificate(any());
+        Assertions.assertEquals(List.of("b", "c"), names(index.list(null)));
+
+        TlsCertificate renewed = new TlsCertificate();
+        renewed.setName("b");
+        renewed.setVersion("3");
+        renewed.setValidityEnd(now.plusDays(90));
+        index.update(renewed);
+        // The event of the save comes afterwards.
+        index.secretHandler.onChanged(secret("b", "3"));
+        verify(kubernetesModelConverter, times(4)).secret2TlsCertificate(any());
+        Assertions.assertEquals(List.of("c", "b"), names(index.list(null)));
+
+        index.remove("c");
+        Assertions.assertEquals(List.of("b"), names(index.list(null)));
+    }
+
+    @Test
+    public void secretHandlerTestChangesDuringListingNotReverted() throws Exception {
+        addSecret("a", "1", now.plusDays(10));
+        addSecret("b", "1", now.plusDays(20));
+
+        // The certificates are changed through the service while the secrets are being listed.
+        when(kubernetesClientService.listSecretForWatch(KubernetesConstants.SECRET_TYPE_TLS)).thenAnswer(invocation -> {
+            V1SecretList stale = secretList();
+            TlsCertificate renewed = new TlsCertificate();
+            renewed.setName("a");
+            renewed.setVersion("2");
+            renewed.setValidityEnd(now.plusDays(90));
+            index.update(renewed);
+            index.remove("b");
+            TlsCertificate added = new TlsCertificate();
+            added.setName("c");
+            added.setVersion("1");
+            added.setValidityEnd(now.plusDays(30));
+            index.update(added);
+            return stale;
+        });
+        Assertions.assertEquals(List.of("c", "a"), names(index.list(null)));
+
+        // Later listings see the changes in the API server.
+        secrets.clear();
+        addSecret("a", "2", now.plusDays(90));
+        addSecret("c", "1", now.plusDays(30));
+        index.secretHandler.onReload(secrets);
+        Assertions.assertEquals(List.of("c", "a"), names(index.list(null)));
+    }
+
+    @Test
+    public void domainConfigMapHandlerTestBindingsFollowChanges() {
+        addSecret("first", "1", now.plusDays(10));
+        addSecret("second", "1", now.plusDays(20));
+        addDomain("a.example.com", "first", Domain.EnableHttps.ON);
+        Assertions.assertEquals(List.of("a.example.com"), index.list(null).get(0).getBoundDomains());
+
+        V1ConfigMap moved = domain("a.example.com", "second", Domain.EnableHttps.ON);
+        moved.getMetadata().setResourceVersion("2");
+        index.domainConfigMapHandler.onChanged(moved);
+        index.domainConfigMapHandler.onChanged(domain("b.example.com", "second", Domain.EnableHttps.FORCE));
+        List<TlsCertificateExpiry> all = index.list(null);
+        Assertions.assertTrue(all.get(0).getBoundDomains().isEmpty());
+        Assertions.assertEquals(List.of("a.example.com", "b.example.com"), all.get(1).getBoundDomains());
+
+        index.domainConfigMapHandler.onDeleted(moved);
+        Assertions.assertEquals(List.of("b.example.com"), index.list(null).get(1).getBoundDomains());
+    }
+
+    private V1SecretList secretList() {
+        return new V1SecretList().items(new ArrayList<>(secrets)).metadata(new V1ListMeta().resourceVersion("100"));
+    }
+
+    private void addSecret(String name, String resourceVersion, LocalDateTime validityEnd) {
+        secrets.add(secret(name, resourceVersion));
+        validityEnds.put(name, validityEnd);
+    }
+
+    private void addDomain(String domainName, String certIdentifier, String enableHttps) {
+        configMaps.add(domain(domainName, certIdentifier, enableHttps));
+    }
+
+    private V1ConfigMap domain(String domainName, String certIdentifier, String enableHttps) {
+        V1ConfigMap configMap = new V1ConfigMap();
+        String name = kubernetesModelConverter.domainName2ConfigMapName(domainName);
+        configMap.setMetadata(new V1ObjectMeta().name(name).resourceVersion("1"));
+        configMap.setData(Map.of(CommonKey.DOMAIN, domainName, KubernetesConstants.K8S_CERT, certIdentifier,
+            KubernetesConstants.K8S_ENABLE_HTTPS, enableHttps));
+        return configMap;
+    }
+
+    private static V1Secret secret(String name, String resourceVersion) {
+        V1Secret secret = new V1Secret();
+        secret.setMetadata(new V1ObjectMeta().name(name).resourceVersion(resourceVersion));
+        return secret;
+    }
+
+    private static List<String> names(List<TlsCertificateExpiry> expiries) {
+        return expiries.stream().map(TlsCertificateExpiry::getName).toList();
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2022-2024 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.higress.sdk.service;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.alibaba.higress.sdk.constant.KubernetesConstants;
+import com.alibaba.higress.sdk.model.WasmPluginInstance;
+import com.alibaba.higress.sdk.model.WasmPluginInstanceScope;
+import com.alibaba.higress.sdk.service.kubernetes.KubernetesClientService;
+import com.alibaba.higress.sdk.service.kubernetes.KubernetesModelConverter;
+import com.alibaba.higress.sdk.service.kubernetes.crd.wasm.MatchRule;
+import com.alibaba.higress.sdk.service.kubernetes.crd.wasm.V1alpha1WasmPlugin;
+import com.alibaba.higress.sdk.service.kubernetes.crd.wasm.V1alpha1WasmPluginList;
+import com.alibaba.higress.sdk.service.kubernetes.crd.wasm.V1alpha1WasmPluginSpec;
+
+import io.kubernetes.client.openapi.models.V1ListMeta;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+
+public class WasmPluginInstanceIndexTest {
+
+    private KubernetesClientService kubernetesClientService;
+    private WasmPluginInstanceIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        kubernetesClientService = mock(KubernetesClientService.class);
+        index = new WasmPluginInstanceIndex(kubernetesClientService,
+            new KubernetesModelConverter(mock(KubernetesClientService.class)));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        index.close();
+    }
+
+    @Test
+    public void syncTestBothDirections() {
+        V1alpha1WasmPlugin keyAuth = buildCr("key-auth", "1", false, List.of("route-a", "route-b"), List.of());
+        V1alpha1WasmPlugin cors = buildCr("cors", "1", true, List.of("route-b"), List.of("www.example.com"));
+        index.sync(List.of(keyAuth, cors));
+
+        Assertions.assertEquals(List.of("key-auth"),
+            pluginNames(index.getInstancesByTarget(WasmPluginInstanceScope.GLOBAL, null)));
+        Assertions.assertEquals(List.of("cors", "key-auth"),
+            pluginNames(index.getInstancesByTarget(WasmPluginInstanceScope.ROUTE, "route-b")));
+        Assertions.assertEquals(List.of("cors"),
+            pluginNames(index.getInstancesByTarget(WasmPluginInstanceScope.DOMAIN, "www.example.com")));
+        List<WasmPluginInstance> keyAuthInstances = index.getInstancesByPlugin("key-auth");
+        Assertions.assertEquals(3, keyAuthInstances.size());
+        Assertions.assertEquals(List.of("route-a", "route-b"), keyAuthInstances.stream()
+            .filter(i -> i.getScope() == WasmPluginInstanceScope.ROUTE).map(WasmPluginInstance::getTarget).toList());
+
+        V1alpha1WasmPlugin updatedKeyAuth = buildCr("key-auth", "2", false, List.of("route-a"), List.of());
+        index.sync(List.of(updatedKeyAuth));
+
+        Assertions.assertEquals(List.of("key-auth"),
+            pluginNames(index.getInstancesByTarget(WasmPluginInstanceScope.ROUTE, "route-a")));
+        Assertions.assertTrue(index.getInstancesByTarget(WasmPluginInstanceScope.ROUTE, "route-b").isEmpty());
+        Assertions.assertTrue(index.getInstancesByPlugin("cors").isEmpty());
+    }
+
+    @Test
+    public void getInstancesByTargetTestCopiesHandedOut() {
+        index.sync(List.of(buildCr("key-auth", "1", false, List.of("route-a"), List.of())));
+
+        WasmPluginInstance instance = index.getInstancesByTarget(WasmPluginInstanceScope.ROUTE, "route-a").get(0);
+        instance.setEnabled(false);
+        instance.setTarget("route-b");
+
+        WasmPluginInstance indexed = index.getInstancesByTarget(WasmPluginInstanceScope.ROUTE, "route-a").get(0);
+        Assertions.assertTrue(indexed.getEnabled());
+        Assertions.assertEquals("route-a", indexed.getTarget());
+    }
+
+    @Test
+    public void putTestStaleVersionIgnored() {
+        index.put(buildCr("key-auth", "5", false, List.of("route-a"), List.of()));
+        index.put(buildCr("key-auth", "4", false, List.of("route-b"), List.of()));
+        Assertions.assertEquals(1, index.getInstancesByTarget(WasmPluginInstanceScope.ROUTE, "route-a").size());
+
+        index.onChanged(buildCr("key-auth", "6", false, List.of("route-b"), List.of()));
+        Assertions.assertTrue(index.getInstancesByTarget(WasmPluginInstanceScope.ROUTE, "route-a").isEmpty());
+        Assertions.assertEquals(1, index.getInstancesByTarget(WasmPluginInstanceScope.ROUTE, "route-b").size());
+
+        index.onDeleted(buildCr("key-auth", "7", false, List.of(), List.of()));
+        Assertions.assertTrue(index.getInstancesByPlugin("key-auth").isEmpty());
+    }
+
+    @Test
+    public void getCrNamesToRemoveFromTestUnconfiguredRulesIncluded() {
+        V1alpha1WasmPlugin keyAuth = buildCr("key-auth", "1", false, List.of("route-a"), List.of());
+        // Disabled without any configuration, so there is no instance on it, but the rule is still there.
+        keyAuth.getSpec().getMatchRules().add(new MatchRule(true, null, null, new ArrayList<>(List.of("route-b"))));
+        V1alpha1WasmPlugin cors = buildCr("cors", "1", true, List.of("route-b"), List.of());
+        index.sync(List.of(keyAuth, cors));
+
+        Assertions.assertTrue(index.getInstancesByPlugin("key-auth").stream()
+            .noneMatch(i -> "route-b".equals(i.getTarget())));
+        Assertions.assertEquals(List.of("cors-1.0.0", "key-auth-1.0.0"),
+            index.getCrNamesToRemoveFrom(null, WasmPluginInstanceScope.ROUTE, List.of("route-b")));
+        Assertions.assertEquals(List.of("key-auth-1.0.0"),
+            index.getCrNamesToRemoveFrom("key-auth", WasmPluginInstanceScope.ROUTE, List.of("route-b")));
+        Assertions.assertTrue(
+            index.getCrNamesToRemoveFrom(null, WasmPluginInstanceScope.DOMAIN, List.of("route-b")).isEmpty());
+        // Nothing is changed in the indexed CRs.
+        Assertions.assertEquals(2, keyAuth.getSpec().getMatchRules().size());
+    }
+
+    @Test
+    public void ensureLoadedTestListOnceThenWatch() throws Exception {
+        V1alpha1WasmPluginList list = new V1alpha1WasmPluginList();
+        list.setItems(new ArrayList<>(List.of(buildCr("key-auth", "3", false, List.of("route-a"), List.of()))));
+        list.setMetadata(new V1ListMeta().resourceVersion("5"));
+        when(kubernetesClientService.listWasmPluginForWatch()).thenReturn(list);
+
+        index.ensureLoaded();
+        index.ensureLoaded();
+
+        Assertions.assertEquals(1, index.getInstancesByTarget(WasmPluginInstanceScope.ROUTE, "route-a").size());
+        verify(kubernetesClientService, times(1)).listWasmPluginForWatch();
+        verify(kubernetesClientService, timeout(1000)).watchWasmPlugin(eq("5"), anyInt());
+    }
+
+    private static List<String> pluginNames(List<WasmPluginInstance> instances) {
+        return instances.stream().map(WasmPluginInstance::getPluginName).toList();
+    }
+
+    private static V1alpha1WasmPlugin buildCr(String pluginName, String resourceVersion, boolean globalDisabled,
+        List<String> routes, List<String> domains) {
+        V1alpha1WasmPlugin cr = new V1alpha1WasmPlugin();
+        V1ObjectMeta metadata = new V1ObjectMeta();
+        metadata.setName(pluginName + "-1.0.0");
+        metadata.setResourceVersion(resourceVersion);
+        Map<String, String> labels = new HashMap<>();
+        labels.put(KubernetesConstants.Label.WASM_PLUGIN_NAME_KEY, pluginName);
+        labels.put(KubernetesConstants.Label.WASM_PLUGIN_VERSION_KEY, "1.0.0");
+        metadata.setLabels(labels);
+        cr.setMetadata(metadata);
+
+        V1alpha1WasmPluginSpec spec = new V1alpha1WasmPluginSpec();
+        spec.setDefaultConfigDisable(globalDisabled);
+        List<MatchRule> rules = new ArrayList<>();
+        routes.forEach(r -> rules.add(new MatchRule(false, Map.of("key", "value"), null, List.of(r))));
+        domains.forEach(d -> rules.add(new MatchRule(false, Map.of("key", "value"), List.of(d), null)));
+        spec.setMatchRules(rules);
+        cr.setSpec(spec);
+        return cr;
+    }
+}
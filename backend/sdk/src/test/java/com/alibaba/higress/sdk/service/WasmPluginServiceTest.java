@@ -15,6 +15,7 @@ package com.alibaba.higress.sdk.service;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 
 import com.alibaba.higress.sdk.service.kubernetes.KubernetesModelConverter;
@@ -25,8 +26,13 @@ import org.junit.jupiter.api.Test;
 
 import com.alibaba.higress.sdk.model.PaginatedResult;
 import com.alibaba.higress.sdk.model.WasmPlugin;
+import com.alibaba.higress.sdk.model.WasmPluginConfig;
+import com.alibaba.higress.sdk.model.wasmplugin.Language;
+import com.alibaba.higress.sdk.model.wasmplugin.PluginAsset;
 import com.alibaba.higress.sdk.service.kubernetes.KubernetesClientService;
 
+import io.swagger.v3.oas.models.media.Schema;
+
 public class WasmPluginServiceTest {
 
     private WasmPluginServiceImpl service;
@@ -51,4 +57,43 @@ public class WasmPluginServiceTest {
         System.out.println(plugins.getTotal());
         Assertions.assertTrue(plugins.getTotal() > 0);
     }
+
+    @Test
+    public void queryConfigTestLocalizedConfigShared() {
+        WasmPluginConfig en = service.queryConfig("key-auth", Language.EN_US.getCode());
+        WasmPluginConfig zh = service.queryConfig("key-auth", Language.ZH_CN.getCode());
+        Assertions.assertNotNull(en.getSchema());
+        // Built once per language, not per call.
+        Assertions.assertSame(en, service.queryConfig("key-auth", Language.EN_US.getCode()));
+        Assertions.assertNotSame(en, zh);
+
+        Schema<?> enProperty = (Schema<?>)en.getSchema().getProperties().get("global_auth");
+        Schema<?> zhProperty = (Schema<?>)zh.getSchema().getProperties().get("global_auth");
+        Assertions.assertEquals("Enable Global Auth", enProperty.getTitle());
+        Assertions.assertNotEquals(enProperty.getTitle(), zhProperty.getTitle());
+    }
+
+    @Test
+    public void queryReadmeAssetTestContentNotShared() {
+        WasmPlugin plugin = service.query("key-auth", null);
+        PluginAsset readme = service.queryReadmeAsset("key-auth", plugin.getPluginVersion(), null);
+        Assertions.assertNotNull(readme);
+        Assertions.assertNull(service.queryReadmeAsset("key-auth", plugin.getPluginVersion() + "-unknown", null));
+
+        byte[] content = readme.getContent();
+        content[0] = (byte)~content[0];
+        Assertions.assertNotEquals(content[0], readme.getContent()[0]);
+        Assertions.assertTrue(readme.asByteBuffer().isReadOnly());
+        Assertions.assertEquals(service.queryReadme("key-auth", null),
+            StandardCharsets.UTF_8.decode(readme.asByteBuffer()).toString());
+    }
+
+    @Test
+    public void queryConfigTestLanguageNormalized() {
+        WasmPluginConfig defaultConfig = service.queryConfig("key-auth", null);
+        Assertions.assertEquals(defaultConfig, service.queryConfig("key-auth", ""));
+        Assertions.assertEquals(defaultConfig, service.queryConfig("key-auth", " "));
+        Assertions.assertEquals(service.queryConfig("key-auth", Language.EN_US.getCode()),
+            service.queryConfig("key-auth", " " + Language.EN_US.getCode() + " "));
+    }
 }
@@ -1101,6 +1101,33 @@ public class KubernetesModelConverterTest {
         Assertions.assertEquals(expected, dstPlugin.getSpec().getMatchRules());
     }
 
+    @Test
+    void mergeWasmPluginSpecTestExistingRuleOrderKept() {
+        V1alpha1WasmPlugin srcPlugin = new V1alpha1WasmPlugin();
+        V1alpha1WasmPluginSpec srcSpec = new V1alpha1WasmPluginSpec();
+        MatchRule existingB = MatchRule.forDomain("b.higress.cn");
+        MatchRule existingA = MatchRule.forDomain("a.higress.cn");
+        existingA.setConfig(Map.of("key", "value"));
+        srcSpec.setMatchRules(new ArrayList<>(List.of(existingB, existingA)));
+        srcPlugin.setSpec(srcSpec);
+
+        V1alpha1WasmPlugin dstPlugin = new V1alpha1WasmPlugin();
+        V1alpha1WasmPluginSpec dstSpec = new V1alpha1WasmPluginSpec();
+        MatchRule addedRoute1 = MatchRule.forIngress("route-1");
+        MatchRule addedRoute2 = MatchRule.forIngress("route-2");
+        MatchRule addedC = MatchRule.forDomain("c.higress.cn");
+        dstSpec.setMatchRules(
+            new ArrayList<>(List.of(addedRoute1, addedC, MatchRule.forDomain("a.higress.cn"), addedRoute2)));
+        dstPlugin.setSpec(dstSpec);
+
+        converter.mergeWasmPluginSpec(srcPlugin, dstPlugin);
+
+        // Existing rules are not sorted again. New Ingress rules go on top in their own order.
+        Assertions.assertEquals(List.of(addedRoute1, addedRoute2, existingB, existingA, addedC),
+            dstPlugin.getSpec().getMatchRules());
+        Assertions.assertSame(existingA, dstPlugin.getSpec().getMatchRules().get(3));
+    }
+
     @Test
     void setWasmPluginInstanceToCrTestGlobalScopeConfigured() {
         V1alpha1WasmPlugin plugin = new V1alpha1WasmPlugin();
@@ -1320,6 +1347,130 @@ public class KubernetesModelConverterTest {
         Assertions.assertEquals(1, cr.getSpec().getMatchRules().size());
     }
 
+    @Test
+    public void setWasmPluginInstanceToCrTestNewRulesShouldKeepMatchRuleOrder() {
+        V1alpha1WasmPlugin cr = new V1alpha1WasmPlugin();
+        V1alpha1WasmPluginSpec spec = new V1alpha1WasmPluginSpec();
+        spec.setMatchRules(new ArrayList<>(List.of(MatchRule.forIngress("route-b"), MatchRule.forIngress("route-a"),
+            MatchRule.forDomain("a.higress.cn"), MatchRule.forDomain("c.higress.cn"))));
+        cr.setSpec(spec);
+
+        converter.setWasmPluginInstanceToCr(cr, WasmPluginInstance.builder().scope(WasmPluginInstanceScope.DOMAIN)
+            .target("b.higress.cn").configurations(Map.of("key", "value")).build());
+        converter.setWasmPluginInstanceToCr(cr, WasmPluginInstance.builder().scope(WasmPluginInstanceScope.ROUTE)
+            .target("route-c").configurations(Map.of("key", "value")).build());
+
+        List<String> keys = cr.getSpec().getMatchRules().stream()
+            .map(r -> r.getIngress() != null ? r.getIngress().get(0) : r.getDomain().get(0)).toList();
+        Assertions.assertEquals(
+            List.of("route-c", "route-b", "route-a", "a.higress.cn", "b.higress.cn", "c.higress.cn"), keys);
+    }
+
+    @Test
+    public void setWasmPluginInstanceToCrTestExistingRuleShouldBeUpdatedInPlace() {
+        V1alpha1WasmPlugin cr = new V1alpha1WasmPlugin();
+        V1alpha1WasmPluginSpec spec = new V1alpha1WasmPluginSpec();
+        List<MatchRule> matchRules =
+            new ArrayList<>(List.of(MatchRule.forIngress("route-a"), MatchRule.forDomain("a.higress.cn")));
+        spec.setMatchRules(matchRules);
+        cr.setSpec(spec);
+
+        converter.setWasmPluginInstanceToCr(cr, WasmPluginInstance.builder().scope(WasmPluginInstanceScope.ROUTE)
+            .target("route-a").enabled(false).configurations(Map.of("key", "value")).build());
+
+        Assertions.assertSame(matchRules, cr.getSpec().getMatchRules());
+        Assertions.assertEquals(2, matchRules.size());
+        Assertions.assertTrue(matchRules.get(0).getConfigDisable());
+        Assertions.assertEquals(Map.of("key", "value"), matchRules.get(0).getConfig());
+    }
+
+    @Test
+    public void compareMatchRulesTestDifferentIngresses() {
+        MatchRule ruleA = MatchRule.forIngress("route-a");
+        MatchRule ruleB = MatchRule.forIngress("route-b");
+        Assertions.assertTrue(MatchRuleIndex.compareMatchRules(ruleA, ruleB) < 0);
+        Assertions.assertTrue(MatchRuleIndex.compareMatchRules(ruleB, ruleA) > 0);
+        Assertions.assertEquals(0, MatchRuleIndex.compareMatchRules(ruleA, MatchRule.forIngress("route-a")));
+    }
+
+    @Test
+    public void removeWasmPluginInstanceFromCrTestSharedRuleShouldKeepOtherTargets() {
+        V1alpha1WasmPlugin cr = new V1alpha1WasmPlugin();
+        V1alpha1WasmPluginSpec spec = new V1alpha1WasmPluginSpec();
+        spec.setMatchRules(new ArrayList<>(List.of(MatchRule.forIngress("route-a"),
+            new MatchRule(false, Map.of("key", "value"), List.of("a.higress.cn", "b.higress.cn"), null))));
+        cr.setSpec(spec);
+
+        Assertions.assertTrue(
+            converter.removeWasmPluginInstanceFromCr(cr, WasmPluginInstanceScope.DOMAIN, "a.higress.cn"));
+        Assertions.assertTrue(converter.removeWasmPluginInstanceFromCr(cr, WasmPluginInstanceScope.ROUTE, "route-a"));
+        Assertions.assertFalse(converter.removeWasmPluginInstanceFromCr(cr, WasmPluginInstanceScope.ROUTE, "route-a"));
+
+        List<MatchRule> matchRules = cr.getSpec().getMatchRules();
+        Assertions.assertEquals(1, matchRules.size());
+        Assertions.assertEquals(List.of("b.higress.cn"), matchRules.get(0).getDomain());
+        cr.setMetadata(createMetadata("domain", "test-plugin", "v1"));
+        Assertions.assertNotNull(
+            converter.getWasmPluginInstanceFromCr(cr, WasmPluginInstanceScope.DOMAIN, "b.higress.cn"));
+    }
+
+    @Test
+    void removeWasmPluginInstancesFromCrTestMultipleTargets() {
+        V1alpha1WasmPlugin cr = new V1alpha1WasmPlugin();
+        V1alpha1WasmPluginSpec spec = new V1alpha1WasmPluginSpec();
+        spec.setMatchRules(new ArrayList<>(List.of(MatchRule.forIngress("route-a"), MatchRule.forIngress("route-b"),
+            new MatchRule(false, Map.of("key", "value"), null, List.of("route-c", "route-d")))));
+        cr.setSpec(spec);
+
+        Assertions.assertTrue(converter.removeWasmPluginInstancesFromCr(cr, WasmPluginInstanceScope.ROUTE,
+            List.of("route-a", "route-c", "route-x")));
+        Assertions.assertFalse(converter.removeWasmPluginInstancesFromCr(cr, WasmPluginInstanceScope.ROUTE,
+            List.of("route-a", "route-x")));
+
+        List<MatchRule> matchRules = cr.getSpec().getMatchRules();
+        Assertions.assertEquals(2, matchRules.size());
+        Assertions.assertEquals(List.of("route-b"), matchRules.get(0).getIngress());
+        Assertions.assertEquals(List.of("route-d"), matchRules.get(1).getIngress());
+    }
+
+    @Test
+    void removeWasmPluginInstancesFromCrTestGlobalScopeImmutableTargets() {
+        V1alpha1WasmPlugin cr = new V1alpha1WasmPlugin();
+        V1alpha1WasmPluginSpec spec = new V1alpha1WasmPluginSpec();
+        spec.setDefaultConfig(new HashMap<>(Map.of("key", "value")));
+        cr.setSpec(spec);
+
+        Assertions.assertFalse(
+            converter.removeWasmPluginInstancesFromCr(cr, WasmPluginInstanceScope.GLOBAL, List.of("route-a")));
+        Assertions.assertNotNull(cr.getSpec().getDefaultConfig());
+
+        Assertions.assertTrue(converter.removeWasmPluginInstancesFromCr(cr, WasmPluginInstanceScope.GLOBAL,
+            Collections.singletonList(null)));
+        Assertions.assertNull(cr.getSpec().getDefaultConfig());
+    }
+
+    @Test
+    void getWasmPluginInstancesFromCrTestAllTargets() {
+        V1alpha1WasmPlugin cr = new V1alpha1WasmPlugin();
+        cr.setMetadata(createMetadata("all", "test-plugin", "v1"));
+        V1alpha1WasmPluginSpec spec = new V1alpha1WasmPluginSpec();
+        spec.setDefaultConfigDisable(true);
+        spec.setMatchRules(new ArrayList<>(
+            List.of(new MatchRule(false, new HashMap<>(Map.of("key", "route")), null, List.of("route-a")),
+                new MatchRule(true, null, List.of("b.higress.cn"), null),
+                new MatchRule(false, new HashMap<>(Map.of("key", "domain")), List.of("a.higress.cn"), null))));
+        cr.setSpec(spec);
+
+        List<WasmPluginInstance> instances = converter.getWasmPluginInstancesFromCr(cr);
+
+        Assertions.assertEquals(2, instances.size());
+        Assertions.assertEquals(WasmPluginInstanceScope.DOMAIN, instances.get(0).getScope());
+        Assertions.assertEquals("a.higress.cn", instances.get(0).getTarget());
+        Assertions.assertEquals(WasmPluginInstanceScope.ROUTE, instances.get(1).getScope());
+        Assertions.assertEquals("route-a", instances.get(1).getTarget());
+        Assertions.assertEquals(Map.of("key", "route"), instances.get(1).getConfigurations());
+    }
+
     @Test
     public void v1RegistryConfig2ServiceSourceTestNacosType() {
         V1RegistryConfig v1RegistryConfig = new V1RegistryConfig();
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2022-2024 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.higress.sdk.service.kubernetes;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.alibaba.higress.sdk.http.HttpStatus;
+import com.alibaba.higress.sdk.service.kubernetes.KubernetesResourceWatcher.Listing;
+
+import io.kubernetes.client.openapi.models.V1ConfigMap;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import io.kubernetes.client.openapi.models.V1Status;
+import io.kubernetes.client.util.Watch;
+import io.kubernetes.client.util.Watchable;
+
+public class KubernetesResourceWatcherTest {
+
+    private final AtomicInteger lists = new AtomicInteger();
+    private final BlockingQueue<String> watchVersions = new LinkedBlockingQueue<>();
+    private final BlockingQueue<Watchable<V1ConfigMap>> watches = new LinkedBlockingQueue<>();
+    private final BlockingQueue<String> handled = new LinkedBlockingQueue<>();
+
+    private final KubernetesResourceWatcher<V1ConfigMap> watcher =
+        new KubernetesResourceWatcher<>("test", this::list, this::watch, new RecordingHandler(), 60, 10);
+
+    @AfterEach
+    public void tearDown() {
+        watcher.close();
+    }
+
+    @Test
+    public void startTestListThenWatchFromLastVersion() throws Exception {
+        watches.add(new FakeWatch(List.of(new Watch.Response<>("ADDED", configMap("b", "11")),
+            new Watch.Response<>("MODIFIED", configMap("a", "12")),
+            new Watch.Response<>("DELETED", configMap("b", "13")))));
+        watcher.start(null);
+
+        Assertions.assertEquals("reload:[a]", poll(handled));
+        Assertions.assertEquals("10", poll(watchVersions));
+        Assertions.assertEquals("changed:b@11", poll(handled));
+        Assertions.assertEquals("changed:a@12", poll(handled));
+        Assertions.assertEquals("deleted:b", poll(handled));
+        // The server ended the watch. A new one starts from the last version seen without listing again.
+        Assertions.assertEquals("13", poll(watchVersions));
+        Assertions.assertEquals(1, lists.get());
+    }
+
+    @Test
+    public void startTestGoneVersionRelisted() throws Exception {
+        V1Status gone = new V1Status().code(HttpStatus.GONE);
+        watches.add(new FakeWatch(List.of(new Watch.Response<>("ERROR", gone))));
+        watcher.start("5");
+
+        Assertions.assertEquals("5", poll(watchVersions));
+        Assertions.assertEquals("reload:[a]", poll(handled));
+        Assertions.assertEquals("10", poll(watchVersions));
+        Assertions.assertEquals(1, lists.get());
+    }
+
+    @Test
+    public void startTestWatchErrorRelisted() throws Exception {
+        watches.add(new FakeWatch(null));
+        watcher.start("5");
+
+        Assertions.assertEquals("5", poll(watchVersions));
+        Assertions.assertEquals("reload:[a]", poll(handled));
+        Assertions.assertEquals("10", poll(watchVersions));
+    }
+
+    @Test
+    public void requestReloadTestRelistedBeforeNextWatch() throws Exception {
+        watcher.start("5");
+        Assertions.assertEquals("5", poll(watchVersions));
+
+        // Requested while the watch is being created, so it is closed right after.
+        watcher.requestReload();
+        watches.add(new FakeWatch(List.of(new Watch.Response<>("ADDED", configMap("b", "6")))));
+        Assertions.assertEquals("reload:[a]", poll(handled));
+        Assertions.assertEquals("10", poll(watchVersions));
+        Assertions.assertEquals(1, lists.get());
+        // No event of the closed watch is handled.
+        watches.add(new FakeWatch(List.of()));
+        Assertions.assertEquals("10", poll(watchVersions));
+        Assertions.assertTrue(handled.isEmpty());
+    }
+
+    private Listing<V1ConfigMap> list() {
+        lists.incrementAndGet();
+        return Listing.of(List.of(configMap("a", "9")), "10");
+    }
+
+    private Watchable<V1ConfigMap> watch(String resourceVersion, int timeoutSeconds) {
+        watchVersions.add(resourceVersion);
+        try {
+            return watches.take();
+        } catch (InterruptedException e) {
+            // Closed by the test.
+            Thread.currentThread().interrupt();
+            return new FakeWatch(List.of());
+        }
+    }
+
+    private static String poll(BlockingQueue<String> queue) throws InterruptedException {
+        return queue.poll(5, TimeUnit.SECONDS);
+    }
+
+    private static V1ConfigMap configMap(String name, String resourceVersion) {
+        return new V1ConfigMap().metadata(new V1ObjectMeta().name(name).resourceVersion(resourceVersion));
+    }
+
+    private class RecordingHandler implements KubernetesResourceWatcher.Handler<V1ConfigMap> {
+
+        @Override
+        public void onReload(List<V1ConfigMap> resources) {
+            handled.add("reload:" + resources.stream().map(KubernetesUtil::getObjectName).collect(Collectors.toList()));
+        }
+
+        @Override
+        public void onChanged(V1ConfigMap resource) {
+            handled.add("changed:" + resource.getMetadata().getName() + "@"
+                + resource.getMetadata().getResourceVersion());
+        }
+
+        @Override
+        public void onDeleted(V1ConfigMap resource) {
+            handled.add("deleted:" + resource.getMetadata().getName());
+        }
+    }
+
+    /**
+     * Replays the given events, or fails on iteration if they are {@code null}.
+     */
+    private static class FakeWatch implements Watchable<V1ConfigMap> {
+
+        private final Iterator<Watch.Response<V1ConfigMap>> events;
+
+        private FakeWatch(List<Watch.Response<V1ConfigMap>> events) {
+            this.events = events != null ? events.iterator() : null;
+        }
+
+        @Override
+        public Iterator<Watch.Response<V1ConfigMap>> iterator() {
+            if (events == null) {
+                throw new IllegalStateException("Connection reset");
+            }
+            return this;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return events.hasNext();
+        }
+
+        @Override
+        public Watch.Response<V1ConfigMap> next() {
+            return events.next();
+        }
+
+        @Override
+        public void close() {}
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2022-2024 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.higress.sdk.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class VirtualThreadUtilTest {
+
+    @Test
+    public void isSupportedTestMatchesRuntimeVersion() {
+        Assertions.assertEquals(Runtime.version().feature() >= 21, VirtualThreadUtil.isSupported());
+    }
+
+    @Test
+    public void newThreadPerTaskExecutorTestUnsupported() {
+        if (VirtualThreadUtil.isSupported()) {
+            return;
+        }
+        Assertions.assertThrows(UnsupportedOperationException.class,
+            () -> VirtualThreadUtil.newThreadPerTaskExecutor("test-"));
+    }
+
+    @Test
+    public void newThreadPerTaskExecutorTestRunsOnNamedThreads() throws Exception {
+        if (!VirtualThreadUtil.isSupported()) {
+            return;
+        }
+        ExecutorService executor = VirtualThreadUtil.newThreadPerTaskExecutor("test-");
+        try {
+            String name = executor.submit(() -> Thread.currentThread().getName()).get(10, TimeUnit.SECONDS);
+            Assertions.assertTrue(name.startsWith("test-"), name);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
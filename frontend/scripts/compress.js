@@ -0,0 +1,55 @@
+/**
+ * Writes gzip and brotli variants next to the text assets in the build output, so the console can serve them as they
+ * are instead of compressing on every request. Variants that don't save anything are skipped.
+ */
+const fs = require('fs');
+const path = require('path');
+const zlib = require('zlib');
+
+const BUILD_DIR = path.resolve(__dirname, '../build');
+const COMPRESSIBLE_EXTENSIONS = ['.js', '.css', '.html', '.json', '.svg', '.txt'];
+const MIN_SIZE = 1024;
+
+const ENCODERS = {
+  '.gz': (data) => zlib.gzipSync(data, { level: zlib.constants.Z_BEST_COMPRESSION }),
+  '.br': (data) =>
+    zlib.brotliCompressSync(data, {
+      params: {
+        [zlib.constants.BROTLI_PARAM_MODE]: zlib.constants.BROTLI_MODE_TEXT,
+        [zlib.constants.BROTLI_PARAM_QUALITY]: zlib.constants.BROTLI_MAX_QUALITY,
+        [zlib.constants.BROTLI_PARAM_SIZE_HINT]: data.length,
+      },
+    }),
+};
+
+function compressDir(dir) {
+  let count = 0;
+  for (const entry of fs.readdirSync(dir, { withFileTypes: true })) {
+    const file = path.join(dir, entry.name);
+    if (entry.isDirectory()) {
+      count += compressDir(file);
+      continue;
+    }
+    if (!COMPRESSIBLE_EXTENSIONS.includes(path.extname(entry.name))) {
+      continue;
+    }
+    const data = fs.readFileSync(file);
+    if (data.length < MIN_SIZE) {
+      continue;
+    }
+    for (const [extension, encode] of Object.entries(ENCODERS)) {
+      const encoded = encode(data);
+      if (encoded.length < data.length) {
+        fs.writeFileSync(file + extension, encoded);
+        count++;
+      }
+    }
+  }
+  return count;
+}
+
+if (!fs.existsSync(BUILD_DIR)) {
+  console.error(`Build output not found: ${BUILD_DIR}`);
+  process.exit(1);
+}
+console.log(`Wrote ${compressDir(BUILD_DIR)} precompressed assets.`);
@@ -3,6 +3,7 @@ export interface Service {
   namespace: string;
   port?: number;
   endpoints: string[];
+  endpointCount?: number;
   [propName: string]: any;
 }
 
@@ -33,8 +33,12 @@ const ServiceList: React.FC = () => {
       dataIndex: 'endpoints',
       key: 'endpoints',
       ellipsis: true,
-      render: (value) => {
-        return value && value.join(', ') || '-';
+      render: (value, record) => {
+        if (!value || !value.length) {
+          return '-';
+        }
+        const more = (record.endpointCount || 0) - value.length;
+        return more > 0 ? `${value.join(', ')} (+${more})` : value.join(', ');
       },
     },
   ];